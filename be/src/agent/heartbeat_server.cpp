@@ -30,8 +30,11 @@
 
 #include "agent/master_info.h"
 #include "common/status.h"
+#include "exec/pipeline/query_context.h"
 #include "gen_cpp/HeartbeatService.h"
+#include "runtime/exec_env.h"
 #include "runtime/heartbeat_flags.h"
+#include "runtime/mem_tracker.h"
 #include "service/backend_options.h"
 #include "storage/storage_engine.h"
 #include "util/debug_util.h"
@@ -111,6 +114,16 @@ void HeartbeatServer::heartbeat(THeartbeatResult& heartbeat_result, const TMaste
             reboot_time = static_cast<int64_t>(currTime);
         }
         heartbeat_result.backend_info.__set_reboot_time(reboot_time);
+
+        // report the load of this backend, used by the query queue of frontend to admit queries
+        auto* exec_env = ExecEnv::GetInstance();
+        if (exec_env->process_mem_tracker() != nullptr) {
+            heartbeat_result.backend_info.__set_mem_used_bytes(exec_env->process_mem_tracker()->consumption());
+            heartbeat_result.backend_info.__set_mem_limit_bytes(exec_env->process_mem_tracker()->limit());
+        }
+        if (exec_env->query_context_mgr() != nullptr) {
+            heartbeat_result.backend_info.__set_num_running_queries(exec_env->query_context_mgr()->size());
+        }
     }
 }
 
@@ -731,6 +731,10 @@ CONF_Int32(io_coalesce_read_max_distance_size, "1048576");
 
 CONF_Int32(connector_io_tasks_per_scan_operator, "16");
 
+// Read the parquet file slices of hudi tables with the columnar reader instead of InputFormat and SerDe.
+// Merge-on-read slices are read columnarly only for OverwriteWithLatestAvroPayload.
+CONF_mBool(hudi_columnar_reader_enable, "false");
+
 // Enable output trace logs in aws-sdk-cpp for diagnosis purpose.
 // Once logging is enabled in your application, the SDK will generate log files in your current working directory
 // following the default naming pattern of aws_sdk_<date>.log.
@@ -2,6 +2,7 @@
 
 #include "connector/hive_connector.h"
 
+#include "common/config.h"
 #include "exec/exec_node.h"
 #include "exec/vectorized/hdfs_scanner_orc.h"
 #include "exec/vectorized/hdfs_scanner_parquet.h"
@@ -315,6 +316,7 @@ Status HiveDataSource::_init_scanner(RuntimeState* state) {
         jni_scanner_params["data_file_length"] = std::to_string(scan_range.file_length);
         jni_scanner_params["serde"] = hudi_table->get_serde_lib();
         jni_scanner_params["input_format"] = hudi_table->get_input_format();
+        jni_scanner_params["use_columnar_reader"] = config::hudi_columnar_reader_enable ? "true" : "false";
 
         std::string scanner_factory_class = "com/starrocks/hudi/reader/HudiSliceScannerFactory";
 
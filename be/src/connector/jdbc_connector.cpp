@@ -61,7 +61,11 @@ static std::string get_jdbc_sql(const Slice jdbc_url, const std::string& table,
 }
 
 JDBCDataSource::JDBCDataSource(const JDBCDataSourceProvider* provider, const TScanRange& scan_range)
-        : _provider(provider) {}
+        : _provider(provider) {
+    if (scan_range.__isset.jdbc_scan_range) {
+        _split_filters = scan_range.jdbc_scan_range.filters;
+    }
+}
 
 Status JDBCDataSource::open(RuntimeState* state) {
     const TJDBCScanNode& jdbc_scan_node = _provider->_jdbc_scan_node;
@@ -129,8 +133,10 @@ Status JDBCDataSource::_create_scanner(RuntimeState* state) {
     scan_ctx.jdbc_url = jdbc_table->jdbc_url();
     scan_ctx.user = jdbc_table->jdbc_user();
     scan_ctx.passwd = jdbc_table->jdbc_passwd();
-    scan_ctx.sql = get_jdbc_sql(scan_ctx.jdbc_url, jdbc_table->jdbc_table(), jdbc_scan_node.columns,
-                                jdbc_scan_node.filters, _read_limit);
+    std::vector<std::string> filters = jdbc_scan_node.filters;
+    filters.insert(filters.end(), _split_filters.begin(), _split_filters.end());
+    scan_ctx.sql = get_jdbc_sql(scan_ctx.jdbc_url, jdbc_table->jdbc_table(), jdbc_scan_node.columns, filters,
+                                _read_limit);
     _scanner = _pool->add(new vectorized::JDBCScanner(scan_ctx, _tuple_desc, _runtime_profile));
 
     RETURN_IF_ERROR(_scanner->open(state));
@@ -63,6 +63,8 @@ private:
     ObjectPool* _pool = &_obj_pool;
     RuntimeState* _runtime_state = nullptr;
     vectorized::JDBCScanner* _scanner = nullptr;
+    // predicates of the split read by this data source, empty if the table is not split
+    std::vector<std::string> _split_filters;
     int64_t _rows_read = 0;
     int64_t _bytes_read = 0;
 };
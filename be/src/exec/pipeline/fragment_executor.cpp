@@ -19,6 +19,7 @@
 #include "exec/pipeline/scan/scan_operator.h"
 #include "exec/scan_node.h"
 #include "exec/tablet_sink.h"
+#include "exec/vectorized/connector_scan_node.h"
 #include "exec/vectorized/cross_join_node.h"
 #include "exec/vectorized/olap_scan_node.h"
 #include "exec/workgroup/work_group.h"
@@ -310,6 +311,10 @@ Status FragmentExecutor::_prepare_exec_plan(ExecEnv* exec_env, const UnifiedExec
         const std::vector<TScanRangeParams>& scan_ranges = request.scan_ranges_of_node(scan_node->id());
         const auto& scan_ranges_per_driver_seq = request.per_driver_seq_scan_ranges_of_node(scan_node->id());
 
+        if (auto* connector_scan = dynamic_cast<vectorized::ConnectorScanNode*>(scan_node)) {
+            connector_scan->set_fe_addr(_fragment_ctx->fe_addr());
+        }
+
         ASSIGN_OR_RETURN(auto morsel_queue_factory,
                          scan_node->convert_scan_range_to_morsel_queue_factory(
                                  scan_ranges, scan_ranges_per_driver_seq, scan_node->id(), dop,
@@ -87,6 +87,61 @@ StatusOr<MorselPtr> FixedMorselQueue::try_get() {
     }
 }
 
+StatusOr<MorselPtr> DynamicMorselQueue::try_get() {
+    MorselPtr morsel;
+    bool need_fetch = false;
+    {
+        std::lock_guard lock(_state->mutex);
+        if (!_state->status.ok()) {
+            _state->empty = true;
+            return _state->status;
+        }
+        if (!_state->morsels.empty()) {
+            morsel = std::move(_state->morsels.front());
+            _state->morsels.pop_front();
+        }
+        need_fetch = _state->has_more && !_state->fetching && _state->morsels.size() <= _degree_of_parallelism;
+        _state->fetching |= need_fetch;
+        _state->empty = _state->morsels.empty() && !_state->has_more;
+        _state->update_ready();
+    }
+    // The executor may run the task in place, so it's submitted without the lock.
+    if (need_fetch) {
+        _fetch_async();
+    }
+    return morsel;
+}
+
+void DynamicMorselQueue::_fetch_async() {
+    auto task = [state = _state, fetcher = _fetcher, plan_node_id = _plan_node_id]() {
+        std::vector<TScanRangeParams> scan_ranges;
+        bool has_more = false;
+        auto status = fetcher(&scan_ranges, &has_more);
+
+        std::lock_guard lock(state->mutex);
+        state->fetching = false;
+        if (!status.ok()) {
+            // The error is returned by the next try_get.
+            state->status = status;
+            state->has_more = false;
+            state->update_ready();
+            return;
+        }
+        for (const auto& scan_range : scan_ranges) {
+            state->morsels.emplace_back(std::make_unique<ScanMorsel>(plan_node_id, scan_range));
+        }
+        state->has_more = has_more;
+        state->empty = state->morsels.empty() && !state->has_more;
+        state->update_ready();
+    };
+    if (!_executor(std::move(task))) {
+        // The executor is busy, fetch again at the next try_get.
+        std::lock_guard lock(_state->mutex);
+        _state->fetching = false;
+        _state->update_ready();
+    }
+}
+
 std::vector<TInternalScanRange*> PhysicalSplitMorselQueue::olap_scan_ranges() const {
     return _convert_morsels_to_olap_scan_ranges(_morsels);
 }
@@ -2,6 +2,8 @@
 
 #pragma once
 
+#include <deque>
+#include <functional>
 #include <optional>
 
 #include "gen_cpp/InternalService_types.h"
@@ -170,6 +172,9 @@ public:
     virtual size_t num_original_morsels() const = 0;
     virtual size_t max_degree_of_parallelism() const = 0;
     virtual bool empty() const = 0;
+    // Whether try_get may return a morsel or an error now. It's false while the queue waits for the morsels
+    // which are being fetched, so the scan operator doesn't call try_get over and over again.
+    virtual bool has_ready_morsel() const { return !empty(); }
     virtual StatusOr<MorselPtr> try_get() = 0;
 
     virtual std::string name() const = 0;
@@ -197,6 +202,66 @@ private:
     std::atomic<size_t> _pop_index;
 };
 
+// The morsel queue whose morsels are fetched in batches while the scan is running, besides the ones
+// in the constructor. The next batch is fetched asynchronously by the executor, once the queue has no
+// more morsels than the degree of parallelism, so the scan operators don't wait for the fetching and
+// the morsels are still produced only a batch ahead of the consumption.
+class DynamicMorselQueue final : public MorselQueue {
+public:
+    // Fetch the next scan ranges, has_more is set to false if there are no more scan ranges.
+    using Fetcher = std::function<Status(std::vector<TScanRangeParams>* scan_ranges, bool* has_more)>;
+    // Run the task asynchronously, return false if the task can't be accepted now.
+    using Executor = std::function<bool(std::function<void()> task)>;
+
+    DynamicMorselQueue(Morsels&& morsels, int32_t plan_node_id, Fetcher fetcher, Executor executor,
+                       size_t degree_of_parallelism)
+            : _state(std::make_shared<State>()),
+              _num_original_morsels(morsels.size()),
+              _plan_node_id(plan_node_id),
+              _fetcher(std::move(fetcher)),
+              _executor(std::move(executor)),
+              _degree_of_parallelism(degree_of_parallelism) {
+        _state->morsels.insert(_state->morsels.end(), std::make_move_iterator(morsels.begin()),
+                               std::make_move_iterator(morsels.end()));
+    }
+    ~DynamicMorselQueue() override = default;
+
+    std::vector<TInternalScanRange*> olap_scan_ranges() const override { return {}; }
+
+    size_t num_original_morsels() const override { return _num_original_morsels; }
+    size_t max_degree_of_parallelism() const override { return _degree_of_parallelism; }
+    bool empty() const override { return _state->empty; }
+    bool has_ready_morsel() const override { return _state->ready; }
+    StatusOr<MorselPtr> try_get() override;
+
+    std::string name() const override { return "dynamic_morsel_queue"; }
+
+private:
+    // The state shared with the fetching task, which may outlive the queue.
+    struct State {
+        std::mutex mutex;
+        std::deque<MorselPtr> morsels;
+        bool has_more = true;
+        bool fetching = false;
+        Status status;
+        std::atomic<bool> empty = false;
+        // There are morsels or an error to return, or a fetch to submit.
+        std::atomic<bool> ready = true;
+
+        // Called with the mutex.
+        void update_ready() { ready = !morsels.empty() || !status.ok() || (has_more && !fetching); }
+    };
+
+    void _fetch_async();
+
+    std::shared_ptr<State> _state;
+    const size_t _num_original_morsels;
+    const int32_t _plan_node_id;
+    Fetcher _fetcher;
+    Executor _executor;
+    const size_t _degree_of_parallelism;
+};
+
 class PhysicalSplitMorselQueue final : public MorselQueue {
 public:
     explicit PhysicalSplitMorselQueue(Morsels&& morsels, int64_t degree_of_parallelism, int64_t splitted_scan_rows)
@@ -66,12 +66,13 @@ Status OlapScanPrepareOperator::_capture_tablet_rowsets() {
         auto* scan_range = olap_scan_ranges[i];
 
         int64_t version = strtoul(scan_range->version.c_str(), nullptr, 10);
+        int64_t start_version = scan_range->__isset.start_version ? scan_range->start_version : 0;
         ASSIGN_OR_RETURN(TabletSharedPtr tablet, vectorized::OlapScanNode::get_tablet(scan_range));
 
         // Capture row sets of this version tablet.
         {
             std::shared_lock l(tablet->get_header_lock());
-            RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(0, version), &_tablet_rowsets[i]));
+            RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(start_version, version), &_tablet_rowsets[i]));
         }
 
         _tablets[i] = std::move(tablet);
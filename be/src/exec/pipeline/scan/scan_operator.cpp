@@ -131,7 +131,7 @@ bool ScanOperator::has_output() const {
     }
 
     // Can pick up more morsels or submit more tasks
-    if (!_morsel_queue->empty()) {
+    if (_morsel_queue->has_ready_morsel()) {
         return true;
     }
     for (int i = 0; i < _io_tasks_per_scan_operator; ++i) {
@@ -8,9 +8,12 @@
 #include "common/config.h"
 #include "exec/pipeline/scan/chunk_buffer_limiter.h"
 #include "exec/pipeline/scan/connector_scan_operator.h"
+#include "gen_cpp/FrontendService.h"
+#include "runtime/client_cache.h"
 #include "runtime/current_thread.h"
 #include "runtime/exec_env.h"
 #include "util/priority_thread_pool.hpp"
+#include "util/thrift_rpc_helper.h"
 
 namespace starrocks::vectorized {
 
@@ -127,9 +130,51 @@ ConnectorScanNode::~ConnectorScanNode() {
 
 Status ConnectorScanNode::init(const TPlanNode& tnode, RuntimeState* state) {
     RETURN_IF_ERROR(ScanNode::init(tnode, state));
+    _has_more_scan_ranges = tnode.__isset.hdfs_scan_node && tnode.hdfs_scan_node.__isset.has_more_scan_ranges &&
+                            tnode.hdfs_scan_node.has_more_scan_ranges;
+    _query_id = state->query_id();
+    _fragment_instance_id = state->fragment_instance_id();
     return Status::OK();
 }
 
+StatusOr<pipeline::MorselQueuePtr> ConnectorScanNode::convert_scan_range_to_morsel_queue(
+        const std::vector<TScanRangeParams>& scan_ranges, int node_id, int32_t pipeline_dop,
+        bool enable_tablet_internal_parallel, TTabletInternalParallelMode::type tablet_internal_parallel_mode,
+        size_t num_total_scan_ranges) {
+    if (!_has_more_scan_ranges) {
+        return ScanNode::convert_scan_range_to_morsel_queue(scan_ranges, node_id, pipeline_dop,
+                                                            enable_tablet_internal_parallel,
+                                                            tablet_internal_parallel_mode, num_total_scan_ranges);
+    }
+
+    pipeline::Morsels morsels;
+    for (const auto& scan_range : scan_ranges) {
+        morsels.emplace_back(std::make_unique<pipeline::ScanMorsel>(node_id, scan_range));
+    }
+
+    TGetScanRangesParams params;
+    params.__set_query_id(_query_id);
+    params.__set_fragment_instance_id(_fragment_instance_id);
+    params.__set_plan_node_id(node_id);
+    auto fetcher = [params, fe_addr = _fe_addr](std::vector<TScanRangeParams>* next_scan_ranges,
+                                                bool* has_more) -> Status {
+        TGetScanRangesResult result;
+        RETURN_IF_ERROR(ThriftRpcHelper::rpc<FrontendServiceClient>(
+                fe_addr.hostname, fe_addr.port,
+                [&params, &result](FrontendServiceConnection& client) { client->getScanRanges(result, params); }));
+        RETURN_IF_ERROR(Status(result.status));
+        *next_scan_ranges = std::move(result.scan_ranges);
+        *has_more = result.__isset.has_more && result.has_more;
+        return Status::OK();
+    };
+    // The rpc to the coordinator may be slow, so it's not called in the pipeline driver threads.
+    auto executor = [](std::function<void()> task) {
+        return ExecEnv::GetInstance()->thread_pool()->try_offer(std::move(task));
+    };
+    return std::make_unique<pipeline::DynamicMorselQueue>(std::move(morsels), node_id, std::move(fetcher),
+                                                          std::move(executor), pipeline_dop);
+}
+
 pipeline::OpFactories ConnectorScanNode::decompose_to_pipeline(pipeline::PipelineBuilderContext* context) {
     size_t dop = context->dop_of_source_operator(id());
     auto scan_op = std::make_shared<pipeline::ConnectorScanOperatorFactory>(
@@ -38,11 +38,26 @@ public:
 
     int io_tasks_per_scan_operator() const override;
 
+    StatusOr<pipeline::MorselQueuePtr> convert_scan_range_to_morsel_queue(
+            const std::vector<TScanRangeParams>& scan_ranges, int node_id, int32_t pipeline_dop,
+            bool enable_tablet_internal_parallel, TTabletInternalParallelMode::type tablet_internal_parallel_mode,
+            size_t num_total_scan_ranges) override;
+
+    // The address of the coordinator, which the rest scan ranges are fetched from.
+    void set_fe_addr(const TNetworkAddress& fe_addr) { _fe_addr = fe_addr; }
+
 private:
     RuntimeState* _runtime_state = nullptr;
     connector::DataSourceProviderPtr _data_source_provider = nullptr;
     connector::ConnectorType _connector_type;
 
+    // Whether the scan ranges in the plan fragment are only the first ones,
+    // and the rest are fetched from the coordinator while scanning.
+    bool _has_more_scan_ranges = false;
+    TUniqueId _query_id;
+    TUniqueId _fragment_instance_id;
+    TNetworkAddress _fe_addr;
+
     // non-pipeline methods.
     void _init_counter();
     Status _start_scan_thread(RuntimeState* state);
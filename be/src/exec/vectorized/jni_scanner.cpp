@@ -2,9 +2,11 @@
 
 #include "jni_scanner.h"
 
+#include "column/array_column.h"
 #include "column/type_traits.h"
 #include "fmt/core.h"
 #include "udf/java/java_udf.h"
+#include "util/decimal_types.h"
 #include "util/defer_op.h"
 
 namespace starrocks::vectorized {
@@ -40,6 +42,9 @@ Status JniScanner::do_open(RuntimeState* state) {
 
 void JniScanner::do_close(RuntimeState* runtime_state) noexcept {
     JNIEnv* _jni_env = JVMFunctionHelper::getInstance().getEnv();
+    // the off-heap table is reused between batches, free it before closing the scanner
+    _jni_env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_free_table);
+    _check_jni_exception(_jni_env, "Failed to free the off-heap table.");
     _jni_env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_close);
     _check_jni_exception(_jni_env, "Failed to close the off-heap table scanner.");
     _jni_env->DeleteLocalRef(_jni_scanner_obj);
@@ -53,6 +58,7 @@ void JniScanner::_init_profile(const HdfsScannerParams& scanner_params) {
     _profile.io_counter = ADD_COUNTER(_runtime_profile, "JniScannerIOCounter", TUnit::UNIT);
     _profile.fill_chunk_timer = ADD_TIMER(_runtime_profile, "JniScannerFillChunkTime");
     _profile.open_timer = ADD_TIMER(_runtime_profile, "JniScannerOpenTime");
+    _profile.off_heap_memory_bytes = ADD_COUNTER(_runtime_profile, "JniScannerOffHeapMemoryBytes", TUnit::BYTES);
 }
 
 Status JniScanner::_init_jni_method(JNIEnv* _jni_env) {
@@ -67,6 +73,10 @@ Status JniScanner::_init_jni_method(JNIEnv* _jni_env) {
     DCHECK(_jni_scanner_release_column != nullptr);
     _jni_scanner_release_table = _jni_env->GetMethodID(_jni_scanner_cls, "releaseOffHeapTable", "()V");
     DCHECK(_jni_scanner_release_table != nullptr);
+    _jni_scanner_free_table = _jni_env->GetMethodID(_jni_scanner_cls, "freeOffHeapTable", "()V");
+    DCHECK(_jni_scanner_free_table != nullptr);
+    _jni_scanner_get_memory_bytes = _jni_env->GetMethodID(_jni_scanner_cls, "getOffHeapMemoryBytes", "()J");
+    DCHECK(_jni_scanner_get_memory_bytes != nullptr);
     RETURN_IF_ERROR(_check_jni_exception(_jni_env, "Failed to init off-heap table jni methods."));
 
     return Status::OK();
@@ -170,24 +180,25 @@ Status JniScanner::_append_primitive_data(long num_rows, long* chunk_meta_ptr, i
 
 template <PrimitiveType type, typename CppType>
 Status JniScanner::_append_decimal_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
-                                        SlotDescriptor* slot_desc) {
+                                        const TypeDescriptor& type_desc, const std::string& col_name) {
     bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
-    int* offset_ptr = reinterpret_cast<int*>(chunk_meta_ptr[chunk_meta_index++]);
-    char* column_ptr = reinterpret_cast<char*>(chunk_meta_ptr[chunk_meta_index++]);
+    // the unscaled values are already in the scale of the column
+    int128_t* column_ptr = reinterpret_cast<int128_t*>(chunk_meta_ptr[chunk_meta_index++]);
 
-    int precision = slot_desc->type().precision;
-    int scale = slot_desc->type().scale;
+    int precision = type_desc.precision;
+    int128_t max_value = get_max_decimal<int128_t>(precision);
+    int128_t min_value = get_min_decimal<int128_t>(precision);
     for (int i = 0; i < num_rows; i++) {
         if (null_column_ptr[i]) {
             column->append_nulls(1);
         } else {
-            std::string decimal_str(column_ptr + offset_ptr[i], column_ptr + offset_ptr[i + 1]);
-            CppType cpp_val;
-            if (DecimalV3Cast::from_string<CppType>(&cpp_val, precision, scale, decimal_str.data(),
-                                                    decimal_str.size())) {
-                return Status::DataQualityError(fmt::format("Invalid value occurs in column[{}], value is [{}]",
-                                                            slot_desc->col_name(), decimal_str));
+            int128_t value;
+            memcpy(&value, column_ptr + i, sizeof(int128_t));
+            if (value > max_value || value < min_value) {
+                return Status::DataQualityError(fmt::format("Decimal value overflows column[{}] of precision {}",
+                                                            col_name, precision));
             }
+            CppType cpp_val = static_cast<CppType>(value);
             _append_data<type, CppType>(column.get(), cpp_val);
         }
     }
@@ -220,6 +231,122 @@ Status JniScanner::_append_string_data(long num_rows, long* chunk_meta_ptr, int&
     return Status::OK();
 }
 
+Status JniScanner::_append_date_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                                     const std::string& col_name) {
+    bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
+    int* offset_ptr = reinterpret_cast<int*>(chunk_meta_ptr[chunk_meta_index++]);
+    char* column_ptr = reinterpret_cast<char*>(chunk_meta_ptr[chunk_meta_index++]);
+    for (int i = 0; i < num_rows; i++) {
+        if (null_column_ptr[i]) {
+            column->append_nulls(1);
+        } else {
+            std::string date_str(column_ptr + offset_ptr[i], column_ptr + offset_ptr[i + 1]);
+            DateValue dv;
+            if (!dv.from_string(date_str.c_str(), date_str.size())) {
+                return Status::DataQualityError(fmt::format("Invalid date value occurs on column[{}], value is [{}]",
+                                                            col_name, date_str));
+            }
+            _append_data<TYPE_DATE, DateValue>(column.get(), dv);
+        }
+    }
+    return Status::OK();
+}
+
+Status JniScanner::_append_datetime_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index,
+                                         ColumnPtr& column, const std::string& col_name) {
+    bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
+    int* offset_ptr = reinterpret_cast<int*>(chunk_meta_ptr[chunk_meta_index++]);
+    char* column_ptr = reinterpret_cast<char*>(chunk_meta_ptr[chunk_meta_index++]);
+    for (int i = 0; i < num_rows; i++) {
+        if (null_column_ptr[i]) {
+            column->append_nulls(1);
+        } else {
+            std::string origin_str(column_ptr + offset_ptr[i], column_ptr + offset_ptr[i + 1]);
+            std::string datetime_str = origin_str.substr(0, origin_str.find('.'));
+            TimestampValue tsv;
+            if (!tsv.from_datetime_format_str(datetime_str.c_str(), datetime_str.size(), "%Y-%m-%d %H:%i:%s")) {
+                return Status::DataQualityError(fmt::format(
+                        "Invalid datetime value occurs on column[{}], value is [{}]", col_name, origin_str));
+            }
+            _append_data<TYPE_DATETIME, TimestampValue>(column.get(), tsv);
+        }
+    }
+    return Status::OK();
+}
+
+Status JniScanner::_append_array_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                                      const TypeDescriptor& type_desc, const std::string& col_name) {
+    bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
+    uint32_t* offset_ptr = reinterpret_cast<uint32_t*>(chunk_meta_ptr[chunk_meta_index++]);
+
+    auto* nullable_column = down_cast<NullableColumn*>(column.get());
+    NullData& null_data = nullable_column->null_column_data();
+    null_data.resize(num_rows);
+    memcpy(null_data.data(), null_column_ptr, num_rows);
+
+    auto* array_column = down_cast<ArrayColumn*>(nullable_column->data_column().get());
+    auto& offsets = array_column->offsets_column()->get_data();
+    offsets.resize(num_rows + 1);
+    memcpy(offsets.data(), offset_ptr, (num_rows + 1) * sizeof(uint32_t));
+
+    // elements of all rows are stored continuously in the child column
+    long num_elements = offset_ptr[num_rows];
+    RETURN_IF_ERROR(_fill_column(num_elements, chunk_meta_ptr, chunk_meta_index, array_column->elements_column(),
+                                 type_desc.children[0], col_name));
+
+    nullable_column->update_has_null();
+    return Status::OK();
+}
+
+Status JniScanner::_fill_column(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                                const TypeDescriptor& type_desc, const std::string& col_name) {
+    PrimitiveType column_type = type_desc.type;
+    if (column_type == PrimitiveType::TYPE_BOOLEAN) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_BOOLEAN, uint8_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_TINYINT) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_TINYINT, int8_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_SMALLINT) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_SMALLINT, int16_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_INT) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_INT, int32_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_FLOAT) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_FLOAT, float>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_BIGINT) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_BIGINT, int64_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_DOUBLE) {
+        RETURN_IF_ERROR(
+                (_append_primitive_data<TYPE_DOUBLE, double>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_VARCHAR) {
+        RETURN_IF_ERROR((_append_string_data<TYPE_VARCHAR>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_CHAR) {
+        RETURN_IF_ERROR((_append_string_data<TYPE_CHAR>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
+    } else if (column_type == PrimitiveType::TYPE_DATE) {
+        RETURN_IF_ERROR(_append_date_data(num_rows, chunk_meta_ptr, chunk_meta_index, column, col_name));
+    } else if (column_type == PrimitiveType::TYPE_DATETIME) {
+        RETURN_IF_ERROR(_append_datetime_data(num_rows, chunk_meta_ptr, chunk_meta_index, column, col_name));
+    } else if (column_type == PrimitiveType::TYPE_DECIMAL32) {
+        RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL32, int32_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
+                                                                       column, type_desc, col_name)));
+    } else if (column_type == PrimitiveType::TYPE_DECIMAL64) {
+        RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL64, int64_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
+                                                                       column, type_desc, col_name)));
+    } else if (column_type == PrimitiveType::TYPE_DECIMAL128) {
+        RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL128, int128_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
+                                                                         column, type_desc, col_name)));
+    } else if (column_type == PrimitiveType::TYPE_ARRAY) {
+        RETURN_IF_ERROR(_append_array_data(num_rows, chunk_meta_ptr, chunk_meta_index, column, type_desc, col_name));
+    } else {
+        return Status::InternalError(fmt::format("Type {} is not supported for off-heap table scanner", column_type));
+    }
+    return Status::OK();
+}
+
 Status JniScanner::_fill_chunk(JNIEnv* _jni_env, long chunk_meta, ChunkPtr* chunk) {
     SCOPED_TIMER(_profile.fill_chunk_timer);
 
@@ -234,83 +361,12 @@ Status JniScanner::_fill_chunk(JNIEnv* _jni_env, long chunk_meta, ChunkPtr* chun
     for (size_t col_idx = 0; col_idx < slot_desc_list.size(); col_idx++) {
         SlotDescriptor* slot_desc = slot_desc_list[col_idx];
         ColumnPtr& column = (*chunk)->get_column_by_slot_id(slot_desc->id());
-        PrimitiveType column_type = slot_desc->type().type;
         if (!column->is_nullable()) {
             return Status::DataQualityError(
                     fmt::format("NOT NULL column[{}] is not supported.", slot_desc->col_name()));
         }
-        if (column_type == PrimitiveType::TYPE_BOOLEAN) {
-            RETURN_IF_ERROR((
-                    _append_primitive_data<TYPE_BOOLEAN, uint8_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_SMALLINT) {
-            RETURN_IF_ERROR((_append_primitive_data<TYPE_SMALLINT, int16_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
-                                                                            column)));
-        } else if (column_type == PrimitiveType::TYPE_INT) {
-            RETURN_IF_ERROR(
-                    (_append_primitive_data<TYPE_INT, int32_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_FLOAT) {
-            RETURN_IF_ERROR(
-                    (_append_primitive_data<TYPE_FLOAT, float>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_BIGINT) {
-            RETURN_IF_ERROR(
-                    (_append_primitive_data<TYPE_BIGINT, int64_t>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_DOUBLE) {
-            RETURN_IF_ERROR(
-                    (_append_primitive_data<TYPE_DOUBLE, double>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_VARCHAR) {
-            RETURN_IF_ERROR((_append_string_data<TYPE_VARCHAR>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_CHAR) {
-            RETURN_IF_ERROR((_append_string_data<TYPE_CHAR>(num_rows, chunk_meta_ptr, chunk_meta_index, column)));
-        } else if (column_type == PrimitiveType::TYPE_DATE) {
-            bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
-            int* offset_ptr = reinterpret_cast<int*>(chunk_meta_ptr[chunk_meta_index++]);
-            char* column_ptr = reinterpret_cast<char*>(chunk_meta_ptr[chunk_meta_index++]);
-            for (int i = 0; i < num_rows; i++) {
-                if (null_column_ptr[i]) {
-                    column->append_nulls(1);
-                } else {
-                    std::string date_str(column_ptr + offset_ptr[i], column_ptr + offset_ptr[i + 1]);
-                    DateValue dv;
-                    if (!dv.from_string(date_str.c_str(), date_str.size())) {
-                        return Status::DataQualityError(
-                                fmt::format("Invalid date value occurs on column[{}], value is [{}]",
-                                            slot_desc->col_name(), date_str));
-                    }
-                    _append_data<TYPE_DATE, DateValue>(column.get(), dv);
-                }
-            }
-        } else if (column_type == PrimitiveType::TYPE_DATETIME) {
-            bool* null_column_ptr = reinterpret_cast<bool*>(chunk_meta_ptr[chunk_meta_index++]);
-            int* offset_ptr = reinterpret_cast<int*>(chunk_meta_ptr[chunk_meta_index++]);
-            char* column_ptr = reinterpret_cast<char*>(chunk_meta_ptr[chunk_meta_index++]);
-            for (int i = 0; i < num_rows; i++) {
-                if (null_column_ptr[i]) {
-                    column->append_nulls(1);
-                } else {
-                    std::string origin_str(column_ptr + offset_ptr[i], column_ptr + offset_ptr[i + 1]);
-                    std::string datetime_str = origin_str.substr(0, origin_str.find('.'));
-                    TimestampValue tsv;
-                    if (!tsv.from_datetime_format_str(datetime_str.c_str(), datetime_str.size(), "%Y-%m-%d %H:%i:%s")) {
-                        return Status::DataQualityError(
-                                fmt::format("Invalid datetime value occurs on column[{}], value is [{}]",
-                                            slot_desc->col_name(), origin_str));
-                    }
-                    _append_data<TYPE_DATETIME, TimestampValue>(column.get(), tsv);
-                }
-            }
-        } else if (column_type == PrimitiveType::TYPE_DECIMAL32) {
-            RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL32, int32_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
-                                                                           column, slot_desc)));
-        } else if (column_type == PrimitiveType::TYPE_DECIMAL64) {
-            RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL64, int64_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
-                                                                           column, slot_desc)));
-        } else if (column_type == PrimitiveType::TYPE_DECIMAL128) {
-            RETURN_IF_ERROR((_append_decimal_data<TYPE_DECIMAL128, int128_t>(num_rows, chunk_meta_ptr, chunk_meta_index,
-                                                                             column, slot_desc)));
-        } else {
-            return Status::InternalError(
-                    fmt::format("Type {} is not supported for off-heap table scanner", column_type));
-        }
+        RETURN_IF_ERROR(_fill_column(num_rows, chunk_meta_ptr, chunk_meta_index, column, slot_desc->type(),
+                                     slot_desc->col_name()));
         _jni_env->CallVoidMethod(_jni_scanner_obj, _jni_scanner_release_column, col_idx);
         RETURN_IF_ERROR(_check_jni_exception(
                 _jni_env, "Failed to call the releaseOffHeapColumnVector method of off-heap table scanner."));
@@ -328,10 +384,20 @@ Status JniScanner::_release_off_heap_table(JNIEnv* _jni_env) {
     return Status::OK();
 }
 
+void JniScanner::_update_off_heap_memory_counter(JNIEnv* _jni_env) {
+    jlong bytes = _jni_env->CallLongMethod(_jni_scanner_obj, _jni_scanner_get_memory_bytes);
+    if (_check_jni_exception(_jni_env, "Failed to get the off-heap memory bytes.").ok() &&
+        bytes > _profile.off_heap_memory_bytes->value()) {
+        COUNTER_SET(_profile.off_heap_memory_bytes, bytes);
+    }
+}
+
 Status JniScanner::do_get_next(RuntimeState* runtime_state, ChunkPtr* chunk) {
     JNIEnv* _jni_env = JVMFunctionHelper::getInstance().getEnv();
     long chunk_meta;
     RETURN_IF_ERROR(_get_next_chunk(_jni_env, &chunk_meta));
+    // the table is reused, so the peak native memory of the scanner is the max of all batches
+    _update_off_heap_memory_counter(_jni_env);
     Status status = _fill_chunk(_jni_env, chunk_meta, chunk);
     RETURN_IF_ERROR(_release_off_heap_table(_jni_env));
     return status;
@@ -17,6 +17,7 @@ struct JniScannerProfile {
     RuntimeProfile::Counter* io_counter = nullptr;
     RuntimeProfile::Counter* fill_chunk_timer = nullptr;
     RuntimeProfile::Counter* open_timer = nullptr;
+    RuntimeProfile::Counter* off_heap_memory_bytes = nullptr;
 };
 
 class JniScanner : public HdfsScanner {
@@ -47,11 +48,24 @@ private:
 
     template <PrimitiveType type, typename CppType>
     Status _append_decimal_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
-                                SlotDescriptor* slot_desc);
+                                const TypeDescriptor& type_desc, const std::string& col_name);
 
     template <PrimitiveType type>
     Status _append_string_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column);
 
+    Status _append_date_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                             const std::string& col_name);
+
+    Status _append_datetime_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                                 const std::string& col_name);
+
+    Status _append_array_data(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                              const TypeDescriptor& type_desc, const std::string& col_name);
+
+    // fill the nullable column by the off-heap column at chunk_meta_index, nested columns are filled recursively
+    Status _fill_column(long num_rows, long* chunk_meta_ptr, int& chunk_meta_index, ColumnPtr& column,
+                        const TypeDescriptor& type_desc, const std::string& col_name);
+
     Status _fill_chunk(JNIEnv* _jni_env, long chunk_meta, ChunkPtr* chunk);
 
     template <PrimitiveType type, typename CppType>
@@ -59,6 +73,8 @@ private:
 
     Status _release_off_heap_table(JNIEnv* _jni_env);
 
+    void _update_off_heap_memory_counter(JNIEnv* _jni_env);
+
     JniScannerProfile _profile;
 
     jclass _jni_scanner_cls;
@@ -68,6 +84,8 @@ private:
     jmethodID _jni_scanner_close;
     jmethodID _jni_scanner_release_column;
     jmethodID _jni_scanner_release_table;
+    jmethodID _jni_scanner_free_table;
+    jmethodID _jni_scanner_get_memory_bytes;
 
     std::map<std::string, std::string> _jni_scanner_params;
     std::string _jni_scanner_factory_class;
@@ -669,12 +669,13 @@ Status OlapScanNode::_capture_tablet_rowsets() {
         const auto& scan_range = _scan_ranges[i];
 
         int64_t version = strtoul(scan_range->version.c_str(), nullptr, 10);
+        int64_t start_version = scan_range->__isset.start_version ? scan_range->start_version : 0;
         ASSIGN_OR_RETURN(TabletSharedPtr tablet, get_tablet(scan_range.get()));
 
         // Capture row sets of this version tablet.
         {
             std::shared_lock l(tablet->get_header_lock());
-            RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(0, version), &_tablet_rowsets[i]));
+            RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(start_version, version), &_tablet_rowsets[i]));
         }
     }
 
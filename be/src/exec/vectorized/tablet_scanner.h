@@ -89,6 +89,8 @@ private:
 
     TabletSharedPtr _tablet;
     int64_t _version = 0;
+    // only read the rowsets of the versions in [_start_version, _version]
+    int64_t _start_version = 0;
 
     // output columns of `this` TabletScanner, i.e, the final output columns of `get_chunk`.
     std::vector<uint32_t> _scanner_columns;
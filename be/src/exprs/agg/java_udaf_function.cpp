@@ -66,11 +66,40 @@ Status init_udaf_context(int64_t id, const std::string& url, const std::string&
     udaf_ctx->update_batch_call_stub = std::make_unique<AggBatchCallStub>(
             context, udaf_ctx->handle.handle(), std::move(update_stub_clazz), JavaGlobalRef(std::move(method)));
 
+    // stubs for update with multi states, each stub should have a distinct class name in the same class loader
+    auto gen_update_stub = [&](const char* clazz_name, jclass clazz, jobject stub_target, int type,
+                               std::unique_ptr<AggBatchCallStub>* res) {
+        ASSIGN_OR_RETURN(auto stub_clazz, udf_classloader->genCallStub(clazz_name, clazz, stub_target, type));
+        ASSIGN_OR_RETURN(auto stub_method, analyzer->get_method_object(stub_clazz.clazz(), stub_method_name));
+        *res = std::make_unique<AggBatchCallStub>(context, udaf_ctx->handle.handle(), std::move(stub_clazz),
+                                                  JavaGlobalRef(std::move(stub_method)));
+        return Status::OK();
+    };
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_update_stub_clazz_name, udaf_clazz, update_method,
+                                    ClassLoader::BATCH_UPDATE, &udaf_ctx->update_batch_stub));
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_update_if_not_null_stub_clazz_name, udaf_clazz,
+                                    update_method, ClassLoader::BATCH_UPDATE_IF_NOT_NULL,
+                                    &udaf_ctx->update_batch_if_not_null_stub));
+
     RETURN_IF_ERROR(add_method("merge", udaf_ctx->udaf_class.clazz(), &udaf_ctx->merge));
     RETURN_IF_ERROR(add_method("finalize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->finalize));
     RETURN_IF_ERROR(add_method("serialize", udaf_ctx->udaf_class.clazz(), &udaf_ctx->serialize));
     RETURN_IF_ERROR(add_method("serializeLength", udaf_ctx->udaf_state_class.clazz(), &udaf_ctx->serialize_size));
 
+    // merge and serialize take (State, ByteBuffer), so they have the same stub shape as update
+    jobject merge_method = udaf_ctx->merge->method.handle();
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_merge_stub_clazz_name, udaf_clazz, merge_method,
+                                    ClassLoader::BATCH_MERGE, &udaf_ctx->merge_batch_stub));
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_merge_if_not_null_stub_clazz_name, udaf_clazz,
+                                    merge_method, ClassLoader::BATCH_MERGE_IF_NOT_NULL,
+                                    &udaf_ctx->merge_batch_if_not_null_stub));
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_serialize_stub_clazz_name, udaf_clazz,
+                                    udaf_ctx->serialize->method.handle(), ClassLoader::BATCH_SERIALIZE,
+                                    &udaf_ctx->serialize_batch_stub));
+    RETURN_IF_ERROR(gen_update_stub(AggBatchCallStub::batch_serialize_length_stub_clazz_name,
+                                    udaf_ctx->udaf_state_class.clazz(), udaf_ctx->serialize_size->method.handle(),
+                                    ClassLoader::BATCH_SERIALIZE_LENGTH, &udaf_ctx->serialize_length_batch_stub));
+
     auto& state_clazz = JVMFunctionHelper::getInstance().function_state_clazz();
     ASSIGN_OR_RETURN(auto instance, state_clazz.newInstance());
     ASSIGN_OR_RETURN(auto get_func, analyzer->get_method_object(state_clazz.clazz(), "get"));
@@ -179,9 +179,9 @@ public:
         {
             auto states_arr = JavaDataTypeConverter::convert_to_states(states, state_offset, batch_size);
             JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, columns, num_cols, batch_size, &args);
-            helper.batch_update(ctx, ctx->impl()->udaf_ctxs()->handle.handle(),
-                                ctx->impl()->udaf_ctxs()->update->method.handle(), states_arr, args.data(),
-                                args.size());
+            auto* udaf_ctxs = ctx->impl()->udaf_ctxs();
+            udaf_ctxs->update_batch_stub->batch_update(batch_size, udaf_ctxs->states->handle(), states_arr,
+                                                       args.data(), args.size());
         }
         helper.getEnv()->PopLocalFrame(nullptr);
     }
@@ -197,9 +197,9 @@ public:
             auto states_arr = JavaDataTypeConverter::convert_to_states_with_filter(states, state_offset, filter.data(),
                                                                                    batch_size);
             JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, columns, num_cols, batch_size, &args);
-            helper.batch_update_if_not_null(ctx, ctx->impl()->udaf_ctxs()->handle.handle(),
-                                            ctx->impl()->udaf_ctxs()->update->method.handle(), states_arr, args.data(),
-                                            args.size());
+            auto* udaf_ctxs = ctx->impl()->udaf_ctxs();
+            udaf_ctxs->update_batch_if_not_null_stub->batch_update(batch_size, udaf_ctxs->states->handle(), states_arr,
+                                                                   args.data(), args.size());
         }
         helper.getEnv()->PopLocalFrame(nullptr);
     }
@@ -224,31 +224,87 @@ public:
 
     void merge_batch(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column* column,
                      AggDataPtr* states) const override {
-        for (size_t i = 0; i < batch_size; ++i) {
-            this->merge(ctx, column, states[i] + state_offset, i);
+        auto* env = JVMFunctionHelper::getInstance().getEnv();
+        env->PushLocalFrame(2);
+        {
+            auto states_arr = JavaDataTypeConverter::convert_to_states(states, state_offset, batch_size);
+            _merge_batch(ctx, batch_size, column, states_arr, ctx->impl()->udaf_ctxs()->merge_batch_stub.get());
         }
+        env->PopLocalFrame(nullptr);
     }
 
     void merge_batch_selectively(FunctionContext* ctx, size_t batch_size, size_t state_offset, const Column* column,
                                  AggDataPtr* states, const std::vector<uint8_t>& filter) const override {
-        for (size_t i = 0; i < batch_size; i++) {
-            if (filter[i] == 0) {
-                this->merge(ctx, column, states[i] + state_offset, i);
-            }
+        auto* env = JVMFunctionHelper::getInstance().getEnv();
+        env->PushLocalFrame(2);
+        {
+            auto states_arr = JavaDataTypeConverter::convert_to_states_with_filter(states, state_offset, filter.data(),
+                                                                                   batch_size);
+            _merge_batch(ctx, batch_size, column, states_arr,
+                         ctx->impl()->udaf_ctxs()->merge_batch_if_not_null_stub.get());
         }
+        env->PopLocalFrame(nullptr);
     }
 
     void merge_batch_single_state(FunctionContext* ctx, size_t batch_size, const Column* column,
                                   AggDataPtr __restrict state) const override {
-        for (size_t i = 0; i < batch_size; ++i) {
-            this->merge(ctx, column, state, i);
+        auto* env = JVMFunctionHelper::getInstance().getEnv();
+        env->PushLocalFrame(2);
+        {
+            std::vector<jint> handles(batch_size, this->data(state).handle);
+            jintArray states_arr = env->NewIntArray(batch_size);
+            env->SetIntArrayRegion(states_arr, 0, batch_size, handles.data());
+            _merge_batch(ctx, batch_size, column, states_arr, ctx->impl()->udaf_ctxs()->merge_batch_stub.get());
         }
+        env->PopLocalFrame(nullptr);
     }
 
     void batch_serialize(FunctionContext* ctx, size_t batch_size, const Buffer<AggDataPtr>& agg_states,
                          size_t state_offset, Column* to) const override {
-        for (size_t i = 0; i < batch_size; i++) {
-            this->serialize_to_column(ctx, agg_states[i] + state_offset, to);
+        BinaryColumn* column = nullptr;
+        if (to->is_nullable()) {
+            auto* null_column = down_cast<NullableColumn*>(to);
+            null_column->null_column()->append_value_multiple_times(&DATUM_NOT_NULL, batch_size);
+            column = down_cast<BinaryColumn*>(null_column->data_column().get());
+        } else {
+            DCHECK(to->is_binary());
+            column = down_cast<BinaryColumn*>(to);
+        }
+
+        auto& helper = JVMFunctionHelper::getInstance();
+        auto* env = helper.getEnv();
+        auto* udaf_ctx = ctx->impl()->udaf_ctxs();
+        // offsets of the serialized states relative to the old end of the column
+        std::vector<uint32_t> offsets(batch_size + 1);
+        size_t old_size = column->get_bytes().size();
+        env->PushLocalFrame(3);
+        {
+            auto states_arr = JavaDataTypeConverter::convert_to_states(const_cast<AggDataPtr*>(agg_states.data()),
+                                                                       state_offset, batch_size);
+            auto sizes_arr = (jintArray)udaf_ctx->serialize_length_batch_stub->batch_serialize_length(
+                    batch_size, udaf_ctx->states->handle(), states_arr);
+            if (sizes_arr != nullptr) {
+                std::vector<jint> sizes(batch_size);
+                env->GetIntArrayRegion(sizes_arr, 0, batch_size, sizes.data());
+                for (size_t i = 0; i < batch_size; ++i) {
+                    offsets[i + 1] = offsets[i] + sizes[i];
+                }
+                // serialize to the column bytes directly
+                column->get_bytes().resize(old_size + offsets[batch_size]);
+                uint8_t empty = 0;
+                uint8_t* data = offsets[batch_size] == 0 ? &empty : column->get_bytes().data() + old_size;
+                DirectByteBuffer data_buffer(data, offsets[batch_size]);
+                DirectByteBuffer offset_buffer(offsets.data(), offsets.size() * sizeof(uint32_t));
+                auto buffers = helper.create_slice_buffers(ctx, batch_size, &data_buffer, &offset_buffer);
+                if (buffers != nullptr) {
+                    udaf_ctx->serialize_batch_stub->batch_update(batch_size, udaf_ctx->states->handle(), states_arr,
+                                                                 &buffers, 1);
+                }
+            }
+        }
+        env->PopLocalFrame(nullptr);
+        for (size_t i = 0; i < batch_size; ++i) {
+            column->get_offset().emplace_back(old_size + offsets[i + 1]);
         }
     }
 
@@ -260,5 +316,30 @@ public:
     }
 
     std::string get_name() const override { return "java_udaf"; }
+
+private:
+    // merge the serialized states in the first batch_size rows of column by the stub, each serialized state
+    // is passed as a ByteBuffer slice of the column bytes instead of being copied to udaf_ctx->buffer
+    void _merge_batch(FunctionContext* ctx, size_t batch_size, const Column* column, jobject states_arr,
+                      AggBatchCallStub* stub) const {
+        const BinaryColumn* input_column = nullptr;
+        if (column->is_nullable()) {
+            auto* null_column = down_cast<const NullableColumn*>(column);
+            input_column = down_cast<const BinaryColumn*>(null_column->data_column().get());
+        } else {
+            input_column = down_cast<const BinaryColumn*>(column);
+        }
+        auto& helper = JVMFunctionHelper::getInstance();
+        auto& bytes = input_column->get_bytes();
+        uint8_t empty = 0;
+        uint8_t* data = bytes.empty() ? &empty : const_cast<uint8_t*>(bytes.data());
+        DirectByteBuffer data_buffer(data, bytes.size());
+        DirectByteBuffer offset_buffer(const_cast<uint32_t*>(input_column->get_offset().data()),
+                                       (batch_size + 1) * sizeof(uint32_t));
+        auto buffers = helper.create_slice_buffers(ctx, batch_size, &data_buffer, &offset_buffer);
+        if (buffers != nullptr) {
+            stub->batch_update(batch_size, ctx->impl()->udaf_ctxs()->states->handle(), states_arr, &buffers, 1);
+        }
+    }
 };
 } // namespace starrocks::vectorized
\ No newline at end of file
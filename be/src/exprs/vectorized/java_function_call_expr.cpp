@@ -29,6 +29,8 @@ namespace starrocks::vectorized {
 struct UDFFunctionCallHelper {
     JavaUDFContext* fn_desc;
     JavaMethodDescriptor* call_desc;
+    // only used by vectorized UDF
+    PrimitiveType ret_type;
     std::vector<std::string> _data_buffer;
 
     // Now we don't support primitive type function
@@ -53,6 +55,11 @@ struct UDFFunctionCallHelper {
         // each input arguments as three local references (nullcolumn, offsetcolumn, bytescolumn)
         // result column as a ref
         env->PushLocalFrame((num_cols + 1) * 3 + 1);
+        if (fn_desc->vectorized) {
+            auto result_col = call_vectorized(ctx, input_cols, size);
+            env->PopLocalFrame(nullptr);
+            return result_col;
+        }
         // convert input columns to object columns
         std::vector<jobject> input_col_objs;
         JavaDataTypeConverter::convert_to_boxed_array(ctx, &buffers, input_cols.data(), num_cols, size,
@@ -66,6 +73,21 @@ struct UDFFunctionCallHelper {
         return result_cols;
     }
 
+    // vectorized UDF reads the input buffers directly and writes the result column in one call
+    ColumnPtr call_vectorized(FunctionContext* ctx, std::vector<const Column*>& input_cols, size_t size) {
+        auto& helper = JVMFunctionHelper::getInstance();
+        std::vector<DirectByteBuffer> buffers;
+        std::vector<jobject> views;
+        JavaDataTypeConverter::convert_to_column_views(ctx, &buffers, input_cols.data(), input_cols.size(), size,
+                                                       &views);
+        TypeDescriptor type_desc(ret_type);
+        auto res = ColumnHelper::create_column(type_desc, true);
+        helper.vectorized_call(ctx, fn_desc->udf_handle.handle(), type_desc.type, res.get(), views.data(),
+                               views.size(), size);
+        down_cast<NullableColumn*>(res.get())->update_has_null();
+        return res;
+    }
+
     ColumnPtr get_boxed_result(FunctionContext* ctx, jobject result, size_t num_rows) {
         if (result == nullptr) {
             return ColumnHelper::create_const_null_column(num_rows);
@@ -190,10 +212,19 @@ Status JavaFunctionCallExpr::open(RuntimeState* state, ExprContext* context,
         // Now we don't support prepare/close for UDF
         // RETURN_IF_ERROR(add_method("prepare", &_func_desc->prepare));
         // RETURN_IF_ERROR(add_method("method_close", &_func_desc->close));
-        RETURN_IF_ERROR(add_method("evaluate", &_func_desc->evaluate));
-
         // create UDF function instance
         ASSIGN_OR_RETURN(_func_desc->udf_handle, _func_desc->udf_class.newInstance());
+
+        _call_helper = std::make_shared<UDFFunctionCallHelper>();
+        _call_helper->fn_desc = _func_desc.get();
+        _call_helper->ret_type = _type.type;
+        if (JVMFunctionHelper::getInstance().is_vectorized_udf(_func_desc->udf_class.clazz())) {
+            // vectorized UDF has a fixed evaluate signature and don't need call stub
+            _func_desc->vectorized = true;
+            return Status::OK();
+        }
+
+        RETURN_IF_ERROR(add_method("evaluate", &_func_desc->evaluate));
         // BatchEvaluateStub
         auto* stub_clazz = BatchEvaluateStub::stub_clazz_name;
         auto* stub_method_name = BatchEvaluateStub::batch_evaluate_method_name;
@@ -210,8 +241,6 @@ Status JavaFunctionCallExpr::open(RuntimeState* state, ExprContext* context,
                 std::make_unique<BatchEvaluateStub>(function_ctx, _func_desc->udf_handle.handle(),
                                                     std::move(update_stub_clazz), JavaGlobalRef(std::move(method)));
 
-        _call_helper = std::make_shared<UDFFunctionCallHelper>();
-        _call_helper->fn_desc = _func_desc.get();
         _call_helper->call_desc = _func_desc->evaluate.get();
 
         if (_func_desc->prepare != nullptr) {
@@ -278,4 +278,26 @@ void JavaDataTypeConverter::convert_to_boxed_array(FunctionContext* ctx, std::ve
         res->emplace_back(arg);
     }
 }
+
+void JavaDataTypeConverter::convert_to_column_views(FunctionContext* ctx, std::vector<DirectByteBuffer>* buffers,
+                                                    const Column** columns, int num_cols, int num_rows,
+                                                    std::vector<jobject>* res) {
+    auto& helper = JVMFunctionHelper::getInstance();
+    ConvertDirectBufferVistor vistor(*buffers);
+    for (int i = 0; i < num_cols; ++i) {
+        PrimitiveType type = ctx->get_arg_type(i)->type;
+        jobject arg = nullptr;
+        if (columns[i]->only_null()) {
+            arg = helper.create_all_null_column_view(type, num_rows);
+        } else {
+            DCHECK(!columns[i]->is_constant());
+            int buffers_offset = buffers->size();
+            columns[i]->accept(&vistor);
+            int buffers_sz = buffers->size() - buffers_offset;
+            arg = helper.create_column_view(type, num_rows, columns[i]->is_nullable(), &(*buffers)[buffers_offset],
+                                            buffers_sz);
+        }
+        res->emplace_back(arg);
+    }
+}
 } // namespace starrocks::vectorized
\ No newline at end of file
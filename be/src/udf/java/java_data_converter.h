@@ -56,6 +56,9 @@ public:
 
     static void convert_to_boxed_array(FunctionContext* ctx, std::vector<DirectByteBuffer>* buffers,
                                        const Column** columns, int num_cols, int num_rows, std::vector<jobject>* res);
+    // wrap columns as com.starrocks.udf.ColumnView without boxing, const columns should be unpacked by caller
+    static void convert_to_column_views(FunctionContext* ctx, std::vector<DirectByteBuffer>* buffers,
+                                        const Column** columns, int num_cols, int num_rows, std::vector<jobject>* res);
     static void convert_to_native_array(FunctionContext* ctx, std::vector<DirectByteBuffer>* buffers,
                                         const Column** columns, int num_cols, int num_rows, std::vector<jobject>* res);
 };
@@ -50,6 +50,7 @@
 namespace starrocks::vectorized {
 
 constexpr const char* CLASS_UDF_HELPER_NAME = "com.starrocks.udf.UDFHelper";
+constexpr const char* CLASS_VECTORIZED_UDF_NAME = "com.starrocks.udf.VectorizedUDF";
 constexpr const char* CLASS_NATIVE_METHOD_HELPER_NAME = "com.starrocks.utils.NativeMethodHelper";
 
 #pragma GCC diagnostic push
@@ -140,14 +141,30 @@ void JVMFunctionHelper::_init() {
 
     _int_batch_call = _env->GetStaticMethodID(_udf_helper_class, "batchCall",
                                               "([Ljava/lang/Object;Ljava/lang/reflect/Method;I)[I");
+    _create_slice_buffers = _env->GetStaticMethodID(
+            _udf_helper_class, "createSliceBuffers",
+            "(ILjava/nio/ByteBuffer;Ljava/nio/ByteBuffer;)[Ljava/nio/ByteBuffer;");
     _get_boxed_result =
             _env->GetStaticMethodID(_udf_helper_class, "getResultFromBoxedArray", "(IILjava/lang/Object;J)V");
+    _create_column_view = _env->GetStaticMethodID(_udf_helper_class, "createColumnView",
+                                                  "(IIZ[Ljava/nio/ByteBuffer;)Lcom/starrocks/udf/ColumnView;");
+    _create_all_null_column_view = _env->GetStaticMethodID(_udf_helper_class, "createAllNullColumnView",
+                                                           "(II)Lcom/starrocks/udf/ColumnView;");
+    _vectorized_call = _env->GetStaticMethodID(_udf_helper_class, "vectorizedCall",
+                                               "(Ljava/lang/Object;II[Ljava/lang/Object;J)V");
+    name = JVMFunctionHelper::to_jni_class_name(CLASS_VECTORIZED_UDF_NAME);
+    _vectorized_udf_class = JNI_FIND_CLASS(name.c_str());
+    DCHECK(_create_column_view);
+    DCHECK(_create_all_null_column_view);
+    DCHECK(_vectorized_call);
+    DCHECK(_vectorized_udf_class);
     _direct_buffer_class = JNI_FIND_CLASS("java/nio/ByteBuffer");
     _direct_buffer_clear = _env->GetMethodID(_direct_buffer_class, "clear", "()Ljava/nio/Buffer;");
     DCHECK(_batch_call);
     DCHECK(_batch_call_no_args);
     DCHECK(_batch_update_state);
     DCHECK(_batch_update_if_not_null);
+    DCHECK(_create_slice_buffers);
     DCHECK(_get_boxed_result);
     DCHECK(_direct_buffer_clear);
 
@@ -274,11 +291,56 @@ jobject JVMFunctionHelper::create_boxed_array(int type, int num_rows, bool nulla
     return res;
 }
 
+jobject JVMFunctionHelper::create_column_view(int type, int num_rows, bool nullable, DirectByteBuffer* buffs, int sz) {
+    jobjectArray input_arr = _env->NewObjectArray(sz, _direct_buffer_class, nullptr);
+    LOCAL_REF_GUARD(input_arr);
+    for (int i = 0; i < sz; ++i) {
+        _env->SetObjectArrayElement(input_arr, i, buffs[i].handle());
+    }
+    jobject res =
+            _env->CallStaticObjectMethod(_udf_helper_class, _create_column_view, type, num_rows, nullable, input_arr);
+    if (_env->ExceptionCheck()) {
+        LOG(WARNING) << "fail to create column view " << this->dumpExceptionString(_env->ExceptionOccurred());
+        _env->ExceptionClear();
+    }
+    return res;
+}
+
+jobject JVMFunctionHelper::create_all_null_column_view(int type, int num_rows) {
+    return _env->CallStaticObjectMethod(_udf_helper_class, _create_all_null_column_view, type, num_rows);
+}
+
+bool JVMFunctionHelper::is_vectorized_udf(jclass clazz) {
+    return _env->IsAssignableFrom(clazz, _vectorized_udf_class);
+}
+
+void JVMFunctionHelper::vectorized_call(FunctionContext* ctx, jobject udf, int type, Column* col, jobject* input,
+                                        int cols, int rows) {
+    // elements are ColumnView, so the array could not be built by _build_object_array
+    jobjectArray input_arr = _env->NewObjectArray(cols, _object_class, nullptr);
+    LOCAL_REF_GUARD(input_arr);
+    for (int i = 0; i < cols; ++i) {
+        _env->SetObjectArrayElement(input_arr, i, input[i]);
+    }
+    col->resize(rows);
+    _env->CallStaticVoidMethod(_udf_helper_class, _vectorized_call, udf, type, rows, input_arr,
+                               reinterpret_cast<int64_t>(col));
+    CHECK_UDF_CALL_EXCEPTION(_env, ctx);
+}
+
 jobject JVMFunctionHelper::create_object_array(jobject o, int num_rows) {
     jobjectArray res_arr = _env->NewObjectArray(num_rows, _object_array_class, o);
     return res_arr;
 }
 
+jobject JVMFunctionHelper::create_slice_buffers(FunctionContext* ctx, int num_rows, DirectByteBuffer* data,
+                                                DirectByteBuffer* offsets) {
+    auto res = _env->CallStaticObjectMethod(_udf_helper_class, _create_slice_buffers, num_rows, data->handle(),
+                                            offsets->handle());
+    CHECK_UDF_CALL_EXCEPTION(_env, ctx);
+    return res;
+}
+
 void JVMFunctionHelper::batch_update_single(AggBatchCallStub* stub, int state, jobject* input, int cols, int rows) {
     auto obj = convert_handle_to_jobject(stub->ctx(), state);
     LOCAL_REF_GUARD(obj);
@@ -801,6 +863,32 @@ void AggBatchCallStub::batch_update_single(int num_rows, jobject state, jobject*
     CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
 }
 
+void AggBatchCallStub::batch_update(int num_rows, jobject states_ctx, jobject states, jobject* input, int cols) {
+    jvalue jni_inputs[4 + cols];
+    jni_inputs[0].i = num_rows;
+    jni_inputs[1].l = _caller;
+    jni_inputs[2].l = states_ctx;
+    jni_inputs[3].l = states;
+    for (int i = 0; i < cols; ++i) {
+        jni_inputs[4 + i].l = input[i];
+    }
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    env->CallStaticVoidMethodA(_stub_clazz.clazz(), env->FromReflectedMethod(_stub_method.handle()), jni_inputs);
+    CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
+}
+
+jobject AggBatchCallStub::batch_serialize_length(int num_rows, jobject states_ctx, jobject states) {
+    jvalue jni_inputs[3];
+    jni_inputs[0].i = num_rows;
+    jni_inputs[1].l = states_ctx;
+    jni_inputs[2].l = states;
+    auto* env = JVMFunctionHelper::getInstance().getEnv();
+    auto res = env->CallStaticObjectMethodA(_stub_clazz.clazz(), env->FromReflectedMethod(_stub_method.handle()),
+                                            jni_inputs);
+    CHECK_UDF_CALL_EXCEPTION(env, this->_ctx);
+    return res;
+}
+
 jobject BatchEvaluateStub::batch_evaluate(int num_rows, jobject* input, int cols) {
     jvalue jni_inputs[2 + cols];
     jni_inputs[0].i = num_rows;
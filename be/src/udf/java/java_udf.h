@@ -59,6 +59,17 @@ public:
     jobject create_boxed_array(int type, int num_rows, bool nullable, DirectByteBuffer* buffs, int sz);
     // create object array with the same elements
     jobject create_object_array(jobject o, int num_rows);
+    // split data into num_rows ByteBuffers by offsets (num_rows + 1 uint32)
+    // return: jobject ByteBuffer[]
+    jobject create_slice_buffers(FunctionContext* ctx, int num_rows, DirectByteBuffer* data, DirectByteBuffer* offsets);
+    // wrap column buffers as com.starrocks.udf.ColumnView, used by vectorized UDF
+    jobject create_column_view(int type, int num_rows, bool nullable, DirectByteBuffer* buffs, int sz);
+    jobject create_all_null_column_view(int type, int num_rows);
+    // whether clazz implements com.starrocks.udf.VectorizedUDF
+    bool is_vectorized_udf(jclass clazz);
+    // call VectorizedUDF.evaluate and write the result to col
+    // input: ColumnView col1, col2 ...
+    void vectorized_call(FunctionContext* ctx, jobject udf, int type, Column* col, jobject* input, int cols, int rows);
 
     // batch update single
     void batch_update_single(AggBatchCallStub* stub, int state, jobject* input, int cols, int rows);
@@ -163,7 +174,12 @@ private:
     jmethodID _batch_call;
     jmethodID _batch_call_no_args;
     jmethodID _int_batch_call;
+    jmethodID _create_slice_buffers;
     jmethodID _get_boxed_result;
+    jmethodID _create_column_view;
+    jmethodID _create_all_null_column_view;
+    jmethodID _vectorized_call;
+    jclass _vectorized_udf_class;
     jclass _direct_buffer_class;
     jmethodID _direct_buffer_clear;
 
@@ -305,6 +321,15 @@ private:
 class AggBatchCallStub {
 public:
     static inline const char* stub_clazz_name = "com.starrocks.udf.gen.CallStub";
+    static inline const char* batch_update_stub_clazz_name = "com.starrocks.udf.gen.BatchUpdateStub";
+    static inline const char* batch_update_if_not_null_stub_clazz_name =
+            "com.starrocks.udf.gen.BatchUpdateIfNotNullStub";
+    static inline const char* batch_merge_stub_clazz_name = "com.starrocks.udf.gen.BatchMergeStub";
+    static inline const char* batch_merge_if_not_null_stub_clazz_name =
+            "com.starrocks.udf.gen.BatchMergeIfNotNullStub";
+    static inline const char* batch_serialize_stub_clazz_name = "com.starrocks.udf.gen.BatchSerializeStub";
+    static inline const char* batch_serialize_length_stub_clazz_name =
+            "com.starrocks.udf.gen.BatchSerializeLengthStub";
     static inline const char* batch_update_method_name = "batchCallV";
 
     AggBatchCallStub(FunctionContext* ctx, jobject caller, JVMClass&& clazz, JavaGlobalRef&& method)
@@ -314,6 +339,15 @@ public:
 
     void batch_update_single(int num_rows, jobject state, jobject* input, int cols);
 
+    // batch update with states got from FunctionStates by index
+    // only available for the stubs generated with BATCH_UPDATE or BATCH_UPDATE_IF_NOT_NULL
+    void batch_update(int num_rows, jobject states_ctx, jobject states, jobject* input, int cols);
+
+    // serialized length of the states got from FunctionStates by index
+    // only available for the stub generated with BATCH_SERIALIZE_LENGTH
+    // return: jobject int[]
+    jobject batch_serialize_length(int num_rows, jobject states_ctx, jobject states);
+
 private:
     FunctionContext* _ctx;
     // UDAF object handle, owned by FunctionContext
@@ -370,6 +404,12 @@ class ClassLoader {
 public:
     static const inline int BATCH_SINGLE_UPDATE = 1;
     static const inline int BATCH_EVALUATE = 2;
+    static const inline int BATCH_UPDATE = 3;
+    static const inline int BATCH_UPDATE_IF_NOT_NULL = 4;
+    static const inline int BATCH_MERGE = 5;
+    static const inline int BATCH_MERGE_IF_NOT_NULL = 6;
+    static const inline int BATCH_SERIALIZE = 7;
+    static const inline int BATCH_SERIALIZE_LENGTH = 8;
     // Handle
     ClassLoader(std::string path) : _path(std::move(path)) {}
     ~ClassLoader();
@@ -425,6 +465,8 @@ struct JavaUDFContext {
     std::unique_ptr<ClassLoader> udf_classloader;
     std::unique_ptr<ClassAnalyzer> analyzer;
     std::unique_ptr<BatchEvaluateStub> call_stub;
+    // UDF implements com.starrocks.udf.VectorizedUDF, called with column views instead of boxed arrays
+    bool vectorized = false;
 
     JVMClass udf_class = nullptr;
     JavaGlobalRef udf_handle = nullptr;
@@ -480,6 +522,12 @@ struct JavaUDAFContext {
     std::unique_ptr<UDAFStateList> states;
     std::unique_ptr<JavaMethodDescriptor> update;
     std::unique_ptr<AggBatchCallStub> update_batch_call_stub;
+    std::unique_ptr<AggBatchCallStub> update_batch_stub;
+    std::unique_ptr<AggBatchCallStub> update_batch_if_not_null_stub;
+    std::unique_ptr<AggBatchCallStub> merge_batch_stub;
+    std::unique_ptr<AggBatchCallStub> merge_batch_if_not_null_stub;
+    std::unique_ptr<AggBatchCallStub> serialize_batch_stub;
+    std::unique_ptr<AggBatchCallStub> serialize_length_batch_stub;
     std::unique_ptr<JavaMethodDescriptor> merge;
     std::unique_ptr<JavaMethodDescriptor> finalize;
     std::unique_ptr<JavaMethodDescriptor> serialize;
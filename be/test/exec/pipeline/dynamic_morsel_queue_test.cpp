@@ -0,0 +1,166 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+#include <gtest/gtest.h>
+
+#include "exec/pipeline/scan/morsel.h"
+#include "gutil/casts.h"
+#include "testutil/assert.h"
+
+namespace starrocks::pipeline {
+
+class DynamicMorselQueueTest : public ::testing::Test {
+protected:
+    static constexpr int32_t kPlanNodeId = 1;
+
+    static TScanRangeParams _scan_range(const std::string& path) {
+        THdfsScanRange hdfs_scan_range;
+        hdfs_scan_range.__set_relative_path(path);
+        TScanRangeParams scan_range;
+        scan_range.scan_range.__set_hdfs_scan_range(hdfs_scan_range);
+        return scan_range;
+    }
+
+    static std::string _path(const MorselPtr& morsel) {
+        return down_cast<ScanMorsel*>(morsel.get())->get_scan_range()->hdfs_scan_range.relative_path;
+    }
+
+    // Fetch the paths in the batches one by one.
+    DynamicMorselQueue::Fetcher _fetcher(std::vector<std::vector<std::string>> batches) {
+        return [this, batches = std::move(batches)](std::vector<TScanRangeParams>* scan_ranges, bool* has_more) {
+            for (const auto& path : batches[_num_fetches]) {
+                scan_ranges->emplace_back(_scan_range(path));
+            }
+            _num_fetches++;
+            *has_more = _num_fetches < batches.size();
+            return Status::OK();
+        };
+    }
+
+    // Keep the tasks, which are run by _run_tasks.
+    DynamicMorselQueue::Executor _executor() {
+        return [this](std::function<void()> task) {
+            if (_busy) {
+                return false;
+            }
+            _tasks.emplace_back(std::move(task));
+            return true;
+        };
+    }
+
+    void _run_tasks() {
+        auto tasks = std::move(_tasks);
+        _tasks.clear();
+        for (auto& task : tasks) {
+            task();
+        }
+    }
+
+    static Morsels _morsels(const std::vector<std::string>& paths) {
+        Morsels morsels;
+        for (const auto& path : paths) {
+            morsels.emplace_back(std::make_unique<ScanMorsel>(kPlanNodeId, _scan_range(path)));
+        }
+        return morsels;
+    }
+
+    size_t _num_fetches = 0;
+    bool _busy = false;
+    std::vector<std::function<void()>> _tasks;
+};
+
+TEST_F(DynamicMorselQueueTest, test_fetch_ahead) {
+    DynamicMorselQueue queue(_morsels({"a", "b", "c"}), kPlanNodeId, _fetcher({{"d", "e"}, {"f"}}), _executor(), 1);
+    ASSERT_EQ(3, queue.num_original_morsels());
+
+    // The next batch is not fetched while there are enough morsels.
+    ASSIGN_OR_ABORT(auto morsel, queue.try_get());
+    ASSERT_EQ("a", _path(morsel));
+    ASSERT_TRUE(_tasks.empty());
+
+    // The next batch is fetched ahead, and the morsels in the queue are still returned.
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("b", _path(morsel));
+    ASSERT_EQ(1, _tasks.size());
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("c", _path(morsel));
+    // Only one batch is fetched at the same time.
+    ASSERT_EQ(1, _tasks.size());
+
+    // The fetching is not finished, and the scan operator waits for it.
+    ASSERT_FALSE(queue.has_ready_morsel());
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ(nullptr, morsel);
+    ASSERT_FALSE(queue.empty());
+    ASSERT_FALSE(queue.has_ready_morsel());
+
+    _run_tasks();
+    ASSERT_EQ(1, _num_fetches);
+    ASSERT_TRUE(queue.has_ready_morsel());
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("d", _path(morsel));
+    ASSERT_EQ(1, _tasks.size());
+    _run_tasks();
+    ASSERT_EQ(2, _num_fetches);
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("e", _path(morsel));
+    ASSERT_FALSE(queue.empty());
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("f", _path(morsel));
+
+    // There are no more scan ranges.
+    ASSERT_TRUE(queue.empty());
+    ASSERT_FALSE(queue.has_ready_morsel());
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ(nullptr, morsel);
+    ASSERT_TRUE(_tasks.empty());
+    ASSERT_EQ(2, _num_fetches);
+}
+
+TEST_F(DynamicMorselQueueTest, test_executor_busy) {
+    DynamicMorselQueue queue(_morsels({}), kPlanNodeId, _fetcher({{"a"}}), _executor(), 1);
+    _busy = true;
+    ASSIGN_OR_ABORT(auto morsel, queue.try_get());
+    ASSERT_EQ(nullptr, morsel);
+    ASSERT_TRUE(_tasks.empty());
+    ASSERT_FALSE(queue.empty());
+    // try_get is called again to submit the fetch.
+    ASSERT_TRUE(queue.has_ready_morsel());
+
+    // Fetch again when the executor accepts the task.
+    _busy = false;
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ(nullptr, morsel);
+    ASSERT_FALSE(queue.has_ready_morsel());
+    _run_tasks();
+    ASSIGN_OR_ABORT(morsel, queue.try_get());
+    ASSERT_EQ("a", _path(morsel));
+    ASSERT_TRUE(queue.empty());
+}
+
+TEST_F(DynamicMorselQueueTest, test_fetch_error) {
+    auto fetcher = [](std::vector<TScanRangeParams>* scan_ranges, bool* has_more) {
+        return Status::InternalError("fetch error");
+    };
+    DynamicMorselQueue queue(_morsels({"a"}), kPlanNodeId, std::move(fetcher), _executor(), 1);
+    ASSIGN_OR_ABORT(auto morsel, queue.try_get());
+    ASSERT_EQ("a", _path(morsel));
+    _run_tasks();
+
+    // The error is returned to the scan operator.
+    ASSERT_FALSE(queue.empty());
+    ASSERT_TRUE(queue.has_ready_morsel());
+    auto status = queue.try_get();
+    ASSERT_FALSE(status.ok());
+    ASSERT_TRUE(queue.empty());
+}
+
+TEST_F(DynamicMorselQueueTest, test_task_outlives_queue) {
+    auto queue = std::make_unique<DynamicMorselQueue>(_morsels({}), kPlanNodeId, _fetcher({{"a"}}), _executor(), 1);
+    ASSIGN_OR_ABORT(auto morsel, queue->try_get());
+    ASSERT_EQ(1, _tasks.size());
+    queue.reset();
+    _run_tasks();
+    ASSERT_EQ(1, _num_fetches);
+}
+
+} // namespace starrocks::pipeline
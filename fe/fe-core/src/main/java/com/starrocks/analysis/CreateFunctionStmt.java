@@ -77,6 +77,7 @@ public class CreateFunctionStmt extends DdlStmt {
     public static final String WINDOW_UPDATE_METHOD_NAME = "windowUpdate";
     public static final String IS_ANALYTIC_NAME = "analytic";
     public static final String PROCESS_METHOD_NAME = "process";
+    public static final String VECTORIZED_UDF_INTERFACE_NAME = "com.starrocks.udf.VectorizedUDF";
 
     private final FunctionName functionName;
     private final boolean isAggregate;
@@ -190,6 +191,29 @@ public class CreateFunctionStmt extends DdlStmt {
             checkUdfType(method, expType, method.getReturnType(), RETURN_FIELD_NAME);
         }
 
+        // vectorized UDF implements com.starrocks.udf.VectorizedUDF, which is loaded by BE,
+        // so the interface is checked by name here
+        public boolean isVectorizedUdf() {
+            for (Class c = clazz; c != null; c = c.getSuperclass()) {
+                for (Class i : c.getInterfaces()) {
+                    if (i.getName().equals(VECTORIZED_UDF_INTERFACE_NAME)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // vectorized UDF reads columns directly, only check whether the type is supported
+        private void checkVectorizedUdfType(Method method, Type expType) throws AnalysisException {
+            if (!(expType instanceof ScalarType) ||
+                    !PrimitiveTypeToJavaClassType.containsKey(((ScalarType) expType).getPrimitiveType())) {
+                throw new AnalysisException(
+                        String.format("UDF class '%s' method '%s' does not support type '%s'",
+                                clazz.getCanonicalName(), method.getName(), expType));
+            }
+        }
+
         private void checkUdfType(Method method, Type expType, Class ptype, String pname)
                 throws AnalysisException {
             if (!(expType instanceof ScalarType)) {
@@ -352,6 +376,14 @@ public class CreateFunctionStmt extends DdlStmt {
             // RETURN_TYPE evaluate(...)
             Method method = mainClass.getMethod(EVAL_METHOD_NAME, true);
             mainClass.checkMethodNonStaticAndPublic(method);
+            if (mainClass.isVectorizedUdf()) {
+                // void evaluate(int numRows, ColumnView[] columns, ResultColumn result)
+                mainClass.checkVectorizedUdfType(method, returnType.getType());
+                for (Type argType : argsDef.getArgTypes()) {
+                    mainClass.checkVectorizedUdfType(method, argType);
+                }
+                return;
+            }
             mainClass.checkArgumentCount(method, argsDef.getArgTypes().length);
             mainClass.checkReturnUdfType(method, returnType.getType());
             for (int i = 0; i < method.getParameters().length; i++) {
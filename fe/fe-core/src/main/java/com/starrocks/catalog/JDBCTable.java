@@ -28,10 +28,22 @@ public class JDBCTable extends Table {
     private static final String TABLE = "table";
     private static final String RESOURCE = "resource";
 
+    // Optional properties to split the scan of a big remote table into several ranges on a
+    // numeric or date column, so that the ranges can be read by different backends in parallel.
+    // If the bounds are not set, they are derived from the column statistics.
+    public static final String SPLIT_COLUMN = "split_column";
+    public static final String SPLIT_NUM = "split_num";
+    public static final String SPLIT_LOWER_BOUND = "split_lower_bound";
+    public static final String SPLIT_UPPER_BOUND = "split_upper_bound";
+
     private String resourceName;
     private String jdbcTable;
     private Map<String, String> properties;
     private String dbName;
+    private String splitColumn;
+    private int splitNum = 1;
+    private String splitLowerBound;
+    private String splitUpperBound;
 
     public JDBCTable() {
         super(TableType.JDBC);
@@ -57,10 +69,66 @@ public class JDBCTable extends Table {
         return jdbcTable;
     }
 
+    public String getSplitColumn() {
+        return splitColumn;
+    }
+
+    public int getSplitNum() {
+        return splitNum;
+    }
+
+    public String getSplitLowerBound() {
+        return splitLowerBound;
+    }
+
+    public String getSplitUpperBound() {
+        return splitUpperBound;
+    }
+
+    public boolean isSplitScanEnabled() {
+        return !Strings.isNullOrEmpty(splitColumn) && splitNum > 1;
+    }
+
+    private void validateSplitProperties(Map<String, String> properties) throws DdlException {
+        splitColumn = properties.get(SPLIT_COLUMN);
+        if (Strings.isNullOrEmpty(splitColumn)) {
+            return;
+        }
+        Column column = getColumn(splitColumn);
+        if (column == null) {
+            throw new DdlException("split column [" + splitColumn + "] not exists");
+        }
+        Type type = column.getType();
+        if (!type.isIntegerType() && !type.isDateType()) {
+            throw new DdlException("split column [" + splitColumn + "] must be integer, date or datetime type");
+        }
+
+        String num = properties.get(SPLIT_NUM);
+        if (Strings.isNullOrEmpty(num)) {
+            throw new DdlException("property " + SPLIT_NUM + " must be set when " + SPLIT_COLUMN + " is set");
+        }
+        try {
+            splitNum = Integer.parseInt(num);
+        } catch (NumberFormatException e) {
+            throw new DdlException("property " + SPLIT_NUM + " must be an integer");
+        }
+        if (splitNum <= 0) {
+            throw new DdlException("property " + SPLIT_NUM + " must be positive");
+        }
+
+        splitLowerBound = properties.get(SPLIT_LOWER_BOUND);
+        splitUpperBound = properties.get(SPLIT_UPPER_BOUND);
+        if (Strings.isNullOrEmpty(splitLowerBound) != Strings.isNullOrEmpty(splitUpperBound)) {
+            throw new DdlException("property " + SPLIT_LOWER_BOUND + " and " + SPLIT_UPPER_BOUND +
+                    " must be set together");
+        }
+    }
+
     private void validate(Map<String, String> properties) throws DdlException {
         if (properties == null) {
             throw new DdlException("Please set properties of jdbc table, they are: table and resource");
         }
+        validateSplitProperties(properties);
 
         resourceName = properties.get(RESOURCE);
         if (Strings.isNullOrEmpty(resourceName)) {
@@ -137,6 +205,14 @@ public class JDBCTable extends Table {
         JsonObject obj = new JsonObject();
         obj.addProperty(TABLE, jdbcTable);
         obj.addProperty(RESOURCE, resourceName);
+        if (!Strings.isNullOrEmpty(splitColumn)) {
+            obj.addProperty(SPLIT_COLUMN, splitColumn);
+            obj.addProperty(SPLIT_NUM, splitNum);
+            if (!Strings.isNullOrEmpty(splitLowerBound)) {
+                obj.addProperty(SPLIT_LOWER_BOUND, splitLowerBound);
+                obj.addProperty(SPLIT_UPPER_BOUND, splitUpperBound);
+            }
+        }
         Text.writeString(out, obj.toString());
     }
 
@@ -147,6 +223,14 @@ public class JDBCTable extends Table {
         JsonObject obj = JsonParser.parseString(jsonStr).getAsJsonObject();
         jdbcTable = obj.getAsJsonPrimitive(TABLE).getAsString();
         resourceName = obj.getAsJsonPrimitive(RESOURCE).getAsString();
+        if (obj.has(SPLIT_COLUMN)) {
+            splitColumn = obj.getAsJsonPrimitive(SPLIT_COLUMN).getAsString();
+            splitNum = obj.getAsJsonPrimitive(SPLIT_NUM).getAsInt();
+            if (obj.has(SPLIT_LOWER_BOUND)) {
+                splitLowerBound = obj.getAsJsonPrimitive(SPLIT_LOWER_BOUND).getAsString();
+                splitUpperBound = obj.getAsJsonPrimitive(SPLIT_UPPER_BOUND).getAsString();
+            }
+        }
     }
 
     @Override
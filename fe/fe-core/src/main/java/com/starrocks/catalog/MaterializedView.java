@@ -10,6 +10,7 @@ import com.starrocks.analysis.TableName;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.common.io.DeepCopy;
 import com.starrocks.common.io.Text;
+import com.starrocks.common.util.PropertyAnalyzer;
 import com.starrocks.mysql.privilege.Auth;
 import com.starrocks.persist.gson.GsonPostProcessable;
 import com.starrocks.persist.gson.GsonUtils;
@@ -32,8 +33,10 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -79,6 +82,64 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
         }
     }
 
+    // the base table of an external catalog, eg: hive or iceberg table, which is identified by its name
+    // because the table of the external catalog has no persistent id
+    public static class BaseTableInfo {
+        @SerializedName(value = "catalogName")
+        private String catalogName;
+
+        @SerializedName(value = "dbName")
+        private String dbName;
+
+        @SerializedName(value = "tableName")
+        private String tableName;
+
+        public BaseTableInfo(String catalogName, String dbName, String tableName) {
+            this.catalogName = catalogName;
+            this.dbName = dbName;
+            this.tableName = tableName;
+        }
+
+        public String getCatalogName() {
+            return catalogName;
+        }
+
+        public String getDbName() {
+            return dbName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public Table getTable() {
+            return GlobalStateMgr.getCurrentState().getMetadataMgr().getTable(catalogName, dbName, tableName);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BaseTableInfo)) {
+                return false;
+            }
+            BaseTableInfo that = (BaseTableInfo) o;
+            return Objects.equals(catalogName, that.catalogName) && Objects.equals(dbName, that.dbName)
+                    && Objects.equals(tableName, that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(catalogName, dbName, tableName);
+        }
+
+        @Override
+        public String toString() {
+            return catalogName + "." + dbName + "." + tableName;
+        }
+    }
+
     public static class AsyncRefreshContext {
         // base table id -> (partition name -> partition info (id, version))
         // partition id maybe changed after insert overwrite, so use partition name as key.
@@ -86,6 +147,19 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
         @SerializedName("baseTableVisibleVersionMap")
         private Map<Long, Map<String, BasePartitionInfo>> baseTableVisibleVersionMap;
 
+        // external base table (catalog.db.table) -> (partition name -> version)
+        // the version of a hive partition is a hash of the count, the total length and the latest modification
+        // time of its files,
+        // and the iceberg table is recorded as one partition versioned by its current snapshot id
+        @SerializedName("externalBaseTableVersionMap")
+        private Map<String, Map<String, Long>> externalBaseTableVersionMap;
+
+        // base table id -> (partition name -> the latest version written by delete)
+        // the rows deleted from the base table can't be removed from the incremental refreshed materialized view,
+        // so the refresh reading through a delete version recomputes the whole partition
+        @SerializedName("baseTableDeleteVersionMap")
+        private Map<Long, Map<String, Long>> baseTableDeleteVersionMap;
+
         @SerializedName(value = "defineStartTime")
         private boolean defineStartTime;
 
@@ -100,6 +174,8 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
 
         public AsyncRefreshContext() {
             this.baseTableVisibleVersionMap = Maps.newHashMap();
+            this.externalBaseTableVersionMap = Maps.newHashMap();
+            this.baseTableDeleteVersionMap = Maps.newHashMap();
             this.defineStartTime = false;
             this.startTime = Utils.getLongFromDateTime(LocalDateTime.now());
             this.step = 0;
@@ -110,6 +186,19 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
             return baseTableVisibleVersionMap;
         }
 
+        public Map<String, Map<String, Long>> getExternalBaseTableVersionMap() {
+            return externalBaseTableVersionMap;
+        }
+
+        public Map<Long, Map<String, Long>> getBaseTableDeleteVersionMap() {
+            return baseTableDeleteVersionMap;
+        }
+
+        public void updateBaseTableDeleteVersion(long tableId, String partitionName, long version) {
+            baseTableDeleteVersionMap.computeIfAbsent(tableId, k -> Maps.newHashMap())
+                    .merge(partitionName, version, Math::max);
+        }
+
         public boolean isDefineStartTime() {
             return defineStartTime;
         }
@@ -193,6 +282,9 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
     @SerializedName(value = "baseTableIds")
     private Set<Long> baseTableIds;
 
+    @SerializedName(value = "externalBaseTables")
+    private List<BaseTableInfo> externalBaseTables;
+
     @SerializedName(value = "active")
     private boolean active;
 
@@ -250,6 +342,14 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
         this.baseTableIds = baseTableIds;
     }
 
+    public List<BaseTableInfo> getExternalBaseTables() {
+        return externalBaseTables == null ? Collections.emptyList() : externalBaseTables;
+    }
+
+    public void setExternalBaseTables(List<BaseTableInfo> externalBaseTables) {
+        this.externalBaseTables = externalBaseTables;
+    }
+
     public void setPartitionRefTableExprs(List<Expr> partitionRefTableExprs) {
         this.partitionRefTableExprs = partitionRefTableExprs;
     }
@@ -297,6 +397,66 @@ public class MaterializedView extends OlapTable implements GsonPostProcessable {
         return result;
     }
 
+    // Returns the partitions of the external base table whose versions are changed since the last refresh,
+    // all the partitions are returned if any partition refreshed before is dropped.
+    public Set<String> getNeedRefreshPartitionNames(BaseTableInfo base, Map<String, Long> partitionVersions) {
+        Map<String, Long> refreshedVersions = getRefreshScheme()
+                .getAsyncRefreshContext()
+                .getExternalBaseTableVersionMap()
+                .getOrDefault(base.toString(), Collections.emptyMap());
+        for (String partitionName : refreshedVersions.keySet()) {
+            if (!partitionVersions.containsKey(partitionName)) {
+                return Sets.newHashSet(partitionVersions.keySet());
+            }
+        }
+        Set<String> result = Sets.newHashSet();
+        for (Map.Entry<String, Long> versionEntry : partitionVersions.entrySet()) {
+            if (!versionEntry.getValue().equals(refreshedVersions.get(versionEntry.getKey()))) {
+                result.add(versionEntry.getKey());
+            }
+        }
+        return result;
+    }
+
+    // Whether all the partitions of the base table are refreshed into the materialized view with their visible
+    // versions. Unlike getNeedRefreshPartitionNames, it doesn't change the refresh context, so it's called by
+    // the queries rewritten by the materialized view.
+    public boolean isRefreshedWith(OlapTable base) {
+        Map<String, BasePartitionInfo> baseTableVisibleVersionMap = getRefreshScheme()
+                .getAsyncRefreshContext()
+                .getBaseTableVisibleVersionMap()
+                .get(base.getId());
+        if (baseTableVisibleVersionMap == null
+                || baseTableVisibleVersionMap.size() != base.getPartitionNames().size()) {
+            return false;
+        }
+        for (String partitionName : base.getPartitionNames()) {
+            BasePartitionInfo basePartitionInfo = baseTableVisibleVersionMap.get(partitionName);
+            Partition basePartition = base.getPartition(partitionName);
+            if (basePartitionInfo == null
+                    || basePartitionInfo.getId() != basePartition.getId()
+                    || basePartition.getVisibleVersion() > basePartitionInfo.getVersion()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setIncrementalRefresh(boolean incrementalRefresh) {
+        if (tableProperty == null) {
+            tableProperty = new TableProperty(Maps.newHashMap());
+        }
+        tableProperty.modifyTableProperties(PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH,
+                String.valueOf(incrementalRefresh));
+    }
+
+    // Whether the materialized view is an aggregate keys table refreshed by merging the partial aggregates of
+    // the data appended to its base table since the last refresh, instead of recomputing the whole partitions.
+    public boolean isIncrementalRefresh() {
+        return tableProperty != null && Boolean.parseBoolean(
+                tableProperty.getProperties().get(PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH));
+    }
+
     @Override
     public TTableDescriptor toThrift(List<ReferencedPartitionInfo> partitions) {
         TTableDescriptor tTableDescriptor = new TTableDescriptor(id, TTableType.MATERIALIZED_VIEW,
@@ -1455,12 +1455,38 @@ public class Config extends ConfigBase {
     @ConfField
     public static int hive_meta_load_concurrency = 4;
 
+    /**
+     * num of partitions fetched from hive metastore in one getPartitionsByNames call.
+     * the batches of a query are fetched by hive_meta_load_concurrency threads.
+     */
+    @ConfField(mutable = true)
+    public static int hive_meta_partition_batch_size = 100;
+
     @ConfField
     public static long hive_meta_cache_refresh_interval_s = 3600L * 2L;
 
     @ConfField
     public static long hive_meta_cache_ttl_s = 3600L * 24L;
 
+    /**
+     * If set to true, the file listings of hive and hudi partition directories are cached and reused
+     * while the modification time of the directory is unchanged.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_hive_file_listing_cache = false;
+
+    /**
+     * The file listing cache is saved in this dir and loaded when fe starts, it's not saved if the dir is empty.
+     */
+    @ConfField
+    public static String hive_file_listing_cache_dir = StarRocksFE.STARROCKS_HOME_DIR + "/hive_file_listing_cache";
+
+    @ConfField
+    public static long hive_file_listing_cache_max_dirs = 100000L;
+
+    @ConfField
+    public static long hive_file_listing_cache_save_interval_s = 300L;
+
     /**
      * Hive MetaStore Client socket timeout in seconds.
      */
@@ -1522,6 +1548,47 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long iceberg_worker_num_threads = 64;
 
+    /**
+     * The max number of manifests read at the same time by the scan of one iceberg table in the iceberg
+     * worker pool, so the planning of a table with many manifests doesn't hold up the other queries.
+     */
+    @ConfField(mutable = true)
+    public static int iceberg_manifest_read_max_concurrency = 8;
+
+    /**
+     * The max number of iceberg data files planned by queries and cached for a short time, so the statistics
+     * and the scan of a query read the manifests of a snapshot only once.
+     */
+    @ConfField
+    public static long iceberg_planned_files_cache_max_files = 1000000L;
+
+    /**
+     * With the session variable enable_incremental_scan_ranges, a scan of hive, hudi or iceberg tables sends
+     * this number of scan ranges per backend in the plan fragments, and the instances fetch the rest
+     * in batches of incremental_scan_ranges_batch_size while they are running.
+     */
+    @ConfField(mutable = true)
+    public static int incremental_scan_ranges_initial_num_per_node = 64;
+
+    @ConfField(mutable = true)
+    public static int incremental_scan_ranges_batch_size = 256;
+
+    /**
+     * If set to true, the iceberg metadata files read by fe are also cached on local disk below the memory cache,
+     * and the disk cache is kept when fe restarts.
+     */
+    @ConfField
+    public static boolean enable_iceberg_metadata_disk_cache = false;
+
+    @ConfField
+    public static String iceberg_metadata_disk_cache_dir = StarRocksFE.STARROCKS_HOME_DIR + "/iceberg_metadata_cache";
+
+    /**
+     * The max total bytes of the iceberg metadata disk cache, files are evicted in LRU order above it.
+     */
+    @ConfField
+    public static long iceberg_metadata_disk_cache_capacity = 2L * 1024L * 1024L * 1024L;
+
     /**
      * fe will call es api to get es index shard info every es_state_sync_interval_secs
      */
@@ -1729,4 +1796,43 @@ public class Config extends ConfigBase {
 
     @ConfField(mutable = true)
     public static boolean recursive_dir_search_enabled = false;
+
+    /**
+     * Whether to queue the queries in the frontend before they are dispatched to the backends,
+     * when the concurrency or the estimated memory of the queries reaches the limits below.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_query_queue = false;
+
+    /**
+     * The max number of the running queries of a resource group without concurrency_limit,
+     * or of the queries without resource group. 0 means no limit.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_concurrency_limit = 0;
+
+    /**
+     * The max sum of the memory estimated by the statistics of the running queries. 0 means no limit.
+     */
+    @ConfField(mutable = true)
+    public static long query_queue_mem_limit_bytes = 0;
+
+    /**
+     * The queries are queued when the memory usage of any backend reported by the heartbeat
+     * reaches this ratio of its memory limit. 0 means no limit.
+     */
+    @ConfField(mutable = true)
+    public static double query_queue_be_mem_usage_limit_ratio = 0;
+
+    /**
+     * The max number of the pending queries, the new queries fail when the queue is full.
+     */
+    @ConfField(mutable = true)
+    public static int query_queue_max_queued_queries = 1024;
+
+    /**
+     * The pending queries fail after waiting in the queue for this timeout.
+     */
+    @ConfField(mutable = true)
+    public static long query_queue_pending_timeout_second = 300;
 }
@@ -79,6 +79,10 @@ public class Status {
         return this.errorCode == TStatusCode.GLOBAL_DICT_ERROR;
     }
 
+    public boolean isMemLimitExceeded() {
+        return this.errorCode == TStatusCode.MEM_LIMIT_EXCEEDED;
+    }
+
     public void setStatus(Status status) {
         this.errorCode = status.errorCode;
         this.errorMsg = status.getErrorMsg();
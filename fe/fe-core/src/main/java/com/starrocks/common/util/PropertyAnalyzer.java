@@ -77,6 +77,9 @@ public class PropertyAnalyzer {
     public static final String PROPERTIES_COMPRESSION = "compression";
 
     public static final String PROPERTIES_COLOCATE_MV = "colocate_mv";
+
+    // refresh the aggregate materialized view by merging the data appended to the base table since the last refresh
+    public static final String PROPERTIES_INCREMENTAL_REFRESH = "incremental_refresh";
     /*
      * for upgrade alpha rowset to beta rowset, valid value: v1, v2
      * v1: alpha rowset
@@ -0,0 +1,281 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.hive;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.Daemon;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.gson.GsonUtils;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the file listings of hive and hudi partition directories.
+ *
+ * A listing is keyed by the qualified path of the directory only, so it is shared by all tables and resources
+ * on the same storage. It stays valid while the modification time of the directory is unchanged, which is
+ * checked with one getFileStatus call instead of listing the directory and the block locations of its files.
+ * Adding, deleting or renaming a file changes the modification time of its directory, but rewriting a file
+ * in place doesn't, so the listing of a partition is also dropped when a metastore event of it is processed.
+ * Directories without modification time, like the ones of object storages, are not cached.
+ *
+ * The listings are saved to local disk periodically and loaded when fe starts, so a restarted fe only checks
+ * the modification times of the directories instead of listing them again.
+ */
+public class FileListingCache {
+    private static final Logger LOG = LogManager.getLogger(FileListingCache.class);
+    private static final String CACHE_FILE_NAME = "file_listing_cache";
+
+    private static volatile FileListingCache instance;
+
+    // qualified directory path => listing
+    private final Cache<String, CachedDirectory> directories;
+    // null if the cache is not saved
+    private final File cacheFile;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong savedListingTimeMs = new AtomicLong(0);
+
+    public static FileListingCache getInstance() {
+        if (instance == null) {
+            synchronized (FileListingCache.class) {
+                if (instance == null) {
+                    FileListingCache cache = new FileListingCache(Config.hive_file_listing_cache_dir,
+                            Config.hive_file_listing_cache_max_dirs);
+                    cache.load();
+                    if (cache.cacheFile != null) {
+                        new Daemon("hive-file-listing-cache-saver",
+                                Config.hive_file_listing_cache_save_interval_s * 1000L) {
+                            @Override
+                            protected void runOneCycle() {
+                                cache.save();
+                            }
+                        }.start();
+                    }
+                    instance = cache;
+                }
+            }
+        }
+        return instance;
+    }
+
+    FileListingCache(String cacheDir, long maxDirectories) {
+        this.directories = CacheBuilder.newBuilder().maximumSize(maxDirectories).build();
+        this.cacheFile = Strings.isNullOrEmpty(cacheDir) ? null : new File(cacheDir, CACHE_FILE_NAME);
+    }
+
+    /**
+     * List the files and directories under dir like FileSystem.listLocatedStatus.
+     */
+    public List<LocatedFileStatus> listLocatedStatus(FileSystem fileSystem, Path dir) throws IOException {
+        String key = fileSystem.makeQualified(dir).toString();
+        long startTime = System.currentTimeMillis();
+        // get the modification time before listing, so a change during listing is found by the next check
+        long modificationTime = fileSystem.getFileStatus(dir).getModificationTime();
+        CachedDirectory cachedDirectory = directories.getIfPresent(key);
+        if (cachedDirectory != null && cachedDirectory.modificationTime == modificationTime) {
+            long savedTimeMs = Math.max(0, cachedDirectory.listingTimeMs - (System.currentTimeMillis() - startTime));
+            hitCount.incrementAndGet();
+            savedListingTimeMs.addAndGet(savedTimeMs);
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_HIVE_FILE_LISTING_CACHE_HIT.increase(1L);
+                MetricRepo.COUNTER_HIVE_FILE_LISTING_SAVED_MS.increase(savedTimeMs);
+            }
+            return cachedDirectory.toFileStatuses(new Path(key));
+        }
+
+        long listingStartTime = System.currentTimeMillis();
+        List<LocatedFileStatus> fileStatuses = Lists.newArrayList();
+        RemoteIterator<LocatedFileStatus> iterator = fileSystem.listLocatedStatus(dir);
+        while (iterator.hasNext()) {
+            fileStatuses.add(iterator.next());
+        }
+        missCount.incrementAndGet();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_HIVE_FILE_LISTING_CACHE_MISS.increase(1L);
+        }
+        if (modificationTime > 0) {
+            directories.put(key, new CachedDirectory(key, modificationTime,
+                    System.currentTimeMillis() - listingStartTime, fileStatuses));
+            dirty.set(true);
+        }
+        return fileStatuses;
+    }
+
+    public void invalidate(Path qualifiedDir) {
+        directories.invalidate(qualifiedDir.toString());
+        dirty.set(true);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getSavedListingTimeMs() {
+        return savedListingTimeMs.get();
+    }
+
+    public long size() {
+        return directories.size();
+    }
+
+    // one directory in json per line
+    void save() {
+        if (cacheFile == null || !dirty.compareAndSet(true, false)) {
+            return;
+        }
+        File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.getParentFile().toPath());
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, CachedDirectory> entry : directories.asMap().entrySet()) {
+                    writer.write(GsonUtils.GSON.toJson(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("save hive file listing cache to {} failed", cacheFile, e);
+            dirty.set(true);
+        }
+    }
+
+    void load() {
+        if (cacheFile == null || !cacheFile.exists()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CachedDirectory cachedDirectory = GsonUtils.GSON.fromJson(line, CachedDirectory.class);
+                directories.put(cachedDirectory.path, cachedDirectory);
+            }
+        } catch (Exception e) {
+            LOG.warn("load hive file listing cache from {} failed", cacheFile, e);
+        }
+        LOG.info("load {} directories of hive file listing cache from {} in {} ms",
+                directories.size(), cacheFile, System.currentTimeMillis() - startTime);
+    }
+
+    private static class CachedDirectory {
+        @SerializedName("p")
+        private String path;
+        @SerializedName("mt")
+        private long modificationTime;
+        @SerializedName("lt")
+        private long listingTimeMs;
+        @SerializedName("f")
+        private List<CachedFile> files;
+
+        CachedDirectory(String path, long modificationTime, long listingTimeMs,
+                        List<LocatedFileStatus> fileStatuses) {
+            this.path = path;
+            this.modificationTime = modificationTime;
+            this.listingTimeMs = listingTimeMs;
+            this.files = Lists.newArrayListWithCapacity(fileStatuses.size());
+            for (LocatedFileStatus fileStatus : fileStatuses) {
+                files.add(new CachedFile(fileStatus));
+            }
+        }
+
+        List<LocatedFileStatus> toFileStatuses(Path dir) {
+            List<LocatedFileStatus> fileStatuses = Lists.newArrayListWithCapacity(files.size());
+            for (CachedFile file : files) {
+                fileStatuses.add(file.toFileStatus(dir));
+            }
+            return fileStatuses;
+        }
+    }
+
+    private static class CachedFile {
+        @SerializedName("n")
+        private String name;
+        @SerializedName("l")
+        private long length;
+        @SerializedName("d")
+        private boolean isDirectory;
+        @SerializedName("mt")
+        private long modificationTime;
+        @SerializedName("b")
+        private List<CachedBlock> blocks;
+
+        CachedFile(LocatedFileStatus fileStatus) {
+            this.name = fileStatus.getPath().getName();
+            this.length = fileStatus.getLen();
+            this.isDirectory = fileStatus.isDirectory();
+            this.modificationTime = fileStatus.getModificationTime();
+            BlockLocation[] blockLocations = fileStatus.getBlockLocations();
+            this.blocks = Lists.newArrayListWithCapacity(blockLocations == null ? 0 : blockLocations.length);
+            if (blockLocations != null) {
+                for (BlockLocation blockLocation : blockLocations) {
+                    blocks.add(new CachedBlock(blockLocation));
+                }
+            }
+        }
+
+        LocatedFileStatus toFileStatus(Path dir) {
+            BlockLocation[] blockLocations = new BlockLocation[blocks.size()];
+            for (int i = 0; i < blocks.size(); i++) {
+                CachedBlock block = blocks.get(i);
+                blockLocations[i] = new BlockLocation(block.names, block.hosts, block.offset, block.length);
+            }
+            FileStatus fileStatus = new FileStatus(length, isDirectory, 0, 0, modificationTime, new Path(dir, name));
+            return new LocatedFileStatus(fileStatus, blockLocations);
+        }
+    }
+
+    private static class CachedBlock {
+        @SerializedName("o")
+        private long offset;
+        @SerializedName("l")
+        private long length;
+        @SerializedName("n")
+        private String[] names;
+        @SerializedName("h")
+        private String[] hosts;
+
+        CachedBlock(BlockLocation blockLocation) {
+            this.offset = blockLocation.getOffset();
+            this.length = blockLocation.getLength();
+            try {
+                this.names = blockLocation.getNames();
+                this.hosts = blockLocation.getHosts();
+            } catch (IOException e) {
+                // never thrown by BlockLocation itself
+                this.names = new String[0];
+                this.hosts = new String[0];
+            }
+        }
+    }
+}
@@ -15,18 +15,21 @@ public class HdfsFileDesc {
     // and the base file is not exists (log files only).
     @SerializedName(value = "length")
     private long length;
+    @SerializedName(value = "modificationTime")
+    private long modificationTime;
     private ImmutableList<HdfsFileBlockDesc> blockDescs;
     @SerializedName(value = "splittable")
     private boolean splittable;
     private TextFileFormatDesc textFileFormatDesc;
     private ImmutableList<String> hudiDeltaLogs;
 
-    public HdfsFileDesc(String fileName, String compression, long length,
+    public HdfsFileDesc(String fileName, String compression, long length, long modificationTime,
                         ImmutableList<HdfsFileBlockDesc> blockDescs, ImmutableList<String> hudiDeltaLogs,
                         boolean splittable, TextFileFormatDesc textFileFormatDesc) {
         this.fileName = fileName;
         this.compression = compression;
         this.length = length;
+        this.modificationTime = modificationTime;
         this.blockDescs = blockDescs;
         this.hudiDeltaLogs = hudiDeltaLogs;
         this.splittable = splittable;
@@ -45,6 +48,10 @@ public class HdfsFileDesc {
         return length;
     }
 
+    public long getModificationTime() {
+        return modificationTime;
+    }
+
     public ImmutableList<HdfsFileBlockDesc> getBlockDescs() {
         return blockDescs;
     }
@@ -7,6 +7,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
@@ -20,6 +21,8 @@ import com.starrocks.common.DdlException;
 import com.starrocks.external.HiveMetaStoreTableUtils;
 import com.starrocks.external.ObjectStorageUtils;
 import com.starrocks.server.GlobalStateMgr;
+import org.apache.hadoop.hive.common.FileUtils;
+import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -265,6 +268,125 @@ public class HiveMetaCache {
         }
     }
 
+    /**
+     * Partitions of a hive table can be fetched from metastore in batches with getPartitionsByNames.
+     * Partitions of hudi tables are loaded one by one, because their files are listed by hudi meta client.
+     */
+    public static boolean canLoadPartitionsInBatch(HiveMetaStoreTableInfo hmsTable) {
+        return hmsTable.getTableType() == Table.TableType.HIVE && !hmsTable.getPartColumnNames().isEmpty();
+    }
+
+    /**
+     * Get the partitions in the order of partitionKeys, the partitions not in cache are loaded in one batch.
+     */
+    public List<HivePartition> getPartitions(HiveMetaStoreTableInfo hmsTable,
+                                             List<PartitionKey> partitionKeys) throws DdlException {
+        if (!canLoadPartitionsInBatch(hmsTable)) {
+            List<HivePartition> result = Lists.newArrayListWithCapacity(partitionKeys.size());
+            for (PartitionKey partitionKey : partitionKeys) {
+                result.add(getPartition(hmsTable, partitionKey));
+            }
+            return result;
+        }
+
+        List<HivePartitionKey> keys = toHivePartitionKeys(hmsTable, partitionKeys);
+        Map<HivePartitionKey, HivePartition> partitions = Maps.newHashMap(partitionsCache.getAllPresent(keys));
+        List<HivePartitionKey> missingKeys =
+                keys.stream().filter(key -> !partitions.containsKey(key)).collect(Collectors.toList());
+        if (!missingKeys.isEmpty()) {
+            loadPartitions(hmsTable, missingKeys, partitions, Maps.newHashMap());
+        }
+        return keys.stream().map(partitions::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Get the partition stats in the order of partitionKeys, the stats not in cache are loaded in one batch.
+     */
+    public List<HivePartitionStats> getPartitionsStats(HiveMetaStoreTableInfo hmsTable,
+                                                       List<PartitionKey> partitionKeys) throws DdlException {
+        if (!canLoadPartitionsInBatch(hmsTable)) {
+            List<HivePartitionStats> result = Lists.newArrayListWithCapacity(partitionKeys.size());
+            for (PartitionKey partitionKey : partitionKeys) {
+                result.add(getPartitionStats(hmsTable, partitionKey));
+            }
+            return result;
+        }
+
+        List<HivePartitionKey> keys = toHivePartitionKeys(hmsTable, partitionKeys);
+        Map<HivePartitionKey, HivePartitionStats> partitionsStats =
+                Maps.newHashMap(partitionStatsCache.getAllPresent(keys));
+        List<HivePartitionKey> missingKeys =
+                keys.stream().filter(key -> !partitionsStats.containsKey(key)).collect(Collectors.toList());
+        if (!missingKeys.isEmpty()) {
+            // the total file bytes of stats come from the partitions, which are loaded together if not cached
+            Map<HivePartitionKey, HivePartition> partitions =
+                    Maps.newHashMap(partitionsCache.getAllPresent(missingKeys));
+            loadPartitions(hmsTable, missingKeys, partitions, partitionsStats);
+        }
+        return keys.stream().map(partitionsStats::get).collect(Collectors.toList());
+    }
+
+    private static List<HivePartitionKey> toHivePartitionKeys(HiveMetaStoreTableInfo hmsTable,
+                                                              List<PartitionKey> partitionKeys) {
+        boolean isHudiTable = hmsTable.getTableType() == Table.TableType.HUDI;
+        return partitionKeys.stream()
+                .map(partitionKey -> new HivePartitionKey(hmsTable.getDb(), hmsTable.getTable(),
+                        hmsTable.getTableType(), Utils.getPartitionValues(partitionKey, isHudiTable)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetch the partitions of keys with one getPartitionsByNames call, list the files of the partitions
+     * absent in partitions, and put both the partitions and their stats into the result maps and the caches.
+     * Stats come with the partition objects, so loading them together saves the round trips of stats.
+     */
+    private void loadPartitions(HiveMetaStoreTableInfo hmsTable, List<HivePartitionKey> keys,
+                                Map<HivePartitionKey, HivePartition> partitions,
+                                Map<HivePartitionKey, HivePartitionStats> partitionsStats) throws DdlException {
+        List<String> partColumnNames = hmsTable.getPartColumnNames();
+        List<String> partNames = keys.stream()
+                .map(key -> FileUtils.makePartName(partColumnNames, key.getPartitionValues()))
+                .collect(Collectors.toList());
+        Map<String, Partition> nameToPartition = Maps.newHashMap();
+        for (Partition partition :
+                client.getPartitionsByNames(hmsTable.getDb(), hmsTable.getTable(), partNames)) {
+            nameToPartition.put(FileUtils.makePartName(partColumnNames, partition.getValues()), partition);
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            HivePartitionKey key = keys.get(i);
+            Partition hmsPartition = nameToPartition.get(partNames.get(i));
+            if (hmsPartition == null) {
+                throw new DdlException("get hive partition meta data failed: "
+                        + "partition not exists, partValues: "
+                        + String.join(",", key.getPartitionValues()));
+            }
+            HivePartition partition = partitions.get(key);
+            if (partition == null) {
+                try {
+                    partition = client.toHivePartition(hmsPartition.getSd());
+                } catch (DdlException e) {
+                    throw e;
+                } catch (Exception e) {
+                    LOG.warn("get partition failed", e);
+                    throw new DdlException("get hive partition meta data failed: " + e.getMessage());
+                }
+                partitions.put(key, partition);
+                partitionsCache.put(key, partition);
+            }
+
+            HivePartitionStats partitionStats =
+                    new HivePartitionStats(Utils.getRowCount(hmsPartition.getParameters()));
+            long totalFileBytes = 0;
+            for (HdfsFileDesc fileDesc : partition.getFiles()) {
+                totalFileBytes += fileDesc.getLength();
+            }
+            partitionStats.setTotalFileBytes(totalFileBytes);
+            partitionsStats.put(key, partitionStats);
+            partitionStatsCache.put(key, partitionStats);
+        }
+    }
+
     // NOTE: always using all column names in HiveTable as request param, this will get the best cache effect.
     // set all partitions keys to partitionKeys param, if table is partition table
     public ImmutableMap<String, HiveColumnStats> getTableLevelColumnStats(HiveMetaStoreTableInfo hmsTable)
@@ -377,6 +499,8 @@ public class HiveMetaCache {
         String path = ObjectStorageUtils.formatObjectStoragePath(sd.getLocation());
         boolean isSplittable = ObjectStorageUtils.isObjectStorage(path) ||
                 HdfsFileFormat.isSplittable(sd.getInputFormat());
+        // the files may be rewritten in place, which doesn't change the modification time of the directory
+        client.invalidateFileListing(path);
         List<HdfsFileDesc> fileDescs = client.getHdfsFileDescs(path, isSplittable, sd);
         return new HivePartition(format, ImmutableList.copyOf(fileDescs), path);
     }
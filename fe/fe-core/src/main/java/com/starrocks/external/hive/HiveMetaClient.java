@@ -254,16 +254,7 @@ public class HiveMetaClient {
                 Table table = client.hiveClient.getTable(dbName, tableName);
                 sd = table.getSd();
             }
-            HdfsFileFormat format = HdfsFileFormat.fromHdfsInputFormatClass(sd.getInputFormat());
-            if (format == null) {
-                throw new DdlException("unsupported file format [" + sd.getInputFormat() + "]");
-            }
-
-            String path = ObjectStorageUtils.formatObjectStoragePath(sd.getLocation());
-            List<HdfsFileDesc> fileDescs = getHdfsFileDescs(path,
-                    ObjectStorageUtils.isObjectStorage(path) || HdfsFileFormat.isSplittable(sd.getInputFormat()),
-                    sd);
-            return new HivePartition(format, ImmutableList.copyOf(fileDescs), path);
+            return toHivePartition(sd);
         } catch (NoSuchObjectException e) {
             throw new DdlException("get hive partition meta data failed: "
                     + "partition not exists, partValues: "
@@ -274,6 +265,36 @@ public class HiveMetaClient {
         }
     }
 
+    /**
+     * Get the partitions of the names in one metastore call, and retry with smaller slices
+     * if the metastore fails to send them back in one response.
+     */
+    public List<Partition> getPartitionsByNames(String dbName, String tableName, List<String> partNames)
+            throws DdlException {
+        try (AutoCloseClient client = getClient()) {
+            return client.hiveClient.getPartitionsByNames(dbName, tableName, partNames);
+        } catch (TTransportException te) {
+            return getPartitionsWithRetry(dbName, tableName, partNames, 1);
+        } catch (Exception e) {
+            LOG.warn("get partitions by names failed", e);
+            throw new DdlException("get partitions from hive metastore failed: " + e.getMessage());
+        }
+    }
+
+    // list the files of the partition located by sd
+    public HivePartition toHivePartition(StorageDescriptor sd) throws Exception {
+        HdfsFileFormat format = HdfsFileFormat.fromHdfsInputFormatClass(sd.getInputFormat());
+        if (format == null) {
+            throw new DdlException("unsupported file format [" + sd.getInputFormat() + "]");
+        }
+
+        String path = ObjectStorageUtils.formatObjectStoragePath(sd.getLocation());
+        List<HdfsFileDesc> fileDescs = getHdfsFileDescs(path,
+                ObjectStorageUtils.isObjectStorage(path) || HdfsFileFormat.isSplittable(sd.getInputFormat()),
+                sd);
+        return new HivePartition(format, ImmutableList.copyOf(fileDescs), path);
+    }
+
     public HivePartition getHudiPartition(String dbName, String tableName, List<String> partitionValues)
             throws DdlException {
         try (AutoCloseClient client = getClient()) {
@@ -319,8 +340,13 @@ public class HiveMetaClient {
                                                 String partName) throws Exception {
         List<HdfsFileDesc> fileDescs = Lists.newArrayList();
         HoodieTimeline timeline = metaClient.getActiveTimeline().filterCompletedAndCompactionInstants();
-        String globPath = String.format("%s/%s/*", metaClient.getBasePath(), partName);
-        List<FileStatus> statuses = FSUtils.getGlobStatusExcludingMetaFolder(metaClient.getRawFs(), new Path(globPath));
+        List<FileStatus> statuses;
+        if (Config.enable_hive_file_listing_cache) {
+            statuses = listHudiPartitionFiles(metaClient, partName);
+        } else {
+            String globPath = String.format("%s/%s/*", metaClient.getBasePath(), partName);
+            statuses = FSUtils.getGlobStatusExcludingMetaFolder(metaClient.getRawFs(), new Path(globPath));
+        }
         HoodieTableFileSystemView fileSystemView = new HoodieTableFileSystemView(metaClient,
                 timeline, statuses.toArray(new FileStatus[0]));
         String queryInstant = timeline.lastInstant().get().getTimestamp();
@@ -332,13 +358,48 @@ public class HiveMetaClient {
             String fileName = baseFile.map(BaseFile::getFileName).orElse("");
             long fileLength = baseFile.map(BaseFile::getFileLen).orElse(-1L);
             List<String> logs = fileSlice.getLogFiles().map(HoodieLogFile::getFileName).collect(Collectors.toList());
-            fileDescs.add(new HdfsFileDesc(fileName, "", fileLength,
+            fileDescs.add(new HdfsFileDesc(fileName, "", fileLength, 0,
                     ImmutableList.of(), ImmutableList.copyOf(logs), HdfsFileFormat.isSplittable(sd.getInputFormat()),
                     getTextFileFormatDesc(sd)));
         }
         return fileDescs;
     }
 
+    // the same files as the glob of FSUtils.getGlobStatusExcludingMetaFolder, listed through the file listing cache
+    private List<FileStatus> listHudiPartitionFiles(HoodieTableMetaClient metaClient, String partName)
+            throws IOException {
+        Path partitionPath = partName.isEmpty() ? new Path(metaClient.getBasePath()) :
+                new Path(metaClient.getBasePath(), partName);
+        List<FileStatus> statuses = Lists.newArrayList();
+        try {
+            for (LocatedFileStatus status :
+                    FileListingCache.getInstance().listLocatedStatus(metaClient.getRawFs(), partitionPath)) {
+                if (!status.getPath().toString().contains(HoodieTableMetaClient.METAFOLDER_NAME)) {
+                    statuses.add(status);
+                }
+            }
+        } catch (FileNotFoundException ignored) {
+            // the same as an empty glob result
+        }
+        return statuses;
+    }
+
+    /**
+     * Drop the cached file listing of the directory, which may be changed without changing its modification time.
+     */
+    public void invalidateFileListing(String dirPath) {
+        if (!Config.enable_hive_file_listing_cache) {
+            return;
+        }
+        try {
+            URI uri = new Path(dirPath).toUri();
+            FileSystem fileSystem = getFileSystem(uri);
+            FileListingCache.getInstance().invalidate(fileSystem.makeQualified(new Path(uri.getPath())));
+        } catch (IOException e) {
+            LOG.warn("invalidate file listing of {} failed", dirPath, e);
+        }
+    }
+
     public HiveTableStats getTableStats(String dbName, String tableName) throws DdlException {
         try (AutoCloseClient client = getClient()) {
             Table table = client.hiveClient.getTable(dbName, tableName);
@@ -572,7 +633,7 @@ public class HiveMetaClient {
     private List<Partition> getPartitionsWithRetry(String dbName, String tableName,
                                                    List<String> partNames, int retryNum) throws DdlException {
         int subListSize = (int) Math.pow(2, retryNum);
-        int subListNum = partNames.size() / subListSize;
+        int subListNum = Math.max(1, partNames.size() / subListSize);
         List<List<String>> partNamesList = Lists.partition(partNames, subListNum);
         List<Partition> partitions = Lists.newArrayList();
 
@@ -674,14 +735,22 @@ public class HiveMetaClient {
         // The performance is better than getting status and block location one by one.
         try {
             // files in hdfs may have multiple directories, so we need to list all files in hdfs recursively here
-            RemoteIterator<LocatedFileStatus> blockIterator = null;
-            if (!Config.recursive_dir_search_enabled) {
-                blockIterator = fileSystem.listLocatedStatus(new Path(uri.getPath()));
+            List<LocatedFileStatus> locatedFileStatuses = Lists.newArrayList();
+            if (Config.enable_hive_file_listing_cache && !Config.recursive_dir_search_enabled) {
+                locatedFileStatuses =
+                        FileListingCache.getInstance().listLocatedStatus(fileSystem, new Path(uri.getPath()));
             } else {
-                blockIterator = fileSystem.listFiles(new Path(uri.getPath()), true);
+                RemoteIterator<LocatedFileStatus> blockIterator = null;
+                if (!Config.recursive_dir_search_enabled) {
+                    blockIterator = fileSystem.listLocatedStatus(new Path(uri.getPath()));
+                } else {
+                    blockIterator = fileSystem.listFiles(new Path(uri.getPath()), true);
+                }
+                while (blockIterator.hasNext()) {
+                    locatedFileStatuses.add(blockIterator.next());
+                }
             }
-            while (blockIterator.hasNext()) {
-                LocatedFileStatus locatedFileStatus = blockIterator.next();
+            for (LocatedFileStatus locatedFileStatus : locatedFileStatuses) {
                 if (!isValidDataFile(locatedFileStatus)) {
                     continue;
                 } else if (locatedFileStatus.isDirectory() && Config.recursive_dir_search_enabled) {
@@ -691,8 +760,8 @@ public class HiveMetaClient {
                 BlockLocation[] blockLocations = locatedFileStatus.getBlockLocations();
                 List<HdfsFileBlockDesc> fileBlockDescs = getHdfsFileBlockDescs(blockLocations);
                 fileDescs.add(new HdfsFileDesc(fileName, "", locatedFileStatus.getLen(),
-                        ImmutableList.copyOf(fileBlockDescs), ImmutableList.of(),
-                        isSplittable, getTextFileFormatDesc(sd)));
+                        locatedFileStatus.getModificationTime(), ImmutableList.copyOf(fileBlockDescs),
+                        ImmutableList.of(), isSplittable, getTextFileFormatDesc(sd)));
             }
         } catch (FileNotFoundException ignored) {
             // hive empty partition may not create directory
@@ -3,6 +3,7 @@
 package com.starrocks.external.hive;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
 import com.google.gson.annotations.SerializedName;
 
 public class HivePartition {
@@ -34,4 +35,21 @@ public class HivePartition {
     public String getFullPath() {
         return fullPath;
     }
+
+    // the version of the partition, which is changed by the files added, removed or rewritten in the partition.
+    // the latest modification time alone misses the changes which don't touch the latest file, e.g. a file is
+    // removed or replaced by a file copied with its original modification time.
+    public long getVersion() {
+        long totalLength = 0;
+        long modificationTime = 0;
+        for (HdfsFileDesc file : files) {
+            totalLength += file.getLength();
+            modificationTime = Math.max(modificationTime, file.getModificationTime());
+        }
+        return Hashing.murmur3_128().newHasher()
+                .putInt(files.size())
+                .putLong(totalLength)
+                .putLong(modificationTime)
+                .hash().asLong();
+    }
 }
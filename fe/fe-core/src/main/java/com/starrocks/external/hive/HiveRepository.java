@@ -140,19 +140,27 @@ public class HiveRepository {
         return metaCache.getPartitionKeys(hmsTable);
     }
 
+    // partitions of a hive table are fetched from metastore in batches, hudi partitions are loaded one by one
+    private static List<List<PartitionKey>> splitPartitionKeys(HiveMetaStoreTableInfo hmsTable,
+                                                               List<PartitionKey> partitionKeys) {
+        int batchSize = HiveMetaCache.canLoadPartitionsInBatch(hmsTable) ?
+                Math.max(1, Config.hive_meta_partition_batch_size) : 1;
+        return Lists.partition(partitionKeys, batchSize);
+    }
+
     public List<HivePartition> getPartitions(HiveMetaStoreTableInfo hmsTable, List<PartitionKey> partitionKeys)
             throws DdlException {
         HiveMetaCache metaCache = getMetaCache(hmsTable.getResourceName());
-        List<Future<HivePartition>> futures = Lists.newArrayList();
-        for (PartitionKey partitionKey : partitionKeys) {
-            Future<HivePartition> future = partitionDaemonExecutor
-                    .submit(() -> metaCache.getPartition(hmsTable, partitionKey));
+        List<Future<List<HivePartition>>> futures = Lists.newArrayList();
+        for (List<PartitionKey> batch : splitPartitionKeys(hmsTable, partitionKeys)) {
+            Future<List<HivePartition>> future = partitionDaemonExecutor
+                    .submit(() -> metaCache.getPartitions(hmsTable, batch));
             futures.add(future);
         }
-        List<HivePartition> result = Lists.newArrayList();
-        for (Future<HivePartition> future : futures) {
+        List<HivePartition> result = Lists.newArrayListWithCapacity(partitionKeys.size());
+        for (Future<List<HivePartition>> future : futures) {
             try {
-                result.add(future.get());
+                result.addAll(future.get());
             } catch (InterruptedException | ExecutionException e) {
                 LOG.warn("get table {}.{} partition meta info failed.", hmsTable.getDb(), hmsTable.getTable(), e);
                 throw new DdlException(e.getMessage());
@@ -169,16 +177,16 @@ public class HiveRepository {
     public List<HivePartitionStats> getPartitionsStats(HiveMetaStoreTableInfo hmsTable,
                                                        List<PartitionKey> partitionKeys) throws DdlException {
         HiveMetaCache metaCache = getMetaCache(hmsTable.getResourceName());
-        List<Future<HivePartitionStats>> futures = Lists.newArrayList();
-        for (PartitionKey partitionKey : partitionKeys) {
-            Future<HivePartitionStats> future = partitionDaemonExecutor.
-                    submit(() -> metaCache.getPartitionStats(hmsTable, partitionKey));
+        List<Future<List<HivePartitionStats>>> futures = Lists.newArrayList();
+        for (List<PartitionKey> batch : splitPartitionKeys(hmsTable, partitionKeys)) {
+            Future<List<HivePartitionStats>> future = partitionDaemonExecutor.
+                    submit(() -> metaCache.getPartitionsStats(hmsTable, batch));
             futures.add(future);
         }
-        List<HivePartitionStats> result = Lists.newArrayList();
-        for (Future<HivePartitionStats> future : futures) {
+        List<HivePartitionStats> result = Lists.newArrayListWithCapacity(partitionKeys.size());
+        for (Future<List<HivePartitionStats>> future : futures) {
             try {
-                result.add(future.get());
+                result.addAll(future.get());
             } catch (InterruptedException | ExecutionException e) {
                 LOG.warn("get table {}.{} partition stats meta info failed.", hmsTable.getDb(), hmsTable.getTable(), e);
                 throw new DdlException(e.getMessage());
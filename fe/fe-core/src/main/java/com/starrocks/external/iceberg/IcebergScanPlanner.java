@@ -0,0 +1,269 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.iceberg;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Evaluator;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
+import org.apache.iceberg.expressions.ManifestEvaluator;
+import org.apache.iceberg.expressions.Projections;
+import org.apache.iceberg.util.ThreadPools;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the data files of an iceberg snapshot for both the statistics and the scan of a query.
+ *
+ * The data manifests of the snapshot are read in parallel by the shared iceberg worker pool, whose size is
+ * iceberg_worker_num_threads, instead of one by one in TableScan.planFiles.
+ *
+ * The planned data files are cached for a short time, keyed by the snapshot and the filter. The statistics are
+ * derived from all data files of the snapshot, so the scan of the same query filters the cached data files in
+ * memory instead of reading the manifests again.
+ *
+ * For a scan without cached data files, {@link #planFilesInBatches} returns the data files of each manifest
+ * as soon as it's read, so the scan ranges are built while the other manifests are still being read. At most
+ * iceberg_manifest_read_max_concurrency manifests of one scan are read at the same time, so a table with many
+ * manifests doesn't occupy the worker pool shared by all queries.
+ */
+public class IcebergScanPlanner {
+    private static final Logger LOG = LogManager.getLogger(IcebergScanPlanner.class);
+    private static final long PLANNED_FILES_EXPIRE_SECONDS = 60;
+
+    // table location/snapshot id/filter => data files
+    private static final Cache<String, List<DataFile>> PLANNED_FILES = CacheBuilder.newBuilder()
+            .expireAfterWrite(PLANNED_FILES_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .maximumWeight(Config.iceberg_planned_files_cache_max_files)
+            .weigher((String key, List<DataFile> files) -> files.size())
+            .build();
+
+    private static String cacheKey(Table table, Snapshot snapshot, Expression filter) {
+        return table.location() + "/" + snapshot.snapshotId() + "/" + filter;
+    }
+
+    private static Expression toFilter(List<Expression> icebergPredicates) {
+        if (icebergPredicates == null || icebergPredicates.isEmpty()) {
+            return Expressions.alwaysTrue();
+        }
+        return icebergPredicates.stream().reduce(Expressions.alwaysTrue(), Expressions::and);
+    }
+
+    /**
+     * Returns the cached data files of the snapshot matching the predicates, or null if they are not planned.
+     */
+    public static List<DataFile> getPlannedFiles(Table table, Snapshot snapshot, List<Expression> icebergPredicates) {
+        Expression filter = toFilter(icebergPredicates);
+        List<DataFile> files = PLANNED_FILES.getIfPresent(cacheKey(table, snapshot, filter));
+        if (files != null || filter.op() == Expression.Operation.TRUE) {
+            return files;
+        }
+        List<DataFile> allFiles = PLANNED_FILES.getIfPresent(cacheKey(table, snapshot, Expressions.alwaysTrue()));
+        return allFiles == null ? null : new DataFileFilter(table, filter).filter(allFiles);
+    }
+
+    /**
+     * Plans the data files of the snapshot matching the predicates, the result is cached for the later plans
+     * of the same snapshot.
+     */
+    public static List<DataFile> planFiles(Table table, Snapshot snapshot, List<Expression> icebergPredicates) {
+        List<DataFile> files = getPlannedFiles(table, snapshot, icebergPredicates);
+        if (files != null) {
+            return files;
+        }
+
+        long startTime = System.currentTimeMillis();
+        files = Lists.newArrayList();
+        try (ManifestBatchIterator batches = planFilesInBatches(table, snapshot, icebergPredicates)) {
+            while (batches.hasNext()) {
+                files.addAll(batches.next());
+            }
+        }
+        PLANNED_FILES.put(cacheKey(table, snapshot, toFilter(icebergPredicates)), files);
+        LOG.debug("plan {} data files of iceberg table {} in {} ms", files.size(), table.name(),
+                System.currentTimeMillis() - startTime);
+        return files;
+    }
+
+    /**
+     * Reads the data manifests of the snapshot in parallel, and returns the data files matching the predicates
+     * of each manifest in the order the manifests are read. The iterator must be closed if it's abandoned before
+     * it's exhausted.
+     */
+    public static ManifestBatchIterator planFilesInBatches(Table table, Snapshot snapshot,
+                                                           List<Expression> icebergPredicates) {
+        return planFilesInBatches(table, snapshot, icebergPredicates, Config.iceberg_manifest_read_max_concurrency);
+    }
+
+    @VisibleForTesting
+    static ManifestBatchIterator planFilesInBatches(Table table, Snapshot snapshot, List<Expression> icebergPredicates,
+                                                    int maxConcurrency) {
+        Expression filter = toFilter(icebergPredicates);
+        Map<Integer, ManifestEvaluator> evaluators = new HashMap<>();
+        List<ManifestFile> manifests = snapshot.dataManifests().stream()
+                .filter(manifest -> manifest.hasAddedFiles() || manifest.hasExistingFiles())
+                .filter(manifest -> evaluators.computeIfAbsent(manifest.partitionSpecId(),
+                        specId -> ManifestEvaluator.forRowFilter(filter, table.specs().get(specId), true))
+                        .eval(manifest))
+                .collect(Collectors.toList());
+        return new ManifestBatchIterator(table, filter, manifests, Math.max(1, maxConcurrency));
+    }
+
+    private static List<DataFile> readManifest(Table table, ManifestFile manifest, Expression filter)
+            throws IOException {
+        List<DataFile> files = Lists.newArrayList();
+        try (ManifestReader<DataFile> reader = ManifestFiles.read(manifest, table.io(), table.specs())
+                .filterRows(filter)
+                .caseSensitive(true)) {
+            // the reader reuses the containers of the records, and the files are cached after planning.
+            // the metrics are kept for the statistics computed from the planned files
+            for (DataFile file : reader) {
+                files.add(file.copy());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Keeps at most maxConcurrency manifest reads in flight, and submits the next manifest when the data files of
+     * a read one are consumed. It's consumed by one thread, and may be closed by another thread, which cancels
+     * the reads in flight.
+     */
+    public static class ManifestBatchIterator implements Iterator<List<DataFile>>, Closeable {
+        private final Table table;
+        private final Expression filter;
+        private final Iterator<ManifestFile> unsubmittedManifests;
+        private final int maxConcurrency;
+        private final CompletionService<List<DataFile>> completionService =
+                new ExecutorCompletionService<>(ThreadPools.getWorkerPool());
+        // guarded by this
+        private final Set<Future<List<DataFile>>> inflightReads = new HashSet<>();
+        private volatile boolean closed = false;
+        private int remaining;
+
+        private ManifestBatchIterator(Table table, Expression filter, List<ManifestFile> manifests,
+                                      int maxConcurrency) {
+            this.table = table;
+            this.filter = filter;
+            this.unsubmittedManifests = manifests.iterator();
+            this.maxConcurrency = maxConcurrency;
+            this.remaining = manifests.size();
+            submitReads();
+        }
+
+        private synchronized void submitReads() {
+            while (!closed && inflightReads.size() < maxConcurrency && unsubmittedManifests.hasNext()) {
+                ManifestFile manifest = unsubmittedManifests.next();
+                inflightReads.add(completionService.submit(() -> readManifest(table, manifest, filter)));
+            }
+        }
+
+        @VisibleForTesting
+        synchronized int getInflightReadNum() {
+            return inflightReads.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && !closed;
+        }
+
+        @Override
+        public List<DataFile> next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            if (closed) {
+                throw new StarRocksIcebergException("read iceberg manifest failed: the reader is closed");
+            }
+            try {
+                // a read cancelled by close is also taken, and its get throws CancellationException
+                Future<List<DataFile>> future = completionService.take();
+                synchronized (this) {
+                    inflightReads.remove(future);
+                }
+                List<DataFile> files = future.get();
+                remaining--;
+                submitReads();
+                return files;
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                close();
+                remaining = 0;
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StarRocksIcebergException("read iceberg manifest failed: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            inflightReads.forEach(future -> future.cancel(true));
+            inflightReads.clear();
+        }
+    }
+
+    /**
+     * Filters data files like ManifestReader.filterRows, by the partition and the column metrics of each file.
+     */
+    private static class DataFileFilter {
+        private final Table table;
+        private final Expression filter;
+        private final InclusiveMetricsEvaluator metricsEvaluator;
+        private final Map<Integer, Evaluator> partitionEvaluators = new HashMap<>();
+
+        private DataFileFilter(Table table, Expression filter) {
+            this.table = table;
+            this.filter = filter;
+            this.metricsEvaluator = new InclusiveMetricsEvaluator(table.schema(), filter, true);
+        }
+
+        private Evaluator partitionEvaluator(int specId) {
+            return partitionEvaluators.computeIfAbsent(specId, id -> {
+                PartitionSpec spec = table.specs().get(id);
+                return new Evaluator(spec.partitionType(), Projections.inclusive(spec, true).project(filter), true);
+            });
+        }
+
+        private List<DataFile> filter(List<DataFile> files) {
+            if (files.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return files.stream()
+                    .filter(file -> partitionEvaluator(file.specId()).eval(file.partition()))
+                    .filter(metricsEvaluator::eval)
+                    .collect(Collectors.toList());
+        }
+    }
+}
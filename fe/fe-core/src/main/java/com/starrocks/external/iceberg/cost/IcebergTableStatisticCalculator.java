@@ -4,26 +4,22 @@ package com.starrocks.external.iceberg.cost;
 
 import com.google.common.collect.ImmutableList;
 import com.starrocks.catalog.Column;
+import com.starrocks.external.iceberg.IcebergScanPlanner;
 import com.starrocks.external.iceberg.IcebergUtil;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
 import com.starrocks.sql.optimizer.statistics.Statistics;
 import org.apache.iceberg.DataFile;
-import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionField;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
-import org.apache.iceberg.TableScan;
 import org.apache.iceberg.expressions.Expression;
-import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.types.Comparators;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.Types;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -214,42 +210,37 @@ public class IcebergTableStatisticCalculator {
                 .filter(column -> !identityPartitionIds.contains(column.fieldId()) && column.type().isPrimitiveType())
                 .collect(toImmutableList());
 
-        TableScan tableScan = IcebergUtil.getTableScan(icebergTable,
-                snapshot.get(), icebergPredicates);
+        // planned in the same pass as the scan of the query
+        List<DataFile> dataFiles = IcebergScanPlanner.planFiles(icebergTable, snapshot.get(), icebergPredicates);
 
         IcebergFileStats icebergFileStats = null;
-        try (CloseableIterable<FileScanTask> fileScanTasks = tableScan.planFiles()) {
-            for (FileScanTask fileScanTask : fileScanTasks) {
-                DataFile dataFile = fileScanTask.file();
-                // ignore this data file.
-                if (dataFile.recordCount() == 0) {
-                    continue;
-                }
-                if (icebergFileStats == null) {
-                    icebergFileStats = new IcebergFileStats(
-                            idToTypeMapping,
-                            nonPartitionPrimitiveColumns,
-                            dataFile.partition(),
-                            dataFile.recordCount(),
-                            dataFile.fileSizeInBytes(),
-                            IcebergFileStats.toMap(idToTypeMapping, dataFile.lowerBounds()),
-                            IcebergFileStats.toMap(idToTypeMapping, dataFile.upperBounds()),
-                            dataFile.nullValueCounts(),
-                            dataFile.columnSizes());
-                } else {
-                    icebergFileStats.incrementFileCount();
-                    icebergFileStats.incrementRecordCount(dataFile.recordCount());
-                    icebergFileStats.incrementSize(dataFile.fileSizeInBytes());
-                    updateSummaryMin(icebergFileStats, partitionFields, IcebergFileStats.toMap(idToTypeMapping,
-                            dataFile.lowerBounds()), dataFile.nullValueCounts(), dataFile.recordCount());
-                    updateSummaryMax(icebergFileStats, partitionFields, IcebergFileStats.toMap(idToTypeMapping,
-                            dataFile.upperBounds()), dataFile.nullValueCounts(), dataFile.recordCount());
-                    icebergFileStats.updateNullCount(dataFile.nullValueCounts());
-                    updateColumnSizes(icebergFileStats, dataFile.columnSizes());
-                }
+        for (DataFile dataFile : dataFiles) {
+            // ignore this data file.
+            if (dataFile.recordCount() == 0) {
+                continue;
+            }
+            if (icebergFileStats == null) {
+                icebergFileStats = new IcebergFileStats(
+                        idToTypeMapping,
+                        nonPartitionPrimitiveColumns,
+                        dataFile.partition(),
+                        dataFile.recordCount(),
+                        dataFile.fileSizeInBytes(),
+                        IcebergFileStats.toMap(idToTypeMapping, dataFile.lowerBounds()),
+                        IcebergFileStats.toMap(idToTypeMapping, dataFile.upperBounds()),
+                        dataFile.nullValueCounts(),
+                        dataFile.columnSizes());
+            } else {
+                icebergFileStats.incrementFileCount();
+                icebergFileStats.incrementRecordCount(dataFile.recordCount());
+                icebergFileStats.incrementSize(dataFile.fileSizeInBytes());
+                updateSummaryMin(icebergFileStats, partitionFields, IcebergFileStats.toMap(idToTypeMapping,
+                        dataFile.lowerBounds()), dataFile.nullValueCounts(), dataFile.recordCount());
+                updateSummaryMax(icebergFileStats, partitionFields, IcebergFileStats.toMap(idToTypeMapping,
+                        dataFile.upperBounds()), dataFile.nullValueCounts(), dataFile.recordCount());
+                icebergFileStats.updateNullCount(dataFile.nullValueCounts());
+                updateColumnSizes(icebergFileStats, dataFile.columnSizes());
             }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
         }
         return icebergFileStats;
     }
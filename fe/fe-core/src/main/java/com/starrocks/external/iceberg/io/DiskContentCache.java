@@ -0,0 +1,297 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.iceberg.io;
+
+import com.google.common.hash.Hashing;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Local disk tier of the iceberg metadata content cache, below the memory tier of {@link IcebergCachingFileIO}.
+ *
+ * Every file is saved in one cache file named by the hash of its location, with a header of the location,
+ * the content length and the crc32 of the content. The checksum is validated on every read, and a corrupted
+ * or truncated cache file is dropped and read from remote again. Cache files are evicted in LRU order when
+ * their total bytes exceed the capacity.
+ *
+ * The modification time of a cache file is its last access time, so when fe starts the index is rebuilt from
+ * the cache files in the order of their last access, the metadata of recently used tables is kept and the
+ * memory tier is warmed up from local disk instead of downloading it again.
+ */
+public class DiskContentCache {
+    private static final Logger LOG = LogManager.getLogger(DiskContentCache.class);
+    private static final int MAGIC = 0x53524943;
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static volatile DiskContentCache instance;
+
+    private final File cacheDir;
+    private final long capacity;
+
+    // cache file name => cache file length, in access order. guarded by this
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    /**
+     * @return the disk cache, or null if it's disabled or fails to be created
+     */
+    public static DiskContentCache getInstance() {
+        if (!Config.enable_iceberg_metadata_disk_cache) {
+            return null;
+        }
+        if (instance == null) {
+            synchronized (DiskContentCache.class) {
+                if (instance == null) {
+                    try {
+                        instance = new DiskContentCache(Config.iceberg_metadata_disk_cache_dir,
+                                Config.iceberg_metadata_disk_cache_capacity);
+                    } catch (IOException e) {
+                        LOG.warn("create iceberg metadata disk cache failed, disable it", e);
+                        Config.enable_iceberg_metadata_disk_cache = false;
+                        return null;
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    DiskContentCache(String cacheDir, long capacity) throws IOException {
+        this.cacheDir = new File(cacheDir);
+        this.capacity = capacity;
+        if (!this.cacheDir.exists() && !this.cacheDir.mkdirs()) {
+            throw new IOException("could not create iceberg metadata cache dir " + cacheDir);
+        }
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        long startTime = System.currentTimeMillis();
+        File[] cacheFiles = cacheDir.listFiles();
+        if (cacheFiles == null) {
+            return;
+        }
+        Arrays.sort(cacheFiles, Comparator.comparingLong(File::lastModified));
+        synchronized (this) {
+            for (File file : cacheFiles) {
+                if (file.getName().endsWith(TMP_SUFFIX)) {
+                    deleteFile(file);
+                    continue;
+                }
+                files.put(file.getName(), file.length());
+                usedBytes += file.length();
+            }
+            evict();
+        }
+        LOG.info("load {} files of {} bytes into iceberg metadata disk cache in {} ms",
+                files.size(), usedBytes, System.currentTimeMillis() - startTime);
+    }
+
+    private static String fileName(String location) {
+        return Hashing.sha256().hashString(location, StandardCharsets.UTF_8).toString();
+    }
+
+    private static void deleteFile(File file) {
+        if (!file.delete() && file.exists()) {
+            LOG.warn("could not delete iceberg metadata cache file {}", file);
+        }
+    }
+
+    /**
+     * @return the content of the file at location, or null if it's not cached or the cache file is invalid
+     */
+    public byte[] get(String location) {
+        String name = fileName(location);
+        synchronized (this) {
+            // files.get instead of containsKey to move the file to the end of the access order
+            if (files.get(name) == null) {
+                onMiss();
+                return null;
+            }
+        }
+        File file = new File(cacheDir, name);
+        byte[] content = readCacheFile(file, location);
+        if (content == null) {
+            onMiss();
+            remove(name);
+            return null;
+        }
+        // the modification time is the last access time, which orders the index when fe restarts
+        file.setLastModified(System.currentTimeMillis());
+        hitCount.incrementAndGet();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_ICEBERG_METADATA_DISK_CACHE_HIT.increase(1L);
+        }
+        return content;
+    }
+
+    private void onMiss() {
+        missCount.incrementAndGet();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_ICEBERG_METADATA_DISK_CACHE_MISS.increase(1L);
+        }
+    }
+
+    private static byte[] readCacheFile(File file, String location) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || !location.equals(in.readUTF())) {
+                return null;
+            }
+            long length = in.readLong();
+            long checksum = in.readLong();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                return null;
+            }
+            byte[] content = new byte[(int) length];
+            in.readFully(content);
+            CRC32 crc32 = new CRC32();
+            crc32.update(content, 0, content.length);
+            if (crc32.getValue() != checksum) {
+                LOG.warn("checksum of iceberg metadata cache file {} of {} mismatches", file, location);
+                return null;
+            }
+            return content;
+        } catch (IOException e) {
+            LOG.warn("read iceberg metadata cache file {} of {} failed", file, location, e);
+            return null;
+        }
+    }
+
+    public void put(String location, List<ByteBuffer> buffers) {
+        String name = fileName(location);
+        synchronized (this) {
+            if (files.containsKey(name)) {
+                return;
+            }
+        }
+        CRC32 crc32 = new CRC32();
+        long length = 0;
+        for (ByteBuffer buffer : buffers) {
+            crc32.update(buffer.duplicate());
+            length += buffer.remaining();
+        }
+
+        File tmpFile = new File(cacheDir, name + "." + Thread.currentThread().getId() + TMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(location);
+            out.writeLong(length);
+            out.writeLong(crc32.getValue());
+            for (ByteBuffer buffer : buffers) {
+                ByteBuffer duplicate = buffer.duplicate();
+                byte[] bytes = new byte[duplicate.remaining()];
+                duplicate.get(bytes);
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            LOG.warn("write iceberg metadata cache file {} of {} failed", tmpFile, location, e);
+            deleteFile(tmpFile);
+            return;
+        }
+
+        File file = new File(cacheDir, name);
+        synchronized (this) {
+            if (files.containsKey(name) || tmpFile.length() > capacity || !tmpFile.renameTo(file)) {
+                deleteFile(tmpFile);
+                return;
+            }
+            files.put(name, file.length());
+            usedBytes += file.length();
+            evict();
+        }
+    }
+
+    /**
+     * @return the content length of the cached file, or -1 if it's not cached
+     */
+    public long getLength(String location) {
+        Long fileLength;
+        synchronized (this) {
+            // files.get changes the access order, which is updated again by the following read
+            fileLength = files.get(fileName(location));
+        }
+        if (fileLength == null) {
+            return -1;
+        }
+        // the content length is derived from the indexed file length without reading the header, a corrupted
+        // cache file is detected and dropped by the following read
+        long length = fileLength - headerLength(location);
+        return length >= 0 ? length : -1;
+    }
+
+    // the length of the header written by put: the magic, the location in modified UTF-8 with its 2 bytes length,
+    // the content length and the checksum
+    private static long headerLength(String location) {
+        long utfLength = 0;
+        for (int i = 0; i < location.length(); i++) {
+            char c = location.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength += 1;
+            } else if (c <= 0x07FF) {
+                utfLength += 2;
+            } else {
+                utfLength += 3;
+            }
+        }
+        return 4 + 2 + utfLength + 8 + 8;
+    }
+
+    public void invalidate(String location) {
+        remove(fileName(location));
+    }
+
+    private synchronized void remove(String name) {
+        Long fileLength = files.remove(name);
+        if (fileLength != null) {
+            usedBytes -= fileLength;
+            deleteFile(new File(cacheDir, name));
+        }
+    }
+
+    // guarded by this
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = files.entrySet().iterator();
+        while (usedBytes > capacity && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            iterator.remove();
+            usedBytes -= entry.getValue();
+            deleteFile(new File(cacheDir, entry.getKey()));
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
@@ -24,6 +24,7 @@ package com.starrocks.external.iceberg.io;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Weigher;
+import com.starrocks.metric.MetricRepo;
 import org.apache.iceberg.exceptions.NotFoundException;
 import org.apache.iceberg.exceptions.RuntimeIOException;
 import org.apache.iceberg.io.FileIO;
@@ -39,12 +40,18 @@ import org.apache.logging.log4j.Logger;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 /**
  * Implementation of FileIO that adds metadata content caching features.
+ *
+ * The contents are cached in memory, and also on local disk by {@link DiskContentCache} if it's enabled.
+ * A file missed in memory is read from local disk before remote storage, and a file read from remote storage
+ * is saved on local disk too. The metadata files of iceberg are never changed once written, so a cached content
+ * is valid until the file is deleted.
  */
 public class IcebergCachingFileIO implements FileIO {
     private static final Logger LOG = LogManager.getLogger(IcebergCachingFileIO.class);
@@ -56,9 +63,16 @@ public class IcebergCachingFileIO implements FileIO {
 
     private ContentCache fileContentCache;
     private FileIO wrappedIO;
+    // null if the disk cache is disabled
+    private final DiskContentCache diskContentCache;
 
     public IcebergCachingFileIO(FileIO io) {
+        this(io, DiskContentCache.getInstance());
+    }
+
+    IcebergCachingFileIO(FileIO io, DiskContentCache diskContentCache) {
         this.wrappedIO = io;
+        this.diskContentCache = diskContentCache;
     }
 
     @Override
@@ -70,7 +84,7 @@ public class IcebergCachingFileIO implements FileIO {
 
     @Override
     public InputFile newInputFile(String path) {
-        return new CachingInputFile(fileContentCache, wrappedIO.newInputFile(path));
+        return new CachingInputFile(fileContentCache, diskContentCache, wrappedIO.newInputFile(path));
     }
 
     @Override
@@ -83,6 +97,9 @@ public class IcebergCachingFileIO implements FileIO {
         wrappedIO.deleteFile(path);
         // remove from cache.
         fileContentCache.invalidate(path);
+        if (diskContentCache != null) {
+            diskContentCache.invalidate(path);
+        }
     }
 
     private static class CacheEntry {
@@ -133,17 +150,23 @@ public class IcebergCachingFileIO implements FileIO {
 
     private static class CachingInputFile implements InputFile {
         private final ContentCache contentCache;
+        private final DiskContentCache diskContentCache;
         private final InputFile wrappedInputFile;
 
-        private CachingInputFile(ContentCache cache, InputFile inFile) {
+        private CachingInputFile(ContentCache cache, DiskContentCache diskCache, InputFile inFile) {
             this.contentCache = cache;
+            this.diskContentCache = diskCache;
             this.wrappedInputFile = inFile;
         }
 
         @Override
         public long getLength() {
             CacheEntry buf = contentCache.getIfPresent(location());
-            return (buf != null) ? buf.length : wrappedInputFile.getLength();
+            if (buf != null) {
+                return buf.length;
+            }
+            long length = diskContentCache != null ? diskContentCache.getLength(location()) : -1;
+            return length >= 0 ? length : wrappedInputFile.getLength();
         }
 
         @Override
@@ -171,10 +194,21 @@ public class IcebergCachingFileIO implements FileIO {
         @Override
         public boolean exists() {
             CacheEntry buf = contentCache.getIfPresent(location());
-            return buf != null || wrappedInputFile.exists();
+            if (buf != null) {
+                return true;
+            }
+            return (diskContentCache != null && diskContentCache.getLength(location()) >= 0) ||
+                    wrappedInputFile.exists();
         }
 
         private CacheEntry newCacheEntry() {
+            if (diskContentCache != null) {
+                byte[] content = diskContentCache.get(location());
+                if (content != null) {
+                    return new CacheEntry(content.length, Collections.singletonList(ByteBuffer.wrap(content)));
+                }
+            }
+
             try {
                 long fileLength = getLength();
                 long totalBytesToRead = fileLength;
@@ -199,6 +233,9 @@ public class IcebergCachingFileIO implements FileIO {
                 }
 
                 stream.close();
+                if (diskContentCache != null) {
+                    diskContentCache.put(location(), buffers);
+                }
                 return new CacheEntry(fileLength - totalBytesToRead, buffers);
             } catch (IOException ex) {
                 throw new RuntimeIOException(ex);
@@ -207,6 +244,14 @@ public class IcebergCachingFileIO implements FileIO {
 
         private SeekableInputStream cachedStream() throws IOException {
             try {
+                boolean hit = contentCache.getIfPresent(location()) != null;
+                if (MetricRepo.isInit) {
+                    if (hit) {
+                        MetricRepo.COUNTER_ICEBERG_METADATA_MEMORY_CACHE_HIT.increase(1L);
+                    } else {
+                        MetricRepo.COUNTER_ICEBERG_METADATA_MEMORY_CACHE_MISS.increase(1L);
+                    }
+                }
                 CacheEntry entry = contentCache.get(location(), k -> newCacheEntry());
                 Preconditions.checkNotNull(entry, "CacheEntry should not be null when there is no RuntimeException occurs");
                 return ByteBufferInputStream.wrap(entry.buffers);
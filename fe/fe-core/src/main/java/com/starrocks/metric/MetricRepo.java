@@ -48,6 +48,7 @@ import com.starrocks.monitor.jvm.JvmService;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.proto.PKafkaOffsetProxyRequest;
 import com.starrocks.proto.PKafkaOffsetProxyResult;
+import com.starrocks.qe.QueryQueueManager;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.system.Backend;
@@ -96,8 +97,17 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
+    public static LongCounterMetric COUNTER_HIVE_FILE_LISTING_CACHE_HIT;
+    public static LongCounterMetric COUNTER_HIVE_FILE_LISTING_CACHE_MISS;
+    public static LongCounterMetric COUNTER_HIVE_FILE_LISTING_SAVED_MS;
+    public static LongCounterMetric COUNTER_ICEBERG_METADATA_MEMORY_CACHE_HIT;
+    public static LongCounterMetric COUNTER_ICEBERG_METADATA_MEMORY_CACHE_MISS;
+    public static LongCounterMetric COUNTER_ICEBERG_METADATA_DISK_CACHE_HIT;
+    public static LongCounterMetric COUNTER_ICEBERG_METADATA_DISK_CACHE_MISS;
+    public static LongCounterMetric COUNTER_QUERY_QUEUE_TIMEOUT;
 
     public static Histogram HISTO_QUERY_LATENCY;
+    public static Histogram HISTO_QUERY_QUEUE_PENDING_TIME;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
@@ -199,6 +209,23 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(conections);
 
+        GaugeMetric<Integer> queryQueuePending = new GaugeMetric<Integer>(
+                "query_queue_pending", MetricUnit.REQUESTS, "number of the pending queries in the query queue") {
+            @Override
+            public Integer getValue() {
+                return QueryQueueManager.getInstance().getNumPendingQueries();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(queryQueuePending);
+        GaugeMetric<Integer> queryQueueRunning = new GaugeMetric<Integer>(
+                "query_queue_running", MetricUnit.REQUESTS, "number of the running queries in the query queue") {
+            @Override
+            public Integer getValue() {
+                return QueryQueueManager.getInstance().getNumRunningQueries();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(queryQueueRunning);
+
         // journal id
         GaugeMetric<Long> maxJournalId = (GaugeMetric<Long>) new GaugeMetric<Long>(
                 "max_journal_id", MetricUnit.NOUNIT, "max journal id of this frontends") {
@@ -371,9 +398,39 @@ public final class MetricRepo {
         COUNTER_ROUTINE_LOAD_ERROR_ROWS = new LongCounterMetric("routine_load_error_rows", MetricUnit.ROWS,
                 "total error rows of routine load");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
+        COUNTER_HIVE_FILE_LISTING_CACHE_HIT = new LongCounterMetric("hive_file_listing_cache_hit",
+                MetricUnit.REQUESTS, "total hits of hive file listing cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_FILE_LISTING_CACHE_HIT);
+        COUNTER_HIVE_FILE_LISTING_CACHE_MISS = new LongCounterMetric("hive_file_listing_cache_miss",
+                MetricUnit.REQUESTS, "total misses of hive file listing cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_FILE_LISTING_CACHE_MISS);
+        COUNTER_HIVE_FILE_LISTING_SAVED_MS = new LongCounterMetric("hive_file_listing_saved_ms",
+                MetricUnit.MILLISECONDS, "total listing time of the directories served by hive file listing cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_FILE_LISTING_SAVED_MS);
+        COUNTER_ICEBERG_METADATA_MEMORY_CACHE_HIT = new LongCounterMetric("iceberg_metadata_cache_hit",
+                MetricUnit.REQUESTS, "total hits of iceberg metadata cache");
+        COUNTER_ICEBERG_METADATA_MEMORY_CACHE_HIT.addLabel(new MetricLabel("tier", "memory"));
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ICEBERG_METADATA_MEMORY_CACHE_HIT);
+        COUNTER_ICEBERG_METADATA_MEMORY_CACHE_MISS = new LongCounterMetric("iceberg_metadata_cache_miss",
+                MetricUnit.REQUESTS, "total misses of iceberg metadata cache");
+        COUNTER_ICEBERG_METADATA_MEMORY_CACHE_MISS.addLabel(new MetricLabel("tier", "memory"));
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ICEBERG_METADATA_MEMORY_CACHE_MISS);
+        COUNTER_ICEBERG_METADATA_DISK_CACHE_HIT = new LongCounterMetric("iceberg_metadata_cache_hit",
+                MetricUnit.REQUESTS, "total hits of iceberg metadata cache");
+        COUNTER_ICEBERG_METADATA_DISK_CACHE_HIT.addLabel(new MetricLabel("tier", "disk"));
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ICEBERG_METADATA_DISK_CACHE_HIT);
+        COUNTER_ICEBERG_METADATA_DISK_CACHE_MISS = new LongCounterMetric("iceberg_metadata_cache_miss",
+                MetricUnit.REQUESTS, "total misses of iceberg metadata cache");
+        COUNTER_ICEBERG_METADATA_DISK_CACHE_MISS.addLabel(new MetricLabel("tier", "disk"));
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ICEBERG_METADATA_DISK_CACHE_MISS);
+        COUNTER_QUERY_QUEUE_TIMEOUT = new LongCounterMetric("query_queue_timeout", MetricUnit.REQUESTS,
+                "total queries failed by the pending timeout of the query queue");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_TIMEOUT);
 
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
+        HISTO_QUERY_QUEUE_PENDING_TIME =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query_queue", "pending", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
         HISTO_JOURNAL_WRITE_LATENCY =
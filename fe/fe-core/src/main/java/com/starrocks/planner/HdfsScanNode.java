@@ -195,6 +195,7 @@ public class HdfsScanNode extends ScanNode {
             msg.hdfs_scan_node.setHive_column_names(hiveTable.getDataColumnNames());
             msg.hdfs_scan_node.setTable_name(hiveTable.getName());
         }
+        msg.hdfs_scan_node.setHas_more_scan_ranges(hasMoreScanRanges);
     }
 
     @Override
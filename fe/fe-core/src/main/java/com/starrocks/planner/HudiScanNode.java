@@ -174,6 +174,7 @@ public class HudiScanNode extends ScanNode {
             msg.hdfs_scan_node.setHive_column_names(hudiTable.getDataColumnNames());
             msg.hdfs_scan_node.setTable_name(hudiTable.getName());
         }
+        msg.hdfs_scan_node.setHas_more_scan_ranges(hasMoreScanRanges);
     }
 
     @Override
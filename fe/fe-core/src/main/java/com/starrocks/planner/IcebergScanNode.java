@@ -12,10 +12,14 @@ import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.TupleDescriptor;
 import com.starrocks.catalog.IcebergTable;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.UserException;
 import com.starrocks.external.PredicateUtils;
 import com.starrocks.external.iceberg.ExpressionConverter;
+import com.starrocks.external.iceberg.IcebergScanPlanner;
+import com.starrocks.external.iceberg.IcebergScanPlanner.ManifestBatchIterator;
 import com.starrocks.external.iceberg.IcebergUtil;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.plan.HDFSScanNodePredicates;
 import com.starrocks.system.ComputeNode;
@@ -28,17 +32,19 @@ import com.starrocks.thrift.TPlanNodeType;
 import com.starrocks.thrift.TScanRange;
 import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
-import org.apache.iceberg.CombinedScanTask;
 import org.apache.iceberg.DataFile;
-import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.exceptions.ValidationException;
 import org.apache.iceberg.expressions.Binder;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.util.PropertyUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,6 +56,8 @@ public class IcebergScanNode extends ScanNode {
     private HDFSScanNodePredicates scanNodePredicates = new HDFSScanNodePredicates();
 
     private List<TScanRangeLocations> result = new ArrayList<>();
+    // the scan ranges not in result, only set with incremental scan ranges
+    private ScanRangeSource scanRangeSource = null;
 
     // Exprs in icebergConjuncts converted to Iceberg Expression.
     private List<Expression> icebergPredicates = null;
@@ -153,37 +161,146 @@ public class IcebergScanNode extends ScanNode {
             return;
         }
         preProcessConjuncts();
-        for (CombinedScanTask combinedScanTask : IcebergUtil.getTableScan(
-                srIcebergTable.getIcebergTable(), snapshot.get(),
-                icebergPredicates).planTasks()) {
-            for (FileScanTask task : combinedScanTask.files()) {
-                DataFile file = task.file();
-                LOG.debug("Scan with file " + file.path() + ", file record count " + file.recordCount());
-                if (file.fileSizeInBytes() == 0) {
-                    continue;
+        Table icebergTable = srIcebergTable.getIcebergTable();
+        long splitSize = PropertyUtil.propertyAsLong(icebergTable.properties(), TableProperties.SPLIT_SIZE,
+                TableProperties.SPLIT_SIZE_DEFAULT);
+        // the data files are usually planned and cached by the statistics of the same query
+        List<DataFile> plannedFiles = IcebergScanPlanner.getPlannedFiles(icebergTable, snapshot.get(),
+                icebergPredicates);
+        if (plannedFiles != null) {
+            addScanRangeLocations(plannedFiles, splitSize, result);
+            return;
+        }
+        // with incremental scan ranges, the rest manifests are read when the instances fetch more scan ranges
+        ConnectContext connectContext = ConnectContext.get();
+        boolean incremental = connectContext != null &&
+                connectContext.getSessionVariable().isEnableIncrementalScanRanges();
+        long initialNum = (long) Config.incremental_scan_ranges_initial_num_per_node * hostToBeId.size();
+        ManifestBatchIterator batches = IcebergScanPlanner.planFilesInBatches(icebergTable, snapshot.get(),
+                icebergPredicates);
+        try {
+            while (batches.hasNext()) {
+                if (incremental && result.size() >= initialNum) {
+                    scanRangeSource = new IcebergScanRangeSource(batches, splitSize);
+                    return;
                 }
+                addScanRangeLocations(batches.next(), splitSize, result);
+            }
+        } finally {
+            // the manifest reads in flight are cancelled unless the scan range source reads the rest manifests
+            if (scanRangeSource == null) {
+                batches.close();
+            }
+        }
+    }
+
+    @Override
+    public ScanRangeSource getScanRangeSource() {
+        return scanRangeSource;
+    }
+
+    private static class IcebergScanRangeSource implements ScanRangeSource {
+        private final ManifestBatchIterator batches;
+        private final long splitSize;
+        private final LinkedList<TScanRangeLocations> pending = new LinkedList<>();
+        private volatile boolean closed = false;
 
-                TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
-
-                THdfsScanRange hdfsScanRange = new THdfsScanRange();
-                hdfsScanRange.setFull_path(file.path().toString());
-                hdfsScanRange.setOffset(task.start());
-                hdfsScanRange.setLength(task.length());
-                // For iceberg table we do not need partition id
-                hdfsScanRange.setPartition_id(-1);
-                hdfsScanRange.setFile_length(file.fileSizeInBytes());
-                hdfsScanRange.setFile_format(IcebergUtil.getHdfsFileFormat(file.format()).toThrift());
-                TScanRange scanRange = new TScanRange();
-                scanRange.setHdfs_scan_range(hdfsScanRange);
-                scanRangeLocations.setScan_range(scanRange);
-
-                // TODO: get hdfs block location information for scheduling, use iceberg meta cache
-                TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress("-1", -1));
-                scanRangeLocations.addToLocations(scanRangeLocation);
-
-                result.add(scanRangeLocations);
+        private IcebergScanRangeSource(ManifestBatchIterator batches, long splitSize) {
+            this.batches = batches;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        public boolean hasMore() {
+            return !closed && (!pending.isEmpty() || batches.hasNext());
+        }
+
+        @Override
+        public List<TScanRangeLocations> getNext(int maxSize) {
+            if (closed) {
+                return new ArrayList<>();
+            }
+            while (pending.size() < maxSize && batches.hasNext()) {
+                addScanRangeLocations(batches.next(), splitSize, pending);
             }
+            List<TScanRangeLocations> next = new ArrayList<>();
+            while (next.size() < maxSize && !pending.isEmpty()) {
+                next.add(pending.poll());
+            }
+            return next;
         }
+
+        @Override
+        public void close() {
+            closed = true;
+            // cancels the manifest reads in flight
+            batches.close();
+        }
+    }
+
+    private static void addScanRangeLocations(List<DataFile> files, long splitSize,
+                                              List<TScanRangeLocations> scanRangeLocations) {
+        for (DataFile file : files) {
+            LOG.debug("Scan with file " + file.path() + ", file record count " + file.recordCount());
+            if (file.fileSizeInBytes() == 0) {
+                continue;
+            }
+            long offset = 0;
+            for (long splitEnd : getSplitEnds(file, splitSize)) {
+                scanRangeLocations.add(newScanRangeLocations(file, offset, splitEnd - offset));
+                offset = splitEnd;
+            }
+        }
+    }
+
+    /**
+     * Splits the file like iceberg TableScan.planTasks, at the split offsets of the file if they are present,
+     * like the row groups of parquet files, or at every splitSize bytes.
+     */
+    private static List<Long> getSplitEnds(DataFile file, long splitSize) {
+        List<Long> splitEnds = new ArrayList<>();
+        long fileSize = file.fileSizeInBytes();
+        if (!file.format().isSplittable()) {
+            splitEnds.add(fileSize);
+            return splitEnds;
+        }
+        List<Long> splitOffsets = file.splitOffsets();
+        if (splitOffsets != null && !splitOffsets.isEmpty()) {
+            long splitStart = 0;
+            for (long splitOffset : splitOffsets) {
+                if (splitOffset - splitStart >= splitSize && splitOffset < fileSize) {
+                    splitEnds.add(splitOffset);
+                    splitStart = splitOffset;
+                }
+            }
+        } else {
+            for (long splitEnd = splitSize; splitEnd < fileSize; splitEnd += splitSize) {
+                splitEnds.add(splitEnd);
+            }
+        }
+        splitEnds.add(fileSize);
+        return splitEnds;
+    }
+
+    private static TScanRangeLocations newScanRangeLocations(DataFile file, long offset, long length) {
+        TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
+
+        THdfsScanRange hdfsScanRange = new THdfsScanRange();
+        hdfsScanRange.setFull_path(file.path().toString());
+        hdfsScanRange.setOffset(offset);
+        hdfsScanRange.setLength(length);
+        // For iceberg table we do not need partition id
+        hdfsScanRange.setPartition_id(-1);
+        hdfsScanRange.setFile_length(file.fileSizeInBytes());
+        hdfsScanRange.setFile_format(IcebergUtil.getHdfsFileFormat(file.format()).toThrift());
+        TScanRange scanRange = new TScanRange();
+        scanRange.setHdfs_scan_range(hdfsScanRange);
+        scanRangeLocations.setScan_range(scanRange);
+
+        // TODO: get hdfs block location information for scheduling, use iceberg meta cache
+        TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress("-1", -1));
+        scanRangeLocations.addToLocations(scanRangeLocation);
+        return scanRangeLocations;
     }
 
     public HDFSScanNodePredicates getScanNodePredicates() {
@@ -299,6 +416,7 @@ public class IcebergScanNode extends ScanNode {
         if (srIcebergTable != null) {
             msg.hdfs_scan_node.setTable_name(srIcebergTable.getTable());
         }
+        msg.hdfs_scan_node.setHas_more_scan_ranges(hasMoreScanRanges);
     }
 
     @Override
@@ -14,24 +14,44 @@ import com.starrocks.analysis.TupleDescriptor;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.JDBCResource;
 import com.starrocks.catalog.JDBCTable;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.UserException;
+import com.starrocks.common.util.DateUtils;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.system.Backend;
 import com.starrocks.thrift.TExplainLevel;
 import com.starrocks.thrift.TJDBCScanNode;
+import com.starrocks.thrift.TJDBCScanRange;
+import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPlanNode;
 import com.starrocks.thrift.TPlanNodeType;
+import com.starrocks.thrift.TScanRange;
+import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * full scan on JDBC table.
+ * If the table has a split column, the scan is divided into several ranges on that column,
+ * each range is read by one backend with its own connection.
  */
 public class JDBCScanNode extends ScanNode {
+    private static final Logger LOG = LogManager.getLogger(JDBCScanNode.class);
 
     private final List<String> columns = new ArrayList<>();
     private final List<String> filters = new ArrayList<>();
+    // predicates of each split, empty if the table is scanned as a whole
+    private final List<String> splits = new ArrayList<>();
     private String tableName;
     private JDBCTable table;
 
@@ -51,12 +71,18 @@ public class JDBCScanNode extends ScanNode {
     public void finalizeStats(Analyzer analyzer) throws UserException {
         createJDBCTableColumns();
         createJDBCTableFilters();
+        createJDBCTableSplits();
         computeStats(analyzer);
     }
 
     public void computeColumnsAndFilters() {
         createJDBCTableColumns();
         createJDBCTableFilters();
+        createJDBCTableSplits();
+    }
+
+    public boolean isSplitScan() {
+        return !splits.isEmpty();
     }
 
     @Override
@@ -64,6 +90,14 @@ public class JDBCScanNode extends ScanNode {
         StringBuilder output = new StringBuilder();
         output.append(prefix).append("TABLE: ").append(tableName).append("\n");
         output.append(prefix).append("QUERY: ").append(getJDBCQueryStr()).append("\n");
+        if (isSplitScan()) {
+            output.append(prefix).append("SPLITS: ").append(splits.size()).append("\n");
+            if (detailLevel == TExplainLevel.VERBOSE) {
+                for (String split : splits) {
+                    output.append(prefix).append("  ").append(split).append("\n");
+                }
+            }
+        }
         return output.toString();
     }
 
@@ -107,16 +141,115 @@ public class JDBCScanNode extends ScanNode {
 
             sMap.put(slotRef, tmpRef);
         }
-        JDBCResource resource = (JDBCResource) GlobalStateMgr.getCurrentState().getResourceMgr()
-                .getResource(table.getResourceName());
-        String jdbcURI = resource.getProperty(JDBCResource.URI);
-        boolean isMySQL = jdbcURI.startsWith("jdbc:mysql");
+        boolean isMySQL = isMySQL();
         ArrayList<Expr> mysqlConjuncts = Expr.cloneList(conjuncts, sMap);
         for (Expr p : mysqlConjuncts) {
             filters.add(p.toJDBCSQL(isMySQL));
         }
     }
 
+    private boolean isMySQL() {
+        JDBCResource resource = (JDBCResource) GlobalStateMgr.getCurrentState().getResourceMgr()
+                .getResource(table.getResourceName());
+        String jdbcURI = resource.getProperty(JDBCResource.URI);
+        return jdbcURI.startsWith("jdbc:mysql");
+    }
+
+    /**
+     * Divide [lower, upper) of the split column into split_num ranges of the same width.
+     * The first range also covers values below the lower bound and nulls, the last range
+     * covers values above the upper bound, so the splits are still complete if the bounds
+     * (or the statistics they are derived from) are stale.
+     */
+    private void createJDBCTableSplits() {
+        splits.clear();
+        if (!table.isSplitScanEnabled() || hasLimit()) {
+            return;
+        }
+        Column column = table.getColumn(table.getSplitColumn());
+        if (column == null) {
+            return;
+        }
+        Type type = column.getType();
+
+        long lower;
+        long upper;
+        try {
+            if (table.getSplitLowerBound() != null) {
+                lower = parseSplitBound(type, table.getSplitLowerBound());
+                upper = parseSplitBound(type, table.getSplitUpperBound());
+            } else {
+                ColumnStatistic statistic = GlobalStateMgr.getCurrentStatisticStorage()
+                        .getColumnStatistic(table, column.getName());
+                if (statistic == null || statistic.isUnknown() || statistic.isInfiniteRange()) {
+                    return;
+                }
+                lower = statisticToSplitBound(type, statistic.getMinValue());
+                upper = statisticToSplitBound(type, statistic.getMaxValue());
+            }
+        } catch (Exception e) {
+            LOG.warn("failed to get split bounds of jdbc table {}, scan it as a whole", table.getName(), e);
+            return;
+        }
+        if (upper <= lower) {
+            return;
+        }
+
+        long width;
+        try {
+            width = Math.subtractExact(upper, lower);
+        } catch (ArithmeticException e) {
+            return;
+        }
+        long step = Math.max(1, (width + table.getSplitNum() - 1) / table.getSplitNum());
+        List<Long> boundaries = new ArrayList<>();
+        for (long bound = lower + step; bound < upper && boundaries.size() < table.getSplitNum() - 1;
+                bound += step) {
+            boundaries.add(bound);
+        }
+        if (boundaries.isEmpty()) {
+            return;
+        }
+
+        String col = isMySQL() ? "`" + column.getName() + "`" : column.getName();
+        splits.add(col + " < " + formatSplitBound(type, boundaries.get(0)) + " OR " + col + " IS NULL");
+        for (int i = 1; i < boundaries.size(); i++) {
+            splits.add(col + " >= " + formatSplitBound(type, boundaries.get(i - 1)) +
+                    " AND " + col + " < " + formatSplitBound(type, boundaries.get(i)));
+        }
+        splits.add(col + " >= " + formatSplitBound(type, boundaries.get(boundaries.size() - 1)));
+    }
+
+    // Bounds are days since epoch for date column, seconds since epoch for datetime column
+    private static long parseSplitBound(Type type, String value) {
+        if (type.isDatetime()) {
+            return DateUtils.parseStringWithDefaultHSM(value, DateUtils.DATE_TIME_FORMATTER)
+                    .toEpochSecond(ZoneOffset.UTC);
+        } else if (type.isDateType()) {
+            return LocalDate.parse(value, DateUtils.DATE_FORMATTER).toEpochDay();
+        }
+        return Long.parseLong(value);
+    }
+
+    private static long statisticToSplitBound(Type type, double value) {
+        if (type.isDatetime()) {
+            return Utils.getDatetimeFromLong((long) value).toEpochSecond(ZoneOffset.UTC);
+        } else if (type.isDateType()) {
+            return Utils.getDatetimeFromLong((long) value).toLocalDate().toEpochDay();
+        }
+        return (long) value;
+    }
+
+    private static String formatSplitBound(Type type, long value) {
+        if (type.isDatetime()) {
+            return "'" + LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC)
+                    .format(DateUtils.DATE_TIME_FORMATTER) + "'";
+        } else if (type.isDateType()) {
+            return "'" + LocalDate.ofEpochDay(value).format(DateUtils.DATE_FORMATTER) + "'";
+        }
+        return Long.toString(value);
+    }
+
     @Override
     public boolean canUsePipeLine() {
         return true;
@@ -135,12 +268,41 @@ public class JDBCScanNode extends ScanNode {
 
     @Override
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
-        return null;
+        if (!isSplitScan()) {
+            return null;
+        }
+        List<Backend> backends = new ArrayList<>();
+        for (Backend be : GlobalStateMgr.getCurrentSystemInfo().getIdToBackend().values()) {
+            if (be.isAlive()) {
+                backends.add(be);
+            }
+        }
+        Collections.shuffle(backends);
+
+        // every split can be read by any backend, let the coordinator balance them
+        List<TScanRangeLocations> result = new ArrayList<>();
+        for (String split : splits) {
+            TJDBCScanRange jdbcScanRange = new TJDBCScanRange();
+            jdbcScanRange.addToFilters(split);
+            TScanRange scanRange = new TScanRange();
+            scanRange.setJdbc_scan_range(jdbcScanRange);
+
+            TScanRangeLocations locations = new TScanRangeLocations();
+            locations.setScan_range(scanRange);
+            for (Backend be : backends) {
+                TScanRangeLocation location = new TScanRangeLocation();
+                location.setBackend_id(be.getId());
+                location.setServer(new TNetworkAddress(be.getHost(), be.getBePort()));
+                locations.addToLocations(location);
+            }
+            result.add(locations);
+        }
+        return result;
     }
 
     @Override
     public int getNumInstances() {
-        return 1;
+        return isSplitScan() ? splits.size() : 1;
     }
 
     @Override
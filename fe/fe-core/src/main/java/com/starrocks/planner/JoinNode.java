@@ -280,6 +280,10 @@ public abstract class JoinNode extends PlanNode implements RuntimeFilterBuildNod
         this.distrMode = distrMode;
     }
 
+    public DistributionMode getDistributionMode() {
+        return distrMode;
+    }
+
     public boolean isBroadcast() {
         return this.distrMode == DistributionMode.BROADCAST;
     }
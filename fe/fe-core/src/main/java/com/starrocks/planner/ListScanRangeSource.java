@@ -0,0 +1,42 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.google.common.collect.Lists;
+import com.starrocks.thrift.TScanRangeLocations;
+
+import java.util.List;
+
+/**
+ * Source of the scan ranges which are already planned but too many to be sent in the plan fragments.
+ */
+public class ListScanRangeSource implements ScanRangeSource {
+    private final List<TScanRangeLocations> scanRangeLocations;
+    private int nextIndex = 0;
+    private volatile boolean closed = false;
+
+    public ListScanRangeSource(List<TScanRangeLocations> scanRangeLocations) {
+        this.scanRangeLocations = scanRangeLocations;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return !closed && nextIndex < scanRangeLocations.size();
+    }
+
+    @Override
+    public List<TScanRangeLocations> getNext(int maxSize) {
+        if (closed) {
+            return Lists.newArrayList();
+        }
+        int endIndex = Math.min(scanRangeLocations.size(), nextIndex + maxSize);
+        List<TScanRangeLocations> next = Lists.newArrayList(scanRangeLocations.subList(nextIndex, endIndex));
+        nextIndex = endIndex;
+        return next;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -471,6 +471,31 @@ public class OlapScanNode extends ScanNode {
         return result;
     }
 
+    /**
+     * Only read the data appended to the partitions since the given versions, which is used by the incremental
+     * refresh of materialized views.
+     * @param partitionReadVersions partition id to the version which has been read
+     */
+    public void setPartitionReadVersions(Map<Long, Long> partitionReadVersions) {
+        Map<Long, Long> tabletStartVersions = Maps.newHashMap();
+        for (Map.Entry<Long, Long> entry : partitionReadVersions.entrySet()) {
+            if (!selectedPartitionIds.contains(entry.getKey())) {
+                continue;
+            }
+            MaterializedIndex index = olapTable.getPartition(entry.getKey()).getIndex(selectedIndexId);
+            for (long tabletId : index.getTabletIdsInOrder()) {
+                tabletStartVersions.put(tabletId, entry.getValue() + 1);
+            }
+        }
+        for (TScanRangeLocations scanRangeLocations : result) {
+            TInternalScanRange internalRange = scanRangeLocations.getScan_range().getInternal_scan_range();
+            Long startVersion = tabletStartVersions.get(internalRange.getTablet_id());
+            if (startVersion != null) {
+                internalRange.setStart_version(startVersion);
+            }
+        }
+    }
+
     @Override
     protected String getNodeExplainString(String prefix, TExplainLevel detailLevel) {
         StringBuilder output = new StringBuilder();
@@ -38,6 +38,7 @@ public abstract class ScanNode extends PlanNode {
     protected final TupleDescriptor desc;
     protected Map<String, PartitionColumnFilter> columnFilters;
     protected String sortColumn = null;
+    protected boolean hasMoreScanRanges = false;
 
     public ScanNode(PlanNodeId id, TupleDescriptor desc, String planNodeName) {
         super(id, desc.getId().asList(), planNodeName);
@@ -69,6 +70,21 @@ public abstract class ScanNode extends PlanNode {
      */
     public abstract List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength);
 
+    /**
+     * Returns the source of the scan ranges not returned by getScanRangeLocations, or null if all scan ranges
+     * are returned by getScanRangeLocations.
+     */
+    public ScanRangeSource getScanRangeSource() {
+        return null;
+    }
+
+    /**
+     * Set by the coordinator if the instances fetch the rest scan ranges from it while they are running.
+     */
+    public void setHasMoreScanRanges(boolean hasMoreScanRanges) {
+        this.hasMoreScanRanges = hasMoreScanRanges;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("tid", desc.getId().asInt()).add("tblName",
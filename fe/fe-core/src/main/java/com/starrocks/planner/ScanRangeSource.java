@@ -0,0 +1,30 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.starrocks.common.UserException;
+import com.starrocks.thrift.TScanRangeLocations;
+
+import java.util.List;
+
+/**
+ * Source of the scan ranges of a scan node which are not sent in the plan fragments.
+ *
+ * The coordinator assigns the scan ranges returned by {@link ScanNode#getScanRangeLocations} to the instances,
+ * and the instances fetch the rest from this source in batches when they run out of scan ranges, so the scan
+ * ranges are produced only as fast as they are consumed.
+ */
+public interface ScanRangeSource {
+    boolean hasMore();
+
+    /**
+     * Returns the next scan ranges, at most maxSize, it's empty if there are no more scan ranges.
+     */
+    List<TScanRangeLocations> getNext(int maxSize) throws UserException;
+
+    /**
+     * Releases the source when the query finishes or is cancelled, it may be called by another thread while
+     * getNext is running. A closed source has no more scan ranges.
+     */
+    void close();
+}
@@ -64,7 +64,9 @@ import com.starrocks.planner.PlanNode;
 import com.starrocks.planner.PlanNodeId;
 import com.starrocks.planner.ResultSink;
 import com.starrocks.planner.RuntimeFilterDescription;
+import com.starrocks.planner.ListScanRangeSource;
 import com.starrocks.planner.ScanNode;
+import com.starrocks.planner.ScanRangeSource;
 import com.starrocks.planner.UnionNode;
 import com.starrocks.proto.PExecBatchPlanFragmentsResult;
 import com.starrocks.proto.PExecPlanFragmentResult;
@@ -86,6 +88,8 @@ import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TEsScanRange;
 import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
 import com.starrocks.thrift.TExecPlanFragmentParams;
+import com.starrocks.thrift.TGetScanRangesParams;
+import com.starrocks.thrift.TGetScanRangesResult;
 import com.starrocks.thrift.THdfsScanRange;
 import com.starrocks.thrift.TInternalScanRange;
 import com.starrocks.thrift.TLoadJobType;
@@ -103,6 +107,7 @@ import com.starrocks.thrift.TRuntimeFilterProberParams;
 import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
 import com.starrocks.thrift.TScanRangeParams;
+import com.starrocks.thrift.TStatus;
 import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TTabletCommitInfo;
 import com.starrocks.thrift.TUniqueId;
@@ -221,6 +226,9 @@ public class Coordinator {
     private final Set<Integer> colocateFragmentIds = new HashSet<>();
     private final Set<Integer> replicateFragmentIds = new HashSet<>();
     private final Set<Integer> replicateScanIds = new HashSet<>();
+    // scan node id => the scan ranges fetched by the instances while they are running
+    private final Map<Integer, ScanRangeSource> scanRangeSources = Maps.newConcurrentMap();
+    private volatile boolean scanRangeSourcesClosed = false;
     private final Set<Integer> bucketShuffleFragmentIds = new HashSet<>();
     private final Set<Integer> rightOrFullBucketShuffleFragmentIds = new HashSet<>();
 
@@ -525,6 +533,9 @@ public class Coordinator {
         // prepare workgroup
         this.resourceGroup = prepareResourceGroup(connectContext);
 
+        // wait in the query queue before the fragments are assigned to the backends
+        admitQuery();
+
         // compute Fragment Instance
         computeScanRangeAssignment();
 
@@ -553,6 +564,14 @@ public class Coordinator {
         deliverExecFragments();
     }
 
+    private void admitQuery() throws UserException {
+        if (connectContext == null || fragments.isEmpty() || !(fragments.get(0).getSink() instanceof ResultSink)) {
+            return;
+        }
+        QueryQueueManager.getInstance().acquire(
+                QueryQueueManager.createSlot(queryId, resourceGroup, connectContext, fragments));
+    }
+
     public static ResourceGroup prepareResourceGroup(ConnectContext connect) {
         ResourceGroup resourceGroup = null;
         if (connect == null || !connect.getSessionVariable().isEnableResourceGroup()) {
@@ -1340,6 +1359,7 @@ public class Coordinator {
 
         if (resultBatch.isEos()) {
             this.returnedAllResults = true;
+            closeScanRangeSources();
 
             // if this query is a block query do not cancel.
             long numLimitRows = fragments.get(0).getPlanRoot().getLimit();
@@ -1368,6 +1388,7 @@ public class Coordinator {
                 queryStatus.setStatus(Status.CANCELLED);
             }
             LOG.warn("cancel execution of query, this is outside invoke");
+            QueryQueueManager.getInstance().cancel(queryId);
             cancelInternal(PPlanFragmentCancelReason.USER_CANCEL);
         } finally {
             unlock();
@@ -1375,6 +1396,7 @@ public class Coordinator {
     }
 
     private void cancelInternal(PPlanFragmentCancelReason cancelReason) {
+        closeScanRangeSources();
         if (null != receiver) {
             receiver.cancel();
         }
@@ -2124,6 +2146,7 @@ public class Coordinator {
                     fragmentExecParamsMap.get(scanNode.getFragmentId()).scanRangeAssignment;
             if ((scanNode instanceof HdfsScanNode) || (scanNode instanceof IcebergScanNode) ||
                     scanNode instanceof HudiScanNode) {
+                locations = prepareScanRangeSource(scanNode, locations);
                 HDFSBackendSelector selector =
                         new HDFSBackendSelector(scanNode, locations, assignment, addressToBackendID,
                                 getSelectorComputeNodes(hasComputeNode),
@@ -2149,6 +2172,97 @@ public class Coordinator {
         }
     }
 
+    // Keeps the scan ranges beyond the first ones of the hdfs scan node in its source with incremental scan ranges,
+    // so the plan fragments are small and the instances start to scan before all scan ranges are planned.
+    // Returns the scan ranges sent in the plan fragments.
+    private List<TScanRangeLocations> prepareScanRangeSource(ScanNode scanNode, List<TScanRangeLocations> locations)
+            throws UserException {
+        ScanRangeSource source = scanNode.getScanRangeSource();
+        boolean incremental = connectContext != null &&
+                connectContext.getSessionVariable().isEnableIncrementalScanRanges() &&
+                connectContext.getSessionVariable().isEnablePipelineEngine() &&
+                fragments.stream().allMatch(PlanFragment::canUsePipeline);
+        if (!incremental) {
+            if (source == null) {
+                return locations;
+            }
+            // the planned source of a scan node must be drained if the instances can't fetch from it
+            List<TScanRangeLocations> allLocations = Lists.newArrayList(locations);
+            try {
+                while (source.hasMore()) {
+                    allLocations.addAll(source.getNext(Config.incremental_scan_ranges_batch_size));
+                }
+            } finally {
+                source.close();
+            }
+            return allLocations;
+        }
+
+        int initialNum = Config.incremental_scan_ranges_initial_num_per_node *
+                Math.max(1, getSelectorComputeNodes(hasComputeNode).size());
+        if (source == null) {
+            if (locations.size() <= initialNum) {
+                return locations;
+            }
+            source = new ListScanRangeSource(locations.subList(initialNum, locations.size()));
+            locations = locations.subList(0, initialNum);
+        }
+        scanNode.setHasMoreScanRanges(true);
+        scanRangeSources.put(scanNode.getId().asInt(), source);
+        if (scanRangeSourcesClosed) {
+            // the query is cancelled while its scan ranges are being planned
+            source.close();
+        }
+        return locations;
+    }
+
+    // Closes the scan range sources when the query finishes, fails or is cancelled, so the scan ranges which are
+    // not fetched yet are not planned any more. It doesn't wait for the getScanRanges calls in progress.
+    public void closeScanRangeSources() {
+        scanRangeSourcesClosed = true;
+        for (ScanRangeSource source : scanRangeSources.values()) {
+            source.close();
+        }
+    }
+
+    public TGetScanRangesResult getScanRanges(TGetScanRangesParams params) throws UserException {
+        TGetScanRangesResult result = new TGetScanRangesResult();
+        ScanRangeSource source = scanRangeSources.get(params.getPlan_node_id());
+        if (source == null) {
+            result.setStatus(new TStatus(TStatusCode.NOT_FOUND));
+            result.status.addToError_msgs("no scan range source of node " + params.getPlan_node_id());
+            return result;
+        }
+        if (scanRangeSourcesClosed) {
+            return closedScanRangeSourceResult(params.getPlan_node_id());
+        }
+
+        List<TScanRangeParams> scanRanges = Lists.newArrayList();
+        // the instances of a scan node share its source
+        synchronized (source) {
+            for (TScanRangeLocations scanRangeLocations : source.getNext(Config.incremental_scan_ranges_batch_size)) {
+                TScanRangeParams scanRangeParams = new TScanRangeParams();
+                scanRangeParams.scan_range = scanRangeLocations.scan_range;
+                scanRanges.add(scanRangeParams);
+            }
+            result.setHas_more(source.hasMore());
+        }
+        // the scan ranges read by a closed source may be partial
+        if (scanRangeSourcesClosed) {
+            return closedScanRangeSourceResult(params.getPlan_node_id());
+        }
+        result.setScan_ranges(scanRanges);
+        result.setStatus(new TStatus(TStatusCode.OK));
+        return result;
+    }
+
+    private static TGetScanRangesResult closedScanRangeSourceResult(int planNodeId) {
+        TGetScanRangesResult result = new TGetScanRangesResult();
+        result.setStatus(new TStatus(TStatusCode.CANCELLED));
+        result.status.addToError_msgs("scan range source of node " + planNodeId + " is closed");
+        return result;
+    }
+
     public void updateFragmentExecStatus(TReportExecStatusParams params) {
         BackendExecState execState = backendExecStates.get(params.backend_num);
         if (execState == null) {
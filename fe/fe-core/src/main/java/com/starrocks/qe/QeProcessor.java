@@ -20,6 +20,8 @@ package com.starrocks.qe;
 import com.starrocks.common.UserException;
 import com.starrocks.thrift.TBatchReportExecStatusParams;
 import com.starrocks.thrift.TBatchReportExecStatusResult;
+import com.starrocks.thrift.TGetScanRangesParams;
+import com.starrocks.thrift.TGetScanRangesResult;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TReportExecStatusParams;
 import com.starrocks.thrift.TReportExecStatusResult;
@@ -33,6 +35,8 @@ public interface QeProcessor {
 
     TBatchReportExecStatusResult batchReportExecStatus(TBatchReportExecStatusParams params, TNetworkAddress beAddr);
 
+    TGetScanRangesResult getScanRanges(TGetScanRangesParams params);
+
     void registerQuery(TUniqueId queryId, Coordinator coord) throws UserException;
 
     void registerQuery(TUniqueId queryId, QeProcessorImpl.QueryInfo info) throws UserException;
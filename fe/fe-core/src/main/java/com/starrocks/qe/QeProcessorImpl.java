@@ -26,6 +26,8 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.thrift.TBatchReportExecStatusParams;
 import com.starrocks.thrift.TBatchReportExecStatusResult;
+import com.starrocks.thrift.TGetScanRangesParams;
+import com.starrocks.thrift.TGetScanRangesResult;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TReportExecStatusParams;
 import com.starrocks.thrift.TReportExecStatusResult;
@@ -78,9 +80,14 @@ public final class QeProcessorImpl implements QeProcessor {
 
     @Override
     public void unregisterQuery(TUniqueId queryId) {
-        if (coordinatorMap.remove(queryId) != null) {
+        QueryInfo info = coordinatorMap.remove(queryId);
+        if (info != null) {
             LOG.info("deregister query id {}", DebugUtil.printId(queryId));
+            if (info.getCoord() != null) {
+                info.getCoord().closeScanRangeSources();
+            }
         }
+        QueryQueueManager.getInstance().release(queryId);
     }
 
     @Override
@@ -179,6 +186,28 @@ public final class QeProcessorImpl implements QeProcessor {
         return resultList;
     }
 
+    @Override
+    public TGetScanRangesResult getScanRanges(TGetScanRangesParams params) {
+        final QueryInfo info = coordinatorMap.get(params.query_id);
+        if (info == null) {
+            TGetScanRangesResult result = new TGetScanRangesResult();
+            result.setStatus(new TStatus(TStatusCode.NOT_FOUND));
+            result.status.addToError_msgs("query id " + DebugUtil.printId(params.query_id) + " not found");
+            return result;
+        }
+        try {
+            return info.getCoord().getScanRanges(params);
+        } catch (Exception e) {
+            LOG.warn("GetScanRanges() failed, fragment_instance_id={}, query_id={}, plan_node_id={}",
+                    DebugUtil.printId(params.fragment_instance_id), DebugUtil.printId(params.query_id),
+                    params.plan_node_id, e);
+            TGetScanRangesResult result = new TGetScanRangesResult();
+            result.setStatus(new TStatus(TStatusCode.INTERNAL_ERROR));
+            result.status.addToError_msgs(e.getMessage());
+            return result;
+        }
+    }
+
     public static final class QueryInfo {
         private final ConnectContext connectContext;
         private final Coordinator coord;
@@ -0,0 +1,364 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.TimeUtils;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.planner.AggregationNode;
+import com.starrocks.planner.AnalyticEvalNode;
+import com.starrocks.planner.JoinNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
+import com.starrocks.planner.SortNode;
+import com.starrocks.system.BackendCoreStat;
+import com.starrocks.thrift.TUniqueId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits the queries of this frontend before they are dispatched to the backends.
+ *
+ * The queries wait in the queue of their resource group, ordered by the priority and then the arrival,
+ * while the running queries of the group reach its concurrency limit, the estimated memory of the running
+ * queries reaches {@link Config#query_queue_mem_limit_bytes}, or any backend reported by the heartbeat
+ * uses too much memory. A query is always admitted when no query is running, so a query estimated bigger
+ * than the limits still runs alone.
+ *
+ * All queries to the result sink are tracked even if the queue is disabled, for SHOW RUNNING QUERIES.
+ */
+public class QueryQueueManager {
+    private static final Logger LOG = LogManager.getLogger(QueryQueueManager.class);
+
+    // the group of the queries without resource group
+    private static final long NO_GROUP_ID = -1;
+    // the backend load is refreshed by the heartbeat without notification, so the pending queries re-check it
+    private static final long RECHECK_INTERVAL_MS = 1000;
+
+    private static final QueryQueueManager INSTANCE = new QueryQueueManager();
+
+    public static QueryQueueManager getInstance() {
+        return INSTANCE;
+    }
+
+    public enum State {
+        PENDING,
+        RUNNING
+    }
+
+    public static class QuerySlot {
+        private final TUniqueId queryId;
+        private final long groupId;
+        private final String groupName;
+        // 0 means the default limit of the config
+        private final int concurrencyLimit;
+        private final String user;
+        private final int priority;
+        private final long estimatedMemBytes;
+
+        private long seq;
+        private long queueStartTime;
+        private long admitTime;
+        private State state = State.PENDING;
+        private boolean cancelled = false;
+
+        public QuerySlot(TUniqueId queryId, long groupId, String groupName, int concurrencyLimit, String user,
+                         int priority, long estimatedMemBytes) {
+            this.queryId = queryId;
+            this.groupId = groupId;
+            this.groupName = groupName;
+            this.concurrencyLimit = concurrencyLimit;
+            this.user = user;
+            this.priority = priority;
+            this.estimatedMemBytes = estimatedMemBytes;
+        }
+
+        public TUniqueId getQueryId() {
+            return queryId;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getEstimatedMemBytes() {
+            return estimatedMemBytes;
+        }
+    }
+
+    private static final Comparator<QuerySlot> PENDING_ORDER =
+            Comparator.<QuerySlot>comparingInt(slot -> -slot.priority).thenComparingLong(slot -> slot.seq);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<TUniqueId, QuerySlot> slots = new LinkedHashMap<>();
+    // group id => pending queries of the group
+    private final Map<Long, PriorityQueue<QuerySlot>> pendingQueues = new HashMap<>();
+    // group id => number of running queries of the group
+    private final Map<Long, Integer> runningNums = new HashMap<>();
+    private int numPending = 0;
+    private int numRunning = 0;
+    private long runningMemBytes = 0;
+    private long nextSeq = 0;
+
+    @VisibleForTesting
+    QueryQueueManager() {
+    }
+
+    public static QuerySlot createSlot(TUniqueId queryId, ResourceGroup resourceGroup, ConnectContext context,
+                                       List<PlanFragment> fragments) {
+        long groupId = NO_GROUP_ID;
+        String groupName = "";
+        int concurrencyLimit = 0;
+        if (resourceGroup != null) {
+            groupId = resourceGroup.getId();
+            groupName = resourceGroup.getName() == null ? String.valueOf(groupId) : resourceGroup.getName();
+            if (resourceGroup.getConcurrencyLimit() != null) {
+                concurrencyLimit = resourceGroup.getConcurrencyLimit();
+            }
+        }
+        return new QuerySlot(queryId, groupId, groupName, concurrencyLimit, context.getQualifiedUser(),
+                context.getSessionVariable().getQueryQueuePriority(), estimateMemBytes(fragments));
+    }
+
+    // Estimates the memory of the hash tables and the sort buffers of the query by the statistics of the plan,
+    // the nodes without statistics are ignored.
+    public static long estimateMemBytes(List<PlanFragment> fragments) {
+        long memBytes = 0;
+        for (PlanFragment fragment : fragments) {
+            memBytes += estimateMemBytes(fragment.getPlanRoot());
+        }
+        return memBytes;
+    }
+
+    private static long estimateMemBytes(PlanNode node) {
+        long memBytes = 0;
+        if (node instanceof JoinNode) {
+            // the hash table is built from the right child
+            memBytes += estimateOutputBytes(node.getChild(1));
+        } else if (node instanceof AggregationNode || node instanceof SortNode || node instanceof AnalyticEvalNode) {
+            memBytes += estimateOutputBytes(node);
+        }
+        for (PlanNode child : node.getChildren()) {
+            memBytes += estimateMemBytes(child);
+        }
+        return memBytes;
+    }
+
+    private static long estimateOutputBytes(PlanNode node) {
+        if (node.getCardinality() <= 0 || node.getAvgRowSize() <= 0) {
+            return 0;
+        }
+        return (long) (node.getCardinality() * (double) node.getAvgRowSize());
+    }
+
+    /**
+     * Blocks until the query is admitted, the query fails if the queue is full, the query waits longer than
+     * {@link Config#query_queue_pending_timeout_second} or the query is cancelled.
+     */
+    public void acquire(QuerySlot slot) throws UserException {
+        lock.lock();
+        try {
+            slot.queueStartTime = System.currentTimeMillis();
+            PriorityQueue<QuerySlot> pendingQueue = pendingQueues.get(slot.groupId);
+            if (!Config.enable_query_queue ||
+                    ((pendingQueue == null || pendingQueue.isEmpty()) && canAdmit(slot))) {
+                slots.put(slot.queryId, slot);
+                admit(slot);
+                return;
+            }
+            if (numPending >= Config.query_queue_max_queued_queries) {
+                throw new UserException(String.format("the query queue is full with %d pending queries, " +
+                        "please retry later or increase query_queue_max_queued_queries", numPending));
+            }
+
+            slot.seq = nextSeq++;
+            slots.put(slot.queryId, slot);
+            pendingQueues.computeIfAbsent(slot.groupId, k -> new PriorityQueue<>(PENDING_ORDER)).add(slot);
+            numPending++;
+            LOG.info("query {} is pending in the query queue of resource group {}",
+                    DebugUtil.printId(slot.queryId), slot.groupName);
+            try {
+                waitForAdmission(slot);
+            } finally {
+                if (slot.state == State.PENDING) {
+                    removePending(slot);
+                    slots.remove(slot.queryId);
+                    // the head of the queue may be changed
+                    changed.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void waitForAdmission(QuerySlot slot) throws UserException {
+        long deadline = slot.queueStartTime + Config.query_queue_pending_timeout_second * 1000;
+        while (true) {
+            if (slot.cancelled) {
+                throw new UserException("query is cancelled while pending in the query queue");
+            }
+            // the pending queries are admitted at once if the queue is disabled meanwhile
+            if (!Config.enable_query_queue || (pendingQueues.get(slot.groupId).peek() == slot && canAdmit(slot))) {
+                removePending(slot);
+                admit(slot);
+                // the next pending query of the group may be admitted too
+                changed.signalAll();
+                return;
+            }
+            long waitMs = deadline - System.currentTimeMillis();
+            if (waitMs <= 0) {
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_QUERY_QUEUE_TIMEOUT.increase(1L);
+                }
+                throw new UserException(String.format("query is pending in the query queue for more than %d " +
+                                "seconds, please retry later or increase query_queue_pending_timeout_second",
+                        Config.query_queue_pending_timeout_second));
+            }
+            try {
+                changed.await(Math.min(waitMs, RECHECK_INTERVAL_MS), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UserException("query is interrupted while pending in the query queue");
+            }
+        }
+    }
+
+    private boolean canAdmit(QuerySlot slot) {
+        int concurrencyLimit = slot.concurrencyLimit > 0 ? slot.concurrencyLimit : Config.query_queue_concurrency_limit;
+        if (concurrencyLimit > 0 && runningNums.getOrDefault(slot.groupId, 0) >= concurrencyLimit) {
+            return false;
+        }
+        if (numRunning == 0) {
+            return true;
+        }
+        if (Config.query_queue_mem_limit_bytes > 0 &&
+                runningMemBytes + slot.estimatedMemBytes > Config.query_queue_mem_limit_bytes) {
+            return false;
+        }
+        return !isBackendOverloaded();
+    }
+
+    private boolean isBackendOverloaded() {
+        double ratioLimit = Config.query_queue_be_mem_usage_limit_ratio;
+        if (ratioLimit <= 0) {
+            return false;
+        }
+        // only the leader receives the heartbeats, the load is unknown on the other frontends
+        for (BackendCoreStat.BackendLoad load : BackendCoreStat.getLoadPerBe().values()) {
+            if (load.getMemUsageRatio() >= ratioLimit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void admit(QuerySlot slot) {
+        slot.state = State.RUNNING;
+        slot.admitTime = System.currentTimeMillis();
+        runningNums.merge(slot.groupId, 1, Integer::sum);
+        numRunning++;
+        runningMemBytes += slot.estimatedMemBytes;
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_QUERY_QUEUE_PENDING_TIME.update(slot.admitTime - slot.queueStartTime);
+        }
+    }
+
+    private void removePending(QuerySlot slot) {
+        PriorityQueue<QuerySlot> pendingQueue = pendingQueues.get(slot.groupId);
+        if (pendingQueue != null && pendingQueue.remove(slot)) {
+            numPending--;
+            if (pendingQueue.isEmpty()) {
+                pendingQueues.remove(slot.groupId);
+            }
+        }
+    }
+
+    // Releases the admitted query when it's finished
+    public void release(TUniqueId queryId) {
+        lock.lock();
+        try {
+            QuerySlot slot = slots.get(queryId);
+            if (slot == null || slot.state != State.RUNNING) {
+                return;
+            }
+            slots.remove(queryId);
+            runningNums.computeIfPresent(slot.groupId, (k, num) -> num > 1 ? num - 1 : null);
+            numRunning--;
+            runningMemBytes -= slot.estimatedMemBytes;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wakes up the query if it's pending, the query fails in acquire
+    public void cancel(TUniqueId queryId) {
+        lock.lock();
+        try {
+            QuerySlot slot = slots.get(queryId);
+            if (slot != null && slot.state == State.PENDING) {
+                slot.cancelled = true;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumPendingQueries() {
+        lock.lock();
+        try {
+            return numPending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getNumRunningQueries() {
+        lock.lock();
+        try {
+            return numRunning;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<List<String>> getQueryInfos(long nowMs) {
+        List<List<String>> rows = Lists.newArrayList();
+        lock.lock();
+        try {
+            for (QuerySlot slot : slots.values()) {
+                long pendingEndTime = slot.state == State.RUNNING ? slot.admitTime : nowMs;
+                rows.add(Lists.newArrayList(
+                        DebugUtil.printId(slot.queryId),
+                        slot.groupName,
+                        slot.user,
+                        String.valueOf(slot.priority),
+                        slot.state.name(),
+                        String.valueOf(slot.estimatedMemBytes),
+                        TimeUtils.longToTimeString(slot.queueStartTime),
+                        String.valueOf(pendingEndTime - slot.queueStartTime)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return rows;
+    }
+}
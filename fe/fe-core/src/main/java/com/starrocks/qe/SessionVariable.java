@@ -90,6 +90,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
      */
     public static final String SQL_MODE_STORAGE_NAME = "sql_mode_v2";
     public static final String RESOURCE_GROUP = "resource_group";
+    public static final String QUERY_QUEUE_PRIORITY = "query_queue_priority";
     public static final String AUTO_COMMIT = "autocommit";
     public static final String TX_ISOLATION = "tx_isolation";
     public static final String TRANSACTION_ISOLATION = "transaction_isolation";
@@ -208,6 +209,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_DPHYP_JOIN_REORDER = "cbo_enable_dphyp_join_reorder";
+    public static final String CBO_DPHYP_JOIN_REORDER_TIME_LIMIT = "cbo_dphyp_join_reorder_time_limit";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
@@ -215,6 +218,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_CTE_REUSE = "cbo_cte_reuse";
     public static final String CBO_CTE_REUSE_RATE = "cbo_cte_reuse_rate";
     public static final String CBO_CTE_MAX_LIMIT = "cbo_cte_max_limit";
+    public static final String ENABLE_MATERIALIZED_VIEW_REWRITE = "enable_materialized_view_rewrite";
+    public static final String CBO_PUSH_DOWN_AGGREGATE_THROUGH_JOIN = "cbo_push_down_aggregate_through_join";
     public static final String ENABLE_SQL_DIGEST = "enable_sql_digest";
     public static final String CBO_MAX_REORDER_NODE = "cbo_max_reorder_node";
     public static final String CBO_PRUNE_SHUFFLE_COLUMN_RATE = "cbo_prune_shuffle_column_rate";
@@ -246,6 +251,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String ENABLE_HIVE_COLUMN_STATS = "enable_hive_column_stats";
 
+    public static final String ENABLE_INCREMENTAL_SCAN_RANGES = "enable_incremental_scan_ranges";
+
     public static final String RUNTIME_FILTER_SCAN_WAIT_TIME = "runtime_filter_scan_wait_time";
     public static final String RUNTIME_FILTER_ON_EXCHANGE_NODE = "runtime_filter_on_exchange_node";
     public static final String ENABLE_OPTIMIZER_TRACE_LOG = "enable_optimizer_trace_log";
@@ -260,6 +267,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String PARSE_TOKENS_LIMIT = "parse_tokens_limit";
 
+    public static final String ENABLE_ADAPTIVE_REPLAN = "enable_adaptive_replan";
+
     public static final List<String> DEPRECATED_VARIABLES = ImmutableList.<String>builder()
             .add(CODEGEN_LEVEL)
             .add(ENABLE_SPILLING)
@@ -351,6 +360,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = RESOURCE_GROUP, flag = VariableMgr.SESSION_ONLY)
     private String resourceGroup = "";
 
+    // the queries with the higher priority are admitted first by the query queue of the resource group
+    @VariableMgr.VarAttr(name = QUERY_QUEUE_PRIORITY)
+    private int queryQueuePriority = 0;
+
     // this is used to make mysql client happy
     @VariableMgr.VarAttr(name = AUTO_COMMIT)
     private boolean autoCommit = true;
@@ -455,6 +468,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = CBO_CTE_MAX_LIMIT, flag = VariableMgr.INVISIBLE)
     private int cboCTEMaxLimit = 10;
 
+    // rewrite the queries by the fresh asynchronous materialized views of the scanned tables
+    @VarAttr(name = ENABLE_MATERIALIZED_VIEW_REWRITE)
+    private boolean enableMaterializedViewRewrite = false;
+
+    // explore the plans aggregating the inputs of the joins eagerly, which are chosen by cost
+    @VarAttr(name = CBO_PUSH_DOWN_AGGREGATE_THROUGH_JOIN)
+    private boolean cboPushDownAggregateThroughJoin = false;
+
     @VarAttr(name = ENABLE_SQL_DIGEST, flag = VariableMgr.INVISIBLE)
     private boolean enableSQLDigest = false;
 
@@ -527,6 +548,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // Enumerate the join hypergraph which could contain the left outer/semi/anti joins by DPhyp,
+    // it falls back to greedy join reorder when exceeding the time limit (ms)
+    @VariableMgr.VarAttr(name = CBO_ENABLE_DPHYP_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
+    private boolean cboEnableDPhypJoinReorder = false;
+
+    @VariableMgr.VarAttr(name = CBO_DPHYP_JOIN_REORDER_TIME_LIMIT, flag = VariableMgr.INVISIBLE)
+    private long cboDPhypJoinReorderTimeLimit = 1000;
+
     @VariableMgr.VarAttr(name = CBO_DEBUG_ALIVE_BACKEND_NUMBER, flag = VariableMgr.INVISIBLE)
     private int cboDebugAliveBackendNumber = 0;
 
@@ -604,6 +633,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_HIVE_COLUMN_STATS)
     private boolean enableHiveColumnStats = true;
 
+    // only take effect for pipeline, the scans of external tables send the first scan ranges in the plan
+    // fragments, and fetch the rest from the coordinator while they are running
+    @VariableMgr.VarAttr(name = ENABLE_INCREMENTAL_SCAN_RANGES)
+    private boolean enableIncrementalScanRanges = false;
+
     @VariableMgr.VarAttr(name = JOIN_IMPLEMENTATION_MODE_V2, alias = JOIN_IMPLEMENTATION_MODE)
     private String joinImplementationMode = "auto"; // auto, merge, hash, nestloop
 
@@ -625,6 +659,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = PARSE_TOKENS_LIMIT)
     private int parseTokensLimit = 3500000;
 
+    // plan the query again without broadcast join when the query with broadcast join exceeds the memory limit
+    @VariableMgr.VarAttr(name = ENABLE_ADAPTIVE_REPLAN)
+    private boolean enableAdaptiveReplan = false;
+
     public void setCboCTEMaxLimit(int cboCTEMaxLimit) {
         this.cboCTEMaxLimit = cboCTEMaxLimit;
     }
@@ -673,6 +711,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enableHiveColumnStats;
     }
 
+    public boolean isEnableIncrementalScanRanges() {
+        return enableIncrementalScanRanges;
+    }
+
+    public void setEnableIncrementalScanRanges(boolean enableIncrementalScanRanges) {
+        this.enableIncrementalScanRanges = enableIncrementalScanRanges;
+    }
+
     public long getMaxExecMemByte() {
         return maxExecMemByte;
     }
@@ -751,6 +797,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.resourceGroup = resourceGroup;
     }
 
+    public int getQueryQueuePriority() {
+        return queryQueuePriority;
+    }
+
+    public void setQueryQueuePriority(int queryQueuePriority) {
+        this.queryQueuePriority = queryQueuePriority;
+    }
+
     public boolean isDisableColocateJoin() {
         return disableColocateJoin;
     }
@@ -874,6 +928,26 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboEnableGreedyJoinReorder = true;
     }
 
+    public boolean isCboEnableDPhypJoinReorder() {
+        return cboEnableDPhypJoinReorder;
+    }
+
+    public void disableDPhypJoinReorder() {
+        this.cboEnableDPhypJoinReorder = false;
+    }
+
+    public void enableDPhypJoinReorder() {
+        this.cboEnableDPhypJoinReorder = true;
+    }
+
+    public long getCboDPhypJoinReorderTimeLimit() {
+        return cboDPhypJoinReorderTimeLimit;
+    }
+
+    public void setCboDPhypJoinReorderTimeLimit(long cboDPhypJoinReorderTimeLimit) {
+        this.cboDPhypJoinReorderTimeLimit = cboDPhypJoinReorderTimeLimit;
+    }
+
     public int getCboMaxReorderNode() {
         return cboMaxReorderNode;
     }
@@ -914,10 +988,18 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return broadcastRowCountLimit;
     }
 
+    public void setBroadcastRowCountLimit(long broadcastRowCountLimit) {
+        this.broadcastRowCountLimit = broadcastRowCountLimit;
+    }
+
     public double getBroadcastRightTableScaleFactor() {
         return broadcastRightTableScaleFactor;
     }
 
+    public void setBroadcastRightTableScaleFactor(double broadcastRightTableScaleFactor) {
+        this.broadcastRightTableScaleFactor = broadcastRightTableScaleFactor;
+    }
+
     public long getOptimizerExecuteTimeout() {
         return optimizerExecuteTimeout;
     }
@@ -1073,6 +1155,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.cboCteReuse = cboCteReuse;
     }
 
+    public boolean isEnableMaterializedViewRewrite() {
+        return enableMaterializedViewRewrite;
+    }
+
+    public void setEnableMaterializedViewRewrite(boolean enableMaterializedViewRewrite) {
+        this.enableMaterializedViewRewrite = enableMaterializedViewRewrite;
+    }
+
+    public boolean isCboPushDownAggregateThroughJoin() {
+        return cboPushDownAggregateThroughJoin;
+    }
+
+    public void setCboPushDownAggregateThroughJoin(boolean cboPushDownAggregateThroughJoin) {
+        this.cboPushDownAggregateThroughJoin = cboPushDownAggregateThroughJoin;
+    }
+
     public void setSingleNodeExecPlan(boolean singleNodeExecPlan) {
         this.singleNodeExecPlan = singleNodeExecPlan;
     }
@@ -1125,6 +1223,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.parseTokensLimit = parseTokensLimit;
     }
 
+    public boolean isEnableAdaptiveReplan() {
+        return enableAdaptiveReplan;
+    }
+
+    public void setEnableAdaptiveReplan(boolean enableAdaptiveReplan) {
+        this.enableAdaptiveReplan = enableAdaptiveReplan;
+    }
+
     public boolean getEnableReplicatedStorage() {
         return enableReplicatedStorage;
     }
@@ -81,9 +81,11 @@ import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import com.starrocks.persist.CreateInsertOverwriteJobLog;
 import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.planner.JoinNode;
 import com.starrocks.planner.OlapScanNode;
 import com.starrocks.planner.OlapTableSink;
 import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
 import com.starrocks.planner.ScanNode;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.proto.QueryStatisticsItemPB;
@@ -168,6 +170,14 @@ public class StmtExecutor {
     private final boolean isProxy;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
+    // the times and the reason of planning the query again after its execution failed
+    private int adaptiveReplanTimes = 0;
+    private String adaptiveReplanReason = null;
+    // the join distributions and the execution times of the failed plan and the new plan, to show the benefit
+    private String failedPlanJoinDistributions = null;
+    private long failedPlanExecTimeMs = 0;
+    private String newPlanJoinDistributions = null;
+    private long newPlanBeginTimeMs = 0;
 
     // this constructor is mainly for proxy
     public StmtExecutor(ConnectContext context, OriginStatement originStmt, boolean isProxy) {
@@ -210,6 +220,16 @@ public class StmtExecutor {
         summaryProfile.addInfoString(ProfileManager.USER, context.getQualifiedUser());
         summaryProfile.addInfoString(ProfileManager.DEFAULT_DB, context.getDatabase());
         summaryProfile.addInfoString(ProfileManager.SQL_STATEMENT, originStmt.originStmt);
+        if (adaptiveReplanTimes > 0) {
+            summaryProfile.addInfoString("Adaptive Replan Times", String.valueOf(adaptiveReplanTimes));
+            summaryProfile.addInfoString("Adaptive Replan Reason", adaptiveReplanReason);
+            summaryProfile.addInfoString("Adaptive Replan Failed Plan Joins", failedPlanJoinDistributions);
+            summaryProfile.addInfoString("Adaptive Replan Failed Plan Time",
+                    DebugUtil.getPrettyStringMs(failedPlanExecTimeMs));
+            summaryProfile.addInfoString("Adaptive Replan New Plan Joins", newPlanJoinDistributions);
+            summaryProfile.addInfoString("Adaptive Replan New Plan Time",
+                    DebugUtil.getPrettyStringMs(System.currentTimeMillis() - newPlanBeginTimeMs));
+        }
 
         PQueryStatistics statistics = getQueryStatisticsForAuditLog();
         long memCostBytes = statistics == null || statistics.memCostBytes == null ? 0 : statistics.memCostBytes;
@@ -395,6 +415,7 @@ public class StmtExecutor {
 
                 int retryTime = Config.max_query_retry_time;
                 for (int i = 0; i < retryTime; i++) {
+                    long execBeginTimeMs = System.currentTimeMillis();
                     try {
                         //reset query id for each retry
                         if (i > 0) {
@@ -428,6 +449,11 @@ public class StmtExecutor {
                         } else {
                             throw e;
                         }
+                    } catch (UserException e) {
+                        if (i == retryTime - 1 || !canAdaptiveReplan(execPlan)) {
+                            throw e;
+                        }
+                        execPlan = adaptiveReplan(e, execPlan, System.currentTimeMillis() - execBeginTimeMs);
                     } finally {
                         QeProcessorImpl.INSTANCE.unregisterQuery(context.getExecutionId());
                     }
@@ -564,6 +590,74 @@ public class StmtExecutor {
         }
     }
 
+    // The query can be planned again without broadcast join, if it fails with MEM_LIMIT_EXCEEDED while its plan
+    // has a broadcast join, and no result has been sent to the client. The operator which exceeds the memory limit
+    // is not known, so the broadcast join is only the suspect.
+    private boolean canAdaptiveReplan(ExecPlan execPlan) {
+        if (!context.getSessionVariable().isEnableAdaptiveReplan() || adaptiveReplanTimes > 0) {
+            return false;
+        }
+        if (coord == null || !coord.getExecStatus().isMemLimitExceeded() || context.getMysqlChannel().isSend()) {
+            return false;
+        }
+        // the statement converted from show statement can't be parsed again
+        if (parsedStmt.getOrigStmt() == null || !(parsedStmt instanceof QueryStatement)) {
+            return false;
+        }
+        return getJoinNodes(execPlan).stream().anyMatch(JoinNode::isBroadcast);
+    }
+
+    private static List<JoinNode> getJoinNodes(ExecPlan execPlan) {
+        List<JoinNode> joinNodes = Lists.newArrayList();
+        for (PlanFragment fragment : execPlan.getFragments()) {
+            collectJoinNodes(fragment.getPlanRoot(), joinNodes);
+        }
+        return joinNodes;
+    }
+
+    private static void collectJoinNodes(PlanNode node, List<JoinNode> joinNodes) {
+        if (node instanceof JoinNode) {
+            joinNodes.add((JoinNode) node);
+        }
+        for (PlanNode child : node.getChildren()) {
+            collectJoinNodes(child, joinNodes);
+        }
+    }
+
+    private static String getJoinDistributions(ExecPlan execPlan) {
+        return getJoinNodes(execPlan).stream().map(node -> node.getDistributionMode().toString())
+                .collect(Collectors.joining(", "));
+    }
+
+    // Plan the query again with the broadcast join disabled, the joins which can only be broadcast or
+    // are hinted by broadcast are still broadcast. The session variable is restored at the end of execute().
+    private ExecPlan adaptiveReplan(UserException e, ExecPlan failedPlan, long failedPlanExecTimeMs)
+            throws Exception {
+        coord.cancel();
+        adaptiveReplanTimes++;
+        // any operator may exceed the memory limit, so only the trigger is recorded
+        adaptiveReplanReason = "MEM_LIMIT_EXCEEDED with broadcast join in plan: " + e.getMessage();
+        failedPlanJoinDistributions = getJoinDistributions(failedPlan);
+        this.failedPlanExecTimeMs = failedPlanExecTimeMs;
+
+        SessionVariable sessionVariable = (SessionVariable) context.getSessionVariable().clone();
+        sessionVariable.setBroadcastRowCountLimit(0);
+        sessionVariable.setBroadcastRightTableScaleFactor(Double.MAX_VALUE);
+        context.setSessionVariable(sessionVariable);
+
+        OriginStatement origStmt = parsedStmt.getOrigStmt();
+        parsedStmt = com.starrocks.sql.parser.SqlParser.parse(origStmt.originStmt, sessionVariable).get(origStmt.idx);
+        parsedStmt.setOrigStmt(origStmt);
+        ExecPlan newPlan = StatementPlanner.plan(parsedStmt, context);
+
+        newPlanJoinDistributions = getJoinDistributions(newPlan);
+        newPlanBeginTimeMs = System.currentTimeMillis();
+        LOG.info("replan query {} without broadcast join, reason: {}, failed plan joins: [{}] failed after {}ms, " +
+                        "new plan joins: [{}]", DebugUtil.printId(context.getExecutionId()), e.getMessage(),
+                failedPlanJoinDistributions, failedPlanExecTimeMs, newPlanJoinDistributions);
+        return newPlan;
+    }
+
     private void dumpException(Exception e) {
         context.getDumpInfo().addException(ExceptionUtils.getStackTrace(e));
         if (context.getSessionVariable().getEnableQueryDump() && !context.isQueryDump()) {
@@ -8,20 +8,28 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
+import com.starrocks.analysis.BinaryPredicate;
+import com.starrocks.analysis.CompoundPredicate;
+import com.starrocks.analysis.DateLiteral;
 import com.starrocks.analysis.DistributionDesc;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.FunctionCallExpr;
 import com.starrocks.analysis.HashDistributionDesc;
+import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.PartitionKeyDesc;
 import com.starrocks.analysis.PartitionNames;
 import com.starrocks.analysis.PartitionValue;
 import com.starrocks.analysis.SingleRangePartitionDesc;
 import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.StringLiteral;
+import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.ExpressionRangePartitionInfo;
 import com.starrocks.catalog.HashDistributionInfo;
+import com.starrocks.catalog.HiveTable;
+import com.starrocks.catalog.IcebergTable;
+import com.starrocks.catalog.InternalCatalog;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
@@ -30,13 +38,17 @@ import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.SinglePartitionInfo;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.DdlException;
 import com.starrocks.common.Pair;
 import com.starrocks.common.io.DeepCopy;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.external.hive.HivePartition;
+import com.starrocks.external.hive.Utils;
 import com.starrocks.persist.ChangeMaterializedViewRefreshSchemeLog;
 import com.starrocks.planner.OlapScanNode;
 import com.starrocks.planner.ScanNode;
 import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.QueryState;
 import com.starrocks.qe.StmtExecutor;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.StatementPlanner;
@@ -46,15 +58,19 @@ import com.starrocks.sql.ast.AddPartitionClause;
 import com.starrocks.sql.ast.DropPartitionClause;
 import com.starrocks.sql.ast.InsertStmt;
 import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
 import com.starrocks.sql.ast.TableRelation;
 import com.starrocks.sql.common.DmlException;
 import com.starrocks.sql.common.PartitionDiff;
 import com.starrocks.sql.common.SyncPartitionUtils;
 import com.starrocks.sql.parser.SqlParser;
 import com.starrocks.sql.plan.ExecPlan;
+import org.apache.hadoop.hive.common.FileUtils;
+import org.apache.iceberg.Snapshot;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -81,6 +97,12 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
     private MaterializedView materializedView;
     private MvTaskRunContext mvContext;
     private Map<Long, OlapTable> snapshotBaseTables;
+    // the tables of the external catalogs and the versions of their partitions, which are collected out of lock
+    // when syncing partitions. the partitions of the hive table referenced by the partition exp are named by the
+    // day ranges of their values, see getHivePartitionVersions
+    private Map<MaterializedView.BaseTableInfo, Table> externalBaseTables;
+    private Map<MaterializedView.BaseTableInfo, Map<String, Long>> externalPartitionVersions;
+    private Map<String, Range<PartitionKey>> externalPartitionRangeMap;
 
     // Core logics:
     // 1. prepare to check some conditions
@@ -92,6 +114,18 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
     public void processTaskRun(TaskRunContext context) throws Exception {
         prepare(context);
 
+        if (materializedView.isIncrementalRefresh() && refresh(true)) {
+            return;
+        }
+        refresh(false);
+    }
+
+    // The incremental refresh only reads the data appended to the base partitions since the last refresh, and
+    // inserts the partial aggregates of it into the aggregate keys materialized view to be merged with the old ones.
+    // It returns false if the materialized view can't be refreshed incrementally, eg: the base partitions are
+    // replaced, or the appended data has been compacted with the data read before, then the whole affected
+    // partitions are refreshed instead.
+    private boolean refresh(boolean incremental) throws Exception {
         InsertStmt insertStmt = null;
         ExecPlan execPlan = null;
         int retryNum = 0;
@@ -125,16 +159,35 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
                 LOG.debug("materialized view partitions to refresh:{}", partitionsToRefresh);
                 if (partitionsToRefresh.isEmpty()) {
                     LOG.info("no partitions to refresh for materialized view {}", materializedView.getName());
-                    return;
+                    return true;
                 }
 
-                Map<String, Set<String>> sourceTablePartitions = getSourceTablePartitions(partitionsToRefresh);
+                Map<String, Set<String>> sourceTablePartitions;
+                Map<Long, Long> partitionReadVersions = null;
+                if (incremental) {
+                    // the incremental refresh materialized view has only one base table
+                    OlapTable baseTable = snapshotBaseTables.values().iterator().next();
+                    partitionReadVersions = getPartitionReadVersions(baseTable);
+                    if (partitionReadVersions == null) {
+                        LOG.info("base table {} of materialized view {} has replaced partitions or deleted rows, " +
+                                "refresh the whole partitions", baseTable.getName(), materializedView.getName());
+                        return false;
+                    }
+                    sourceTablePartitions = Maps.newHashMap();
+                    sourceTablePartitions.put(baseTable.getName(),
+                            materializedView.getNeedRefreshPartitionNames(baseTable));
+                } else {
+                    sourceTablePartitions = getSourceTablePartitions(partitionsToRefresh);
+                }
                 LOG.debug("materialized view:{} source partitions :{}",
                         materializedView.getName(), sourceTablePartitions);
 
                 // create ExecPlan
-                insertStmt = generateInsertStmt(partitionsToRefresh, sourceTablePartitions);
+                insertStmt = generateInsertStmt(partitionsToRefresh, sourceTablePartitions, !incremental);
                 execPlan = generateRefreshPlan(mvContext.getCtx(), insertStmt);
+                if (incremental) {
+                    setPartitionReadVersions(execPlan, partitionReadVersions);
+                }
             } finally {
                 database.readUnlock();
             }
@@ -143,8 +196,54 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         // execute the ExecPlan of insert outside lock
         refreshMaterializedView(mvContext, execPlan, insertStmt);
 
+        if (incremental && mvContext.getCtx().getState().getStateType() == QueryState.MysqlStateType.ERR) {
+            // the read versions must not be updated, otherwise the appended data is lost
+            LOG.warn("incremental refresh of materialized view {} failed: {}, refresh the whole partitions",
+                    materializedView.getName(), mvContext.getCtx().getState().getErrorMessage());
+            mvContext.getCtx().getState().reset();
+            return false;
+        }
+
         // insert execute successfully, update the meta of materialized view according to ExecPlan
         updateMeta(execPlan);
+        return true;
+    }
+
+    // Returns the versions of the changed base partitions read by the last refresh, the partitions never read
+    // before are read fully. Returns null if any base partition read before is dropped or replaced, or has rows
+    // deleted since the last refresh, whose data can't be removed from the materialized view incrementally.
+    private Map<Long, Long> getPartitionReadVersions(OlapTable baseTable) {
+        Map<Long, Long> partitionReadVersions = Maps.newHashMap();
+        MaterializedView.AsyncRefreshContext refreshContext =
+                materializedView.getRefreshScheme().getAsyncRefreshContext();
+        Map<String, MaterializedView.BasePartitionInfo> basePartitionInfos =
+                refreshContext.getBaseTableVisibleVersionMap().get(baseTable.getId());
+        if (basePartitionInfos == null) {
+            return partitionReadVersions;
+        }
+        Map<String, Long> deleteVersions =
+                refreshContext.getBaseTableDeleteVersionMap().getOrDefault(baseTable.getId(), Maps.newHashMap());
+        for (Map.Entry<String, MaterializedView.BasePartitionInfo> entry : basePartitionInfos.entrySet()) {
+            Partition partition = baseTable.getPartition(entry.getKey());
+            if (partition == null || partition.getId() != entry.getValue().getId()) {
+                return null;
+            }
+            if (deleteVersions.getOrDefault(entry.getKey(), 0L) > entry.getValue().getVersion()) {
+                return null;
+            }
+            if (partition.getVisibleVersion() > entry.getValue().getVersion()) {
+                partitionReadVersions.put(partition.getId(), entry.getValue().getVersion());
+            }
+        }
+        return partitionReadVersions;
+    }
+
+    private void setPartitionReadVersions(ExecPlan execPlan, Map<Long, Long> partitionReadVersions) {
+        for (ScanNode scanNode : execPlan.getScanNodes()) {
+            if (scanNode instanceof OlapScanNode) {
+                ((OlapScanNode) scanNode).setPartitionReadVersions(partitionReadVersions);
+            }
+        }
     }
 
     private void updateMeta(ExecPlan execPlan) {
@@ -180,6 +279,25 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
                 OlapTable snapshotOlapTable = snapshotBaseTables.get(tableId);
                 currentTablePartitionInfo.keySet().removeIf(partitionName ->
                         !snapshotOlapTable.getPartitionNames().contains(partitionName));
+                // the delete versions which are read through are not needed anymore
+                Map<String, Long> deleteVersions = refreshContext.getBaseTableDeleteVersionMap().get(tableId);
+                if (deleteVersions != null) {
+                    deleteVersions.entrySet().removeIf(deleteVersion -> {
+                        MaterializedView.BasePartitionInfo partitionInfo =
+                                currentTablePartitionInfo.get(deleteVersion.getKey());
+                        if (partitionInfo == null) {
+                            return !snapshotOlapTable.getPartitionNames().contains(deleteVersion.getKey());
+                        }
+                        return partitionInfo.getVersion() >= deleteVersion.getValue();
+                    });
+                }
+            }
+            // all the changed partitions of the external tables are refreshed, record the versions collected
+            // before refreshing, the partitions changed during refreshing are refreshed again next time
+            for (Map.Entry<MaterializedView.BaseTableInfo, Map<String, Long>> versionEntry
+                    : externalPartitionVersions.entrySet()) {
+                refreshContext.getExternalBaseTableVersionMap().put(versionEntry.getKey().toString(),
+                        versionEntry.getValue());
             }
             ChangeMaterializedViewRefreshSchemeLog changeRefreshSchemeLog =
                     new ChangeMaterializedViewRefreshSchemeLog(materializedView);
@@ -215,12 +333,96 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
 
     private void syncPartitions() {
         snapshotBaseTables = collectBaseTables(materializedView, database);
+        collectExternalBaseTables();
         PartitionInfo partitionInfo = materializedView.getPartitionInfo();
         if (partitionInfo instanceof ExpressionRangePartitionInfo) {
             syncPartitionsForExpr();
         }
     }
 
+    private void collectExternalBaseTables() {
+        externalBaseTables = Maps.newHashMap();
+        externalPartitionVersions = Maps.newHashMap();
+        externalPartitionRangeMap = Maps.newHashMap();
+        SlotRef partitionSlotRef = null;
+        if (materializedView.getPartitionInfo() instanceof ExpressionRangePartitionInfo) {
+            partitionSlotRef = getPartitionSlotRef();
+        }
+        for (MaterializedView.BaseTableInfo baseTableInfo : materializedView.getExternalBaseTables()) {
+            Table table = baseTableInfo.getTable();
+            if (table == null) {
+                throw new DmlException("Materialized view base table: %s not exist.", baseTableInfo);
+            }
+            externalBaseTables.put(baseTableInfo, table);
+            try {
+                if (table instanceof HiveTable) {
+                    boolean isPartitionTable = partitionSlotRef != null
+                            && isSameTable(partitionSlotRef.getTblNameWithoutAnalyzed(), baseTableInfo);
+                    externalPartitionVersions.put(baseTableInfo,
+                            getHivePartitionVersions((HiveTable) table, isPartitionTable));
+                } else {
+                    // the iceberg table is refreshed as a whole when its snapshot is changed
+                    IcebergTable icebergTable = (IcebergTable) table;
+                    icebergTable.refreshTable();
+                    Snapshot snapshot = icebergTable.getIcebergTable().currentSnapshot();
+                    externalPartitionVersions.put(baseTableInfo, Collections.singletonMap(
+                            baseTableInfo.getTableName(), snapshot == null ? 0L : snapshot.snapshotId()));
+                }
+            } catch (Exception e) {
+                throw new DmlException("Failed to get the partitions of materialized view base table: %s, %s", e,
+                        baseTableInfo, e.getMessage());
+            }
+        }
+    }
+
+    // The version of the hive partition is built from the count, the total length and the latest modification
+    // time of its files from the hive meta cache, see HivePartition.getVersion.
+    // The partitions of the table referenced by the partition exp are mapped to the day ranges of their date
+    // values, which are named like the partitions of the materialized view rolled up by day.
+    private Map<String, Long> getHivePartitionVersions(HiveTable table, boolean isPartitionTable)
+            throws DdlException, AnalysisException {
+        List<PartitionKey> partitionKeys = new ArrayList<>(table.getPartitionKeys().keySet());
+        List<HivePartition> partitions = table.getPartitions(partitionKeys);
+        Map<String, Long> partitionVersions = Maps.newHashMap();
+        for (int i = 0; i < partitionKeys.size(); i++) {
+            PartitionKey partitionKey = partitionKeys.get(i);
+            String partitionName;
+            if (isPartitionTable) {
+                LiteralExpr partitionValue = partitionKey.getKeys().get(0);
+                if (!(partitionValue instanceof DateLiteral)) {
+                    // the rows of the null partition are not in any partition of the materialized view
+                    continue;
+                }
+                LocalDateTime day = ((DateLiteral) partitionValue).toLocalDateTime();
+                partitionName = SyncPartitionUtils.getMVPartitionName(day, day.plusDays(1), SyncPartitionUtils.DAY);
+                externalPartitionRangeMap.put(partitionName, SyncPartitionUtils.mappingDayRange(day));
+            } else {
+                partitionName = FileUtils.makePartName(table.getPartitionColumnNames(),
+                        Utils.getPartitionValues(partitionKey));
+            }
+            partitionVersions.put(partitionName, partitions.get(i).getVersion());
+        }
+        return partitionVersions;
+    }
+
+    // the internal catalog is omitted in the table name of the partition exp
+    private static boolean isSameTable(TableName tableName, MaterializedView.BaseTableInfo baseTableInfo) {
+        String catalogName = tableName.getCatalog() == null ?
+                InternalCatalog.DEFAULT_INTERNAL_CATALOG_NAME : tableName.getCatalog();
+        return tableName.getTbl().equals(baseTableInfo.getTableName())
+                && baseTableInfo.getDbName().equals(tableName.getDb())
+                && baseTableInfo.getCatalogName().equals(catalogName);
+    }
+
+    private MaterializedView.BaseTableInfo getExternalBaseTableInfo(Table table) {
+        for (Map.Entry<MaterializedView.BaseTableInfo, Table> tableEntry : externalBaseTables.entrySet()) {
+            if (tableEntry.getValue() == table) {
+                return tableEntry.getKey();
+            }
+        }
+        return null;
+    }
+
     private Expr getPartitionExpr() {
         ExpressionRangePartitionInfo expressionRangePartitionInfo =
                 ((ExpressionRangePartitionInfo) materializedView.getPartitionInfo());
@@ -229,13 +431,23 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         return materializedView.getPartitionRefTableExprs().get(0);
     }
 
-    private Pair<OlapTable, Column> getPartitionTableAndColumn(Map<Long, OlapTable> olapTables) {
+    private SlotRef getPartitionSlotRef() {
         List<SlotRef> slotRefs = Lists.newArrayList();
         Expr partitionExpr = getPartitionExpr();
         partitionExpr.collect(SlotRef.class, slotRefs);
         // if partitionExpr is FunctionCallExpr, get first SlotRef
         Preconditions.checkState(slotRefs.size() == 1);
-        SlotRef slotRef = slotRefs.get(0);
+        return slotRefs.get(0);
+    }
+
+    private Pair<Table, Column> getPartitionTableAndColumn(Map<Long, OlapTable> olapTables) {
+        SlotRef slotRef = getPartitionSlotRef();
+        for (Map.Entry<MaterializedView.BaseTableInfo, Table> tableEntry : externalBaseTables.entrySet()) {
+            if (isSameTable(slotRef.getTblNameWithoutAnalyzed(), tableEntry.getKey())) {
+                Table table = tableEntry.getValue();
+                return Pair.create(table, table.getColumn(slotRef.getColumnName()));
+            }
+        }
         for (OlapTable olapTable : olapTables.values()) {
             if (slotRef.getTblNameWithoutAnalyzed().getTbl().equals(olapTable.getName())) {
                 return Pair.create(olapTable, olapTable.getColumn(slotRef.getColumnName()));
@@ -246,8 +458,8 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
 
     private void syncPartitionsForExpr() {
         Expr partitionExpr = getPartitionExpr();
-        Pair<OlapTable, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
-        OlapTable partitionBaseTable = partitionTableAndColumn.first;
+        Pair<Table, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
+        Table partitionBaseTable = partitionTableAndColumn.first;
         Preconditions.checkNotNull(partitionBaseTable);
         Column partitionColumn = partitionTableAndColumn.second;
         Preconditions.checkNotNull(partitionColumn);
@@ -257,7 +469,11 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         Map<String, Range<PartitionKey>> mvPartitionMap;
         database.readLock();
         try {
-            basePartitionMap = partitionBaseTable.getRangePartitionMap();
+            if (partitionBaseTable instanceof OlapTable) {
+                basePartitionMap = ((OlapTable) partitionBaseTable).getRangePartitionMap();
+            } else {
+                basePartitionMap = externalPartitionRangeMap;
+            }
             mvPartitionMap = materializedView.getRangePartitionMap();
             if (partitionExpr instanceof SlotRef) {
                 partitionDiff = SyncPartitionUtils.calcSyncSamePartition(basePartitionMap, mvPartitionMap);
@@ -308,25 +524,37 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         return !materializedView.getNeedRefreshPartitionNames(olapTable).isEmpty();
     }
 
-    private boolean needToRefreshNonPartitionTable(OlapTable partitionTable) {
+    private boolean needToRefreshNonPartitionTable(Table partitionTable) {
         for (OlapTable olapTable : snapshotBaseTables.values()) {
-            if (olapTable.getId() == partitionTable.getId()) {
+            if (olapTable == partitionTable) {
                 continue;
             }
             if (needToRefreshTable(olapTable)) {
                 return true;
             }
         }
+        for (Map.Entry<MaterializedView.BaseTableInfo, Table> tableEntry : externalBaseTables.entrySet()) {
+            if (tableEntry.getValue() == partitionTable) {
+                continue;
+            }
+            if (!getNeedRefreshPartitionNames(tableEntry.getValue()).isEmpty()) {
+                return true;
+            }
+        }
         return false;
     }
 
     private boolean needToRefreshNonPartitionTable() {
-        for (OlapTable olapTable : snapshotBaseTables.values()) {
-            if (needToRefreshTable(olapTable)) {
-                return true;
-            }
+        return needToRefreshNonPartitionTable(null);
+    }
+
+    private Set<String> getNeedRefreshPartitionNames(Table baseTable) {
+        if (baseTable instanceof OlapTable) {
+            return materializedView.getNeedRefreshPartitionNames((OlapTable) baseTable);
         }
-        return false;
+        MaterializedView.BaseTableInfo baseTableInfo = getExternalBaseTableInfo(baseTable);
+        return materializedView.getNeedRefreshPartitionNames(baseTableInfo,
+                externalPartitionVersions.get(baseTableInfo));
     }
 
     private Set<String> getPartitionsToRefreshForMaterializedView() {
@@ -340,8 +568,8 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
             }
         } else if (partitionInfo instanceof ExpressionRangePartitionInfo) {
             Expr partitionExpr = getPartitionExpr();
-            Pair<OlapTable, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
-            OlapTable partitionTable = partitionTableAndColumn.first;
+            Pair<Table, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
+            Table partitionTable = partitionTableAndColumn.first;
 
             if (needToRefreshNonPartitionTable(partitionTable)) {
                 // if non partition table changed, should refresh all partitions of materialized view
@@ -351,13 +579,13 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
 
             // check partition table
             if (partitionExpr instanceof SlotRef) {
-                Set<String> baseChangedPartitionNames = materializedView.getNeedRefreshPartitionNames(partitionTable);
+                Set<String> baseChangedPartitionNames = getNeedRefreshPartitionNames(partitionTable);
                 for (String basePartitionName : baseChangedPartitionNames) {
                     needRefreshMvPartitionNames.addAll(mvContext.baseToMvNameRef.get(basePartitionName));
                 }
             } else if (partitionExpr instanceof FunctionCallExpr) {
                 // check if there is a load in the base table and add it to the refresh candidate
-                Set<String> baseChangedPartitionNames = materializedView.getNeedRefreshPartitionNames(partitionTable);
+                Set<String> baseChangedPartitionNames = getNeedRefreshPartitionNames(partitionTable);
                 for (String baseChangedPartitionName : baseChangedPartitionNames) {
                     needRefreshMvPartitionNames.addAll(mvContext.baseToMvNameRef.get(baseChangedPartitionName));
                 }
@@ -373,14 +601,15 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
     }
 
     private Map<String, Set<String>> getSourceTablePartitions(Set<String> affectedMaterializedViewPartitions) {
-        OlapTable partitionTable = null;
+        Table partitionTable = null;
         if (materializedView.getPartitionInfo() instanceof ExpressionRangePartitionInfo) {
-            Pair<OlapTable, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
+            Pair<Table, Column> partitionTableAndColumn = getPartitionTableAndColumn(snapshotBaseTables);
             partitionTable = partitionTableAndColumn.first;
         }
+        // the partitions of the external tables can't be specified, see addExternalPartitionPredicate
         Map<String, Set<String>> tableNamePartitionNames = Maps.newHashMap();
         for (OlapTable olapTable : snapshotBaseTables.values()) {
-            if (partitionTable != null && olapTable.getId() == partitionTable.getId()) {
+            if (olapTable == partitionTable) {
                 Set<String> needRefreshTablePartitionNames = Sets.newHashSet();
                 Map<String, Set<String>> mvToBaseNameRef = mvContext.getMvToBaseNameRef();
                 for (String mvPartitionName : affectedMaterializedViewPartitions) {
@@ -399,7 +628,8 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
     }
 
     private InsertStmt generateInsertStmt(Set<String> materializedViewPartitions,
-                                          Map<String, Set<String>> sourceTablePartitions) {
+                                          Map<String, Set<String>> sourceTablePartitions,
+                                          boolean overwrite) {
         ConnectContext ctx = mvContext.getCtx();
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
@@ -413,21 +643,59 @@ public class PartitionBasedMaterializedViewRefreshProcessor extends BaseTaskRunP
         InsertStmt insertStmt =
                 (InsertStmt) SqlParser.parse(definition, ctx.getSessionVariable()).get(0);
         insertStmt.setTargetPartitionNames(new PartitionNames(false, new ArrayList<>(materializedViewPartitions)));
+        // the partial aggregates of the incremental refresh are merged with the old data
+        insertStmt.setOverwrite(overwrite);
         QueryStatement queryStatement = insertStmt.getQueryStatement();
         Map<String, TableRelation> tableRelations =
                 AnalyzerUtils.collectAllTableRelation(queryStatement);
         for (Map.Entry<String, TableRelation> nameTableRelationEntry : tableRelations.entrySet()) {
             Set<String> tablePartitionNames = sourceTablePartitions.get(nameTableRelationEntry.getKey());
+            if (tablePartitionNames == null) {
+                continue;
+            }
             TableRelation tableRelation = nameTableRelationEntry.getValue();
             tableRelation.setPartitionNames(
                     new PartitionNames(false, new ArrayList<>(tablePartitionNames)));
         }
+        if (materializedView.getPartitionInfo() instanceof ExpressionRangePartitionInfo) {
+            Table partitionTable = getPartitionTableAndColumn(snapshotBaseTables).first;
+            MaterializedView.BaseTableInfo baseTableInfo = getExternalBaseTableInfo(partitionTable);
+            if (baseTableInfo != null) {
+                addExternalPartitionPredicate(queryStatement, tableRelations.get(baseTableInfo.getTableName()),
+                        materializedViewPartitions);
+            }
+        }
         // insert overwrite mv must set system = true
         insertStmt.setSystem(true);
         Analyzer.analyze(insertStmt, ctx);
         return insertStmt;
     }
 
+    // The partitions of the external table can't be specified in the query, so the rows of the refreshed
+    // materialized view partitions are selected by the range predicates on the partition column instead.
+    private void addExternalPartitionPredicate(QueryStatement queryStatement, TableRelation tableRelation,
+                                               Set<String> materializedViewPartitions) {
+        Map<String, Range<PartitionKey>> mvPartitionMap = materializedView.getRangePartitionMap();
+        String columnName = getPartitionSlotRef().getColumnName();
+        Expr partitionPredicate = null;
+        for (String mvPartitionName : materializedViewPartitions) {
+            Range<PartitionKey> range = mvPartitionMap.get(mvPartitionName);
+            Expr rangePredicate = new CompoundPredicate(CompoundPredicate.Operator.AND,
+                    new BinaryPredicate(BinaryPredicate.Operator.GE,
+                            new SlotRef(tableRelation.getResolveTableName(), columnName),
+                            range.lowerEndpoint().getKeys().get(0).clone()),
+                    new BinaryPredicate(BinaryPredicate.Operator.LT,
+                            new SlotRef(tableRelation.getResolveTableName(), columnName),
+                            range.upperEndpoint().getKeys().get(0).clone()));
+            partitionPredicate = partitionPredicate == null ? rangePredicate :
+                    new CompoundPredicate(CompoundPredicate.Operator.OR, partitionPredicate, rangePredicate);
+        }
+        SelectRelation selectRelation = (SelectRelation) queryStatement.getQueryRelation();
+        Expr whereClause = selectRelation.getWhereClause();
+        selectRelation.setWhereClause(whereClause == null ? partitionPredicate :
+                new CompoundPredicate(CompoundPredicate.Operator.AND, whereClause, partitionPredicate));
+    }
+
     private boolean checkBaseTablePartitionChange() {
         // check snapshotBaseTables and current tables in catalog
         for (OlapTable snapshotTable : snapshotBaseTables.values()) {
@@ -3178,8 +3178,9 @@ public class LocalMetastore implements ConnectorMetadata {
                         distributionInfo, mvRefreshScheme);
         // set comment
         materializedView.setComment(stmt.getComment());
-        // set baseTableIds
+        // set baseTableIds and the base tables of external catalogs
         materializedView.setBaseTableIds(stmt.getBaseTableIds());
+        materializedView.setExternalBaseTables(stmt.getExternalBaseTables());
         // set viewDefineSql
         materializedView.setViewDefineSql(stmt.getInlineViewDef());
         // set partitionRefTableExprs
@@ -3207,6 +3208,14 @@ public class LocalMetastore implements ConnectorMetadata {
         } catch (AnalysisException e) {
             throw new DdlException(e.getMessage(), e);
         }
+        // set incremental refresh, the query and the keys of the materialized view are checked in analyzer
+        if (properties != null && properties.containsKey(PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH)) {
+            boolean incrementalRefresh =
+                    Boolean.parseBoolean(properties.remove(PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH));
+            if (incrementalRefresh) {
+                materializedView.setIncrementalRefresh(true);
+            }
+        }
         // validate optHints
         Map<String, String> optHints = null;
         QueryRelation queryRelation = stmt.getQueryStatement().getQueryRelation();
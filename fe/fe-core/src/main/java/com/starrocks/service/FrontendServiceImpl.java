@@ -110,6 +110,8 @@ import com.starrocks.thrift.TGetDBPrivsParams;
 import com.starrocks.thrift.TGetDBPrivsResult;
 import com.starrocks.thrift.TGetDbsParams;
 import com.starrocks.thrift.TGetDbsResult;
+import com.starrocks.thrift.TGetScanRangesParams;
+import com.starrocks.thrift.TGetScanRangesResult;
 import com.starrocks.thrift.TGetTableMetaRequest;
 import com.starrocks.thrift.TGetTableMetaResponse;
 import com.starrocks.thrift.TGetTablePrivsParams;
@@ -812,6 +814,11 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         return QeProcessorImpl.INSTANCE.batchReportExecStatus(params, getClientAddr());
     }
 
+    @Override
+    public TGetScanRangesResult getScanRanges(TGetScanRangesParams params) throws TException {
+        return QeProcessorImpl.INSTANCE.getScanRanges(params);
+    }
+
     @Override
     public TMasterResult finishTask(TFinishTaskRequest request) throws TException {
         return leaderImpl.finishTask(request);
@@ -3,6 +3,7 @@
 package com.starrocks.sql.analyzer;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -21,6 +22,9 @@ import com.starrocks.catalog.AggregateType;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.HiveTable;
+import com.starrocks.catalog.IcebergTable;
+import com.starrocks.catalog.KeysType;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.PartitionInfo;
@@ -64,6 +68,17 @@ public class MaterializedViewAnalyzer {
 
     static class MaterializedViewAnalyzerVisitor extends AstVisitor<Void, ConnectContext> {
 
+        // the aggregate functions whose partial results can be merged by the aggregate keys table
+        private static final Map<String, AggregateType> INCREMENTAL_AGGREGATE_TYPES =
+                ImmutableMap.<String, AggregateType>builder()
+                        .put(FunctionSet.SUM, AggregateType.SUM)
+                        .put(FunctionSet.COUNT, AggregateType.SUM)
+                        .put(FunctionSet.MIN, AggregateType.MIN)
+                        .put(FunctionSet.MAX, AggregateType.MAX)
+                        .put(FunctionSet.BITMAP_UNION, AggregateType.BITMAP_UNION)
+                        .put(FunctionSet.HLL_UNION, AggregateType.HLL_UNION)
+                        .build();
+
         public enum RefreshTimeUnit {
             DAY,
             HOUR,
@@ -115,6 +130,8 @@ public class MaterializedViewAnalyzer {
             statement.setInlineViewDef(ViewDefBuilder.build(queryStatement));
             // collect table from query statement
             Map<TableName, Table> tableNameTableMap = AnalyzerUtils.collectAllTableAndViewWithAlias(queryStatement);
+            Map<TableName, MaterializedView.BaseTableInfo> externalBaseTables =
+                    getExternalBaseTables(queryStatement, tableNameTableMap);
             Set<Long> baseTableIds = Sets.newHashSet();
             Database db = context.getGlobalStateMgr().getDb(statement.getTableName().getDb());
             if (db == null) {
@@ -123,7 +140,10 @@ public class MaterializedViewAnalyzer {
             if (tableNameTableMap.isEmpty()) {
                 throw new SemanticException("Can not find base table in query statement");
             }
-            tableNameTableMap.values().forEach(table -> {
+            tableNameTableMap.forEach((name, table) -> {
+                if (externalBaseTables.containsKey(name)) {
+                    return;
+                }
                 if (db.getTable(table.getId()) == null) {
                     throw new SemanticException(
                             "Materialized view do not support table: " + table.getName() +
@@ -131,7 +151,7 @@ public class MaterializedViewAnalyzer {
                 }
                 if (!(table instanceof OlapTable)) {
                     throw new SemanticException(
-                            "Materialized view only supports olap table, but the type of table: " +
+                            "Materialized view only supports olap, hive and iceberg table, but the type of table: " +
                                     table.getName() + " is: " + table.getType().name());
                 }
                 if (table instanceof MaterializedView) {
@@ -142,6 +162,7 @@ public class MaterializedViewAnalyzer {
                 baseTableIds.add(table.getId());
             });
             statement.setBaseTableIds(baseTableIds);
+            statement.setExternalBaseTables(Lists.newArrayList(Sets.newLinkedHashSet(externalBaseTables.values())));
             Map<Column, Expr> columnExprMap = Maps.newHashMap();
             // get outputExpressions and convert it to columns which in selectRelation
             // set the columns into createMaterializedViewStatement
@@ -155,13 +176,38 @@ public class MaterializedViewAnalyzer {
                 // check whether partition expression functions are allowed if it exists
                 checkPartitionExpParams(statement);
                 // check partition column must be base table's partition column
-                checkPartitionColumnWithBaseTable(statement, tableNameTableMap);
+                checkPartitionColumnWithBaseTable(statement, tableNameTableMap, externalBaseTables);
             }
             // check and analyze distribution
             checkDistribution(statement, tableNameTableMap);
+            if (isIncrementalRefresh(statement)) {
+                genAggregateKeysColumns(statement, selectRelation, tableNameTableMap);
+            }
             return null;
         }
 
+        // The tables of the external catalogs, eg: hive and iceberg tables, are recorded by their names, which are
+        // normalized with the catalog and database by the analyzer, keyed by their names or aliases in the query.
+        private Map<TableName, MaterializedView.BaseTableInfo> getExternalBaseTables(
+                QueryStatement queryStatement, Map<TableName, Table> tableNameTableMap) {
+            Map<TableName, MaterializedView.BaseTableInfo> externalBaseTables = Maps.newHashMap();
+            for (Map.Entry<TableName, Table> tableEntry : AnalyzerUtils.collectAllTable(queryStatement).entrySet()) {
+                Table table = tableEntry.getValue();
+                if (!(table instanceof HiveTable) && !(table instanceof IcebergTable)) {
+                    continue;
+                }
+                TableName name = tableEntry.getKey();
+                MaterializedView.BaseTableInfo baseTableInfo =
+                        new MaterializedView.BaseTableInfo(name.getCatalog(), name.getDb(), name.getTbl());
+                tableNameTableMap.forEach((resolvedName, resolvedTable) -> {
+                    if (resolvedTable == table) {
+                        externalBaseTables.put(resolvedName, baseTableInfo);
+                    }
+                });
+            }
+            return externalBaseTables;
+        }
+
         private void checkNondeterministicFunction(Expr expr) {
             if (expr instanceof FunctionCallExpr) {
                 if (((FunctionCallExpr) expr).isNondeterministicBuiltinFnName()) {
@@ -221,6 +267,95 @@ public class MaterializedViewAnalyzer {
             statement.setMvColumnItems(mvColumns);
         }
 
+        private boolean isIncrementalRefresh(CreateMaterializedViewStatement statement) {
+            Map<String, String> properties = statement.getProperties();
+            String incrementalRefresh = properties.get(PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH);
+            if (incrementalRefresh == null) {
+                return false;
+            }
+            if (!incrementalRefresh.equalsIgnoreCase("true") && !incrementalRefresh.equalsIgnoreCase("false")) {
+                throw new SemanticException("Property " + PropertyAnalyzer.PROPERTIES_INCREMENTAL_REFRESH +
+                        " must be bool type(false/true)");
+            }
+            return Boolean.parseBoolean(incrementalRefresh);
+        }
+
+        // The incremental refresh materialized view is an aggregate keys table, the grouping columns are the keys
+        // and the partial aggregates of the data appended to the base table are merged into the value columns.
+        private void genAggregateKeysColumns(CreateMaterializedViewStatement statement, SelectRelation selectRelation,
+                                             Map<TableName, Table> tableNameTableMap) {
+            if (tableNameTableMap.size() != 1) {
+                throw new SemanticException("Incremental refresh materialized view only supports one base table");
+            }
+            Table baseTable = tableNameTableMap.values().iterator().next();
+            if (!(baseTable instanceof OlapTable) || ((OlapTable) baseTable).getKeysType() != KeysType.DUP_KEYS
+                    || baseTable.isLakeTable()) {
+                throw new SemanticException("Incremental refresh materialized view only supports the duplicate " +
+                        "keys olap table, but the base table: " + baseTable.getName() + " is not");
+            }
+            if (selectRelation.getGroupBy().isEmpty() || selectRelation.getGroupingSetsList() != null
+                    || selectRelation.getHaving() != null || selectRelation.isDistinct()
+                    || selectRelation.hasOrderByClause() || selectRelation.hasLimit()) {
+                throw new SemanticException("Incremental refresh materialized view query statement must be " +
+                        "an aggregation grouped by columns without having, distinct, order by or limit");
+            }
+
+            List<Column> mvColumns = statement.getMvColumnItems();
+            List<Expr> outputExpression = selectRelation.getOutputExpression();
+            int keyCount = 0;
+            for (int i = 0; i < outputExpression.size(); ++i) {
+                Expr expr = outputExpression.get(i);
+                Column column = mvColumns.get(i);
+                if (selectRelation.getGroupBy().contains(expr)) {
+                    if (keyCount != i) {
+                        throw new SemanticException("Incremental refresh materialized view grouping column " +
+                                column.getName() + " must be before the aggregate functions");
+                    }
+                    if (!column.getType().isKeyType()) {
+                        throw new SemanticException("Data type of grouping column " + column.getName() +
+                                " cannot be " + column.getType());
+                    }
+                    column.setIsKey(true);
+                    column.setAggregationType(null, false);
+                    keyCount++;
+                    continue;
+                }
+                AggregateType aggregateType = null;
+                if (selectRelation.getAggregate().contains(expr) && !((FunctionCallExpr) expr).isDistinct()) {
+                    String fnName = ((FunctionCallExpr) expr).getFnName().getFunction();
+                    aggregateType = INCREMENTAL_AGGREGATE_TYPES.get(fnName);
+                }
+                if (aggregateType == null) {
+                    throw new SemanticException("Incremental refresh materialized view select item " + expr.toSql() +
+                            " must be a grouping column or one of the aggregate functions " +
+                            INCREMENTAL_AGGREGATE_TYPES.keySet());
+                }
+                column.setIsKey(false);
+                column.setAggregationType(aggregateType, false);
+            }
+            if (keyCount != selectRelation.getGroupBy().size()) {
+                throw new SemanticException("Incremental refresh materialized view must output all grouping columns");
+            }
+
+            Column partitionColumn = statement.getPartitionColumn();
+            if (partitionColumn != null && !partitionColumn.isKey()) {
+                throw new SemanticException("Incremental refresh materialized view partition column " +
+                        partitionColumn.getName() + " must be a grouping column");
+            }
+            DistributionDesc distributionDesc = statement.getDistributionDesc();
+            if (distributionDesc instanceof HashDistributionDesc) {
+                HashDistributionDesc hashDistributionDesc = (HashDistributionDesc) distributionDesc;
+                for (String distributionColumn : hashDistributionDesc.getDistributionColumnNames()) {
+                    if (mvColumns.stream().noneMatch(
+                            column -> column.isKey() && column.getName().equalsIgnoreCase(distributionColumn))) {
+                        throw new SemanticException("Incremental refresh materialized view distribution column " +
+                                distributionColumn + " must be a grouping column");
+                    }
+                }
+            }
+            statement.setKeysType(KeysType.AGG_KEYS);
+        }
+
         private void checkExpInColumn(CreateMaterializedViewStatement statement,
                                       Map<Column, Expr> columnExprMap) {
             ExpressionPartitionDesc expressionPartitionDesc = statement.getPartitionExpDesc();
@@ -297,10 +432,42 @@ public class MaterializedViewAnalyzer {
         }
 
         private void checkPartitionColumnWithBaseTable(CreateMaterializedViewStatement statement,
-                                                       Map<TableName, Table> tableNameTableMap) {
+                                                       Map<TableName, Table> tableNameTableMap,
+                                                       Map<TableName, MaterializedView.BaseTableInfo> externalTables) {
             SlotRef slotRef = getSlotRef(statement.getPartitionRefTableExpr());
             Table table = tableNameTableMap.get(slotRef.getTblNameWithoutAnalyzed());
-            PartitionInfo partitionInfo = ((OlapTable) table).getPartitionInfo();
+            if (table instanceof HiveTable) {
+                checkPartitionColumnWithHiveTable(slotRef, (HiveTable) table);
+            } else if (table instanceof IcebergTable) {
+                throw new SemanticException("Materialized view partition exp does not support the iceberg table: " +
+                        table.getName() + ", which is refreshed as a whole by its snapshot");
+            } else {
+                checkPartitionColumnWithOlapTable(slotRef, (OlapTable) table);
+            }
+            replaceTableAlias(slotRef, statement, tableNameTableMap, externalTables);
+        }
+
+        // the partitions of the hive table are mapped to the day ranges of the partition values,
+        // so that they can be rolled up into the range partitions of the materialized view
+        private void checkPartitionColumnWithHiveTable(SlotRef slotRef, HiveTable table) {
+            List<Column> partitionColumns = table.getPartitionColumns();
+            if (partitionColumns.size() > 1) {
+                throw new SemanticException("Materialized view related base table partition columns " +
+                        "only supports single column");
+            }
+            if (partitionColumns.isEmpty()
+                    || !partitionColumns.get(0).getName().equalsIgnoreCase(slotRef.getColumnName())) {
+                throw new SemanticException("Materialized view partition column in partition exp " +
+                        "must be base table partition column");
+            }
+            if (partitionColumns.get(0).getPrimitiveType() != PrimitiveType.DATE) {
+                throw new SemanticException("Materialized view related hive table partition column: " +
+                        slotRef.getColumnName() + " must be date type");
+            }
+        }
+
+        private void checkPartitionColumnWithOlapTable(SlotRef slotRef, OlapTable table) {
+            PartitionInfo partitionInfo = table.getPartitionInfo();
             if (partitionInfo instanceof SinglePartitionInfo) {
                 throw new SemanticException("Materialized view partition column in partition exp " +
                         "must be base table partition column");
@@ -326,7 +493,6 @@ public class MaterializedViewAnalyzer {
                 throw new SemanticException("Materialized view related base table partition type:" +
                         partitionInfo.getType().name() + "not supports");
             }
-            replaceTableAlias(slotRef, statement, tableNameTableMap);
         }
 
         private SlotRef getSlotRef(Expr expr) {
@@ -342,9 +508,16 @@ public class MaterializedViewAnalyzer {
 
         private void replaceTableAlias(SlotRef slotRef,
                                        CreateMaterializedViewStatement statement,
-                                       Map<TableName, Table> tableNameTableMap) {
+                                       Map<TableName, Table> tableNameTableMap,
+                                       Map<TableName, MaterializedView.BaseTableInfo> externalBaseTables) {
             if (slotRef.getTblNameWithoutAnalyzed().getDb() == null) {
                 TableName tableName = slotRef.getTblNameWithoutAnalyzed();
+                MaterializedView.BaseTableInfo externalBaseTable = externalBaseTables.get(tableName);
+                if (externalBaseTable != null) {
+                    slotRef.setTblName(new TableName(externalBaseTable.getCatalogName(),
+                            externalBaseTable.getDbName(), externalBaseTable.getTableName()));
+                    return;
+                }
                 OlapTable table = ((OlapTable) tableNameTableMap.get(tableName));
                 slotRef.setTblName(new TableName(null, statement.getTableName().getDb(), table.getName()));
             }
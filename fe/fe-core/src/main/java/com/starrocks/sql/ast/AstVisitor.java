@@ -338,6 +338,10 @@ public abstract class AstVisitor<R, C> {
         return visitStatement(statement, context);
     }
 
+    public R visitShowRunningQueriesStmt(ShowRunningQueriesStmt statement, C context) {
+        return visitShowStatement(statement, context);
+    }
+
 
     public R visitShowColumnStmt(ShowColumnStmt statement, C context) {
         return visitShowStatement(statement, context);
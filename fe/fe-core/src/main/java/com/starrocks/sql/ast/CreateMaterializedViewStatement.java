@@ -9,6 +9,7 @@ import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.MaterializedView;
 
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,7 @@ public class CreateMaterializedViewStatement extends DdlStmt {
     // for create column in mv
     private List<Column> mvColumnItems = Lists.newArrayList();
     private Set<Long> baseTableIds;
+    private List<MaterializedView.BaseTableInfo> externalBaseTables;
     private Column partitionColumn;
     // record expression which related with partition by clause
     private Expr partitionRefTableExpr;
@@ -155,6 +157,14 @@ public class CreateMaterializedViewStatement extends DdlStmt {
         this.baseTableIds = baseTableIds;
     }
 
+    public List<MaterializedView.BaseTableInfo> getExternalBaseTables() {
+        return externalBaseTables;
+    }
+
+    public void setExternalBaseTables(List<MaterializedView.BaseTableInfo> externalBaseTables) {
+        this.externalBaseTables = externalBaseTables;
+    }
+
     public Column getPartitionColumn() {
         return partitionColumn;
     }
@@ -0,0 +1,40 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.ast;
+
+import com.starrocks.analysis.ShowStmt;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.qe.ShowResultSetMetaData;
+
+// SHOW RUNNING QUERIES statement.
+// Used to show the running and the pending queries in the query queue of this frontend.
+public class ShowRunningQueriesStmt extends ShowStmt {
+    private static final ShowResultSetMetaData META_DATA =
+            ShowResultSetMetaData.builder()
+                    .addColumn(new Column("QueryId", ScalarType.createVarchar(64)))
+                    .addColumn(new Column("ResourceGroup", ScalarType.createVarchar(64)))
+                    .addColumn(new Column("User", ScalarType.createVarchar(64)))
+                    .addColumn(new Column("Priority", ScalarType.createType(PrimitiveType.INT)))
+                    .addColumn(new Column("State", ScalarType.createVarchar(16)))
+                    .addColumn(new Column("EstimatedMemBytes", ScalarType.createType(PrimitiveType.BIGINT)))
+                    .addColumn(new Column("QueueStartTime", ScalarType.createVarchar(32)))
+                    .addColumn(new Column("PendingTimeMs", ScalarType.createType(PrimitiveType.BIGINT)))
+                    .build();
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitShowRunningQueriesStmt(this, context);
+    }
+
+    @Override
+    public boolean isSupportNewPlanner() {
+        return true;
+    }
+
+    @Override
+    public ShowResultSetMetaData getMetaData() {
+        return META_DATA;
+    }
+}
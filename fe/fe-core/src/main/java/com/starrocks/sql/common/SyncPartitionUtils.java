@@ -116,6 +116,15 @@ public class SyncPartitionUtils {
         return result;
     }
 
+    // maps the date partition value of the external table to the range of the day
+    public static Range<PartitionKey> mappingDayRange(LocalDateTime day) throws AnalysisException {
+        PartitionKey lowerPartitionKey = new PartitionKey();
+        PartitionKey upperPartitionKey = new PartitionKey();
+        lowerPartitionKey.pushColumn(new DateLiteral(day, Type.DATE), PrimitiveType.DATE);
+        upperPartitionKey.pushColumn(new DateLiteral(day.plusDays(1), Type.DATE), PrimitiveType.DATE);
+        return Range.closedOpen(lowerPartitionKey, upperPartitionKey);
+    }
+
     public static PartitionMapping mappingRange(Range<PartitionKey> baseRange, String granularity) {
         // assume expr partition must be DateLiteral and only one partition
         LiteralExpr lowerExpr = baseRange.lowerEndpoint().getKeys().get(0);
@@ -251,7 +251,7 @@ public class Group {
             // change the enforcer itself group and child group to dst group if enforcer's group is other.
             if (bestGroupExpression.getGroup() == other) {
                 bestGroupExpression.setGroup(this);
-                bestGroupExpression.getInputs().set(0, this);
+                bestGroupExpression.setInputAt(0, this);
             }
             setBestExpressionWithStatistics(bestGroupExpression, entry.getValue().first, entry.getKey(),
                     other.hasConfidenceStatistic(entry.getKey()) ? other.getConfidenceStatistic(entry.getKey()) :
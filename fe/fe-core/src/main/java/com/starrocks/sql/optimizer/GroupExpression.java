@@ -13,6 +13,7 @@ import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.rule.Rule;
 import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.statistics.Statistics;
 
 import java.util.BitSet;
 import java.util.List;
@@ -39,24 +40,32 @@ public class GroupExpression {
     private final Operator op;
     private final BitSet ruleMasks = new BitSet(RuleType.NUM_RULES.ordinal() + 1);
     private boolean statsDerived = false;
-    private final Map<PhysicalPropertySet, Pair<Double, List<PhysicalPropertySet>>> lowestCostTable;
+    // The following property tables are only filled for the physical group expressions in the cost phase,
+    // most group expressions in the memo never use them, so they are created on the first write.
+    private Map<PhysicalPropertySet, Pair<Double, List<PhysicalPropertySet>>> lowestCostTable;
     // required property by parent -> output property
-    private final Map<PhysicalPropertySet, PhysicalPropertySet> outputPropertyMap;
+    private Map<PhysicalPropertySet, PhysicalPropertySet> outputPropertyMap;
 
     // valid output/input properties, only used in enum plan
-    private final Set<OutputInputProperty> validOutputInputProperties;
+    private Set<OutputInputProperty> validOutputInputProperties;
     // property -> plan count, only used in enum plan
-    private final Map<OutputInputProperty, Integer> propertiesPlanCountMap;
+    private Map<OutputInputProperty, Integer> propertiesPlanCountMap;
 
     private boolean isUnused = false;
 
+    // The hash of the group expression is computed from the whole operator, including its scalar operator trees,
+    // and the memo looks up the group expressions many times, so it is cached and reset when the inputs change.
+    private int hash = 0;
+
+    // The statistics derived in the cost phase and the input group statistics they are derived from.
+    // The cost phase derives the statistics again for every combination of the children output properties,
+    // which gives the same result as long as the input group statistics are not changed.
+    private List<Statistics> derivedInputStatistics;
+    private Statistics derivedStatistics;
+
     public GroupExpression(Operator op, List<Group> inputs) {
         this.op = op;
         this.inputs = inputs;
-        this.lowestCostTable = Maps.newHashMap();
-        this.validOutputInputProperties = Sets.newLinkedHashSet();
-        this.propertiesPlanCountMap = Maps.newLinkedHashMap();
-        this.outputPropertyMap = Maps.newHashMap();
     }
 
     public Group getGroup() {
@@ -79,6 +88,12 @@ public class GroupExpression {
         return inputs.get(i);
     }
 
+    // The group expression must be removed from the memo before changing its inputs, and inserted again after
+    public void setInputAt(int i, Group group) {
+        inputs.set(i, group);
+        hash = 0;
+    }
+
     public Operator getOp() {
         return op;
     }
@@ -87,6 +102,24 @@ public class GroupExpression {
         return statsDerived;
     }
 
+    // Return the statistics derived from the same input statistics before, or null
+    public Statistics getDerivedStatistics(List<Statistics> inputStatistics) {
+        if (derivedInputStatistics == null || derivedInputStatistics.size() != inputStatistics.size()) {
+            return null;
+        }
+        for (int i = 0; i < inputStatistics.size(); i++) {
+            if (derivedInputStatistics.get(i) != inputStatistics.get(i)) {
+                return null;
+            }
+        }
+        return derivedStatistics;
+    }
+
+    public void setDerivedStatistics(List<Statistics> inputStatistics, Statistics statistics) {
+        this.derivedInputStatistics = inputStatistics;
+        this.derivedStatistics = statistics;
+    }
+
     public boolean isUnused() {
         return hasEmptyRootGroup() || hasEmptyChildGroup() || isUnused;
     }
@@ -116,23 +149,33 @@ public class GroupExpression {
     }
 
     public PhysicalPropertySet getOutputProperty(PhysicalPropertySet requiredPropertySet) {
-        PhysicalPropertySet outputProperty = outputPropertyMap.get(requiredPropertySet);
+        PhysicalPropertySet outputProperty =
+                outputPropertyMap == null ? null : outputPropertyMap.get(requiredPropertySet);
         Preconditions.checkState(outputProperty != null);
         return outputProperty;
     }
 
     public void setOutputPropertySatisfyRequiredProperty(PhysicalPropertySet outputPropertySet,
                                                          PhysicalPropertySet requiredPropertySet) {
-        this.outputPropertyMap.put(requiredPropertySet, outputPropertySet);
+        if (outputPropertyMap == null) {
+            outputPropertyMap = Maps.newHashMap();
+        }
+        outputPropertyMap.put(requiredPropertySet, outputPropertySet);
     }
 
     public void addValidOutputInputProperties(PhysicalPropertySet outputProperty,
                                               List<PhysicalPropertySet> inputProperties) {
+        if (validOutputInputProperties == null) {
+            validOutputInputProperties = Sets.newLinkedHashSet();
+        }
         validOutputInputProperties.add(OutputInputProperty.of(outputProperty, inputProperties));
     }
 
     public List<List<PhysicalPropertySet>> getRequiredInputProperties(PhysicalPropertySet requiredProperty) {
         List<List<PhysicalPropertySet>> result = Lists.newArrayList();
+        if (validOutputInputProperties == null) {
+            return result;
+        }
         for (OutputInputProperty outputInputProperty : validOutputInputProperties) {
             if (outputInputProperty.getOutputProperty().equals(requiredProperty)) {
                 result.add(outputInputProperty.getInputProperties());
@@ -142,16 +185,22 @@ public class GroupExpression {
     }
 
     public boolean hasValidSubPlan() {
-        return !validOutputInputProperties.isEmpty();
+        return validOutputInputProperties != null && !validOutputInputProperties.isEmpty();
     }
 
     public void addPlanCountOfProperties(OutputInputProperty properties, int count) {
+        if (propertiesPlanCountMap == null) {
+            propertiesPlanCountMap = Maps.newLinkedHashMap();
+        }
         propertiesPlanCountMap.put(properties, count);
     }
 
     public Map<OutputInputProperty, Integer> getPropertiesPlanCountMap(
             PhysicalPropertySet requiredProperty) {
         Map<OutputInputProperty, Integer> result = Maps.newLinkedHashMap();
+        if (propertiesPlanCountMap == null) {
+            return result;
+        }
         propertiesPlanCountMap.entrySet().stream()
                 .filter(entry -> entry.getKey().getOutputProperty().equals(requiredProperty))
                 .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
@@ -159,6 +208,9 @@ public class GroupExpression {
     }
 
     public int getRequiredPropertyPlanCount(PhysicalPropertySet requiredProperty) {
+        if (propertiesPlanCountMap == null) {
+            return 0;
+        }
         return propertiesPlanCountMap.entrySet().stream()
                 .filter(entry -> entry.getKey().getOutputProperty().equals(requiredProperty))
                 .mapToInt(Map.Entry::getValue).sum();
@@ -171,7 +223,7 @@ public class GroupExpression {
      * @return Lowest cost to satisfy that PropertySet
      */
     public double getCost(PhysicalPropertySet require) {
-        Preconditions.checkState(lowestCostTable.containsKey(require));
+        Preconditions.checkState(lowestCostTable != null && lowestCostTable.containsKey(require));
         return lowestCostTable.get(require).first;
     }
 
@@ -182,7 +234,7 @@ public class GroupExpression {
      * @return List of children input physical properties required
      */
     public List<PhysicalPropertySet> getInputProperties(PhysicalPropertySet require) {
-        Preconditions.checkState(lowestCostTable.containsKey(require));
+        Preconditions.checkState(lowestCostTable != null && lowestCostTable.containsKey(require));
         return lowestCostTable.get(require).second;
     }
 
@@ -197,6 +249,9 @@ public class GroupExpression {
     public boolean updatePropertyWithCost(PhysicalPropertySet outputProperties,
                                           List<PhysicalPropertySet> inputProperties,
                                           double cost) {
+        if (lowestCostTable == null) {
+            lowestCostTable = Maps.newHashMap();
+        }
         if (lowestCostTable.containsKey(outputProperties)) {
             if (lowestCostTable.get(outputProperties).first > cost) {
                 lowestCostTable.put(outputProperties, new Pair<>(cost, inputProperties));
@@ -211,6 +266,9 @@ public class GroupExpression {
 
     // use other Group Expression to update the lowestCostTable
     public void updatePropertyWithCost(GroupExpression other) {
+        if (other.lowestCostTable == null) {
+            return;
+        }
         for (Map.Entry<PhysicalPropertySet, Pair<Double, List<PhysicalPropertySet>>> entry : other.lowestCostTable
                 .entrySet()) {
             updatePropertyWithCost(entry.getKey(), entry.getValue().second, entry.getValue().first);
@@ -220,12 +278,14 @@ public class GroupExpression {
     // merge other group expression state to this group expression
     public void mergeGroupExpression(GroupExpression other) {
         // 1. low Cost Table
-        for (Map.Entry<PhysicalPropertySet, Pair<Double, List<PhysicalPropertySet>>> entry : other.lowestCostTable
-                .entrySet()) {
-            updatePropertyWithCost(entry.getKey(), entry.getValue().second, entry.getValue().first);
-        }
+        updatePropertyWithCost(other);
         // 2. outputPropertyMap
-        outputPropertyMap.putAll(other.outputPropertyMap);
+        if (other.outputPropertyMap != null) {
+            if (outputPropertyMap == null) {
+                outputPropertyMap = Maps.newHashMap();
+            }
+            outputPropertyMap.putAll(other.outputPropertyMap);
+        }
     }
 
     // This function will drive input group logical property first,
@@ -251,7 +311,13 @@ public class GroupExpression {
 
     @Override
     public int hashCode() {
-        return Objects.hash(op, inputs);
+        int h = hash;
+        if (h == 0) {
+            // same as Objects.hash(op, inputs), the hash of a group is its id
+            h = Objects.hash(op, inputs);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
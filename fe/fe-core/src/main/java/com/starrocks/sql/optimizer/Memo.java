@@ -83,8 +83,8 @@ public class Memo {
     }
 
     public Pair<Boolean, GroupExpression> insertGroupExpression(GroupExpression groupExpression, Group targetGroup) {
-        if (groupExpressions.get(groupExpression) != null) {
-            GroupExpression existedGroupExpression = groupExpressions.get(groupExpression);
+        GroupExpression existedGroupExpression = groupExpressions.get(groupExpression);
+        if (existedGroupExpression != null) {
             Group existedGroup = existedGroupExpression.getGroup();
 
             if (needMerge(targetGroup, existedGroup)) {
@@ -203,7 +203,7 @@ public class Memo {
                 if (modifyExpression.getInputs().get(i) == srcGroup) {
                     // remove self from his group, and reinsert later
                     modifyExpression.getGroup().removeGroupExpression(modifyExpression);
-                    modifyExpression.getInputs().set(i, dstGroup);
+                    modifyExpression.setInputAt(i, dstGroup);
                     needReinsertedExpressions.add(modifyExpression);
                 }
             }
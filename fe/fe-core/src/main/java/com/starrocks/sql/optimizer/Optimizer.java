@@ -17,6 +17,7 @@ import com.starrocks.sql.optimizer.rule.RuleSetType;
 import com.starrocks.sql.optimizer.rule.implementation.PreAggregateTurnOnRule;
 import com.starrocks.sql.optimizer.rule.join.ReorderJoinRule;
 import com.starrocks.sql.optimizer.rule.mv.MaterializedViewRule;
+import com.starrocks.sql.optimizer.rule.mv.MvRewritePreprocessor;
 import com.starrocks.sql.optimizer.rule.transformation.ApplyExceptionRule;
 import com.starrocks.sql.optimizer.rule.transformation.GroupByCountDistinctRewriteRule;
 import com.starrocks.sql.optimizer.rule.transformation.LimitPruneTabletsRule;
@@ -96,6 +97,11 @@ public class Optimizer {
         // collect all olap scan operator
         collectAllScanOperators(memo, rootTaskContext);
 
+        if (connectContext.getSessionVariable().isEnableMaterializedViewRewrite()) {
+            context.setCandidateMvs(new MvRewritePreprocessor(connectContext, columnRefFactory)
+                    .prepare(rootTaskContext.getAllScanOperators()));
+        }
+
         // Currently, we cache output columns in logic property.
         // We derive logic property Bottom Up firstly when new group added to memo,
         // but we do column prune rewrite top down later.
@@ -245,9 +251,11 @@ public class Optimizer {
         OptExpression tree = memo.getRootGroup().extractLogicalTree();
         // Join reorder
         SessionVariable sessionVariable = connectContext.getSessionVariable();
-        if (!sessionVariable.isDisableJoinReorder()
-                && Utils.countInnerJoinNodeSize(tree) < sessionVariable.getCboMaxReorderNode()) {
-            if (Utils.countInnerJoinNodeSize(tree) > sessionVariable.getCboMaxReorderNodeUseExhaustive()) {
+        // DPhyp could reorder the left outer/semi/anti joins with the inner joins together
+        int joinNodeSize = sessionVariable.isCboEnableDPhypJoinReorder() ?
+                Utils.countReorderableJoinNodeSize(tree) : Utils.countInnerJoinNodeSize(tree);
+        if (!sessionVariable.isDisableJoinReorder() && joinNodeSize < sessionVariable.getCboMaxReorderNode()) {
+            if (joinNodeSize > sessionVariable.getCboMaxReorderNodeUseExhaustive()) {
                 CTEUtils.collectForceCteStatistics(memo, context);
                 new ReorderJoinRule().transform(tree, context);
                 context.getRuleSet().addJoinCommutativityWithOutInnerRule();
@@ -259,6 +267,14 @@ public class Optimizer {
             }
         }
 
+        if (!context.getCandidateMvs().isEmpty()) {
+            context.getRuleSet().addMaterializedViewRewriteRules();
+        }
+
+        if (sessionVariable.isCboPushDownAggregateThroughJoin()) {
+            context.getRuleSet().addPushDownAggregateThroughJoinRule();
+        }
+
         //add join implementRule
         String joinImplementationMode = ConnectContext.get().getSessionVariable().getJoinImplementationMode();
         if ("merge".equalsIgnoreCase(joinImplementationMode)) {
@@ -9,10 +9,14 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.dump.DumpInfo;
 import com.starrocks.sql.optimizer.rule.RuleSet;
+import com.starrocks.sql.optimizer.rule.mv.MaterializationContext;
 import com.starrocks.sql.optimizer.task.SeriallyTaskScheduler;
 import com.starrocks.sql.optimizer.task.TaskContext;
 import com.starrocks.sql.optimizer.task.TaskScheduler;
 
+import java.util.Collections;
+import java.util.List;
+
 public class OptimizerContext {
     private final Memo memo;
     private final RuleSet ruleSet;
@@ -24,6 +28,8 @@ public class OptimizerContext {
     private CTEContext cteContext;
     private TaskContext currentTaskContext;
     private OptimizerTraceInfo traceInfo;
+    // the asynchronous materialized views which may rewrite the query
+    private List<MaterializationContext> candidateMvs = Collections.emptyList();
 
     public OptimizerContext(Memo memo, ColumnRefFactory columnRefFactory) {
         this.memo = memo;
@@ -100,4 +106,12 @@ public class OptimizerContext {
     public OptimizerTraceInfo getTraceInfo() {
         return traceInfo;
     }
+
+    public List<MaterializationContext> getCandidateMvs() {
+        return candidateMvs;
+    }
+
+    public void setCandidateMvs(List<MaterializationContext> candidateMvs) {
+        this.candidateMvs = candidateMvs;
+    }
 }
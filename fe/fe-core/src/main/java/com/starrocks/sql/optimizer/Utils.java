@@ -33,6 +33,7 @@ import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.join.MultiJoinNode;
 import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -294,6 +295,28 @@ public class Utils {
         return count;
     }
 
+    // Count the inner joins and the left outer/semi/anti joins which could be reordered by DPhyp
+    public static int countReorderableJoinNodeSize(OptExpression root) {
+        int count = 0;
+        Operator operator = root.getOp();
+        boolean isInnerJoin = isInnerOrCrossJoin(operator) && ((LogicalJoinOperator) operator).getJoinHint().isEmpty();
+        boolean isNonInnerJoin = operator instanceof LogicalJoinOperator
+                && MultiJoinNode.isReorderableNonInnerJoin((LogicalJoinOperator) operator);
+        for (int i = 0; i < root.arity(); ++i) {
+            // The right child of the non inner join is an atom
+            if (isInnerJoin || (isNonInnerJoin && i == 0)) {
+                count += countReorderableJoinNodeSize(root.inputAt(i));
+            } else {
+                count = Math.max(count, countReorderableJoinNodeSize(root.inputAt(i)));
+            }
+        }
+
+        if (isInnerJoin || isNonInnerJoin) {
+            count += 1;
+        }
+        return count;
+    }
+
     public static boolean capableSemiReorder(OptExpression root, boolean hasSemi, int joinNum, int maxJoin) {
         Operator operator = root.getOp();
 
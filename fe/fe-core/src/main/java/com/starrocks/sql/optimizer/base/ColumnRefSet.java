@@ -7,9 +7,12 @@ import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
-// BitSet used to accelerate column processing
+// BitSet used to accelerate column processing.
+// The operations below work on the bit set in place, without creating temporary column sets,
+// because they are called many times for every group expression during optimization.
 public class ColumnRefSet implements Cloneable {
     public BitSet bitSet;
 
@@ -38,7 +41,11 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public int getFirstId() {
-        return bitSet.stream().findFirst().getAsInt();
+        int id = bitSet.nextSetBit(0);
+        if (id < 0) {
+            throw new NoSuchElementException("No value present");
+        }
+        return id;
     }
 
     @Override
@@ -76,7 +83,9 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public void union(Collection<ColumnRefOperator> refs) {
-        union(new ColumnRefSet(refs));
+        for (ColumnRefOperator ref : refs) {
+            bitSet.set(ref.getId());
+        }
     }
 
     public void union(ColumnRefSet set) {
@@ -85,7 +94,9 @@ public class ColumnRefSet implements Cloneable {
 
     // The meaning is same with SQL Except Operation
     public void except(List<ColumnRefOperator> refs) {
-        except(new ColumnRefSet(refs));
+        for (ColumnRefOperator ref : refs) {
+            bitSet.clear(ref.getId());
+        }
     }
 
     public void except(ColumnRefSet set) {
@@ -98,11 +109,15 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public void intersect(ColumnRefOperator column) {
-        intersect(new ColumnRefSet(column.getId()));
+        intersect(column.getId());
     }
 
     public void intersect(int id) {
-        intersect(new ColumnRefSet(id));
+        boolean contains = bitSet.get(id);
+        bitSet.clear();
+        if (contains) {
+            bitSet.set(id);
+        }
     }
 
     public void intersect(ColumnRefSet set) {
@@ -126,10 +141,7 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public boolean isSame(ColumnRefSet columnRefSet) {
-        final ColumnRefSet tmp = new ColumnRefSet();
-        tmp.union(columnRefSet);
-        tmp.bitSet.xor(bitSet);
-        return tmp.cardinality() == 0;
+        return bitSet.equals(columnRefSet.bitSet);
     }
 
     public void clear() {
@@ -145,11 +157,21 @@ public class ColumnRefSet implements Cloneable {
     }
 
     public boolean containsAll(ColumnRefSet rhs) {
-        return rhs.bitSet.stream().allMatch(bit -> bitSet.get(bit));
+        for (int id = rhs.bitSet.nextSetBit(0); id >= 0; id = rhs.bitSet.nextSetBit(id + 1)) {
+            if (!bitSet.get(id)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public boolean containsAll(List<Integer> rhs) {
-        return rhs.stream().allMatch(bit -> bitSet.get(bit));
+        for (int id : rhs) {
+            if (!bitSet.get(id)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
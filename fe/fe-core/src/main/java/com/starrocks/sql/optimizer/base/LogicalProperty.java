@@ -3,6 +3,7 @@
 package com.starrocks.sql.optimizer.base;
 
 import com.google.common.base.Preconditions;
+import com.starrocks.catalog.JDBCTable;
 import com.starrocks.common.FeConstants;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.operator.Operator;
@@ -125,7 +126,10 @@ public class LogicalProperty implements Property {
             if (node instanceof LogicalOlapScanOperator) {
                 return ((LogicalOlapScanOperator) node).getSelectedTabletId().size() <= 1;
             } else {
-                return node instanceof LogicalMysqlScanOperator || node instanceof LogicalJDBCScanOperator;
+                if (node instanceof LogicalJDBCScanOperator) {
+                    return !((JDBCTable) node.getTable()).isSplitScanEnabled();
+                }
+                return node instanceof LogicalMysqlScanOperator;
             }
         }
 
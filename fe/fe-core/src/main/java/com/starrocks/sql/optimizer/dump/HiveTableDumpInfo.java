@@ -227,7 +227,7 @@ public class HiveTableDumpInfo implements HiveMetaStoreTableDumpInfo {
                     JsonObject fileObject = file.getAsJsonObject();
                     fileDescs.add(new HdfsFileDesc(fileObject.get("fileName").getAsString(),
                             fileObject.get("compression").getAsString(), fileObject.get("length").getAsLong(),
-                            ImmutableList.of(), ImmutableList.of(), fileObject.get("splittable").getAsBoolean(),
+                            0, ImmutableList.of(), ImmutableList.of(), fileObject.get("splittable").getAsBoolean(),
                             null));
                 }
 
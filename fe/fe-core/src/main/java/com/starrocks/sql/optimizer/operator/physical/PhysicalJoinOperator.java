@@ -4,11 +4,14 @@ package com.starrocks.sql.optimizer.operator.physical;
 
 import com.google.common.base.Preconditions;
 import com.starrocks.analysis.JoinOperator;
+import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.Projection;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -80,6 +83,12 @@ public abstract class PhysicalJoinOperator extends PhysicalOperator {
 
     @Override
     public boolean couldApplyStringDict(Set<Integer> childDictColumns) {
+        return couldApplyStringDict(childDictColumns, Collections.emptyList());
+    }
+
+    // dictJoinKeys are the equal conjuncts of the on predicate, whose both sides are encoded by the same global dict,
+    // so they could be evaluated on the dict ids
+    public boolean couldApplyStringDict(Set<Integer> childDictColumns, List<ScalarOperator> dictJoinKeys) {
         Preconditions.checkState(!childDictColumns.isEmpty());
         ColumnRefSet dictSet = new ColumnRefSet();
         for (Integer id : childDictColumns) {
@@ -90,20 +99,28 @@ public abstract class PhysicalJoinOperator extends PhysicalOperator {
             return false;
         }
 
-        if (onPredicate != null && onPredicate.getUsedColumns().isIntersect(dictSet)) {
-            return false;
+        for (ScalarOperator conjunct : Utils.extractConjuncts(onPredicate)) {
+            if (!dictJoinKeys.contains(conjunct) && conjunct.getUsedColumns().isIntersect(dictSet)) {
+                return false;
+            }
         }
 
         return true;
     }
 
     public void fillDisableDictOptimizeColumns(ColumnRefSet columnRefSet) {
+        fillDisableDictOptimizeColumns(columnRefSet, Collections.emptyList());
+    }
+
+    public void fillDisableDictOptimizeColumns(ColumnRefSet columnRefSet, List<ScalarOperator> dictJoinKeys) {
         if (predicate != null) {
             columnRefSet.union(predicate.getUsedColumns());
         }
 
-        if (onPredicate != null) {
-            columnRefSet.union(onPredicate.getUsedColumns());
+        for (ScalarOperator conjunct : Utils.extractConjuncts(onPredicate)) {
+            if (!dictJoinKeys.contains(conjunct)) {
+                columnRefSet.union(conjunct.getUsedColumns());
+            }
         }
     }
 
@@ -1,6 +1,7 @@
 // This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
 package com.starrocks.sql.optimizer.operator.physical;
 
+import com.google.common.base.Preconditions;
 import com.starrocks.analysis.AnalyticWindow;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptExpressionVisitor;
@@ -15,6 +16,7 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import static com.starrocks.sql.optimizer.operator.OperatorType.PHYSICAL_WINDOW;
 
@@ -103,4 +105,40 @@ public class PhysicalWindowOperator extends PhysicalOperator {
         orderByElements.forEach(o -> set.union(o.getColumnRef()));
         return set;
     }
+
+    @Override
+    public boolean couldApplyStringDict(Set<Integer> childDictColumns) {
+        Preconditions.checkState(!childDictColumns.isEmpty());
+        ColumnRefSet dictSet = new ColumnRefSet();
+        for (Integer id : childDictColumns) {
+            dictSet.union(id);
+        }
+
+        if (predicate != null && predicate.getUsedColumns().isIntersect(dictSet)) {
+            return false;
+        }
+
+        // the analytic functions compute on the string values
+        for (CallOperator call : analyticCall.values()) {
+            if (call.getUsedColumns().isIntersect(dictSet)) {
+                return false;
+            }
+        }
+
+        // partition by and order by only compare the values, which could be done by the dict ids
+        for (ScalarOperator partition : partitionExpressions) {
+            if (!partition.isColumnRef() && partition.getUsedColumns().isIntersect(dictSet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void fillDisableDictOptimizeColumns(ColumnRefSet resultSet) {
+        if (predicate != null) {
+            resultSet.union(predicate.getUsedColumns());
+        }
+        analyticCall.values().forEach(d -> resultSet.union(d.getUsedColumns()));
+        partitionExpressions.stream().filter(d -> !d.isColumnRef()).forEach(d -> resultSet.union(d.getUsedColumns()));
+    }
 }
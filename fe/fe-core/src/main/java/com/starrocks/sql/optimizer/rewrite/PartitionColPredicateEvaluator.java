@@ -4,6 +4,7 @@ package com.starrocks.sql.optimizer.rewrite;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
 import com.starrocks.analysis.LiteralExpr;
@@ -12,14 +13,17 @@ import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.RangePartitionInfo;
 import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.operator.ColumnFilterConverter;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperatorVisitor;
+import com.starrocks.sql.optimizer.transformer.SqlToScalarOperatorTranslator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -89,6 +93,12 @@ public class PartitionColPredicateEvaluator {
         public BitSet visitBinaryPredicate(BinaryPredicateOperator predicate, Void context) {
             BinaryPredicateOperator.BinaryType type = predicate.getBinaryType();
             ConstantOperator constantOperator = (ConstantOperator) predicate.getChild(1);
+            if (!predicate.getChild(0).isColumnRef()) {
+                if (!isComparable(constantOperator.getType(), predicate.getChild(0).getType())) {
+                    return createAllTrueBitSet();
+                }
+                return evaluateMonotonicRangeHitSet(predicate.getChild(0), createConstantRange(type, constantOperator));
+            }
             LiteralExpr literalExpr;
             try {
                 if (constantOperator.isNull()) {
@@ -150,6 +160,17 @@ public class PartitionColPredicateEvaluator {
             List<ConstantOperator> constList = predicate.getChildren().stream()
                     .skip(1).map(ConstantOperator.class::cast)
                     .filter(e -> !e.isNull()).sorted().collect(Collectors.toList());
+            if (!predicate.getChild(0).isColumnRef()) {
+                if (constList.isEmpty()) {
+                    return new BitSet(candidateNum);
+                }
+                ConstantOperator min = constList.get(0);
+                ConstantOperator max = constList.get(constList.size() - 1);
+                if (!isComparable(min.getType(), predicate.getChild(0).getType())) {
+                    return createAllTrueBitSet();
+                }
+                return evaluateMonotonicRangeHitSet(predicate.getChild(0), Range.closed(min, max));
+            }
             BitSet res = new BitSet();
             boolean encounterEx = false;
             if (IN_OPERANDS_LIMIT >= constList.size()) {
@@ -210,6 +231,86 @@ public class PartitionColPredicateEvaluator {
             return bitSet;
         }
 
+        // The expression is a monotonically non-decreasing function of partition column,
+        // so its value on the partition range [lower, upper) is in [f(lower), f(upper)]
+        private BitSet evaluateMonotonicRangeHitSet(ScalarOperator expression, Range<ConstantOperator> predicateRange) {
+            if (predicateRange == null) {
+                return createAllTrueBitSet();
+            }
+            ColumnRefOperator columnRef = Utils.extractColumnRef(expression).get(0);
+            BitSet bitSet = new BitSet(candidateNum);
+            for (int i = 0; i < candidateNum; i++) {
+                Range<PartitionKey> range = candidateRanges.get(i);
+                ConstantOperator lower = range.lowerEndpoint().isMinValue() ? null :
+                        evaluateBound(expression, columnRef, range.lowerEndpoint());
+                ConstantOperator upper = range.upperEndpoint().isMaxValue() ? null :
+                        evaluateBound(expression, columnRef, range.upperEndpoint());
+
+                Range<ConstantOperator> valueRange;
+                if (lower != null && upper != null) {
+                    // the function overflows
+                    if (lower.compareTo(upper) > 0) {
+                        bitSet.set(i);
+                        continue;
+                    }
+                    valueRange = Range.closed(lower, upper);
+                } else if (lower != null) {
+                    valueRange = Range.atLeast(lower);
+                } else if (upper != null) {
+                    valueRange = Range.atMost(upper);
+                } else {
+                    valueRange = Range.all();
+                }
+
+                if (valueRange.isConnected(predicateRange) && !valueRange.intersection(predicateRange).isEmpty()) {
+                    bitSet.set(i);
+                }
+            }
+            return bitSet;
+        }
+
+        // Fold the expression on the bound of partition, return null if it can't be folded
+        private ConstantOperator evaluateBound(ScalarOperator expression, ColumnRefOperator columnRef,
+                                               PartitionKey bound) {
+            ScalarOperator value = SqlToScalarOperatorTranslator.translate(bound.getKeys().get(0));
+            if (!value.isConstantRef()) {
+                return null;
+            }
+
+            ScalarOperator result = new ReplaceColumnRefRewriter(ImmutableMap.of(columnRef, value)).rewrite(expression);
+            result = new ScalarOperatorRewriter().rewrite(result, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
+            if (!result.isConstantRef() || ((ConstantOperator) result).isNull()
+                    || !isComparable(result.getType(), expression.getType())) {
+                return null;
+            }
+            return (ConstantOperator) result;
+        }
+
+        private Range<ConstantOperator> createConstantRange(BinaryPredicateOperator.BinaryType type,
+                                                            ConstantOperator constantOperator) {
+            switch (type) {
+                case EQ:
+                    return Range.closed(constantOperator, constantOperator);
+                case GE:
+                    return Range.atLeast(constantOperator);
+                case GT:
+                    return Range.greaterThan(constantOperator);
+                case LE:
+                    return Range.atMost(constantOperator);
+                case LT:
+                    return Range.lessThan(constantOperator);
+                case NE:
+                case EQ_FOR_NULL:
+                default:
+                    return null;
+            }
+        }
+
+        private boolean isComparable(Type left, Type right) {
+            return left.getPrimitiveType() == right.getPrimitiveType()
+                    || (left.isDecimalOfAnyVersion() && right.isDecimalOfAnyVersion());
+        }
+
         private BitSet createAllTrueBitSet() {
             BitSet res = new BitSet(candidateNum);
             res.flip(0, candidateNum);
@@ -2,13 +2,17 @@
 
 package com.starrocks.sql.optimizer.rewrite;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.starrocks.catalog.Column;
+import com.starrocks.catalog.FunctionSet;
 import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CastOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
@@ -20,6 +24,7 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperatorVisitor;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator.BinaryType.EQ_FOR_NULL;
@@ -32,8 +37,20 @@ import static com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperato
  * will transform to
  * k1 < 100 or k1 > 200
  * Then we can use range info to test which ranges fit the transformed condition.
+ * The predicate on the monotonic function of partition key like date_trunc('day', k1) = '2020-01-01'
+ * is also preserved, the range of the function on each partition range is evaluated by its bounds.
  */
 public class PartitionColPredicateExtractor extends ScalarOperatorVisitor<ScalarOperator, Void> {
+    // The functions are monotonically non-decreasing on the only non-constant argument
+    private static final Set<String> MONOTONIC_FUNCTIONS = ImmutableSet.of(
+            FunctionSet.DATE_TRUNC, FunctionSet.TO_DATE, FunctionSet.YEAR, FunctionSet.TIMESTAMP, "date",
+            FunctionSet.YEARS_ADD, FunctionSet.MONTHS_ADD, FunctionSet.DAYS_ADD, FunctionSet.ADDDATE,
+            FunctionSet.DATE_ADD, "hours_add", "minutes_add", "seconds_add", FunctionSet.ADD);
+
+    // The functions are monotonically non-decreasing only if the first argument is the non-constant one
+    private static final Set<String> MONOTONIC_ON_FIRST_ARGUMENT_FUNCTIONS = ImmutableSet.of(
+            FunctionSet.YEARS_SUB, FunctionSet.MONTHS_SUB, FunctionSet.DAYS_SUB, FunctionSet.SUBDATE,
+            FunctionSet.DATE_SUB, "hours_sub", "minutes_sub", "seconds_sub", FunctionSet.SUBTRACT);
 
     private ColumnRefSet partitionColumnSet;
 
@@ -80,8 +97,8 @@ public class PartitionColPredicateExtractor extends ScalarOperatorVisitor<Scalar
     @Override
     public ScalarOperator visitBinaryPredicate(BinaryPredicateOperator predicate, Void context) {
         if (partitionColumnSet.containsAll(predicate.getUsedColumns())) {
-            ScalarOperator left = predicate.getChild(0).accept(this, null);
-            if (isColumnOrPrune(left)) {
+            ScalarOperator left = predicate.getChild(0);
+            if (!left.isColumnRef() && (EQ_FOR_NULL == predicate.getBinaryType() || !isMonotonic(left))) {
                 return ConstantOperator.createBoolean(true);
             }
             ScalarOperator right = predicate.getChild(1).accept(this, null);
@@ -155,8 +172,11 @@ public class PartitionColPredicateExtractor extends ScalarOperatorVisitor<Scalar
 
     @Override
     public ScalarOperator visitInPredicate(InPredicateOperator predicate, Void context) {
-        ScalarOperator first = predicate.getChild(0).accept(this, null);
-        if (isColumnOrPrune(first)) {
+        ScalarOperator first = predicate.getChild(0);
+        boolean isMonotonicIn = !predicate.isNotIn() && !first.isColumnRef()
+                && partitionColumnSet.containsAll(first.getUsedColumns()) && isMonotonic(first);
+        first = first.accept(this, null);
+        if (isColumnOrPrune(first) && !isMonotonicIn) {
             return ConstantOperator.createBoolean(true);
         } else {
             if (predicate.allValuesMatch(ScalarOperator::isConstantRef)) {
@@ -205,6 +225,53 @@ public class PartitionColPredicateExtractor extends ScalarOperatorVisitor<Scalar
         return operator == null || !operator.isConstant();
     }
     
+    // Whether the operator is a monotonically non-decreasing function of partition column,
+    // nested by the monotonic functions and casts
+    private boolean isMonotonic(ScalarOperator operator) {
+        if (operator.isColumnRef()) {
+            return partitionColumnSet.containsAll(operator.getUsedColumns());
+        }
+
+        if (operator instanceof CastOperator) {
+            return isMonotonicCast(operator.getChild(0).getType(), operator.getType())
+                    && isMonotonic(operator.getChild(0));
+        }
+
+        if (operator instanceof CallOperator) {
+            String fnName = ((CallOperator) operator).getFnName();
+            int variableIndex = -1;
+            for (int i = 0; i < operator.getChildren().size(); i++) {
+                if (!operator.getChild(i).isConstantRef()) {
+                    if (variableIndex >= 0) {
+                        return false;
+                    }
+                    variableIndex = i;
+                }
+            }
+
+            if (variableIndex < 0) {
+                return false;
+            }
+            if (MONOTONIC_FUNCTIONS.contains(fnName)
+                    || (MONOTONIC_ON_FIRST_ARGUMENT_FUNCTIONS.contains(fnName) && variableIndex == 0)) {
+                return isMonotonic(operator.getChild(variableIndex));
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMonotonicCast(Type from, Type to) {
+        if (from.isDateType() && to.isDateType()) {
+            return true;
+        }
+        if (from.isFixedPointType()) {
+            // narrowing integer cast overflows
+            return (to.isFixedPointType() && to.getSlotSize() >= from.getSlotSize())
+                    || to.isFloatingPointType() || to.isDecimalOfAnyVersion();
+        }
+        return from.isFloatingPointType() && to.isFloatingPointType() && to.getSlotSize() >= from.getSlotSize();
+    }
+
     private boolean isConstantNull(ScalarOperator operator) {
         if (operator.isConstantRef()) {
             return ((ConstantOperator) operator).isNull();
@@ -35,6 +35,7 @@ import com.starrocks.sql.optimizer.rule.implementation.TopNImplementationRule;
 import com.starrocks.sql.optimizer.rule.implementation.UnionImplementationRule;
 import com.starrocks.sql.optimizer.rule.implementation.ValuesImplementationRule;
 import com.starrocks.sql.optimizer.rule.implementation.WindowImplementationRule;
+import com.starrocks.sql.optimizer.rule.mv.MaterializedViewRewriteRule;
 import com.starrocks.sql.optimizer.rule.transformation.CastToEmptyRule;
 import com.starrocks.sql.optimizer.rule.transformation.CollectCTEConsumeRule;
 import com.starrocks.sql.optimizer.rule.transformation.CollectCTEProduceRule;
@@ -78,6 +79,7 @@ import com.starrocks.sql.optimizer.rule.transformation.PruneUnionColumnsRule;
 import com.starrocks.sql.optimizer.rule.transformation.PruneUnionEmptyRule;
 import com.starrocks.sql.optimizer.rule.transformation.PruneValuesColumnsRule;
 import com.starrocks.sql.optimizer.rule.transformation.PruneWindowColumnsRule;
+import com.starrocks.sql.optimizer.rule.transformation.PushDownAggregateThroughJoinRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushDownApplyAggFilterRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushDownApplyAggProjectFilterRule;
 import com.starrocks.sql.optimizer.rule.transformation.PushDownApplyFilterRule;
@@ -329,6 +331,17 @@ public class RuleSet {
         transformRules.add(JoinCommutativityWithOutInnerRule.getInstance());
     }
 
+    public void addMaterializedViewRewriteRules() {
+        transformRules.add(MaterializedViewRewriteRule.AGGREGATE_REWRITE);
+        transformRules.add(MaterializedViewRewriteRule.JOIN_REWRITE);
+        transformRules.add(MaterializedViewRewriteRule.SCAN_REWRITE);
+    }
+
+    public void addPushDownAggregateThroughJoinRule() {
+        // the rule remembers the groups pushed down, so it is created for each optimization
+        transformRules.add(new PushDownAggregateThroughJoinRule());
+    }
+
     public List<Rule> getTransformRules() {
         return transformRules;
     }
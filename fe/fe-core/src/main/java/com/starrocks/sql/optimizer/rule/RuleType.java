@@ -95,6 +95,11 @@ public enum RuleType {
     TF_PUSH_DOWN_ASSERT_ONE_ROW_PROJECT,
 
     TF_MATERIALIZED_VIEW,
+    TF_MV_AGGREGATE_REWRITE,
+    TF_MV_JOIN_REWRITE,
+    TF_MV_SCAN_REWRITE,
+
+    TF_PUSH_DOWN_AGGREGATE_THROUGH_JOIN,
 
     TF_MERGE_TWO_AGG_RULE,
 
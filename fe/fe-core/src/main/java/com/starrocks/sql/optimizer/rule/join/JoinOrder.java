@@ -245,8 +245,6 @@ public abstract class JoinOrder {
     }
 
     protected ExpressionInfo buildJoinExpr(GroupInfo leftGroup, GroupInfo rightGroup) {
-        ExpressionInfo leftExprInfo = leftGroup.bestExprInfo;
-        ExpressionInfo rightExprInfo = rightGroup.bestExprInfo;
         Pair<ScalarOperator, ScalarOperator> predicates = buildInnerJoinPredicate(
                 leftGroup.atoms, rightGroup.atoms);
         LogicalJoinOperator newJoin;
@@ -259,34 +257,9 @@ public abstract class JoinOrder {
         }
         newJoin.setPredicate(predicates.second);
 
-        Map<ColumnRefOperator, ScalarOperator> leftExpression = new HashMap<>();
-        Map<ColumnRefOperator, ScalarOperator> rightExpression = new HashMap<>();
-        for (Map.Entry<ColumnRefOperator, ScalarOperator> entry : expressionMap.entrySet()) {
-            // If entry.getValue is Constant, then this ColumnRef does not belong to any child.
-            // Then you can add this constant mapping on any child
-            if (predicates.first != null && predicates.first.getUsedColumns().contains(entry.getKey())) {
-                if (leftExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
-                        || entry.getValue() instanceof ConstantOperator) {
-                    leftExpression.put(entry.getKey(), entry.getValue());
-                } else if (rightExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
-                        || entry.getValue() instanceof ConstantOperator) {
-                    rightExpression.put(entry.getKey(), entry.getValue());
-                }
-            }
-
-            if (predicates.second != null && predicates.second.getUsedColumns().contains(entry.getKey())) {
-                if (leftExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
-                        || entry.getValue() instanceof ConstantOperator) {
-                    leftExpression.put(entry.getKey(), entry.getValue());
-                } else if (rightExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
-                        || entry.getValue() instanceof ConstantOperator) {
-                    rightExpression.put(entry.getKey(), entry.getValue());
-                }
-            }
-        }
-
-        pushRequiredColumns(leftExprInfo, leftExpression);
-        pushRequiredColumns(rightExprInfo, rightExpression);
+        ExpressionInfo leftExprInfo = leftGroup.bestExprInfo;
+        ExpressionInfo rightExprInfo = rightGroup.bestExprInfo;
+        pushRequiredExpressions(newJoin, leftExprInfo, rightExprInfo);
 
         // In StarRocks, we only support hash join.
         // So we always use small table as right child
@@ -301,6 +274,31 @@ public abstract class JoinOrder {
         }
     }
 
+    // The expressions used by the join predicates are computed by the children
+    protected void pushRequiredExpressions(LogicalJoinOperator newJoin, ExpressionInfo leftExprInfo,
+                                           ExpressionInfo rightExprInfo) {
+        Map<ColumnRefOperator, ScalarOperator> leftExpression = new HashMap<>();
+        Map<ColumnRefOperator, ScalarOperator> rightExpression = new HashMap<>();
+        for (Map.Entry<ColumnRefOperator, ScalarOperator> entry : expressionMap.entrySet()) {
+            for (ScalarOperator predicate : Lists.newArrayList(newJoin.getOnPredicate(), newJoin.getPredicate())) {
+                // If entry.getValue is Constant, then this ColumnRef does not belong to any child.
+                // Then you can add this constant mapping on any child
+                if (predicate != null && predicate.getUsedColumns().contains(entry.getKey())) {
+                    if (leftExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
+                            || entry.getValue() instanceof ConstantOperator) {
+                        leftExpression.put(entry.getKey(), entry.getValue());
+                    } else if (rightExprInfo.expr.getOutputColumns().containsAll(entry.getValue().getUsedColumns())
+                            || entry.getValue() instanceof ConstantOperator) {
+                        rightExpression.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+
+        pushRequiredColumns(leftExprInfo, leftExpression);
+        pushRequiredColumns(rightExprInfo, rightExpression);
+    }
+
     private void pushRequiredColumns(ExpressionInfo exprInfo, Map<ColumnRefOperator, ScalarOperator> expression) {
         if (expression.isEmpty()) {
             return;
@@ -330,7 +328,7 @@ public abstract class JoinOrder {
         exprInfo.expr.deriveLogicalPropertyItself();
     }
 
-    private Pair<ScalarOperator, ScalarOperator> buildInnerJoinPredicate(BitSet left, BitSet right) {
+    protected Pair<ScalarOperator, ScalarOperator> buildInnerJoinPredicate(BitSet left, BitSet right) {
         List<ScalarOperator> equalOnPredicates = Lists.newArrayList();
         List<ScalarOperator> otherPredicates = Lists.newArrayList();
         BitSet joinBitSet = new BitSet();
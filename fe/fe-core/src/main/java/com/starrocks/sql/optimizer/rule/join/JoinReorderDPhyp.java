@@ -0,0 +1,353 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Pair;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Join reorder by DPhyp, see "Dynamic Programming Strikes Back" (Moerkotte and Neumann, SIGMOD 2008).
+ * Only the connected sub graphs and their connected complements of the join hypergraph are enumerated,
+ * so it could find the best bushy plan for much more tables than {@link JoinReorderDP} when the join
+ * graph is sparse, such as chain, star and snowflake.
+ * <p>
+ * The left outer/semi/anti join is the hyperedge from the atoms referenced by its on predicate to its
+ * right atom. The right atom could only be joined by this join, with the atoms containing the left
+ * of the hyperedge, so the reordered joins always produce the same result.
+ * <p>
+ * The result is empty when the join graph isn't connected or the enumeration exceeds the time limit,
+ * then the caller should fall back to {@link JoinReorderGreedy}.
+ */
+public class JoinReorderDPhyp extends JoinOrder {
+    // The atom sets are represented by the bits of long
+    private static final int MAX_ATOM_SIZE = 63;
+    // Check the time limit every CHECK_TIME_LIMIT_INTERVAL enumeration calls
+    private static final int CHECK_TIME_LIMIT_INTERVAL = 64;
+
+    /**
+     * The hyperedge of the left outer/semi/anti join, from the left atoms to the right atom
+     */
+    private static class NonInnerEdge {
+        final LogicalJoinOperator joinOperator;
+        final long left;
+        final long right;
+
+        NonInnerEdge(LogicalJoinOperator joinOperator, long left, long right) {
+            this.joinOperator = joinOperator;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private final List<MultiJoinNode.NonInnerJoin> nonInnerJoins;
+    private final long timeLimit;
+
+    private long deadline;
+    private long enumerateCalls = 0;
+    private boolean aborted = false;
+
+    private long[] innerEdges;
+    private final List<NonInnerEdge> nonInnerEdges = Lists.newArrayList();
+    private final Map<Long, GroupInfo> bestPlans = Maps.newHashMap();
+
+    public JoinReorderDPhyp(OptimizerContext context, List<MultiJoinNode.NonInnerJoin> nonInnerJoins,
+                            long timeLimit) {
+        super(context);
+        this.nonInnerJoins = nonInnerJoins;
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    protected void enumerate() {
+        if (atomSize > MAX_ATOM_SIZE || !buildHyperGraph()) {
+            aborted = true;
+            return;
+        }
+
+        deadline = System.currentTimeMillis() + timeLimit;
+        List<GroupInfo> atoms = getGroupForLevel(1);
+        for (int i = 0; i < atomSize; ++i) {
+            bestPlans.put(1L << i, atoms.get(i));
+        }
+
+        for (int i = atomSize - 1; i >= 0 && !aborted; --i) {
+            long vertex = 1L << i;
+            emitCsg(vertex);
+            enumerateCsgRec(vertex, lowerVertexes(vertex));
+        }
+    }
+
+    @Override
+    public List<OptExpression> getResult() {
+        GroupInfo root = bestPlans.get((1L << atomSize) - 1);
+        if (aborted || root == null) {
+            return Collections.emptyList();
+        }
+        return Lists.newArrayList(root.bestExprInfo.expr);
+    }
+
+    private boolean buildHyperGraph() {
+        innerEdges = new long[edgeSize];
+        for (int i = 0; i < edgeSize; ++i) {
+            innerEdges[i] = toVertexes(edges.get(i).vertexes);
+        }
+
+        List<GroupInfo> atoms = getGroupForLevel(1);
+        for (MultiJoinNode.NonInnerJoin nonInnerJoin : nonInnerJoins) {
+            OptExpression rightAtom = nonInnerJoin.getRightAtom();
+            long right = 0;
+            for (int i = 0; i < atomSize; ++i) {
+                if (atoms.get(i).bestExprInfo.expr == rightAtom) {
+                    right = 1L << i;
+                }
+            }
+            if (right == 0) {
+                return false;
+            }
+
+            // The expressions on the right atom must be computed after it's null-extended,
+            // they can't be pushed down to the right atom
+            for (ScalarOperator value : expressionMap.values()) {
+                if (!value.isColumnRef() && !(value instanceof ConstantOperator)
+                        && value.getUsedColumns().isIntersect(rightAtom.getOutputColumns())) {
+                    return false;
+                }
+            }
+
+            long left = getReferencedVertexes(nonInnerJoin.getJoinOperator().getOnPredicate()) & ~right;
+            if (left == 0) {
+                left = getVertexes(nonInnerJoin.getLeftColumns());
+            }
+            nonInnerEdges.add(new NonInnerEdge(nonInnerJoin.getJoinOperator(), left, right));
+        }
+
+        for (int i = 0; i < edgeSize; ++i) {
+            // The predicate without column can't be bound to any join
+            if (innerEdges[i] == 0) {
+                return false;
+            }
+            // The predicate only on the right atom is evaluated after the non inner join
+            for (NonInnerEdge nonInnerEdge : nonInnerEdges) {
+                if (innerEdges[i] == nonInnerEdge.right) {
+                    innerEdges[i] |= nonInnerEdge.left;
+                    edges.get(i).vertexes.or(BitSet.valueOf(new long[] {nonInnerEdge.left}));
+                }
+            }
+        }
+        return true;
+    }
+
+    private long getReferencedVertexes(ScalarOperator predicate) {
+        ColumnRefSet predicateColumns = new ColumnRefSet();
+        predicateColumns.union(predicate.getUsedColumns());
+        for (Map.Entry<ColumnRefOperator, ScalarOperator> entry : expressionMap.entrySet()) {
+            if (predicate.getUsedColumns().contains(entry.getKey())) {
+                predicateColumns.union(entry.getValue().getUsedColumns());
+            }
+        }
+        return getVertexes(predicateColumns);
+    }
+
+    private long getVertexes(ColumnRefSet columns) {
+        long vertexes = 0;
+        List<GroupInfo> atoms = getGroupForLevel(1);
+        for (int i = 0; i < atomSize; ++i) {
+            if (atoms.get(i).bestExprInfo.expr.getOutputColumns().isIntersect(columns)) {
+                vertexes |= 1L << i;
+            }
+        }
+        return vertexes;
+    }
+
+    private static long toVertexes(BitSet bitSet) {
+        return bitSet.isEmpty() ? 0 : bitSet.toLongArray()[0];
+    }
+
+    // The vertexes whose index is not greater than the lowest vertex of the set
+    private static long lowerVertexes(long vertexes) {
+        long lowest = Long.lowestOneBit(vertexes);
+        return lowest | (lowest - 1);
+    }
+
+    private boolean isAborted() {
+        if (!aborted && ++enumerateCalls % CHECK_TIME_LIMIT_INTERVAL == 0
+                && System.currentTimeMillis() > deadline) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * The neighborhood of the vertexes, one representative vertex for each hyperedge
+     * which connects the vertexes with the others not excluded
+     */
+    private long neighborhood(long vertexes, long excluded) {
+        long neighbors = 0;
+        long forbidden = vertexes | excluded;
+        for (long edge : innerEdges) {
+            long others = edge & ~vertexes;
+            if ((edge & vertexes) != 0 && others != 0 && (others & forbidden) == 0) {
+                neighbors |= Long.lowestOneBit(others);
+            }
+        }
+
+        for (NonInnerEdge edge : nonInnerEdges) {
+            if ((edge.left & ~vertexes) == 0 && (edge.right & forbidden) == 0) {
+                neighbors |= edge.right;
+            } else if ((edge.right & ~vertexes) == 0 && (edge.left & forbidden) == 0) {
+                neighbors |= Long.lowestOneBit(edge.left);
+            }
+        }
+        return neighbors;
+    }
+
+    private boolean isConnected(long left, long right) {
+        long vertexes = left | right;
+        for (long edge : innerEdges) {
+            if ((edge & ~vertexes) == 0 && (edge & left) != 0 && (edge & right) != 0) {
+                return true;
+            }
+        }
+
+        for (NonInnerEdge edge : nonInnerEdges) {
+            if (((edge.left & ~left) == 0 && (edge.right & ~right) == 0)
+                    || ((edge.left & ~right) == 0 && (edge.right & ~left) == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void enumerateCsgRec(long vertexes, long excluded) {
+        if (isAborted()) {
+            return;
+        }
+
+        long neighbors = neighborhood(vertexes, excluded);
+        for (long subset = neighbors & -neighbors; subset != 0; subset = (subset - neighbors) & neighbors) {
+            if (bestPlans.containsKey(vertexes | subset)) {
+                emitCsg(vertexes | subset);
+            }
+        }
+
+        for (long subset = neighbors & -neighbors; subset != 0; subset = (subset - neighbors) & neighbors) {
+            enumerateCsgRec(vertexes | subset, excluded | neighbors);
+        }
+    }
+
+    private void emitCsg(long vertexes) {
+        long excluded = vertexes | lowerVertexes(vertexes);
+        long neighbors = neighborhood(vertexes, excluded);
+        // from the highest neighbor to the lowest neighbor
+        for (long rest = neighbors; rest != 0 && !aborted; ) {
+            long neighbor = Long.highestOneBit(rest);
+            rest &= ~neighbor;
+            if (isConnected(vertexes, neighbor)) {
+                emitCsgCmp(vertexes, neighbor);
+            }
+            enumerateCmpRec(vertexes, neighbor, excluded | (neighbors & (neighbor | (neighbor - 1))));
+        }
+    }
+
+    private void enumerateCmpRec(long csg, long cmp, long excluded) {
+        if (isAborted()) {
+            return;
+        }
+
+        long neighbors = neighborhood(cmp, excluded);
+        for (long subset = neighbors & -neighbors; subset != 0; subset = (subset - neighbors) & neighbors) {
+            if (bestPlans.containsKey(cmp | subset) && isConnected(csg, cmp | subset)) {
+                emitCsgCmp(csg, cmp | subset);
+            }
+        }
+
+        for (long subset = neighbors & -neighbors; subset != 0; subset = (subset - neighbors) & neighbors) {
+            enumerateCmpRec(csg, cmp | subset, excluded | neighbors);
+        }
+    }
+
+    private NonInnerEdge findNonInnerEdge(long rightVertexes) {
+        for (NonInnerEdge edge : nonInnerEdges) {
+            if (edge.right == rightVertexes) {
+                return edge;
+            }
+        }
+        return null;
+    }
+
+    private void emitCsgCmp(long csg, long cmp) {
+        GroupInfo csgGroup = bestPlans.get(csg);
+        GroupInfo cmpGroup = bestPlans.get(cmp);
+        GroupInfo joinGroup = bestPlans.get(csg | cmp);
+        // The cost of join is never less than the cost of children
+        if (joinGroup != null && csgGroup.lowestExprCost + cmpGroup.lowestExprCost >= joinGroup.lowestExprCost) {
+            return;
+        }
+
+        NonInnerEdge csgEdge = findNonInnerEdge(csg);
+        NonInnerEdge cmpEdge = findNonInnerEdge(cmp);
+        ExpressionInfo joinExprInfo;
+        if (csgEdge != null && cmpEdge != null) {
+            return;
+        } else if (cmpEdge != null) {
+            if ((cmpEdge.left & ~csg) != 0) {
+                return;
+            }
+            joinExprInfo = buildNonInnerJoinExpr(cmpEdge, csgGroup, cmpGroup);
+        } else if (csgEdge != null) {
+            if ((csgEdge.left & ~cmp) != 0) {
+                return;
+            }
+            joinExprInfo = buildNonInnerJoinExpr(csgEdge, cmpGroup, csgGroup);
+        } else {
+            joinExprInfo = buildJoinExpr(csgGroup, cmpGroup);
+        }
+
+        joinExprInfo.expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExprInfo.expr);
+        computeCost(joinExprInfo, true);
+
+        if (joinGroup == null) {
+            joinGroup = new GroupInfo(BitSet.valueOf(new long[] {csg | cmp}));
+            bestPlans.put(csg | cmp, joinGroup);
+        }
+        if (joinExprInfo.cost < joinGroup.lowestExprCost) {
+            joinGroup.bestExprInfo = joinExprInfo;
+            joinGroup.lowestExprCost = joinExprInfo.cost;
+        }
+    }
+
+    private ExpressionInfo buildNonInnerJoinExpr(NonInnerEdge edge, GroupInfo leftGroup, GroupInfo rightGroup) {
+        // The inner join predicates on the right atom are evaluated after the non inner join
+        Pair<ScalarOperator, ScalarOperator> predicates = buildInnerJoinPredicate(
+                leftGroup.atoms, rightGroup.atoms);
+        LogicalJoinOperator newJoin = new LogicalJoinOperator.Builder()
+                .withOperator(edge.joinOperator)
+                .setPredicate(Utils.compoundAnd(predicates.first, predicates.second))
+                .setProjection(null)
+                .setLimit(Operator.DEFAULT_LIMIT)
+                .build();
+
+        ExpressionInfo leftExprInfo = leftGroup.bestExprInfo;
+        ExpressionInfo rightExprInfo = rightGroup.bestExprInfo;
+        pushRequiredExpressions(newJoin, leftExprInfo, rightExprInfo);
+
+        OptExpression joinExpr = OptExpression.create(newJoin, leftExprInfo.expr, rightExprInfo.expr);
+        return new ExpressionInfo(joinExpr, leftGroup, rightGroup);
+    }
+}
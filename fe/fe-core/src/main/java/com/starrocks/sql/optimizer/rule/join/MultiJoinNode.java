@@ -3,8 +3,10 @@
 package com.starrocks.sql.optimizer.rule.join;
 
 import com.google.common.base.Preconditions;
+import com.starrocks.analysis.JoinOperator;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.Projection;
 import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
@@ -19,19 +21,56 @@ import java.util.Map;
 
 /**
  * This class represents a set of inner joins that can be executed in any order.
+ * It could also contain the left outer/semi/anti joins whose right child is an atom,
+ * which could be reordered only under the constraints of the {@link NonInnerJoin}.
  */
 public class MultiJoinNode {
+    /**
+     * A left outer/semi/anti join in the multi join, the right atom must be joined
+     * with the atoms referenced by the on predicate by this join
+     */
+    public static class NonInnerJoin {
+        private final LogicalJoinOperator joinOperator;
+        private final OptExpression rightAtom;
+        private final ColumnRefSet leftColumns;
+
+        public NonInnerJoin(LogicalJoinOperator joinOperator, OptExpression rightAtom, ColumnRefSet leftColumns) {
+            this.joinOperator = joinOperator;
+            this.rightAtom = rightAtom;
+            this.leftColumns = leftColumns;
+        }
+
+        public LogicalJoinOperator getJoinOperator() {
+            return joinOperator;
+        }
+
+        public OptExpression getRightAtom() {
+            return rightAtom;
+        }
+
+        public ColumnRefSet getLeftColumns() {
+            return leftColumns;
+        }
+    }
+
     // Atom: A child of the Multi join. This could be a table or some
     // other operator like a group by or a full outer join.
     private final LinkedHashSet<OptExpression> atoms;
     private final List<ScalarOperator> predicates;
     private final Map<ColumnRefOperator, ScalarOperator> expressionMap;
+    private final List<NonInnerJoin> nonInnerJoins;
 
     public MultiJoinNode(LinkedHashSet<OptExpression> atoms, List<ScalarOperator> predicates,
                          Map<ColumnRefOperator, ScalarOperator> expressionMap) {
+        this(atoms, predicates, expressionMap, new ArrayList<>());
+    }
+
+    public MultiJoinNode(LinkedHashSet<OptExpression> atoms, List<ScalarOperator> predicates,
+                         Map<ColumnRefOperator, ScalarOperator> expressionMap, List<NonInnerJoin> nonInnerJoins) {
         this.atoms = atoms;
         this.predicates = predicates;
         this.expressionMap = expressionMap;
+        this.nonInnerJoins = nonInnerJoins;
     }
 
     public LinkedHashSet<OptExpression> getAtoms() {
@@ -46,19 +85,41 @@ public class MultiJoinNode {
         return expressionMap;
     }
 
+    public List<NonInnerJoin> getNonInnerJoins() {
+        return nonInnerJoins;
+    }
+
     public static MultiJoinNode toMultiJoinNode(OptExpression node) {
+        return toMultiJoinNode(node, false);
+    }
+
+    public static MultiJoinNode toMultiJoinNode(OptExpression node, boolean withNonInnerJoins) {
         LinkedHashSet<OptExpression> atoms = new LinkedHashSet<>();
         List<ScalarOperator> predicates = new ArrayList<>();
         Map<ColumnRefOperator, ScalarOperator> proMap = new HashMap<>();
+        List<NonInnerJoin> nonInnerJoins = new ArrayList<>();
 
-        flattenJoinNode(node, atoms, predicates, proMap);
+        flattenJoinNode(node, atoms, predicates, proMap, withNonInnerJoins ? nonInnerJoins : null);
 
-        return new MultiJoinNode(atoms, predicates, proMap);
+        return new MultiJoinNode(atoms, predicates, proMap, nonInnerJoins);
+    }
+
+    // The left outer/semi/anti join without post predicate could be reordered with the inner joins
+    // of its left child, as long as its right child is joined after the columns of on predicate are ready
+    public static boolean isReorderableNonInnerJoin(LogicalJoinOperator joinOperator) {
+        JoinOperator joinType = joinOperator.getJoinType();
+        return (joinType.isLeftOuterJoin() || joinType == JoinOperator.LEFT_SEMI_JOIN
+                || joinType == JoinOperator.LEFT_ANTI_JOIN)
+                && joinOperator.getJoinHint().isEmpty()
+                && !joinOperator.hasLimit()
+                && joinOperator.getOnPredicate() != null
+                && joinOperator.getPredicate() == null;
     }
 
     private static void flattenJoinNode(OptExpression node, LinkedHashSet<OptExpression> atoms,
                                         List<ScalarOperator> predicates,
-                                        Map<ColumnRefOperator, ScalarOperator> expressionMap) {
+                                        Map<ColumnRefOperator, ScalarOperator> expressionMap,
+                                        List<NonInnerJoin> nonInnerJoins) {
         Operator operator = node.getOp();
         if (!(operator instanceof LogicalJoinOperator)) {
             atoms.add(node);
@@ -66,7 +127,8 @@ public class MultiJoinNode {
         }
 
         LogicalJoinOperator joinOperator = (LogicalJoinOperator) operator;
-        if (!joinOperator.isInnerOrCrossJoin() || !joinOperator.getJoinHint().isEmpty()) {
+        boolean isNonInnerJoin = nonInnerJoins != null && isReorderableNonInnerJoin(joinOperator);
+        if ((!joinOperator.isInnerOrCrossJoin() && !isNonInnerJoin) || !joinOperator.getJoinHint().isEmpty()) {
             atoms.add(node);
             return;
         }
@@ -100,8 +162,15 @@ public class MultiJoinNode {
             }
         }
 
-        flattenJoinNode(node.inputAt(0), atoms, predicates, expressionMap);
-        flattenJoinNode(node.inputAt(1), atoms, predicates, expressionMap);
+        if (isNonInnerJoin) {
+            flattenJoinNode(node.inputAt(0), atoms, predicates, expressionMap, nonInnerJoins);
+            atoms.add(node.inputAt(1));
+            nonInnerJoins.add(new NonInnerJoin(joinOperator, node.inputAt(1), node.inputAt(0).getOutputColumns()));
+            return;
+        }
+
+        flattenJoinNode(node.inputAt(0), atoms, predicates, expressionMap, nonInnerJoins);
+        flattenJoinNode(node.inputAt(1), atoms, predicates, expressionMap, nonInnerJoins);
         predicates.addAll(Utils.extractConjuncts(joinOperator.getOnPredicate()));
         Preconditions.checkState(!Utils.isEqualBinaryPredicate(joinPredicate));
         predicates.addAll(Utils.extractConjuncts(joinPredicate));
@@ -5,6 +5,7 @@ package com.starrocks.sql.optimizer.rule.join;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.FeConstants;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.ExpressionContext;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptExpressionVisitor;
@@ -39,7 +40,8 @@ public class ReorderJoinRule extends Rule {
 
     private void extractRootInnerJoin(OptExpression root,
                                       List<OptExpression> results,
-                                      boolean findNewRoot) {
+                                      boolean findNewRoot,
+                                      boolean withNonInnerJoins) {
         Operator operator = root.getOp();
         if (operator instanceof LogicalJoinOperator) {
             // If the user specifies joinHint, then no reorder
@@ -53,6 +55,14 @@ public class ReorderJoinRule extends Rule {
                     findNewRoot = true;
                     results.add(root);
                 }
+            } else if (withNonInnerJoins && MultiJoinNode.isReorderableNonInnerJoin(joinOperator)) {
+                if (!findNewRoot) {
+                    results.add(root);
+                }
+                // The right child of the non inner join is an atom of the join tree
+                extractRootInnerJoin(root.inputAt(0), results, true, true);
+                extractRootInnerJoin(root.inputAt(1), results, false, true);
+                return;
             } else {
                 findNewRoot = false;
             }
@@ -61,12 +71,12 @@ public class ReorderJoinRule extends Rule {
         }
 
         for (OptExpression child : root.getInputs()) {
-            extractRootInnerJoin(child, results, findNewRoot);
+            extractRootInnerJoin(child, results, findNewRoot, withNonInnerJoins);
         }
     }
 
-    void enumerate(JoinOrder reorderAlgorithm, OptimizerContext context, OptExpression innerJoinRoot,
-                   MultiJoinNode multiJoinNode) {
+    boolean enumerate(JoinOrder reorderAlgorithm, OptimizerContext context, OptExpression innerJoinRoot,
+                      MultiJoinNode multiJoinNode) {
         reorderAlgorithm.reorder(Lists.newArrayList(multiJoinNode.getAtoms()),
                 multiJoinNode.getPredicates(), multiJoinNode.getExpressionMap());
 
@@ -85,7 +95,11 @@ public class ReorderJoinRule extends Rule {
             ColumnRefSet outputColumns = new ColumnRefSet();
             Map<ColumnRefOperator, ScalarOperator> projectMap = new HashMap<>();
             if (oldRoot.getProjection() == null) {
-                innerJoinRoot.getInputs().forEach(opt -> outputColumns.union(opt.getOutputColumns()));
+                if (oldRoot.getJoinType().isLeftSemiAntiJoin()) {
+                    outputColumns.union(innerJoinRoot.inputAt(0).getOutputColumns());
+                } else {
+                    innerJoinRoot.getInputs().forEach(opt -> outputColumns.union(opt.getOutputColumns()));
+                }
 
                 projectMap.putAll(outputColumns.getStream()
                         .mapToObj(context.getColumnRefFactory()::getColumnRef)
@@ -130,12 +144,14 @@ public class ReorderJoinRule extends Rule {
 
             context.getMemo().copyIn(innerJoinRoot.getGroupExpression().getGroup(), joinExpr);
         }
+        return !reorderTopKResult.isEmpty();
     }
 
     @Override
     public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        SessionVariable sessionVariable = context.getSessionVariable();
         List<OptExpression> innerJoinTrees = Lists.newArrayList();
-        extractRootInnerJoin(input, innerJoinTrees, false);
+        extractRootInnerJoin(input, innerJoinTrees, false, false);
         if (!innerJoinTrees.isEmpty()) {
             // In order to reorder the bottom join tree firstly
             Collections.reverse(innerJoinTrees);
@@ -149,18 +165,40 @@ public class ReorderJoinRule extends Rule {
                     continue;
                 }
 
-                if (multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDP()
-                        && context.getSessionVariable().isCboEnableDPJoinReorder()) {
+                if (multiJoinNode.getAtoms().size() <= sessionVariable.getCboMaxReorderNodeUseDP()
+                        && sessionVariable.isCboEnableDPJoinReorder()) {
                     // 10 table join reorder takes more than 100ms,
                     // so the join reorder using dp is currently controlled below 10.
                     enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                } else if (sessionVariable.isCboEnableDPhypJoinReorder()
+                        && enumerate(new JoinReorderDPhyp(context, multiJoinNode.getNonInnerJoins(),
+                        sessionVariable.getCboDPhypJoinReorderTimeLimit()), context, innerJoinRoot, multiJoinNode)) {
+                    // DPhyp has found the best plan of the connected join graph in time,
+                    // the greedy join reorder is only the fallback of it
+                    continue;
                 }
 
-                if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
+                if (sessionVariable.isCboEnableGreedyJoinReorder()) {
                     enumerate(new JoinReorderGreedy(context), context, innerJoinRoot, multiJoinNode);
                 }
             }
         }
+
+        // Reorder the inner joins together with the left outer/semi/anti joins above them
+        if (sessionVariable.isCboEnableDPhypJoinReorder()
+                && (!Utils.hasUnknownColumnsStats(input) || FeConstants.runningUnitTest)) {
+            List<OptExpression> joinTrees = Lists.newArrayList();
+            extractRootInnerJoin(input, joinTrees, false, true);
+            Collections.reverse(joinTrees);
+            for (OptExpression joinRoot : joinTrees) {
+                MultiJoinNode multiJoinNode = MultiJoinNode.toMultiJoinNode(joinRoot, true);
+                // The join trees of only inner joins have been reordered above
+                if (!multiJoinNode.getNonInnerJoins().isEmpty()) {
+                    enumerate(new JoinReorderDPhyp(context, multiJoinNode.getNonInnerJoins(),
+                            sessionVariable.getCboDPhypJoinReorderTimeLimit()), context, joinRoot, multiJoinNode);
+                }
+            }
+        }
         return Collections.emptyList();
     }
 
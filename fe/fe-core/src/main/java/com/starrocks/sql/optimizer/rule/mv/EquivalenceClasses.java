@@ -0,0 +1,57 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+
+import java.util.Map;
+
+/**
+ * The equivalence classes of the columns, which are built by the equal predicates between two columns.
+ */
+public class EquivalenceClasses {
+    // union-find of the columns, a column not in the map is a class of itself
+    private final Map<ColumnRefOperator, ColumnRefOperator> parents = Maps.newHashMap();
+
+    public void addEquivalence(ColumnRefOperator left, ColumnRefOperator right) {
+        ColumnRefOperator leftRoot = find(left);
+        ColumnRefOperator rightRoot = find(right);
+        if (!leftRoot.equals(rightRoot)) {
+            // keep the smaller column id as the representative, so it's stable for the same predicates
+            if (leftRoot.getId() < rightRoot.getId()) {
+                parents.put(rightRoot, leftRoot);
+            } else {
+                parents.put(leftRoot, rightRoot);
+            }
+        }
+    }
+
+    public ColumnRefOperator find(ColumnRefOperator column) {
+        ColumnRefOperator parent = parents.get(column);
+        if (parent == null) {
+            return column;
+        }
+        ColumnRefOperator root = find(parent);
+        if (!root.equals(parent)) {
+            parents.put(column, root);
+        }
+        return root;
+    }
+
+    public boolean isEquivalent(ColumnRefOperator left, ColumnRefOperator right) {
+        return find(left).equals(find(right));
+    }
+
+    /**
+     * @return the map from every column in a non-trivial class to the representative of its class
+     */
+    public Map<ColumnRefOperator, ColumnRefOperator> getRepresentatives() {
+        Map<ColumnRefOperator, ColumnRefOperator> representatives = Maps.newHashMap();
+        for (ColumnRefOperator column : Lists.newArrayList(parents.keySet())) {
+            representatives.put(column, find(column));
+        }
+        return representatives;
+    }
+}
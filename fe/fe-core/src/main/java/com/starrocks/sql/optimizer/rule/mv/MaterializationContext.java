@@ -0,0 +1,45 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A fresh asynchronous materialized view which may rewrite the current query, with its plan built by
+ * the column ref factory of the query.
+ */
+public class MaterializationContext {
+    private final MaterializedView mv;
+    private final SPJGPlan mvPlan;
+    // the expressions of the mv plan in the order of the columns of the materialized view
+    private final List<ScalarOperator> mvOutputs;
+    // the groups of the memo which have been rewritten by this materialized view
+    private final Set<Integer> rewrittenGroupIds = Sets.newHashSet();
+
+    public MaterializationContext(MaterializedView mv, SPJGPlan mvPlan, List<ScalarOperator> mvOutputs) {
+        this.mv = mv;
+        this.mvPlan = mvPlan;
+        this.mvOutputs = mvOutputs;
+    }
+
+    public MaterializedView getMv() {
+        return mv;
+    }
+
+    public SPJGPlan getMvPlan() {
+        return mvPlan;
+    }
+
+    public List<ScalarOperator> getMvOutputs() {
+        return mvOutputs;
+    }
+
+    public boolean addRewrittenGroup(int groupId) {
+        return rewrittenGroupIds.add(groupId);
+    }
+}
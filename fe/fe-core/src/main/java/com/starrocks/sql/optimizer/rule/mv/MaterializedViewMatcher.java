@@ -0,0 +1,568 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.Expr;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.DistributionInfo;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.HashDistributionInfo;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.DistributionSpec;
+import com.starrocks.sql.optimizer.base.HashDistributionDesc;
+import com.starrocks.sql.optimizer.operator.AggType;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+import com.starrocks.sql.optimizer.rule.transformation.DistributionPruneRule;
+import com.starrocks.sql.optimizer.rule.transformation.PartitionPruneRule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches the SPJG plan of a query against the plan of a materialized view, and rewrites the query by scanning
+ * the materialized view if the view contains all the rows the query needs:
+ * 1. the view scans the same tables as the query
+ * 2. the column equivalence classes of the view are contained by the ones of the query
+ * 3. the range predicates of the view enclose the ranges of the query
+ * 4. the other predicates of the view are the same as some predicates of the query
+ * The predicates of the query not satisfied by the view are compensated on the view by its output columns,
+ * and the aggregations of the query are either mapped to the aggregate columns of the view directly when they have
+ * the same grouping keys, or rolled up from them.
+ */
+public class MaterializedViewMatcher {
+    // the aggregate function of the query -> the function to roll up the aggregate column of the view
+    private static final Map<String, String> ROLLUP_FUNCTIONS = ImmutableMap.<String, String>builder()
+            .put(FunctionSet.SUM, FunctionSet.SUM)
+            .put(FunctionSet.COUNT, FunctionSet.SUM)
+            .put(FunctionSet.MIN, FunctionSet.MIN)
+            .put(FunctionSet.MAX, FunctionSet.MAX)
+            .put(FunctionSet.BITMAP_UNION, FunctionSet.BITMAP_UNION)
+            .put(FunctionSet.HLL_UNION, FunctionSet.HLL_UNION)
+            .build();
+
+    private final SPJGPlan queryPlan;
+    private final MaterializationContext mvContext;
+    private final OptimizerContext context;
+    private final ColumnRefFactory columnRefFactory;
+
+    // the plan of the view expressed by the scan columns of the query
+    private final List<ScalarOperator> viewConjuncts = Lists.newArrayList();
+    private final List<ScalarOperator> viewGroupingKeys = Lists.newArrayList();
+    private final Map<ColumnRefOperator, CallOperator> viewAggregations = Maps.newHashMap();
+    private final List<ScalarOperator> viewOutputs = Lists.newArrayList();
+
+    private final EquivalenceClasses queryEquivalenceClasses = new EquivalenceClasses();
+    private final EquivalenceClasses viewEquivalenceClasses = new EquivalenceClasses();
+    // rewrite the expressions by the representative columns of the view equivalence classes,
+    // which are equal in all the rows of the view
+    private ReplaceColumnRefRewriter viewNormalizer;
+
+    // the columns of the materialized view
+    private final List<ColumnRefOperator> mvColumnRefs = Lists.newArrayList();
+    // the normalized expression of the view output -> the column of the materialized view
+    private final Map<ScalarOperator, ColumnRefOperator> viewOutputToColumn = Maps.newHashMap();
+
+    public MaterializedViewMatcher(SPJGPlan queryPlan, MaterializationContext mvContext, OptimizerContext context) {
+        this.queryPlan = queryPlan;
+        this.mvContext = mvContext;
+        this.context = context;
+        this.columnRefFactory = context.getColumnRefFactory();
+    }
+
+    /**
+     * @param outputColumns the output columns of the query, which are also the outputs of the rewritten plan
+     * @return the plan scanning the materialized view, or null if the query can't be rewritten by the view
+     */
+    public OptExpression match(List<ColumnRefOperator> outputColumns) {
+        SPJGPlan viewPlan = mvContext.getMvPlan();
+        if (!queryPlan.getTableIds().equals(viewPlan.getTableIds()) || viewPlan.getHaving() != null
+                || (viewPlan.hasAggregate() && !queryPlan.hasAggregate())) {
+            return null;
+        }
+        mapViewToQuery(viewPlan);
+
+        List<ScalarOperator> compensations = Lists.newArrayList();
+        if (!matchPredicates(compensations)) {
+            return null;
+        }
+
+        viewNormalizer = new ReplaceColumnRefRewriter(
+                Maps.newHashMap(viewEquivalenceClasses.getRepresentatives()));
+        MaterializedView mv = mvContext.getMv();
+        List<Column> mvColumns = mv.getBaseSchema();
+        for (int i = 0; i < mvColumns.size(); i++) {
+            Column column = mvColumns.get(i);
+            ColumnRefOperator columnRef = columnRefFactory.create(column.getName(), column.getType(),
+                    column.isAllowNull());
+            mvColumnRefs.add(columnRef);
+            viewOutputToColumn.putIfAbsent(viewNormalizer.rewrite(viewOutputs.get(i)), columnRef);
+        }
+
+        List<ScalarOperator> scanPredicates = Lists.newArrayList();
+        for (ScalarOperator compensation : compensations) {
+            ScalarOperator predicate = rewriteByColumns(compensation, viewOutputToColumn);
+            if (predicate == null) {
+                return null;
+            }
+            scanPredicates.add(predicate);
+        }
+
+        if (!queryPlan.hasAggregate()) {
+            Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+            for (ColumnRefOperator outputColumn : outputColumns) {
+                ScalarOperator output = rewriteOutput(outputColumn, viewOutputToColumn);
+                if (output == null) {
+                    return null;
+                }
+                projection.put(outputColumn, output);
+            }
+            OptExpression scan = buildScan(scanPredicates, projection.values());
+            return scan == null ? null : OptExpression.create(new LogicalProjectOperator(projection), scan);
+        } else if (viewPlan.hasAggregate() && isSameGroupingKeys()) {
+            return rewriteWithoutRollup(outputColumns, scanPredicates);
+        } else {
+            return rewriteWithAggregate(outputColumns, scanPredicates, viewPlan.hasAggregate());
+        }
+    }
+
+    private void mapViewToQuery(SPJGPlan viewPlan) {
+        Map<Long, LogicalOlapScanOperator> queryScans = Maps.newHashMap();
+        for (LogicalOlapScanOperator scan : queryPlan.getScans()) {
+            queryScans.put(scan.getTable().getId(), scan);
+        }
+        Map<ColumnRefOperator, ScalarOperator> viewToQuery = Maps.newHashMap();
+        for (LogicalOlapScanOperator viewScan : viewPlan.getScans()) {
+            LogicalOlapScanOperator queryScan = queryScans.get(viewScan.getTable().getId());
+            for (Map.Entry<ColumnRefOperator, Column> entry : viewScan.getColRefToColumnMetaMap().entrySet()) {
+                ColumnRefOperator queryColumn = queryScan.getColumnMetaToColRefMap().get(entry.getValue());
+                if (queryColumn == null) {
+                    // the column is not used by the query
+                    queryColumn = columnRefFactory.create(entry.getKey().getName(), entry.getKey().getType(),
+                            entry.getKey().isNullable());
+                }
+                viewToQuery.put(entry.getKey(), queryColumn);
+            }
+        }
+
+        ReplaceColumnRefRewriter rewriter = new ReplaceColumnRefRewriter(viewToQuery);
+        viewPlan.getConjuncts().forEach(conjunct -> viewConjuncts.add(rewriter.rewrite(conjunct)));
+        viewPlan.getGroupingKeys().forEach(key -> viewGroupingKeys.add(rewriter.rewrite(key)));
+        viewPlan.getAggregations().forEach(
+                (column, call) -> viewAggregations.put(column, (CallOperator) rewriter.rewrite(call)));
+        mvContext.getMvOutputs().forEach(output -> viewOutputs.add(rewriter.rewrite(output)));
+    }
+
+    /**
+     * Checks the view contains all the rows of the query, and collects the predicates of the query to be
+     * compensated on the view.
+     */
+    private boolean matchPredicates(List<ScalarOperator> compensations) {
+        List<ScalarOperator> queryOthers = Lists.newArrayList();
+        List<ScalarOperator> viewOthers = Lists.newArrayList();
+        List<ScalarOperator> queryEqualities = Lists.newArrayList();
+        for (ScalarOperator conjunct : queryPlan.getConjuncts()) {
+            if (isColumnEquality(conjunct)) {
+                queryEquivalenceClasses.addEquivalence(conjunct.getChild(0).cast(), conjunct.getChild(1).cast());
+                queryEqualities.add(conjunct);
+            } else {
+                queryOthers.add(conjunct);
+            }
+        }
+        for (ScalarOperator conjunct : viewConjuncts) {
+            if (isColumnEquality(conjunct)) {
+                ColumnRefOperator left = conjunct.getChild(0).cast();
+                ColumnRefOperator right = conjunct.getChild(1).cast();
+                if (!queryEquivalenceClasses.isEquivalent(left, right)) {
+                    return false;
+                }
+                viewEquivalenceClasses.addEquivalence(left, right);
+            } else {
+                viewOthers.add(conjunct);
+            }
+        }
+        for (ScalarOperator equality : queryEqualities) {
+            if (!viewEquivalenceClasses.isEquivalent(equality.getChild(0).cast(), equality.getChild(1).cast())) {
+                compensations.add(equality);
+            }
+        }
+
+        // the ranges are compared on the equivalence classes of the query
+        Map<ColumnRefOperator, Range<ConstantOperator>> queryRanges = Maps.newHashMap();
+        Map<ColumnRefOperator, List<ScalarOperator>> queryRangePredicates = Maps.newHashMap();
+        List<ScalarOperator> queryResiduals = Lists.newArrayList();
+        if (!collectRanges(queryOthers, queryRanges, queryRangePredicates, queryResiduals)) {
+            return false;
+        }
+        Map<ColumnRefOperator, Range<ConstantOperator>> viewRanges = Maps.newHashMap();
+        List<ScalarOperator> viewResiduals = Lists.newArrayList();
+        if (!collectRanges(viewOthers, viewRanges, Maps.newHashMap(), viewResiduals)) {
+            return false;
+        }
+        for (Map.Entry<ColumnRefOperator, Range<ConstantOperator>> entry : viewRanges.entrySet()) {
+            Range<ConstantOperator> queryRange = queryRanges.get(entry.getKey());
+            if (queryRange == null || !entry.getValue().encloses(queryRange)) {
+                return false;
+            }
+        }
+        for (Map.Entry<ColumnRefOperator, Range<ConstantOperator>> entry : queryRanges.entrySet()) {
+            if (!entry.getValue().equals(viewRanges.get(entry.getKey()))) {
+                compensations.addAll(queryRangePredicates.get(entry.getKey()));
+            }
+        }
+
+        // the other predicates of the view must be in the query
+        ReplaceColumnRefRewriter queryNormalizer = new ReplaceColumnRefRewriter(
+                Maps.newHashMap(queryEquivalenceClasses.getRepresentatives()));
+        Set<ScalarOperator> normalizedViewResiduals = Sets.newHashSet();
+        viewResiduals.forEach(residual -> normalizedViewResiduals.add(queryNormalizer.rewrite(residual)));
+        Set<ScalarOperator> normalizedQueryResiduals = Sets.newHashSet();
+        for (ScalarOperator residual : queryResiduals) {
+            ScalarOperator normalized = queryNormalizer.rewrite(residual);
+            normalizedQueryResiduals.add(normalized);
+            if (!normalizedViewResiduals.contains(normalized)) {
+                compensations.add(residual);
+            }
+        }
+        return normalizedQueryResiduals.containsAll(normalizedViewResiduals);
+    }
+
+    private static boolean isColumnEquality(ScalarOperator conjunct) {
+        return conjunct instanceof BinaryPredicateOperator
+                && ((BinaryPredicateOperator) conjunct).getBinaryType() == BinaryPredicateOperator.BinaryType.EQ
+                && conjunct.getChild(0) instanceof ColumnRefOperator
+                && conjunct.getChild(1) instanceof ColumnRefOperator;
+    }
+
+    private boolean collectRanges(List<ScalarOperator> conjuncts,
+                                  Map<ColumnRefOperator, Range<ConstantOperator>> ranges,
+                                  Map<ColumnRefOperator, List<ScalarOperator>> rangePredicates,
+                                  List<ScalarOperator> residuals) {
+        for (ScalarOperator conjunct : conjuncts) {
+            BinaryPredicateOperator predicate = toColumnConstantPredicate(conjunct);
+            if (predicate == null) {
+                residuals.add(conjunct);
+                continue;
+            }
+            ColumnRefOperator column = queryEquivalenceClasses.find(predicate.getChild(0).cast());
+            ConstantOperator value = predicate.getChild(1).cast();
+            Range<ConstantOperator> range;
+            switch (predicate.getBinaryType()) {
+                case EQ:
+                    range = Range.singleton(value);
+                    break;
+                case LT:
+                    range = Range.lessThan(value);
+                    break;
+                case LE:
+                    range = Range.atMost(value);
+                    break;
+                case GT:
+                    range = Range.greaterThan(value);
+                    break;
+                default:
+                    range = Range.atLeast(value);
+                    break;
+            }
+            Range<ConstantOperator> existing = ranges.get(column);
+            if (existing != null) {
+                if (!existing.isConnected(range)) {
+                    // the predicates are always false, leave it to the other rules
+                    return false;
+                }
+                range = existing.intersection(range);
+            }
+            ranges.put(column, range);
+            rangePredicates.computeIfAbsent(column, k -> Lists.newArrayList()).add(conjunct);
+        }
+        return true;
+    }
+
+    // @return the predicate in the form of "column op constant", or null if it's not a range predicate
+    private static BinaryPredicateOperator toColumnConstantPredicate(ScalarOperator conjunct) {
+        if (!(conjunct instanceof BinaryPredicateOperator)) {
+            return null;
+        }
+        BinaryPredicateOperator predicate = (BinaryPredicateOperator) conjunct;
+        switch (predicate.getBinaryType()) {
+            case EQ:
+            case LT:
+            case LE:
+            case GT:
+            case GE:
+                break;
+            default:
+                return null;
+        }
+        if (predicate.getChild(0) instanceof ConstantOperator && predicate.getChild(1) instanceof ColumnRefOperator) {
+            predicate = predicate.commutative();
+        }
+        if (!(predicate.getChild(0) instanceof ColumnRefOperator)
+                || !(predicate.getChild(1) instanceof ConstantOperator)) {
+            return null;
+        }
+        ConstantOperator value = predicate.getChild(1).cast();
+        // the constants of the different types can't be compared
+        if (value.isNull() || !value.getType().equals(predicate.getChild(0).getType())) {
+            return null;
+        }
+        return predicate;
+    }
+
+    /**
+     * Rewrites the expression by the given columns, replacing the sub expressions which are equal to some
+     * expressions of the view after normalized.
+     *
+     * @return null if the expression uses a column which can't be rewritten
+     */
+    private ScalarOperator rewriteByColumns(ScalarOperator expression, Map<ScalarOperator, ColumnRefOperator> columns) {
+        return replace(viewNormalizer.rewrite(expression), columns);
+    }
+
+    private static ScalarOperator replace(ScalarOperator expression, Map<ScalarOperator, ColumnRefOperator> columns) {
+        ColumnRefOperator column = columns.get(expression);
+        if (column != null) {
+            return column;
+        }
+        if (expression instanceof ColumnRefOperator) {
+            return null;
+        }
+        for (int i = 0; i < expression.getChildren().size(); i++) {
+            ScalarOperator child = replace(expression.getChild(i), columns);
+            if (child == null) {
+                return null;
+            }
+            expression.setChild(i, child);
+        }
+        return expression;
+    }
+
+    private ScalarOperator rewriteOutput(ColumnRefOperator outputColumn,
+                                         Map<ScalarOperator, ColumnRefOperator> columns) {
+        ScalarOperator output = queryPlan.getOutputs().get(outputColumn);
+        return output == null ? null : rewriteByColumns(output, columns);
+    }
+
+    private boolean isSameGroupingKeys() {
+        Set<ScalarOperator> queryKeys = Sets.newHashSet();
+        queryPlan.getGroupingKeys().forEach(key -> queryKeys.add(viewNormalizer.rewrite(key)));
+        Set<ScalarOperator> viewKeys = Sets.newHashSet();
+        viewGroupingKeys.forEach(key -> viewKeys.add(viewNormalizer.rewrite(key)));
+        return queryKeys.equals(viewKeys);
+    }
+
+    // the normalized aggregate function of the view -> the column of the materialized view
+    private Map<ScalarOperator, ColumnRefOperator> getViewAggregateColumns() {
+        Map<ScalarOperator, ColumnRefOperator> aggregateColumns = Maps.newHashMap();
+        for (int i = 0; i < viewOutputs.size(); i++) {
+            CallOperator aggregation = viewAggregations.get(viewOutputs.get(i));
+            if (aggregation != null) {
+                aggregateColumns.putIfAbsent(viewNormalizer.rewrite(aggregation), mvColumnRefs.get(i));
+            }
+        }
+        return aggregateColumns;
+    }
+
+    /**
+     * The view has the same grouping keys as the query, so a row of the view is a group of the query,
+     * the aggregate functions of the query are mapped to the aggregate columns of the view.
+     */
+    private OptExpression rewriteWithoutRollup(List<ColumnRefOperator> outputColumns,
+                                               List<ScalarOperator> scanPredicates) {
+        Map<ScalarOperator, ColumnRefOperator> viewAggregateColumns = getViewAggregateColumns();
+        Map<ScalarOperator, ColumnRefOperator> columns = Maps.newHashMap(viewOutputToColumn);
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : queryPlan.getAggregations().entrySet()) {
+            ColumnRefOperator column = viewAggregateColumns.get(viewNormalizer.rewrite(entry.getValue()));
+            if (column == null || !column.getType().equals(entry.getKey().getType())) {
+                return null;
+            }
+            columns.put(entry.getKey(), column);
+        }
+
+        List<ScalarOperator> predicates = Lists.newArrayList(scanPredicates);
+        if (queryPlan.getHaving() != null) {
+            ScalarOperator having = rewriteByColumns(queryPlan.getHaving(), columns);
+            if (having == null) {
+                return null;
+            }
+            predicates.addAll(Utils.extractConjuncts(having));
+        }
+        Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+        for (ColumnRefOperator outputColumn : outputColumns) {
+            ScalarOperator output = rewriteOutput(outputColumn, columns);
+            if (output == null) {
+                return null;
+            }
+            projection.put(outputColumn, output);
+        }
+        OptExpression scan = buildScan(predicates, projection.values());
+        return scan == null ? null : OptExpression.create(new LogicalProjectOperator(projection), scan);
+    }
+
+    /**
+     * Aggregates the rows of the view by the grouping keys of the query, the aggregate functions of the query are
+     * computed from the columns of the view, or rolled up from the aggregate columns of the view.
+     */
+    private OptExpression rewriteWithAggregate(List<ColumnRefOperator> outputColumns,
+                                               List<ScalarOperator> scanPredicates, boolean isRollup) {
+        // the expressions over the columns of the view which are the inputs of the aggregation
+        Map<ColumnRefOperator, ScalarOperator> aggInputs = Maps.newHashMap();
+        Map<ScalarOperator, ColumnRefOperator> aggOutputs = Maps.newHashMap();
+        List<ColumnRefOperator> groupingKeys = Lists.newArrayList();
+        for (ScalarOperator key : queryPlan.getGroupingKeys()) {
+            ScalarOperator input = rewriteByColumns(key, viewOutputToColumn);
+            if (input == null) {
+                return null;
+            }
+            ColumnRefOperator keyColumn = addAggInput(input, aggInputs);
+            groupingKeys.add(keyColumn);
+            aggOutputs.put(viewNormalizer.rewrite(key), keyColumn);
+        }
+
+        Map<ScalarOperator, ColumnRefOperator> viewAggregateColumns = isRollup ? getViewAggregateColumns() : null;
+        Map<ColumnRefOperator, CallOperator> aggregations = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : queryPlan.getAggregations().entrySet()) {
+            CallOperator aggregation = isRollup ?
+                    rollup(entry.getKey(), entry.getValue(), viewAggregateColumns) :
+                    (CallOperator) rewriteByColumns(entry.getValue(), viewOutputToColumn);
+            if (aggregation == null) {
+                return null;
+            }
+            List<ScalarOperator> arguments = Lists.newArrayList();
+            for (ScalarOperator argument : aggregation.getChildren()) {
+                arguments.add(argument.isConstant() ? argument : addAggInput(argument, aggInputs));
+            }
+            aggregations.put(entry.getKey(), new CallOperator(aggregation.getFnName(), aggregation.getType(),
+                    arguments, aggregation.getFunction(), aggregation.isDistinct()));
+            aggOutputs.put(entry.getKey(), entry.getKey());
+        }
+
+        ScalarOperator having = null;
+        if (queryPlan.getHaving() != null) {
+            having = replace(viewNormalizer.rewrite(queryPlan.getHaving()), aggOutputs);
+            if (having == null) {
+                return null;
+            }
+        }
+        Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+        for (ColumnRefOperator outputColumn : outputColumns) {
+            ScalarOperator output = rewriteOutput(outputColumn, aggOutputs);
+            if (output == null) {
+                return null;
+            }
+            projection.put(outputColumn, output);
+        }
+
+        OptExpression scan = buildScan(scanPredicates, aggInputs.values());
+        if (scan == null) {
+            return null;
+        }
+        OptExpression aggInput = OptExpression.create(new LogicalProjectOperator(aggInputs), scan);
+        LogicalAggregationOperator aggregation = new LogicalAggregationOperator(AggType.GLOBAL, groupingKeys,
+                groupingKeys, aggregations, false, -1, Operator.DEFAULT_LIMIT, having);
+        return OptExpression.create(new LogicalProjectOperator(projection),
+                OptExpression.create(aggregation, aggInput));
+    }
+
+    private ColumnRefOperator addAggInput(ScalarOperator input, Map<ColumnRefOperator, ScalarOperator> aggInputs) {
+        ColumnRefOperator column = input instanceof ColumnRefOperator ?
+                (ColumnRefOperator) input : columnRefFactory.create(input, input.getType(), input.isNullable());
+        aggInputs.put(column, input);
+        return column;
+    }
+
+    private CallOperator rollup(ColumnRefOperator queryColumn, CallOperator queryAggregation,
+                                Map<ScalarOperator, ColumnRefOperator> viewAggregateColumns) {
+        String rollupFunctionName = ROLLUP_FUNCTIONS.get(queryAggregation.getFnName());
+        if (rollupFunctionName == null || queryAggregation.isDistinct()) {
+            return null;
+        }
+        // the count of no rows is 0, but the sum of no rows is null
+        if (queryAggregation.getFnName().equals(FunctionSet.COUNT) && queryPlan.getGroupingKeys().isEmpty()) {
+            return null;
+        }
+        ColumnRefOperator viewColumn = viewAggregateColumns.get(viewNormalizer.rewrite(queryAggregation));
+        if (viewColumn == null) {
+            return null;
+        }
+        Function function = Expr.getBuiltinFunction(rollupFunctionName, new Type[] {viewColumn.getType()},
+                Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF);
+        if (function == null || !function.getReturnType().equals(queryColumn.getType())) {
+            return null;
+        }
+        return new CallOperator(rollupFunctionName, queryColumn.getType(), Lists.newArrayList(viewColumn), function);
+    }
+
+    private OptExpression buildScan(List<ScalarOperator> predicates, Iterable<ScalarOperator> usedExpressions) {
+        MaterializedView mv = mvContext.getMv();
+        DistributionInfo distributionInfo = mv.getDefaultDistributionInfo();
+        if (!(distributionInfo instanceof HashDistributionInfo)) {
+            return null;
+        }
+
+        ColumnRefSet usedColumns = new ColumnRefSet();
+        predicates.forEach(predicate -> usedColumns.union(predicate.getUsedColumns()));
+        usedExpressions.forEach(expression -> usedColumns.union(expression.getUsedColumns()));
+
+        List<Column> mvColumns = mv.getBaseSchema();
+        int relationId = columnRefFactory.getNextRelationId();
+        Map<ColumnRefOperator, Column> colRefToColumnMetaMap = Maps.newHashMap();
+        Map<Column, ColumnRefOperator> columnMetaToColRefMap = Maps.newHashMap();
+        for (int i = 0; i < mvColumns.size(); i++) {
+            ColumnRefOperator columnRef = mvColumnRefs.get(i);
+            columnRefFactory.updateColumnToRelationIds(columnRef.getId(), relationId);
+            columnRefFactory.updateColumnRefToColumns(columnRef, mvColumns.get(i), mv);
+            columnMetaToColRefMap.put(mvColumns.get(i), columnRef);
+            // at least one column is scanned to output the rows
+            if (usedColumns.contains(columnRef) || (i == 0 && usedColumns.isEmpty())) {
+                colRefToColumnMetaMap.put(columnRef, mvColumns.get(i));
+            }
+        }
+
+        List<Integer> hashDistributeColumns = Lists.newArrayList();
+        for (Column distributedColumn : ((HashDistributionInfo) distributionInfo).getDistributionColumns()) {
+            ColumnRefOperator columnRef = columnMetaToColRefMap.get(distributedColumn);
+            if (columnRef == null) {
+                return null;
+            }
+            hashDistributeColumns.add(columnRef.getId());
+        }
+        HashDistributionDesc hashDistributionDesc =
+                new HashDistributionDesc(hashDistributeColumns, HashDistributionDesc.SourceType.LOCAL);
+
+        LogicalOlapScanOperator scanOperator = new LogicalOlapScanOperator(mv, colRefToColumnMetaMap,
+                columnMetaToColRefMap, DistributionSpec.createHashDistributionSpec(hashDistributionDesc),
+                Operator.DEFAULT_LIMIT, Utils.compoundAnd(predicates));
+        OptExpression scan = OptExpression.create(scanOperator);
+        List<OptExpression> pruned = new PartitionPruneRule().transform(scan, context);
+        if (!pruned.isEmpty()) {
+            scan = pruned.get(0);
+        }
+        pruned = new DistributionPruneRule().transform(scan, context);
+        if (!pruned.isEmpty()) {
+            scan = pruned.get(0);
+        }
+        return scan;
+    }
+}
@@ -0,0 +1,78 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.rule.transformation.TransformationRule;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rewrites the SPJG plan rooted at the group expression by the asynchronous materialized views, the rewritten
+ * plans are added into the same group, so the plan scanning the materialized view is chosen by cost.
+ *
+ * The rule matches aggregations, joins and scans, so a query joining more tables than the view is rewritten
+ * at the join group of the tables in the view, and the remaining joins are kept as the compensation.
+ */
+public class MaterializedViewRewriteRule extends TransformationRule {
+    public static final MaterializedViewRewriteRule AGGREGATE_REWRITE = new MaterializedViewRewriteRule(
+            RuleType.TF_MV_AGGREGATE_REWRITE, Pattern.create(OperatorType.LOGICAL_AGGR)
+            .addChildren(Pattern.create(OperatorType.PATTERN_LEAF)));
+    public static final MaterializedViewRewriteRule JOIN_REWRITE = new MaterializedViewRewriteRule(
+            RuleType.TF_MV_JOIN_REWRITE, Pattern.create(OperatorType.LOGICAL_JOIN)
+            .addChildren(Pattern.create(OperatorType.PATTERN_LEAF))
+            .addChildren(Pattern.create(OperatorType.PATTERN_LEAF)));
+    public static final MaterializedViewRewriteRule SCAN_REWRITE = new MaterializedViewRewriteRule(
+            RuleType.TF_MV_SCAN_REWRITE, Pattern.create(OperatorType.LOGICAL_OLAP_SCAN));
+
+    private MaterializedViewRewriteRule(RuleType type, Pattern pattern) {
+        super(type, pattern);
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        return !context.getCandidateMvs().isEmpty();
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        // the children are bound as leaves, extract the whole plan below the group expression
+        List<OptExpression> inputs = Lists.newArrayList();
+        for (OptExpression child : input.getInputs()) {
+            inputs.add(child.getGroupExpression().getGroup().extractLogicalTree());
+        }
+        SPJGPlan queryPlan = SPJGPlan.extract(OptExpression.create(input.getOp(), inputs));
+        if (queryPlan == null) {
+            return Collections.emptyList();
+        }
+
+        ColumnRefFactory columnRefFactory = context.getColumnRefFactory();
+        List<ColumnRefOperator> outputColumns = Lists.newArrayList();
+        for (int columnId : input.getOutputColumns().getColumnIds()) {
+            outputColumns.add(columnRefFactory.getColumnRef(columnId));
+        }
+
+        int groupId = input.getGroupExpression().getGroup().getId();
+        List<OptExpression> results = Lists.newArrayList();
+        for (MaterializationContext mvContext : context.getCandidateMvs()) {
+            // the other expressions of the group are equivalent, so a group is only rewritten once by a view
+            if (!mvContext.getMvPlan().getTableIds().equals(queryPlan.getTableIds())
+                    || !mvContext.addRewrittenGroup(groupId)) {
+                continue;
+            }
+            OptExpression rewritten = new MaterializedViewMatcher(queryPlan, mvContext, context).match(outputColumns);
+            if (rewritten != null) {
+                results.add(rewritten);
+            }
+        }
+        return results;
+    }
+}
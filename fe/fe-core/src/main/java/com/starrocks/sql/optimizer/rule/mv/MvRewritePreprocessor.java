@@ -0,0 +1,122 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.optimizer.transformer.RelationTransformer;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the asynchronous materialized views of the scanned tables which can rewrite the query, that is
+ * the active materialized views refreshed with the current versions of all their base tables, and builds
+ * their plans by the column ref factory of the query.
+ */
+public class MvRewritePreprocessor {
+    private static final Logger LOG = LogManager.getLogger(MvRewritePreprocessor.class);
+
+    private final ConnectContext connectContext;
+    private final ColumnRefFactory columnRefFactory;
+
+    public MvRewritePreprocessor(ConnectContext connectContext, ColumnRefFactory columnRefFactory) {
+        this.connectContext = connectContext;
+        this.columnRefFactory = columnRefFactory;
+    }
+
+    public List<MaterializationContext> prepare(List<LogicalOlapScanOperator> scans) {
+        Set<Long> mvIds = Sets.newHashSet();
+        for (LogicalOlapScanOperator scan : scans) {
+            mvIds.addAll(((OlapTable) scan.getTable()).getRelatedMaterializedViews());
+        }
+
+        List<MaterializationContext> contexts = Lists.newArrayList();
+        for (long mvId : mvIds) {
+            Database db = getDbOfTable(mvId);
+            if (db == null) {
+                continue;
+            }
+            MaterializedView mv = (MaterializedView) db.getTable(mvId);
+            if (!isFresh(db, mv)) {
+                continue;
+            }
+            try {
+                MaterializationContext context = buildContext(mv);
+                if (context != null) {
+                    contexts.add(context);
+                }
+            } catch (Exception e) {
+                // the materialized view is just not used when its plan can't be built
+                LOG.debug("failed to build the plan of materialized view {}", mv.getName(), e);
+            }
+        }
+        return contexts;
+    }
+
+    private static Database getDbOfTable(long tableId) {
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        for (long dbId : globalStateMgr.getDbIds()) {
+            Database db = globalStateMgr.getDb(dbId);
+            if (db != null && db.getTable(tableId) instanceof MaterializedView) {
+                return db;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFresh(Database db, MaterializedView mv) {
+        if (!mv.isActive() || mv.getRefreshScheme().getType() == MaterializedView.RefreshType.SYNC) {
+            return false;
+        }
+        // the freshness of the external base tables can't be checked without accessing their metastores
+        if (!mv.getExternalBaseTables().isEmpty()) {
+            return false;
+        }
+        for (long baseTableId : mv.getBaseTableIds()) {
+            Table baseTable = db.getTable(baseTableId);
+            if (!(baseTable instanceof OlapTable) || !mv.isRefreshedWith((OlapTable) baseTable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MaterializationContext buildContext(MaterializedView mv) {
+        StatementBase stmt = SqlParser.parse(mv.getViewDefineSql(), connectContext.getSessionVariable()).get(0);
+        Analyzer.analyze(stmt, connectContext);
+        LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, connectContext)
+                .transform(((QueryStatement) stmt).getQueryRelation());
+
+        SPJGPlan mvPlan = SPJGPlan.extract(logicalPlan.getRoot());
+        if (mvPlan == null || logicalPlan.getOutputColumn().size() != mv.getBaseSchema().size()) {
+            return null;
+        }
+        List<ScalarOperator> mvOutputs = Lists.newArrayList();
+        for (ColumnRefOperator outputColumn : logicalPlan.getOutputColumn()) {
+            ScalarOperator output = mvPlan.getOutputs().get(outputColumn);
+            if (output == null) {
+                return null;
+            }
+            mvOutputs.add(output);
+        }
+        return new MaterializationContext(mv, mvPlan, mvOutputs);
+    }
+}
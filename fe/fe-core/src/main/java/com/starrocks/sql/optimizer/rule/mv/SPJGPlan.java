@@ -0,0 +1,313 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.PartitionType;
+import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.operator.AggType;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.Projection;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
+import com.starrocks.sql.optimizer.transformer.SqlToScalarOperatorTranslator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The normalized form of a Select-Project-Join-GroupBy plan, which is matched against the materialized views:
+ * all the expressions below the aggregation are expressed by the column refs of the olap scans, so the plans
+ * of the query and the materialized view can be compared after their scan columns are mapped to each other.
+ *
+ * Only inner/cross joins of olap scans with filters and projections, and one global aggregation on the top are
+ * supported, and a table can be scanned only once.
+ */
+public class SPJGPlan {
+    private final List<LogicalOlapScanOperator> scans = Lists.newArrayList();
+    // the conjuncts of the scans, filters and joins
+    private final List<ScalarOperator> conjuncts = Lists.newArrayList();
+
+    private boolean hasAggregate = false;
+    private final List<ScalarOperator> groupingKeys = Lists.newArrayList();
+    // the aggregate output column ref -> the aggregate function over the scan columns
+    private final Map<ColumnRefOperator, CallOperator> aggregations = Maps.newHashMap();
+    // the having predicate over the aggregate output column refs and the grouping key expressions
+    private ScalarOperator having;
+
+    // the output column ref -> the expression over the scan columns, or over the aggregate output column refs
+    // and the grouping key expressions when there is an aggregation
+    private Map<ColumnRefOperator, ScalarOperator> outputs;
+
+    private SPJGPlan() {
+    }
+
+    public List<LogicalOlapScanOperator> getScans() {
+        return scans;
+    }
+
+    public List<ScalarOperator> getConjuncts() {
+        return conjuncts;
+    }
+
+    public boolean hasAggregate() {
+        return hasAggregate;
+    }
+
+    public List<ScalarOperator> getGroupingKeys() {
+        return groupingKeys;
+    }
+
+    public Map<ColumnRefOperator, CallOperator> getAggregations() {
+        return aggregations;
+    }
+
+    public ScalarOperator getHaving() {
+        return having;
+    }
+
+    public Map<ColumnRefOperator, ScalarOperator> getOutputs() {
+        return outputs;
+    }
+
+    public Set<Long> getTableIds() {
+        return scans.stream().map(scan -> scan.getTable().getId()).collect(Collectors.toSet());
+    }
+
+    /**
+     * @return null if the plan is not a supported SPJG plan
+     */
+    public static SPJGPlan extract(OptExpression root) {
+        SPJGPlan plan = new SPJGPlan();
+        plan.outputs = plan.visitTop(root);
+        if (plan.outputs == null) {
+            return null;
+        }
+        long numTables = plan.scans.size();
+        if (numTables == 0 || plan.getTableIds().size() != numTables) {
+            return null;
+        }
+        ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
+        List<ScalarOperator> normalized = Lists.newArrayList();
+        for (ScalarOperator conjunct : plan.conjuncts) {
+            normalized.addAll(Utils.extractConjuncts(
+                    scalarRewriter.rewrite(conjunct, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES)));
+        }
+        plan.conjuncts.clear();
+        plan.conjuncts.addAll(normalized);
+        return plan;
+    }
+
+    private Map<ColumnRefOperator, ScalarOperator> visitTop(OptExpression root) {
+        Operator op = root.getOp();
+        if (op.hasLimit()) {
+            return null;
+        }
+        if (op instanceof LogicalProjectOperator && isAggregateBelow(root.inputAt(0))) {
+            Map<ColumnRefOperator, ScalarOperator> childOutputs = visitTop(root.inputAt(0));
+            if (childOutputs == null) {
+                return null;
+            }
+            return rewrite(((LogicalProjectOperator) op).getColumnRefMap(), childOutputs);
+        }
+        if (!(op instanceof LogicalAggregationOperator)) {
+            return visit(root);
+        }
+
+        LogicalAggregationOperator agg = (LogicalAggregationOperator) op;
+        if (agg.getType() != AggType.GLOBAL || agg.isSplit()) {
+            return null;
+        }
+        Map<ColumnRefOperator, ScalarOperator> childOutputs = visit(root.inputAt(0));
+        if (childOutputs == null) {
+            return null;
+        }
+        ReplaceColumnRefRewriter rewriter = new ReplaceColumnRefRewriter(childOutputs);
+        Map<ColumnRefOperator, ScalarOperator> aggOutputs = Maps.newHashMap();
+        for (ColumnRefOperator key : agg.getGroupingKeys()) {
+            ScalarOperator keyExpr = rewriter.rewrite(key);
+            groupingKeys.add(keyExpr);
+            aggOutputs.put(key, keyExpr);
+        }
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : agg.getAggregations().entrySet()) {
+            aggregations.put(entry.getKey(), (CallOperator) rewriter.rewrite(entry.getValue()));
+            aggOutputs.put(entry.getKey(), entry.getKey());
+        }
+        hasAggregate = true;
+        having = new ReplaceColumnRefRewriter(aggOutputs).rewrite(agg.getPredicate());
+        return applyProjection(agg.getProjection(), aggOutputs);
+    }
+
+    private static boolean isAggregateBelow(OptExpression expression) {
+        while (expression.getOp() instanceof LogicalProjectOperator) {
+            expression = expression.inputAt(0);
+        }
+        return expression.getOp() instanceof LogicalAggregationOperator;
+    }
+
+    private Map<ColumnRefOperator, ScalarOperator> visit(OptExpression expression) {
+        Operator op = expression.getOp();
+        if (op.hasLimit()) {
+            return null;
+        }
+
+        Map<ColumnRefOperator, ScalarOperator> outputs;
+        if (op instanceof LogicalOlapScanOperator) {
+            LogicalOlapScanOperator scan = (LogicalOlapScanOperator) op;
+            // the specified partitions or tablets can't be expressed by the predicates
+            if (scan.getPartitionNames() != null
+                    || (scan.getHintsTabletIds() != null && !scan.getHintsTabletIds().isEmpty())) {
+                return null;
+            }
+            List<ScalarOperator> partitionPredicates = getPrunedPartitionPredicates(scan);
+            if (partitionPredicates == null) {
+                return null;
+            }
+            scans.add(scan);
+            conjuncts.addAll(partitionPredicates);
+            outputs = Maps.newHashMap();
+            for (ColumnRefOperator columnRef : scan.getColRefToColumnMetaMap().keySet()) {
+                outputs.put(columnRef, columnRef);
+            }
+        } else if (op instanceof LogicalFilterOperator) {
+            outputs = visit(expression.inputAt(0));
+        } else if (op instanceof LogicalProjectOperator) {
+            Map<ColumnRefOperator, ScalarOperator> childOutputs = visit(expression.inputAt(0));
+            if (childOutputs == null) {
+                return null;
+            }
+            outputs = rewrite(((LogicalProjectOperator) op).getColumnRefMap(), childOutputs);
+        } else if (op instanceof LogicalJoinOperator) {
+            LogicalJoinOperator join = (LogicalJoinOperator) op;
+            if (!join.isInnerOrCrossJoin()) {
+                return null;
+            }
+            Map<ColumnRefOperator, ScalarOperator> leftOutputs = visit(expression.inputAt(0));
+            Map<ColumnRefOperator, ScalarOperator> rightOutputs = visit(expression.inputAt(1));
+            if (leftOutputs == null || rightOutputs == null) {
+                return null;
+            }
+            outputs = Maps.newHashMap(leftOutputs);
+            outputs.putAll(rightOutputs);
+            addConjuncts(join.getOnPredicate(), outputs);
+        } else {
+            return null;
+        }
+        if (outputs == null) {
+            return null;
+        }
+
+        addConjuncts(op.getPredicate(), outputs);
+        return applyProjection(op.getProjection(), outputs);
+    }
+
+    private void addConjuncts(ScalarOperator predicate, Map<ColumnRefOperator, ScalarOperator> outputs) {
+        if (predicate != null) {
+            conjuncts.addAll(Utils.extractConjuncts(new ReplaceColumnRefRewriter(outputs).rewrite(predicate)));
+        }
+    }
+
+    private static Map<ColumnRefOperator, ScalarOperator> applyProjection(
+            Projection projection, Map<ColumnRefOperator, ScalarOperator> outputs) {
+        if (projection == null) {
+            return outputs;
+        }
+        if (projection.getCommonSubOperatorMap() != null && !projection.getCommonSubOperatorMap().isEmpty()) {
+            return null;
+        }
+        return rewrite(projection.getColumnRefMap(), outputs);
+    }
+
+    private static Map<ColumnRefOperator, ScalarOperator> rewrite(Map<ColumnRefOperator, ScalarOperator> columnRefMap,
+                                                                  Map<ColumnRefOperator, ScalarOperator> outputs) {
+        ReplaceColumnRefRewriter rewriter = new ReplaceColumnRefRewriter(outputs);
+        Map<ColumnRefOperator, ScalarOperator> result = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, ScalarOperator> entry : columnRefMap.entrySet()) {
+            result.put(entry.getKey(), rewriter.rewrite(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * PartitionPredicatePrune removes the predicates of the partition column which all the selected partitions
+     * satisfy, so the range of the selected partitions is added back to be compared with the materialized view.
+     * The partitions between the selected ones are also in the range, they satisfy the removed predicates too and
+     * are only pruned by the remaining predicates or for having no data.
+     *
+     * @return null if the range can't be expressed by the predicates
+     */
+    private static List<ScalarOperator> getPrunedPartitionPredicates(LogicalOlapScanOperator scan) {
+        OlapTable table = (OlapTable) scan.getTable();
+        List<Long> selectedPartitionIds = scan.getSelectedPartitionId();
+        if (selectedPartitionIds == null || table.getPartitionInfo().getType() != PartitionType.RANGE
+                || selectedPartitionIds.size() == table.getPartitions().size()) {
+            return Lists.newArrayList();
+        }
+        RangePartitionInfo partitionInfo = (RangePartitionInfo) table.getPartitionInfo();
+        if (selectedPartitionIds.isEmpty() || partitionInfo.getPartitionColumns().size() != 1) {
+            return null;
+        }
+        Column partitionColumn = partitionInfo.getPartitionColumns().get(0);
+        ColumnRefOperator columnRef = scan.getColumnMetaToColRefMap().get(partitionColumn);
+        if (columnRef == null || !scan.getColRefToColumnMetaMap().containsKey(columnRef)) {
+            return null;
+        }
+
+        PartitionKey lower = null;
+        PartitionKey upper = null;
+        for (long partitionId : selectedPartitionIds) {
+            Range<PartitionKey> range = partitionInfo.getRange(partitionId);
+            if (lower == null || range.lowerEndpoint().compareTo(lower) < 0) {
+                lower = range.lowerEndpoint();
+            }
+            if (upper == null || range.upperEndpoint().compareTo(upper) > 0) {
+                upper = range.upperEndpoint();
+            }
+        }
+
+        List<ScalarOperator> predicates = Lists.newArrayList();
+        if (!lower.isMinValue()) {
+            ConstantOperator lowerValue = toConstant(lower.getKeys().get(0), columnRef);
+            if (lowerValue == null) {
+                return null;
+            }
+            predicates.add(new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.GE, columnRef, lowerValue));
+        }
+        if (!upper.isMaxValue()) {
+            ConstantOperator upperValue = toConstant(upper.getKeys().get(0), columnRef);
+            if (upperValue == null) {
+                return null;
+            }
+            predicates.add(new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.LT, columnRef, upperValue));
+        }
+        return predicates;
+    }
+
+    private static ConstantOperator toConstant(LiteralExpr literal, ColumnRefOperator columnRef) {
+        ScalarOperator value = SqlToScalarOperatorTranslator.translate(literal);
+        if (!(value instanceof ConstantOperator) || !value.getType().equals(columnRef.getType())) {
+            return null;
+        }
+        return (ConstantOperator) value;
+    }
+}
@@ -0,0 +1,321 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.JoinOperator;
+import com.starrocks.catalog.AggregateFunction;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.Type;
+import com.starrocks.sql.analyzer.DecimalV3FunctionAnalyzer;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.AggType;
+import com.starrocks.sql.optimizer.operator.OperatorType;
+import com.starrocks.sql.optimizer.operator.Projection;
+import com.starrocks.sql.optimizer.operator.logical.LogicalAggregationOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalJoinOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.pattern.Pattern;
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ReplaceColumnRefRewriter;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
+import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.statistics.ColumnStatistic;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+import com.starrocks.sql.optimizer.statistics.StatisticsCalculator;
+import com.starrocks.sql.optimizer.statistics.StatisticsEstimateCoefficient;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.starrocks.catalog.Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF;
+
+/**
+ * Eager aggregation: aggregates one input of the join by its columns used by the join and the grouping keys
+ * before joining, and merges the aggregated results after the join, e.g.
+ *
+ * Aggregate(a.k, sum(a.v))                    Aggregate(a.k, sum(sum_v))
+ *          |                                            |
+ *        Join(a.j = b.j)          =>               Join(a.j = b.j)
+ *        /     \                                     /        \
+ *       a       b              Aggregate(a.k, a.j, sum(a.v) as sum_v)   b
+ *                                                    |
+ *                                                    a
+ *
+ * The rows of a group of the aggregated input are joined with the same rows of the other input, so sum, count,
+ * min and max are merged by sum, sum, min and max, and avg is computed by the merged sum and count.
+ * The rule only applies when the statistics of the input predict a large reduction of its rows, and the
+ * rewritten plan is added into the same group, so whether to aggregate eagerly is decided by cost.
+ */
+public class PushDownAggregateThroughJoinRule extends TransformationRule {
+    // the aggregate function -> the function to merge its results aggregated below the join
+    private static final Map<String, String> MERGE_FUNCTIONS = ImmutableMap.<String, String>builder()
+            .put(FunctionSet.SUM, FunctionSet.SUM)
+            .put(FunctionSet.COUNT, FunctionSet.SUM)
+            .put(FunctionSet.MIN, FunctionSet.MIN)
+            .put(FunctionSet.MAX, FunctionSet.MAX)
+            .build();
+
+    // the groups of the aggregations already pushed down, the other expressions of a group are equivalent
+    private final Set<Integer> pushedDownGroups = Sets.newHashSet();
+
+    public PushDownAggregateThroughJoinRule() {
+        super(RuleType.TF_PUSH_DOWN_AGGREGATE_THROUGH_JOIN, Pattern.create(OperatorType.LOGICAL_AGGR)
+                .addChildren(Pattern.create(OperatorType.LOGICAL_JOIN, OperatorType.PATTERN_LEAF,
+                        OperatorType.PATTERN_LEAF)));
+    }
+
+    @Override
+    public boolean check(OptExpression input, OptimizerContext context) {
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        LogicalJoinOperator join = (LogicalJoinOperator) input.inputAt(0).getOp();
+        // the limit of the join is applied to the joined rows, which can't be aggregated before joining
+        return aggregation.getType().isGlobal() && !aggregation.isSplit() && !join.hasLimit()
+                && !aggregation.getAggregations().isEmpty()
+                && aggregation.getAggregations().values().stream().noneMatch(CallOperator::isDistinct)
+                && (canPushDown(join.getJoinType(), 0) || canPushDown(join.getJoinType(), 1));
+    }
+
+    // the rows of the null-supplying input of the outer join can't be aggregated before joining
+    private static boolean canPushDown(JoinOperator joinType, int childIndex) {
+        if (joinType.isInnerJoin() || joinType.isCrossJoin()) {
+            return true;
+        }
+        return (joinType.isLeftOuterJoin() && childIndex == 0) || (joinType.isRightOuterJoin() && childIndex == 1);
+    }
+
+    @Override
+    public List<OptExpression> transform(OptExpression input, OptimizerContext context) {
+        if (!pushedDownGroups.add(input.getGroupExpression().getGroup().getId())) {
+            return Collections.emptyList();
+        }
+        LogicalJoinOperator join = (LogicalJoinOperator) input.inputAt(0).getOp();
+        List<OptExpression> results = Lists.newArrayList();
+        for (int childIndex = 0; childIndex < 2; childIndex++) {
+            if (!canPushDown(join.getJoinType(), childIndex)) {
+                continue;
+            }
+            OptExpression result = pushDown(input, childIndex, context.getColumnRefFactory());
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private OptExpression pushDown(OptExpression input, int childIndex, ColumnRefFactory columnRefFactory) {
+        LogicalAggregationOperator aggregation = (LogicalAggregationOperator) input.getOp();
+        OptExpression joinExpression = input.inputAt(0);
+        LogicalJoinOperator join = (LogicalJoinOperator) joinExpression.getOp();
+        OptExpression child = joinExpression.inputAt(childIndex);
+        ColumnRefSet childColumns = child.getOutputColumns();
+        // the inputs of the aggregation expressed by the inputs of the join
+        ReplaceColumnRefRewriter joinOutputRewriter = join.getProjection() == null ? null :
+                new ReplaceColumnRefRewriter(join.getProjection().getColumnRefMap());
+
+        // the columns of the child used by the join and the grouping keys are the grouping keys below the join
+        ColumnRefSet usedColumns = new ColumnRefSet();
+        for (ColumnRefOperator groupingKey : aggregation.getGroupingKeys()) {
+            usedColumns.union(rewrite(groupingKey, joinOutputRewriter).getUsedColumns());
+        }
+        if (join.getOnPredicate() != null) {
+            usedColumns.union(join.getOnPredicate().getUsedColumns());
+        }
+        if (join.getPredicate() != null) {
+            usedColumns.union(join.getPredicate().getUsedColumns());
+        }
+        usedColumns.intersect(childColumns);
+        // the aggregation without grouping keys outputs a row for the empty input, which is joined by mistake
+        if (usedColumns.isEmpty()) {
+            return null;
+        }
+        List<ColumnRefOperator> groupingKeys = usedColumns.getStream()
+                .mapToObj(columnRefFactory::getColumnRef).collect(Collectors.toList());
+        if (!hasAggregateEffect(child, groupingKeys)) {
+            return null;
+        }
+
+        Map<ColumnRefOperator, ScalarOperator> aggInputs = Maps.newHashMap();
+        groupingKeys.forEach(key -> aggInputs.put(key, key));
+        Map<ColumnRefOperator, CallOperator> pushedAggregations = Maps.newHashMap();
+        Map<ColumnRefOperator, CallOperator> mergedAggregations = Maps.newHashMap();
+        Map<ColumnRefOperator, ScalarOperator> averages = Maps.newHashMap();
+        ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
+        for (Map.Entry<ColumnRefOperator, CallOperator> entry : aggregation.getAggregations().entrySet()) {
+            CallOperator call = entry.getValue();
+            List<ScalarOperator> arguments = Lists.newArrayList();
+            for (ScalarOperator argument : call.getChildren()) {
+                ScalarOperator childArgument = rewrite(argument, joinOutputRewriter);
+                if (!childColumns.containsAll(childArgument.getUsedColumns())) {
+                    return null;
+                }
+                arguments.add(childArgument.isColumnRef() || childArgument.isConstant() ? childArgument :
+                        addAggInput(childArgument, aggInputs, columnRefFactory));
+            }
+
+            if (call.getFnName().equals(FunctionSet.AVG)) {
+                // avg = sum(sum) / sum(count), the avg on decimal has its own scale, which is not decomposed
+                Type argumentType = arguments.get(0).getType();
+                if (!call.getType().isDouble() || argumentType.isDecimalOfAnyVersion()) {
+                    return null;
+                }
+                Function sumFunction = Expr.getBuiltinFunction(FunctionSet.SUM, new Type[] {argumentType},
+                        IS_NONSTRICT_SUPERTYPE_OF);
+                Function countFunction = Expr.getBuiltinFunction(FunctionSet.COUNT, new Type[] {argumentType},
+                        IS_NONSTRICT_SUPERTYPE_OF);
+                if (sumFunction == null || countFunction == null) {
+                    return null;
+                }
+                CallOperator sum = (CallOperator) scalarRewriter.rewrite(new CallOperator(FunctionSet.SUM,
+                        sumFunction.getReturnType(), Lists.newArrayList(arguments), sumFunction),
+                        ScalarOperatorRewriter.DEFAULT_TYPE_CAST_RULE);
+                CallOperator count = new CallOperator(FunctionSet.COUNT, countFunction.getReturnType(),
+                        Lists.newArrayList(arguments), countFunction);
+                CallOperator mergedSum = merge(FunctionSet.SUM,
+                        addPushedAggregation(sum, pushedAggregations, columnRefFactory), sum);
+                CallOperator mergedCount = merge(FunctionSet.SUM,
+                        addPushedAggregation(count, pushedAggregations, columnRefFactory), count);
+                if (mergedSum == null || mergedCount == null) {
+                    return null;
+                }
+                ColumnRefOperator sumColumn = columnRefFactory.create(mergedSum, mergedSum.getType(), true);
+                ColumnRefOperator countColumn = columnRefFactory.create(mergedCount, mergedCount.getType(), true);
+                mergedAggregations.put(sumColumn, mergedSum);
+                mergedAggregations.put(countColumn, mergedCount);
+                CallOperator average = new CallOperator(FunctionSet.DIVIDE, call.getType(),
+                        Lists.newArrayList(sumColumn, countColumn));
+                averages.put(entry.getKey(), scalarRewriter.rewrite(average,
+                        ScalarOperatorRewriter.DEFAULT_TYPE_CAST_RULE));
+                continue;
+            }
+
+            String mergeFunctionName = MERGE_FUNCTIONS.get(call.getFnName());
+            // the count of no rows is 0, but the sum of no rows is null
+            if (mergeFunctionName == null ||
+                    (call.getFnName().equals(FunctionSet.COUNT) && aggregation.getGroupingKeys().isEmpty())) {
+                return null;
+            }
+            ColumnRefOperator pushedColumn = addPushedAggregation(
+                    new CallOperator(call.getFnName(), call.getType(), arguments, call.getFunction()),
+                    pushedAggregations, columnRefFactory);
+            CallOperator merged = merge(mergeFunctionName, pushedColumn, call);
+            if (merged == null) {
+                return null;
+            }
+            mergedAggregations.put(entry.getKey(), merged);
+        }
+
+        OptExpression aggInput = child;
+        if (aggInputs.size() > groupingKeys.size()) {
+            aggInput = OptExpression.create(new LogicalProjectOperator(aggInputs), child);
+        }
+        OptExpression pushedDown = OptExpression.create(
+                new LogicalAggregationOperator(AggType.GLOBAL, groupingKeys, pushedAggregations), aggInput);
+
+        Projection joinProjection = null;
+        if (join.getProjection() != null) {
+            Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+            for (ColumnRefOperator groupingKey : aggregation.getGroupingKeys()) {
+                projection.put(groupingKey, rewrite(groupingKey, joinOutputRewriter));
+            }
+            pushedAggregations.keySet().forEach(column -> projection.put(column, column));
+            joinProjection = new Projection(projection);
+        }
+        List<OptExpression> joinInputs = Lists.newArrayList(joinExpression.getInputs());
+        joinInputs.set(childIndex, pushedDown);
+        OptExpression newJoin = OptExpression.create(
+                new LogicalJoinOperator.Builder().withOperator(join).setProjection(joinProjection).build(),
+                joinInputs);
+
+        LogicalAggregationOperator.Builder builder = new LogicalAggregationOperator.Builder()
+                .withOperator(aggregation).setAggregations(mergedAggregations);
+        if (!averages.isEmpty()) {
+            ReplaceColumnRefRewriter averageRewriter = new ReplaceColumnRefRewriter(averages);
+            Map<ColumnRefOperator, ScalarOperator> projection = Maps.newHashMap();
+            if (aggregation.getProjection() == null) {
+                aggregation.getGroupingKeys().forEach(key -> projection.put(key, key));
+                aggregation.getAggregations().keySet().forEach(
+                        column -> projection.put(column, averageRewriter.rewrite(column)));
+            } else {
+                aggregation.getProjection().getColumnRefMap().forEach(
+                        (column, expression) -> projection.put(column, averageRewriter.rewrite(expression)));
+            }
+            builder.setProjection(new Projection(projection));
+            if (aggregation.getPredicate() != null) {
+                builder.setPredicate(averageRewriter.rewrite(aggregation.getPredicate()));
+            }
+        }
+        return OptExpression.create(builder.build(), newJoin);
+    }
+
+    private static ScalarOperator rewrite(ScalarOperator operator, ReplaceColumnRefRewriter rewriter) {
+        return rewriter == null ? operator : rewriter.rewrite(operator);
+    }
+
+    private static ColumnRefOperator addAggInput(ScalarOperator input, Map<ColumnRefOperator, ScalarOperator> aggInputs,
+                                                 ColumnRefFactory columnRefFactory) {
+        ColumnRefOperator column = columnRefFactory.create(input, input.getType(), input.isNullable());
+        aggInputs.put(column, input);
+        return column;
+    }
+
+    private static ColumnRefOperator addPushedAggregation(CallOperator call,
+                                                          Map<ColumnRefOperator, CallOperator> pushedAggregations,
+                                                          ColumnRefFactory columnRefFactory) {
+        ColumnRefOperator column = columnRefFactory.create(call, call.getType(), call.isNullable());
+        pushedAggregations.put(column, call);
+        return column;
+    }
+
+    // merges the results of the aggregation below the join into the result of the same type
+    private static CallOperator merge(String mergeFunctionName, ColumnRefOperator pushedColumn, CallOperator call) {
+        if (!mergeFunctionName.equals(FunctionSet.SUM)) {
+            // min and max of the same type
+            return new CallOperator(mergeFunctionName, call.getType(), Lists.newArrayList(pushedColumn),
+                    call.getFunction());
+        }
+        Function function = Expr.getBuiltinFunction(mergeFunctionName, new Type[] {pushedColumn.getType()},
+                IS_NONSTRICT_SUPERTYPE_OF);
+        if (function == null) {
+            return null;
+        }
+        if (pushedColumn.getType().isDecimalV3()) {
+            function = DecimalV3FunctionAnalyzer.rectifyAggregationFunction((AggregateFunction) function,
+                    pushedColumn.getType(), pushedColumn.getType());
+        }
+        if (!function.getReturnType().equals(call.getType())) {
+            return null;
+        }
+        return new CallOperator(mergeFunctionName, call.getType(), Lists.newArrayList(pushedColumn), function);
+    }
+
+    // the aggregation is pushed down only if it reduces the rows of the input of the join a lot
+    private static boolean hasAggregateEffect(OptExpression child, List<ColumnRefOperator> groupingKeys) {
+        Statistics statistics = child.getGroupExpression().getGroup().getStatistics();
+        if (statistics == null) {
+            return false;
+        }
+        for (ColumnRefOperator groupingKey : groupingKeys) {
+            ColumnStatistic columnStatistic = statistics.getColumnStatistics().get(groupingKey);
+            if (columnStatistic == null || columnStatistic.isUnknown()) {
+                return false;
+            }
+        }
+        double inputRowCount = Math.max(1, statistics.getOutputRowCount());
+        double rowCount = StatisticsCalculator.computeGroupByStatistics(groupingKeys, statistics, Maps.newHashMap());
+        return rowCount < inputRowCount * StatisticsEstimateCoefficient.DEFAULT_PUSH_DOWN_AGGREGATE_EFFECT_COEFFICIENT;
+    }
+}
@@ -25,6 +25,7 @@ import com.starrocks.sql.optimizer.OptExpressionVisitor;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.DistributionSpec;
 import com.starrocks.sql.optimizer.base.HashDistributionDesc;
 import com.starrocks.sql.optimizer.base.HashDistributionSpec;
 import com.starrocks.sql.optimizer.base.LogicalProperty;
@@ -36,9 +37,11 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalDecodeOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalDistributionOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalHashAggregateOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalHashJoinOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalJoinOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalTopNOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalWindowOperator;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CaseWhenOperator;
@@ -139,6 +142,18 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
             return columnRefFactory.getColumnRef(mapped);
         }
 
+        // return the global dict of the low cardinality string column scanned from the olap table,
+        // or null if the column isn't such a column
+        ColumnDict getGlobalDict(int stringColumnId) {
+            for (Map.Entry<Long, List<Integer>> entry : tableIdToStringColumnIds.entrySet()) {
+                if (entry.getValue().contains(stringColumnId)) {
+                    String columnName = columnRefFactory.getColumnRef(stringColumnId).getName();
+                    return globalDictCache.get(new Pair<>(entry.getKey(), columnName));
+                }
+            }
+            return null;
+        }
+
         public void clear() {
             stringColumnIdToDictColumnIds.clear();
             stringFunctions.clear();
@@ -472,10 +487,9 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
             return new Projection(newProjectMap, projectOperator.getCommonSubOperatorMap());
         }
 
-        private PhysicalTopNOperator rewriteTopNOperator(PhysicalTopNOperator operator, DecodeContext context) {
-
+        private List<Ordering> rewriteOrderings(List<Ordering> orderings, DecodeContext context) {
             List<Ordering> orderingList = Lists.newArrayList();
-            for (Ordering orderDesc : operator.getOrderSpec().getOrderDescs()) {
+            for (Ordering orderDesc : orderings) {
                 final ColumnRefOperator columnRef = orderDesc.getColumnRef();
                 if (context.stringColumnIdToDictColumnIds.containsKey(columnRef.getId())) {
                     Integer dictColumnId = context.stringColumnIdToDictColumnIds.get(columnRef.getId());
@@ -485,6 +499,27 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
                     orderingList.add(orderDesc);
                 }
             }
+            return orderingList;
+        }
+
+        private PhysicalWindowOperator rewriteWindowOperator(PhysicalWindowOperator operator,
+                                                             DecodeContext context) {
+            List<ScalarOperator> partitionExpressions = operator.getPartitionExpressions().stream()
+                    .map(p -> p.isColumnRef() ? context.getMappedOperator((ColumnRefOperator) p) : p)
+                    .collect(Collectors.toList());
+            return new PhysicalWindowOperator(operator.getAnalyticCall(),
+                    partitionExpressions,
+                    rewriteOrderings(operator.getOrderByElements(), context),
+                    operator.getAnalyticWindow(),
+                    rewriteOrderings(operator.getEnforceOrderBy(), context),
+                    operator.getLimit(),
+                    operator.getPredicate(),
+                    operator.getProjection());
+        }
+
+        private PhysicalTopNOperator rewriteTopNOperator(PhysicalTopNOperator operator, DecodeContext context) {
+
+            List<Ordering> orderingList = rewriteOrderings(operator.getOrderSpec().getOrderDescs(), context);
 
             List<ColumnRefOperator> partitionByColumns = null;
             if (operator.getPartitionByColumns() != null) {
@@ -740,29 +775,117 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
             context.needEncode = true;
 
             PhysicalJoinOperator joinOperator = (PhysicalJoinOperator) optExpression.getOp();
-            joinOperator.fillDisableDictOptimizeColumns(context.disableDictOptimizeColumns);
+            List<ScalarOperator> dictJoinKeys = getDictJoinKeys(optExpression, context);
+            joinOperator.fillDisableDictOptimizeColumns(context.disableDictOptimizeColumns, dictJoinKeys);
 
-            DecodeContext mergeContext = new DecodeContext(context.globalDictCache,
-                    context.tableIdToStringColumnIds, context.columnRefFactory);
+            List<DecodeContext> childContexts = Lists.newArrayList();
             for (int i = 0; i < optExpression.arity(); ++i) {
                 context.clear();
                 OptExpression childExpr = optExpression.inputAt(i);
                 OptExpression newChildExpr = childExpr.getOp().accept(this, childExpr, context);
                 optExpression.setChild(i, newChildExpr);
-                if (context.hasEncoded) {
-                    if (joinOperator.couldApplyStringDict(context.stringColumnIdToDictColumnIds.keySet())) {
-                        mergeContext.merge(context);
-                    } else {
-                        insertDecodeExpr(optExpression, Collections.singletonList(newChildExpr), i, context);
+                childContexts.add(new DecodeContext(context.globalDictCache,
+                        context.tableIdToStringColumnIds, context.columnRefFactory).merge(context));
+            }
+
+            // The join keys could be compared by the dict ids only if both sides are encoded. Decoding one child
+            // may make the join keys of the other child decoded too, so check until there is no change.
+            List<ScalarOperator> encodedJoinKeys;
+            boolean changed;
+            do {
+                changed = false;
+                encodedJoinKeys = dictJoinKeys.stream().filter(key -> isEncodedJoinKey(key, childContexts))
+                        .collect(Collectors.toList());
+                for (int i = 0; i < optExpression.arity(); ++i) {
+                    DecodeContext childContext = childContexts.get(i);
+                    if (childContext.hasEncoded && !joinOperator.couldApplyStringDict(
+                            childContext.stringColumnIdToDictColumnIds.keySet(), encodedJoinKeys)) {
+                        insertDecodeExpr(optExpression, Collections.singletonList(optExpression.inputAt(i)), i,
+                                childContext);
+                        changed = true;
                     }
                 }
-            }
+            } while (changed);
 
             context.clear();
-            context.merge(mergeContext);
+            childContexts.forEach(context::merge);
+            if (!encodedJoinKeys.isEmpty()) {
+                optExpression = rewriteJoinOperator(optExpression, encodedJoinKeys, context);
+            }
             return visitProjectionAfter(optExpression, context);
         }
 
+        // The equal join keys on the low cardinality string columns with the same global dict, which could be
+        // compared by the dict ids instead of the strings.
+        // Only the broadcast join is considered, the shuffle join and the bucket shuffle join hash the join keys
+        // of both sides into the same bucket, which is wrong if one side is hashed by the dict ids and the
+        // other side is hashed by the strings.
+        private List<ScalarOperator> getDictJoinKeys(OptExpression joinExpr, DecodeContext context) {
+            PhysicalJoinOperator joinOperator = (PhysicalJoinOperator) joinExpr.getOp();
+            if (!(joinOperator instanceof PhysicalHashJoinOperator) || joinOperator.getOnPredicate() == null) {
+                return Collections.emptyList();
+            }
+            Operator rightOperator = joinExpr.inputAt(1).getOp();
+            if (!(rightOperator instanceof PhysicalDistributionOperator) ||
+                    ((PhysicalDistributionOperator) rightOperator).getDistributionSpec().getType() !=
+                            DistributionSpec.DistributionType.BROADCAST) {
+                return Collections.emptyList();
+            }
+
+            List<ScalarOperator> dictJoinKeys = Lists.newArrayList();
+            for (ScalarOperator conjunct : Utils.extractConjuncts(joinOperator.getOnPredicate())) {
+                if (!(conjunct instanceof BinaryPredicateOperator) ||
+                        ((BinaryPredicateOperator) conjunct).getBinaryType() != BinaryPredicateOperator.BinaryType.EQ) {
+                    continue;
+                }
+                if (!conjunct.getChild(0).isColumnRef() || !conjunct.getChild(1).isColumnRef()) {
+                    continue;
+                }
+                ColumnDict leftDict = context.getGlobalDict(((ColumnRefOperator) conjunct.getChild(0)).getId());
+                ColumnDict rightDict = context.getGlobalDict(((ColumnRefOperator) conjunct.getChild(1)).getId());
+                // the same string has the same id only if both columns have the same dict
+                if (leftDict != null && rightDict != null && leftDict.getDict().equals(rightDict.getDict())) {
+                    dictJoinKeys.add(conjunct);
+                }
+            }
+            return dictJoinKeys;
+        }
+
+        private boolean isEncodedJoinKey(ScalarOperator joinKey, List<DecodeContext> childContexts) {
+            Map<Integer, Integer> leftDictColumns = childContexts.get(0).stringColumnIdToDictColumnIds;
+            Map<Integer, Integer> rightDictColumns = childContexts.get(1).stringColumnIdToDictColumnIds;
+            int leftId = ((ColumnRefOperator) joinKey.getChild(0)).getId();
+            int rightId = ((ColumnRefOperator) joinKey.getChild(1)).getId();
+            return (leftDictColumns.containsKey(leftId) && rightDictColumns.containsKey(rightId)) ||
+                    (leftDictColumns.containsKey(rightId) && rightDictColumns.containsKey(leftId));
+        }
+
+        private OptExpression rewriteJoinOperator(OptExpression joinExpr, List<ScalarOperator> encodedJoinKeys,
+                                                  DecodeContext context) {
+            PhysicalHashJoinOperator joinOperator = (PhysicalHashJoinOperator) joinExpr.getOp();
+            List<ScalarOperator> onPredicates = Lists.newArrayList();
+            for (ScalarOperator conjunct : Utils.extractConjuncts(joinOperator.getOnPredicate())) {
+                if (encodedJoinKeys.contains(conjunct)) {
+                    onPredicates.add(new BinaryPredicateOperator(BinaryPredicateOperator.BinaryType.EQ,
+                            context.getMappedOperator((ColumnRefOperator) conjunct.getChild(0)),
+                            context.getMappedOperator((ColumnRefOperator) conjunct.getChild(1))));
+                } else {
+                    onPredicates.add(conjunct);
+                }
+            }
+
+            PhysicalHashJoinOperator newJoinOperator = new PhysicalHashJoinOperator(joinOperator.getJoinType(),
+                    Utils.compoundAnd(onPredicates),
+                    joinOperator.getJoinHint(),
+                    joinOperator.getLimit(),
+                    joinOperator.getPredicate(),
+                    joinOperator.getProjection());
+            OptExpression result = OptExpression.create(newJoinOperator, joinExpr.getInputs());
+            result.setStatistics(joinExpr.getStatistics());
+            result.setLogicalProperty(joinExpr.getLogicalProperty());
+            return result;
+        }
+
         @Override
         public OptExpression visitPhysicalHashAggregate(OptExpression aggExpr, DecodeContext context) {
             visitProjectionBefore(aggExpr, context);
@@ -800,6 +923,38 @@ public class AddDecodeNodeForDictStringRule implements TreeRewriteRule {
             return visitProjectionAfter(aggExpr, context);
         }
 
+        @Override
+        public OptExpression visitPhysicalAnalytic(OptExpression optExpression, DecodeContext context) {
+            visitProjectionBefore(optExpression, context);
+
+            PhysicalWindowOperator windowOperator = (PhysicalWindowOperator) optExpression.getOp();
+            if (context.needEncode) {
+                windowOperator.fillDisableDictOptimizeColumns(context.disableDictOptimizeColumns);
+            }
+
+            OptExpression childExpr = optExpression.inputAt(0);
+            context.hasEncoded = false;
+
+            OptExpression newChildExpr = childExpr.getOp().accept(this, childExpr, context);
+            if (context.hasEncoded) {
+                // the dict columns in partition by, order by and the other output columns pass through the window
+                // and are decoded by the parent operators
+                if (windowOperator.couldApplyStringDict(context.stringColumnIdToDictColumnIds.keySet())) {
+                    PhysicalWindowOperator newWindowOperator = rewriteWindowOperator(windowOperator, context);
+                    rewriteLogicProperty(optExpression.getLogicalProperty(), context.stringColumnIdToDictColumnIds);
+                    OptExpression result = OptExpression.create(newWindowOperator, newChildExpr);
+                    result.setStatistics(optExpression.getStatistics());
+                    result.setLogicalProperty(optExpression.getLogicalProperty());
+                    return visitProjectionAfter(result, context);
+                } else {
+                    insertDecodeExpr(optExpression, Collections.singletonList(newChildExpr), 0, context);
+                    return visitProjectionAfter(optExpression, context);
+                }
+            }
+            optExpression.setChild(0, newChildExpr);
+            return visitProjectionAfter(optExpression, context);
+        }
+
         @Override
         public OptExpression visitPhysicalDistribution(OptExpression exchangeExpr, DecodeContext context) {
             visitProjectionBefore(exchangeExpr, context);
@@ -32,6 +32,9 @@ public class StatisticsEstimateCoefficient {
     // if after aggregate row count < (input row count * DEFAULT_AGGREGATE_EFFECT_COEFFICIENT),
     // the aggregate has good effect.
     public static final double DEFAULT_AGGREGATE_EFFECT_COEFFICIENT = 0.001;
+    // push down the aggregation through the join only if the aggregated row count of the join input
+    // < (input row count * DEFAULT_PUSH_DOWN_AGGREGATE_EFFECT_COEFFICIENT)
+    public static final double DEFAULT_PUSH_DOWN_AGGREGATE_EFFECT_COEFFICIENT = 0.1;
     // default selectivity for anti join
     public static final double DEFAULT_ANTI_JOIN_SELECTIVITY_COEFFICIENT = 0.4;
     // default shuffle column row count limit
@@ -379,15 +379,27 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
     }
 
     private boolean computeCurrentGroupStatistics() {
-        ExpressionContext expressionContext = new ExpressionContext(groupExpression);
         if (groupExpression.getInputs().stream().anyMatch(group -> group.getStatistics() == null)) {
             return false;
         }
 
-        StatisticsCalculator statisticsCalculator = new StatisticsCalculator(expressionContext,
-                context.getOptimizerContext().getColumnRefFactory(), context.getOptimizerContext());
-        statisticsCalculator.estimatorStats();
-        groupExpression.getGroup().setStatistics(expressionContext.getStatistics());
+        // The statistics only depend on the operator and the input statistics, reuse them if the input
+        // statistics are the same objects as the last time. The statistics of the leaf operators are not reused,
+        // because they are read from the statistics cache, which may be loaded in the meantime.
+        List<Statistics> inputStatistics =
+                groupExpression.getInputs().stream().map(Group::getStatistics).collect(Collectors.toList());
+        Statistics statistics = groupExpression.getDerivedStatistics(inputStatistics);
+        if (statistics == null) {
+            ExpressionContext expressionContext = new ExpressionContext(groupExpression);
+            StatisticsCalculator statisticsCalculator = new StatisticsCalculator(expressionContext,
+                    context.getOptimizerContext().getColumnRefFactory(), context.getOptimizerContext());
+            statisticsCalculator.estimatorStats();
+            statistics = expressionContext.getStatistics();
+            if (groupExpression.arity() > 0) {
+                groupExpression.setDerivedStatistics(inputStatistics, statistics);
+            }
+        }
+        groupExpression.getGroup().setStatistics(statistics);
         return true;
     }
 
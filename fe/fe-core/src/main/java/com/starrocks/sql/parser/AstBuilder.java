@@ -275,6 +275,7 @@ import com.starrocks.sql.ast.ShowProcesslistStmt;
 import com.starrocks.sql.ast.ShowRepositoriesStmt;
 import com.starrocks.sql.ast.ShowResourceGroupStmt;
 import com.starrocks.sql.ast.ShowResourcesStmt;
+import com.starrocks.sql.ast.ShowRunningQueriesStmt;
 import com.starrocks.sql.ast.ShowStatusStmt;
 import com.starrocks.sql.ast.ShowTableStatusStmt;
 import com.starrocks.sql.ast.ShowTableStmt;
@@ -3326,6 +3327,11 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
         return new ShowProcesslistStmt(isShowFull);
     }
 
+    @Override
+    public ParseNode visitShowRunningQueriesStatement(StarRocksParser.ShowRunningQueriesStatementContext context) {
+        return new ShowRunningQueriesStmt();
+    }
+
     // ------------------------------------------- Backup Store Statement ----------------------------------------------
     @Override
     public ParseNode visitBackupStatement(StarRocksParser.BackupStatementContext context) {
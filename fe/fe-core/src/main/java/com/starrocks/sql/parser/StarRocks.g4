@@ -153,6 +153,7 @@ statement
     | showProcedureStatement
     | showProcStatement
     | showProcesslistStatement
+    | showRunningQueriesStatement
     | showStatusStatement
     | showTabletStatement
     | showTriggersStatement
@@ -1060,6 +1061,10 @@ showProcesslistStatement
     : SHOW FULL? PROCESSLIST
     ;
 
+showRunningQueriesStatement
+    : SHOW RUNNING QUERIES
+    ;
+
 showStatusStatement
     : SHOW varType? STATUS ((LIKE pattern=string) | (WHERE expression))?
     ;
@@ -1716,9 +1721,9 @@ nonReserved
     | OBSERVER | OFFSET | ONLY | OPEN | OVERWRITE
     | PARTITIONS | PASSWORD | PATH | PAUSE | PERCENTILE_UNION | PLUGIN | PLUGINS | PRECEDING | PROC | PROCESSLIST
     | PROPERTIES | PROPERTY
-    | QUARTER | QUERY | QUOTA
+    | QUARTER | QUERIES | QUERY | QUOTA
     | RANDOM | RECOVER | REFRESH | REPAIR | REPEATABLE | REPLACE_IF_NOT_NULL | REPLICA | REPOSITORY | REPOSITORIES
-    | RESOURCE | RESOURCES | RESTORE | RESUME | RETURNS | REVERT | ROLE | ROLES | ROLLUP | ROLLBACK | ROUTINE
+    | RESOURCE | RESOURCES | RESTORE | RESUME | RETURNS | REVERT | ROLE | ROLES | ROLLUP | ROLLBACK | ROUTINE | RUNNING
     | SAMPLE | SECOND | SERIALIZABLE | SESSION | SETS | SIGNED | SNAPSHOT | START | SUM | STATUS | STOP | STORAGE
     | STRING | STATS | SUBMIT | SYNC
     | TABLES | TABLET | TASK | TEMPORARY | TIMESTAMP | TIMESTAMPADD | TIMESTAMPDIFF | THAN | TIME | TRANSACTION
@@ -230,6 +230,7 @@ PROCESSLIST: 'PROCESSLIST';
 PROPERTIES: 'PROPERTIES';
 PROPERTY: 'PROPERTY';
 QUARTER: 'QUARTER';
+QUERIES: 'QUERIES';
 QUERY: 'QUERY';
 QUOTA: 'QUOTA';
 RANDOM: 'RANDOM';
@@ -265,6 +266,7 @@ ROUTINE: 'ROUTINE';
 ROW: 'ROW';
 ROWS: 'ROWS';
 ROW_NUMBER: 'ROW_NUMBER';
+RUNNING: 'RUNNING';
 SAMPLE: 'SAMPLE';
 SCHEMA: 'SCHEMA';
 SCHEMAS: 'SCHEMAS';
@@ -1009,8 +1009,9 @@ public class PlanFragmentBuilder {
             scanNode.computeStatistics(optExpression.getStatistics());
 
             context.getScanNodes().add(scanNode);
-            PlanFragment fragment =
-                    new PlanFragment(context.getNextFragmentId(), scanNode, DataPartition.UNPARTITIONED);
+            // a split scan is read by several backends, otherwise there is only one connection
+            DataPartition dataPartition = scanNode.isSplitScan() ? DataPartition.RANDOM : DataPartition.UNPARTITIONED;
+            PlanFragment fragment = new PlanFragment(context.getNextFragmentId(), scanNode, dataPartition);
             context.getFragments().add(fragment);
             return fragment;
         }
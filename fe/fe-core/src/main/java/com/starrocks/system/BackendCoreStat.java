@@ -12,6 +12,37 @@ public class BackendCoreStat {
 
     private static ConcurrentHashMap<Long, Integer> numOfHardwareCoresPerBe = new ConcurrentHashMap<>();
     private static AtomicInteger cachedAvgNumOfHardwareCores = new AtomicInteger(-1);
+    // load of the backends reported by the heartbeat, only on the leader
+    private static ConcurrentHashMap<Long, BackendLoad> loadPerBe = new ConcurrentHashMap<>();
+
+    public static class BackendLoad {
+        private final long memUsedBytes;
+        private final long memLimitBytes;
+        private final int numRunningQueries;
+
+        public BackendLoad(long memUsedBytes, long memLimitBytes, int numRunningQueries) {
+            this.memUsedBytes = memUsedBytes;
+            this.memLimitBytes = memLimitBytes;
+            this.numRunningQueries = numRunningQueries;
+        }
+
+        public long getMemUsedBytes() {
+            return memUsedBytes;
+        }
+
+        public long getMemLimitBytes() {
+            return memLimitBytes;
+        }
+
+        public int getNumRunningQueries() {
+            return numRunningQueries;
+        }
+
+        // the ratio of the used memory to the memory limit, 0 if the limit is unknown
+        public double getMemUsageRatio() {
+            return memLimitBytes > 0 ? (double) memUsedBytes / memLimitBytes : 0;
+        }
+    }
 
     public static void setNumOfHardwareCoresOfBe(long be, int numOfCores) {
         if (numOfHardwareCoresPerBe.putIfAbsent(be, numOfCores) == null) {
@@ -19,8 +50,21 @@ public class BackendCoreStat {
         }
     }
 
+    public static void setLoadOfBe(long be, BackendLoad load) {
+        loadPerBe.put(be, load);
+    }
+
+    public static void removeLoadOfBe(long be) {
+        loadPerBe.remove(be);
+    }
+
+    public static ImmutableMap<Long, BackendLoad> getLoadPerBe() {
+        return ImmutableMap.copyOf(loadPerBe);
+    }
+
     public static void reset() {
         numOfHardwareCoresPerBe.clear();
+        loadPerBe.clear();
         cachedAvgNumOfHardwareCores.set(-1);
     }
 
@@ -306,6 +306,12 @@ public class HeartbeatMgr extends LeaderDaemon {
                     if (tBackendInfo.isSetNum_hardware_cores()) {
                         BackendCoreStat.setNumOfHardwareCoresOfBe(computeNodeId, cpuCores);
                     }
+                    // Update the load of the backend for the query queue, it's not persisted.
+                    if (tBackendInfo.isSetMem_used_bytes()) {
+                        BackendCoreStat.setLoadOfBe(computeNodeId, new BackendCoreStat.BackendLoad(
+                                tBackendInfo.getMem_used_bytes(), tBackendInfo.getMem_limit_bytes(),
+                                tBackendInfo.getNum_running_queries()));
+                    }
 
                     // backend.updateOnce(bePort, httpPort, beRpcPort, brpcPort);
                     BackendHbResponse backendHbResponse = new BackendHbResponse(
@@ -316,12 +322,14 @@ public class HeartbeatMgr extends LeaderDaemon {
                     }
                     return backendHbResponse;
                 } else {
+                    BackendCoreStat.removeLoadOfBe(computeNodeId);
                     return new BackendHbResponse(computeNodeId,
                             result.getStatus().getError_msgs().isEmpty() ? "Unknown error"
                                     : result.getStatus().getError_msgs().get(0));
                 }
             } catch (Exception e) {
                 LOG.warn("backend heartbeat got exception", e);
+                BackendCoreStat.removeLoadOfBe(computeNodeId);
                 return new BackendHbResponse(computeNodeId,
                         Strings.isNullOrEmpty(e.getMessage()) ? "got exception" : e.getMessage());
             } finally {
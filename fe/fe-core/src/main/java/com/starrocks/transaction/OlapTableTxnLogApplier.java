@@ -6,9 +6,11 @@ import com.google.common.collect.Lists;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Tablet;
 import com.starrocks.sql.optimizer.statistics.IDictManager;
 import org.apache.logging.log4j.LogManager;
@@ -111,6 +113,9 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
             } // end for indices
             long versionTime = partitionCommitInfo.getVersionTime();
             partition.updateVisibleVersion(version, versionTime);
+            if (txnState.getSourceType() == TransactionState.LoadJobSourceType.DELETE) {
+                updateMaterializedViewDeleteVersion(db, table, partition, version);
+            }
             if (!partitionCommitInfo.getInvalidDictCacheColumns().isEmpty()) {
                 for (String column : partitionCommitInfo.getInvalidDictCacheColumns()) {
                     IDictManager.getInstance().removeGlobalDict(tableId, column);
@@ -126,6 +131,19 @@ public class OlapTableTxnLogApplier implements TransactionLogApplier {
         }
     }
 
+    // The incremental refresh of materialized views only reads the appended rows, record the delete version
+    // so that the refresh reading through it recomputes the whole partition. This is replayed with the
+    // visible log, so the version is consistent on all the frontends.
+    private void updateMaterializedViewDeleteVersion(Database db, OlapTable table, Partition partition, long version) {
+        for (long mvId : table.getRelatedMaterializedViews()) {
+            Table mv = db.getTable(mvId);
+            if (mv instanceof MaterializedView && ((MaterializedView) mv).isIncrementalRefresh()) {
+                ((MaterializedView) mv).getRefreshScheme().getAsyncRefreshContext()
+                        .updateBaseTableDeleteVersion(table.getId(), partition.getName(), version);
+            }
+        }
+    }
+
     private void updateReplicaVersion(long version, Replica replica, TxnFinishState finishState) {
         if (finishState.normalReplicas.contains(replica.getId())) {
             replica.updateVersion(version);
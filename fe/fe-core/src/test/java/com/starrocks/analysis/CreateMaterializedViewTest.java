@@ -4,6 +4,7 @@ package com.starrocks.analysis;
 
 import com.google.common.collect.Lists;
 import com.starrocks.alter.AlterJobV2;
+import com.starrocks.catalog.AggregateType;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.ColocateTableIndex;
 import com.starrocks.catalog.Database;
@@ -1280,7 +1281,7 @@ public class CreateMaterializedViewTest {
         try {
             UtFrameUtils.parseStmtWithNewParser(sql, connectContext);
         } catch (Exception e) {
-            Assert.assertEquals("Materialized view only supports olap table, " +
+            Assert.assertEquals("Materialized view only supports olap, hive and iceberg table, " +
                     "but the type of table: mysql_external_table is: MYSQL", e.getMessage());
         }
     }
@@ -1842,6 +1843,74 @@ public class CreateMaterializedViewTest {
         }
     }
 
+    @Test
+    public void testIncrementalRefresh() throws Exception {
+        String sql = "create materialized view mv1 " +
+                "partition by c_1_3 " +
+                "distributed by hash(c_1_10) " +
+                "refresh manual " +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\",\n" +
+                "\"incremental_refresh\" = \"true\"\n" +
+                ") " +
+                "as select c_1_3, c_1_10, sum(c_1_9) as total, count(c_1_9) as cnt, max(c_1_8) as max_v " +
+                "from t1 group by c_1_3, c_1_10";
+        CreateMaterializedViewStatement stmt =
+                (CreateMaterializedViewStatement) UtFrameUtils.parseStmtWithNewParser(sql, connectContext);
+        Assert.assertEquals(KeysType.AGG_KEYS, stmt.getKeysType());
+        List<Column> columns = stmt.getMvColumnItems();
+        Assert.assertTrue(columns.get(0).isKey());
+        Assert.assertTrue(columns.get(1).isKey());
+        Assert.assertEquals(AggregateType.SUM, columns.get(2).getAggregationType());
+        Assert.assertEquals(AggregateType.SUM, columns.get(3).getAggregationType());
+        Assert.assertEquals(AggregateType.MAX, columns.get(4).getAggregationType());
+    }
+
+    @Test
+    public void testIncrementalRefreshNotSupported() {
+        String prefix = "create materialized view mv1 " +
+                "distributed by hash(c_1_3) " +
+                "refresh manual " +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\",\n" +
+                "\"incremental_refresh\" = \"true\"\n" +
+                ") ";
+        try {
+            UtFrameUtils.parseStmtWithNewParser(prefix +
+                    "as select c_1_3, avg(c_1_9) as avg_v from t1 group by c_1_3", connectContext);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("must be a grouping column or one of " +
+                    "the aggregate functions"));
+        }
+        try {
+            UtFrameUtils.parseStmtWithNewParser(prefix +
+                    "as select sum(c_1_9) as total, c_1_3 from t1 group by c_1_3", connectContext);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertEquals("Incremental refresh materialized view grouping column c_1_3 " +
+                    "must be before the aggregate functions", e.getMessage());
+        }
+        try {
+            UtFrameUtils.parseStmtWithNewParser(prefix + "as select c_1_3, c_1_9 from t1", connectContext);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertEquals("Incremental refresh materialized view query statement must be an aggregation " +
+                    "grouped by columns without having, distinct, order by or limit", e.getMessage());
+        }
+        try {
+            UtFrameUtils.parseStmtWithNewParser("create materialized view mv1 " +
+                    "distributed by hash(k2) " +
+                    "refresh manual " +
+                    "PROPERTIES (\"incremental_refresh\" = \"true\") " +
+                    "as select k2, sum(v1) as total from tbl1 group by k2", connectContext);
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertEquals("Incremental refresh materialized view only supports the duplicate keys " +
+                    "olap table, but the base table: tbl1 is not", e.getMessage());
+        }
+    }
+
     @Test
     public void createViewBadName() {
         String longLongName = "view___123456789012345678901234567890123456789012345678901234567890";
@@ -16,6 +16,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -109,6 +113,55 @@ public class JDBCTableTest {
         Assert.assertEquals(tableDescriptor, expectedDesc);
     }
 
+    @Test
+    public void testSplitProperties(@Mocked GlobalStateMgr globalStateMgr,
+                                    @Mocked ResourceMgr resourceMgr) throws Exception {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentState();
+                result = globalStateMgr;
+
+                globalStateMgr.getResourceMgr();
+                result = resourceMgr;
+
+                resourceMgr.getResource("jdbc0");
+                result = getMockedJDBCResource(resourceName);
+            }
+        };
+        properties.put(JDBCTable.SPLIT_COLUMN, "col1");
+        properties.put(JDBCTable.SPLIT_NUM, "8");
+        JDBCTable table = new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.assertTrue(table.isSplitScanEnabled());
+        Assert.assertEquals("col1", table.getSplitColumn());
+        Assert.assertEquals(8, table.getSplitNum());
+        Assert.assertNull(table.getSplitLowerBound());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        table.write(new DataOutputStream(bytes));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        JDBCTable readTable = (JDBCTable) Table.read(in);
+        Assert.assertTrue(readTable.isSplitScanEnabled());
+        Assert.assertEquals("col1", readTable.getSplitColumn());
+        Assert.assertEquals(8, readTable.getSplitNum());
+    }
+
+    @Test(expected = DdlException.class)
+    public void testSplitColumnNotExists() throws Exception {
+        properties.put(JDBCTable.SPLIT_COLUMN, "col2");
+        properties.put(JDBCTable.SPLIT_NUM, "8");
+        new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.fail("No exception throws.");
+    }
+
+    @Test(expected = DdlException.class)
+    public void testSplitWithOneBound() throws Exception {
+        properties.put(JDBCTable.SPLIT_COLUMN, "col1");
+        properties.put(JDBCTable.SPLIT_NUM, "8");
+        properties.put(JDBCTable.SPLIT_LOWER_BOUND, "0");
+        new JDBCTable(1000, "jdbc_table", columns, properties);
+        Assert.fail("No exception throws.");
+    }
+
     @Test(expected = DdlException.class)
     public void testWithIlegalResourceName(@Mocked GlobalStateMgr globalStateMgr,
                                            @Mocked ResourceMgr resourceMgr) throws Exception {
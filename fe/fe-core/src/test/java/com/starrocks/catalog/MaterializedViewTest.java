@@ -3,6 +3,7 @@
 package com.starrocks.catalog;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.FunctionCallExpr;
@@ -91,6 +92,36 @@ public class MaterializedViewTest {
         Assert.assertEquals(mvDefinition, mv2.getViewDefineSql());
     }
 
+    @Test
+    public void testExternalBaseTableNeedRefreshPartitions() {
+        MaterializedView mv = new MaterializedView(1000, 100, "mv_hive", columns, KeysType.DUP_KEYS,
+                null, null, new MaterializedView.MvRefreshScheme());
+        MaterializedView.BaseTableInfo baseTableInfo = new MaterializedView.BaseTableInfo("hive0", "db1", "tbl1");
+        mv.setExternalBaseTables(Lists.newArrayList(baseTableInfo));
+        Assert.assertEquals(Lists.newArrayList(baseTableInfo), mv.getExternalBaseTables());
+
+        Map<String, Long> partitionVersions = Maps.newHashMap();
+        partitionVersions.put("dt=2022-01-01", 100L);
+        partitionVersions.put("dt=2022-01-02", 200L);
+        // never refreshed
+        Assert.assertEquals(partitionVersions.keySet(),
+                mv.getNeedRefreshPartitionNames(baseTableInfo, partitionVersions));
+        mv.getRefreshScheme().getAsyncRefreshContext().getExternalBaseTableVersionMap()
+                .put(baseTableInfo.toString(), Maps.newHashMap(partitionVersions));
+        Assert.assertTrue(mv.getNeedRefreshPartitionNames(baseTableInfo, partitionVersions).isEmpty());
+
+        // files written into a partition and a new partition added
+        partitionVersions.put("dt=2022-01-02", 300L);
+        partitionVersions.put("dt=2022-01-03", 300L);
+        Assert.assertEquals(Sets.newHashSet("dt=2022-01-02", "dt=2022-01-03"),
+                mv.getNeedRefreshPartitionNames(baseTableInfo, partitionVersions));
+
+        // a refreshed partition dropped
+        partitionVersions.remove("dt=2022-01-01");
+        Assert.assertEquals(partitionVersions.keySet(),
+                mv.getNeedRefreshPartitionNames(baseTableInfo, partitionVersions));
+    }
+
     @Test
     public void testSchema() {
         MaterializedView mv = new MaterializedView(1000, 100, "mv2", columns, KeysType.AGG_KEYS,
@@ -0,0 +1,118 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FileListingCacheTest {
+    private File partitionDir;
+    private File cacheDir;
+    private FileSystem fileSystem;
+
+    @Before
+    public void setUp() throws IOException {
+        partitionDir = Files.createTempDirectory("file_listing_cache_test").toFile();
+        cacheDir = Files.createTempDirectory("file_listing_cache_test_cache").toFile();
+        fileSystem = FileSystem.getLocal(new Configuration());
+        writeFile("file1", 10);
+        writeFile("file2", 20);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (File dir : new File[] {partitionDir, cacheDir}) {
+            Files.walk(dir.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    private void writeFile(String name, int length) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(new File(partitionDir, name))) {
+            out.write(new byte[length]);
+        }
+    }
+
+    private static List<String> names(List<LocatedFileStatus> fileStatuses) {
+        return fileStatuses.stream().map(status -> status.getPath().getName()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testListLocatedStatus() throws IOException {
+        FileListingCache cache = new FileListingCache(cacheDir.getAbsolutePath(), 100);
+        Path dir = new Path(partitionDir.getAbsolutePath());
+
+        List<LocatedFileStatus> fileStatuses = cache.listLocatedStatus(fileSystem, dir);
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+
+        List<LocatedFileStatus> cachedFileStatuses = cache.listLocatedStatus(fileSystem, dir);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(names(fileStatuses), names(cachedFileStatuses));
+        for (LocatedFileStatus status : cachedFileStatuses) {
+            Assert.assertEquals(status.getPath().getName().equals("file1") ? 10 : 20, status.getLen());
+            Assert.assertEquals(fileSystem.makeQualified(new Path(dir, status.getPath().getName())),
+                    status.getPath());
+            Assert.assertEquals(1, status.getBlockLocations().length);
+        }
+
+        // a new file changes the modification time of the directory
+        writeFile("file3", 30);
+        Assert.assertTrue(partitionDir.setLastModified(partitionDir.lastModified() + 1000));
+        Assert.assertEquals(3, cache.listLocatedStatus(fileSystem, dir).size());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(3, names(cache.listLocatedStatus(fileSystem, dir)).size());
+        Assert.assertEquals(2, cache.getHitCount());
+
+        // a file rewritten in place is found after the directory is invalidated
+        writeFile("file1", 100);
+        cache.invalidate(fileSystem.makeQualified(dir));
+        long length = cache.listLocatedStatus(fileSystem, dir).stream()
+                .filter(status -> status.getPath().getName().equals("file1"))
+                .findFirst().get().getLen();
+        Assert.assertEquals(100, length);
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        FileListingCache cache = new FileListingCache(cacheDir.getAbsolutePath(), 100);
+        Path dir = new Path(partitionDir.getAbsolutePath());
+        List<LocatedFileStatus> fileStatuses = cache.listLocatedStatus(fileSystem, dir);
+        cache.save();
+
+        // a restarted fe only checks the modification time of the directory
+        FileListingCache loadedCache = new FileListingCache(cacheDir.getAbsolutePath(), 100);
+        loadedCache.load();
+        Assert.assertEquals(1, loadedCache.size());
+        List<LocatedFileStatus> loadedFileStatuses = loadedCache.listLocatedStatus(fileSystem, dir);
+        Assert.assertEquals(1, loadedCache.getHitCount());
+        Assert.assertEquals(0, loadedCache.getMissCount());
+        Assert.assertEquals(names(fileStatuses), names(loadedFileStatuses));
+    }
+
+    @Test
+    public void testNotExistDirectory() {
+        FileListingCache cache = new FileListingCache(null, 100);
+        Path dir = new Path(partitionDir.getAbsolutePath(), "not_exist");
+        Assert.assertThrows(FileNotFoundException.class, () -> cache.listLocatedStatus(fileSystem, dir));
+        // not saved without cache dir
+        cache.save();
+        Assert.assertEquals(0, cacheDir.listFiles().length);
+    }
+}
@@ -14,6 +14,7 @@ import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.DdlException;
 import org.apache.hadoop.hive.metastore.api.CurrentNotificationEventId;
+import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.SerDeInfo;
 import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.junit.Assert;
@@ -23,7 +24,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class HiveMetaCacheTest {
     private List<Column> partColumns = Lists.newArrayList(new Column("k1", Type.INT),
@@ -35,6 +40,9 @@ public class HiveMetaCacheTest {
     private int clientMethodGetPartitionCalledTimes = 0;
     private int clientMethodGetTableStatsCalledTimes = 0;
     private int clientMethodGetPartitionStatsCalledTimes = 0;
+    private int clientMethodGetPartitionsByNamesCalledTimes = 0;
+    private int clientMethodToHivePartitionCalledTimes = 0;
+    private final AtomicInteger metastoreCalls = new AtomicInteger();
     private String partitionPath = "hdfs://nameservice1/hive/db/tbl/k1=1/k2=1/k3=3";
 
     HiveMetaStoreTableInfo hmsTable = new HiveMetaStoreTableInfo("resource", "db", "tbl",
@@ -128,6 +136,104 @@ public class HiveMetaCacheTest {
         Assert.assertEquals(1, clientMethodGetPartitionStatsCalledTimes);
     }
 
+    @Test
+    public void testGetPartitionsInBatch() throws Exception {
+        HiveMetaClient metaClient = new MockedHiveMetaClient();
+        HiveMetaCache metaCache = new HiveMetaCache(metaClient, Executors.newFixedThreadPool(10));
+        List<PartitionKey> partitionKeys = Lists.newArrayList(
+                Utils.createPartitionKey(Lists.newArrayList("1", "2", "3"), partColumns),
+                Utils.createPartitionKey(Lists.newArrayList("1", "2", "4"), partColumns),
+                Utils.createPartitionKey(Lists.newArrayList("1", "2", "5"), partColumns));
+
+        // the partition of 1/2/3 is cached before
+        metaCache.getPartition(hmsTable, partitionKeys.get(0));
+        Assert.assertEquals(1, clientMethodGetPartitionCalledTimes);
+
+        List<HivePartition> partitions = metaCache.getPartitions(hmsTable, partitionKeys);
+        Assert.assertEquals(3, partitions.size());
+        for (HivePartition partition : partitions) {
+            Assert.assertEquals(1, partition.getFiles().size());
+            Assert.assertEquals(HdfsFileFormat.PARQUET, partition.getFormat());
+        }
+        Assert.assertEquals(1, clientMethodGetPartitionsByNamesCalledTimes);
+        Assert.assertEquals(2, clientMethodToHivePartitionCalledTimes);
+
+        // stats are loaded together with the partitions, only the stats of 1/2/3 are fetched
+        List<HivePartitionStats> partitionsStats = metaCache.getPartitionsStats(hmsTable, partitionKeys);
+        Assert.assertEquals(3, partitionsStats.size());
+        for (HivePartitionStats partitionStats : partitionsStats) {
+            Assert.assertEquals(10000L, partitionStats.getNumRows());
+            Assert.assertEquals(10000L, partitionStats.getTotalFileBytes());
+        }
+        Assert.assertEquals(2, clientMethodGetPartitionsByNamesCalledTimes);
+        Assert.assertEquals(2, clientMethodToHivePartitionCalledTimes);
+
+        metaCache.getPartitions(hmsTable, partitionKeys);
+        metaCache.getPartitionsStats(hmsTable, partitionKeys);
+        Assert.assertEquals(2, clientMethodGetPartitionsByNamesCalledTimes);
+        Assert.assertEquals(2, clientMethodToHivePartitionCalledTimes);
+        Assert.assertEquals(1, clientMethodGetPartitionCalledTimes);
+        Assert.assertEquals(0, clientMethodGetPartitionStatsCalledTimes);
+
+        // cold stats of cached partitions take one batch call and no file listing
+        metaCache.partitionStatsCache.invalidateAll();
+        partitionsStats = metaCache.getPartitionsStats(hmsTable, partitionKeys);
+        Assert.assertEquals(10000L, partitionsStats.get(2).getTotalFileBytes());
+        Assert.assertEquals(3, clientMethodGetPartitionsByNamesCalledTimes);
+        Assert.assertEquals(2, clientMethodToHivePartitionCalledTimes);
+    }
+
+    @Test(expected = DdlException.class)
+    public void testGetPartitionsNotExist() throws Exception {
+        HiveMetaClient metaClient = new MockedHiveMetaClient();
+        HiveMetaCache metaCache = new HiveMetaCache(metaClient, Executors.newFixedThreadPool(10));
+        metaCache.getPartitions(hmsTable,
+                Lists.newArrayList(Utils.createPartitionKey(Lists.newArrayList("1", "2", "404"), partColumns)));
+    }
+
+    /**
+     * Load the partitions and stats of a table with many partitions on a cold cache from a stand-in metastore
+     * that takes some time for every call, one by one as before and in batches.
+     */
+    @Test
+    public void testColdLoadPartitions() throws Exception {
+        int numPartitions = 2000;
+        List<PartitionKey> partitionKeys = Lists.newArrayList();
+        for (int i = 0; i < numPartitions; i++) {
+            partitionKeys.add(Utils.createPartitionKey(Lists.newArrayList("1", "2", String.valueOf(i)), partColumns));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HiveMetaCache metaCache = new HiveMetaCache(new StandInHiveMetaClient(), executor);
+            List<Future<?>> futures = Lists.newArrayList();
+            for (PartitionKey partitionKey : partitionKeys) {
+                futures.add(executor.submit(() -> {
+                    metaCache.getPartition(hmsTable, partitionKey);
+                    return metaCache.getPartitionStats(hmsTable, partitionKey);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(numPartitions * 2, metastoreCalls.getAndSet(0));
+
+            HiveMetaCache batchMetaCache = new HiveMetaCache(new StandInHiveMetaClient(), executor);
+            futures.clear();
+            for (List<PartitionKey> batch : Lists.partition(partitionKeys, 100)) {
+                futures.add(executor.submit(() -> {
+                    batchMetaCache.getPartitions(hmsTable, batch);
+                    return batchMetaCache.getPartitionsStats(hmsTable, batch);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(numPartitions / 100, metastoreCalls.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testAddPartitionByEvent() throws Exception {
         HiveMetaClient metaClient = new MockedHiveMetaClient();
@@ -287,15 +393,20 @@ public class HiveMetaCacheTest {
         public HivePartition getPartition(String dbName, String tableName, List<String> partValues)
                 throws DdlException {
             clientMethodGetPartitionCalledTimes++;
-            return new HivePartition(HdfsFileFormat.PARQUET,
-                    ImmutableList.of(new HdfsFileDesc("file1",
-                            "",
-                            10000L,
-                            ImmutableList.of(),
-                            ImmutableList.of(),
-                            false,
-                            null)),
-                    partitionPath);
+            return newHivePartition();
+        }
+
+        @Override
+        public List<Partition> getPartitionsByNames(String dbName, String tableName, List<String> partNames) {
+            clientMethodGetPartitionsByNamesCalledTimes++;
+            return partNames.stream().filter(name -> !name.endsWith("=404"))
+                    .map(HiveMetaCacheTest::newPartition).collect(Collectors.toList());
+        }
+
+        @Override
+        public HivePartition toHivePartition(StorageDescriptor sd) {
+            clientMethodToHivePartitionCalledTimes++;
+            return newHivePartition();
         }
 
         @Override
@@ -311,7 +422,73 @@ public class HiveMetaCacheTest {
             return new HivePartitionStats(10000L);
         }
     }
-}
 
+    private HivePartition newHivePartition() {
+        return new HivePartition(HdfsFileFormat.PARQUET,
+                ImmutableList.of(new HdfsFileDesc("file1",
+                        "",
+                        10000L,
+                        0L,
+                        ImmutableList.of(),
+                        ImmutableList.of(),
+                        false,
+                        null)),
+                partitionPath);
+    }
+
+    private static Partition newPartition(String partName) {
+        List<String> values = Lists.newArrayList();
+        for (String part : partName.split("/")) {
+            values.add(part.substring(part.indexOf('=') + 1));
+        }
+        Partition partition = new Partition();
+        partition.setValues(values);
+        partition.setParameters(ImmutableMap.of("numRows", "10000"));
+        partition.setSd(new StorageDescriptor());
+        return partition;
+    }
+
+    // every metastore call takes 1ms, listing files is free
+    public class StandInHiveMetaClient extends HiveMetaClient {
+        public StandInHiveMetaClient() throws DdlException {
+            super("");
+        }
+
+        private void call() {
+            metastoreCalls.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public CurrentNotificationEventId getCurrentNotificationEventId() {
+            return new CurrentNotificationEventId(1L);
+        }
+
+        @Override
+        public HivePartition getPartition(String dbName, String tableName, List<String> partValues) {
+            call();
+            return newHivePartition();
+        }
 
+        @Override
+        public HivePartitionStats getPartitionStats(String dbName, String tableName, List<String> partValues) {
+            call();
+            return new HivePartitionStats(10000L);
+        }
 
+        @Override
+        public List<Partition> getPartitionsByNames(String dbName, String tableName, List<String> partNames) {
+            call();
+            return partNames.stream().map(HiveMetaCacheTest::newPartition).collect(Collectors.toList());
+        }
+
+        @Override
+        public HivePartition toHivePartition(StorageDescriptor sd) {
+            return newHivePartition();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.hive;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HivePartitionTest {
+    private static HdfsFileDesc newFile(String fileName, long length, long modificationTime) {
+        return new HdfsFileDesc(fileName, "", length, modificationTime, ImmutableList.of(), ImmutableList.of(),
+                false, null);
+    }
+
+    private static long getVersion(HdfsFileDesc... files) {
+        return new HivePartition(HdfsFileFormat.PARQUET, ImmutableList.copyOf(files), "path").getVersion();
+    }
+
+    @Test
+    public void testGetVersion() {
+        long version = getVersion(newFile("file1", 100L, 1000L), newFile("file2", 200L, 2000L));
+        Assert.assertEquals(version, getVersion(newFile("file1", 100L, 1000L), newFile("file2", 200L, 2000L)));
+
+        // a new file
+        Assert.assertNotEquals(version, getVersion(newFile("file1", 100L, 1000L), newFile("file2", 200L, 2000L),
+                newFile("file3", 300L, 3000L)));
+        // a file older than the latest one is removed
+        Assert.assertNotEquals(version, getVersion(newFile("file2", 200L, 2000L)));
+        // a file is replaced by the one with the same modification time
+        Assert.assertNotEquals(version, getVersion(newFile("file1", 150L, 1000L), newFile("file2", 200L, 2000L)));
+        // a file is rewritten
+        Assert.assertNotEquals(version, getVersion(newFile("file1", 100L, 3000L), newFile("file2", 200L, 2000L)));
+    }
+}
@@ -0,0 +1,138 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.iceberg;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.types.Types;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class IcebergScanPlannerTest {
+    private File tableDir;
+    private Table table;
+
+    @Before
+    public void setUp() throws IOException {
+        tableDir = Files.createTempDirectory("iceberg_scan_planner_test").toFile();
+        Schema schema = new Schema(
+                Types.NestedField.required(1, "id", Types.LongType.get()),
+                Types.NestedField.required(2, "dt", Types.StringType.get()));
+        PartitionSpec spec = PartitionSpec.builderFor(schema).identity("dt").build();
+        table = new HadoopTables(new Configuration()).create(schema, spec, tableDir.getAbsolutePath());
+
+        // one manifest per append
+        for (int day = 1; day <= 4; day++) {
+            table.newFastAppend()
+                    .appendFile(newDataFile(spec, "2022-01-0" + day, 1))
+                    .appendFile(newDataFile(spec, "2022-01-0" + day, 2))
+                    .commit();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.walk(tableDir.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile)
+                .forEach(File::delete);
+    }
+
+    private DataFile newDataFile(PartitionSpec spec, String dt, int index) {
+        return DataFiles.builder(spec)
+                .withPath(tableDir.getAbsolutePath() + "/data/dt=" + dt + "/" + index + ".parquet")
+                .withFileSizeInBytes(1024)
+                .withRecordCount(10)
+                .withPartitionPath("dt=" + dt)
+                .withFormat(FileFormat.PARQUET)
+                .build();
+    }
+
+    private static List<String> paths(List<DataFile> files) {
+        return files.stream().map(file -> file.path().toString()).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPlanFilesInBatches() {
+        Iterator<List<DataFile>> batches = IcebergScanPlanner.planFilesInBatches(table, table.currentSnapshot(),
+                Lists.newArrayList());
+        int batchNum = 0;
+        List<DataFile> files = Lists.newArrayList();
+        while (batches.hasNext()) {
+            List<DataFile> batch = batches.next();
+            Assert.assertEquals(2, batch.size());
+            files.addAll(batch);
+            batchNum++;
+        }
+        Assert.assertEquals(4, batchNum);
+        Assert.assertEquals(8, files.size());
+
+        // manifests of other partitions are skipped
+        List<Expression> predicates = Lists.newArrayList(Expressions.equal("dt", "2022-01-02"));
+        batches = IcebergScanPlanner.planFilesInBatches(table, table.currentSnapshot(), predicates);
+        Assert.assertEquals(2, batches.next().size());
+        Assert.assertFalse(batches.hasNext());
+    }
+
+    @Test
+    public void testBoundedManifestReads() {
+        IcebergScanPlanner.ManifestBatchIterator batches = IcebergScanPlanner.planFilesInBatches(table,
+                table.currentSnapshot(), Lists.newArrayList(), 2);
+        // a manifest is submitted when the data files of a read one are consumed
+        List<Integer> inflightReadNums = Lists.newArrayList(batches.getInflightReadNum());
+        int fileNum = 0;
+        while (batches.hasNext()) {
+            fileNum += batches.next().size();
+            inflightReadNums.add(batches.getInflightReadNum());
+        }
+        Assert.assertEquals(8, fileNum);
+        Assert.assertEquals(Lists.newArrayList(2, 2, 2, 1, 0), inflightReadNums);
+    }
+
+    @Test
+    public void testCloseManifestReads() {
+        IcebergScanPlanner.ManifestBatchIterator batches = IcebergScanPlanner.planFilesInBatches(table,
+                table.currentSnapshot(), Lists.newArrayList(), 2);
+        Assert.assertEquals(2, batches.next().size());
+        Assert.assertTrue(batches.hasNext());
+
+        // the reads in flight are cancelled, and the rest manifests are never read
+        batches.close();
+        Assert.assertEquals(0, batches.getInflightReadNum());
+        Assert.assertFalse(batches.hasNext());
+        Assert.assertThrows(StarRocksIcebergException.class, batches::next);
+    }
+
+    @Test
+    public void testSharedPlanFiles() {
+        List<Expression> predicates = Lists.newArrayList(Expressions.equal("dt", "2022-01-03"));
+        Assert.assertNull(IcebergScanPlanner.getPlannedFiles(table, table.currentSnapshot(), predicates));
+
+        // statistics plan all data files
+        List<DataFile> allFiles = IcebergScanPlanner.planFiles(table, table.currentSnapshot(), null);
+        Assert.assertEquals(8, allFiles.size());
+
+        // the scan filters them in memory
+        List<DataFile> files = IcebergScanPlanner.getPlannedFiles(table, table.currentSnapshot(), predicates);
+        Assert.assertNotNull(files);
+        Assert.assertEquals(paths(IcebergScanPlanner.planFilesInBatches(table, table.currentSnapshot(), predicates)
+                .next()), paths(files));
+    }
+}
@@ -0,0 +1,152 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.external.iceberg.io;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class DiskContentCacheTest {
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("iceberg_disk_cache_test").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.walk(cacheDir.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile)
+                .forEach(File::delete);
+    }
+
+    private static byte[] content(String location, int length) {
+        byte[] bytes = new byte[length];
+        byte[] name = location.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = name[i % name.length];
+        }
+        return bytes;
+    }
+
+    private static void put(DiskContentCache cache, String location, int length) {
+        byte[] bytes = content(location, length);
+        int half = length / 2;
+        cache.put(location,
+                Arrays.asList(ByteBuffer.wrap(bytes, 0, half), ByteBuffer.wrap(bytes, half, length - half)));
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        DiskContentCache cache = new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024);
+        String location = "hdfs://nn/warehouse/t/metadata/snap-1.avro";
+        Assert.assertNull(cache.get(location));
+        Assert.assertEquals(-1, cache.getLength(location));
+        Assert.assertEquals(1, cache.getMissCount());
+
+        put(cache, location, 1000);
+        Assert.assertArrayEquals(content(location, 1000), cache.get(location));
+        Assert.assertEquals(1000, cache.getLength(location));
+        Assert.assertEquals(1, cache.getHitCount());
+
+        cache.invalidate(location);
+        Assert.assertNull(cache.get(location));
+        Assert.assertEquals(0, cache.getUsedBytes());
+        Assert.assertEquals(0, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testGetLength() throws IOException {
+        DiskContentCache cache = new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024);
+        // the length of the location in modified UTF-8 differs from its chars
+        String location = "hdfs://nn/warehouse/\u8868/metadata/snap-\u00e9-\u0000.avro";
+        put(cache, location, 1000);
+        Assert.assertEquals(1000, cache.getLength(location));
+
+        // the length is derived from the index rebuilt from the cache files
+        cache = new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024);
+        Assert.assertEquals(1000, cache.getLength(location));
+        Assert.assertArrayEquals(content(location, 1000), cache.get(location));
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        DiskContentCache cache = new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024);
+        String location = "hdfs://nn/warehouse/t/metadata/snap-1.avro";
+        put(cache, location, 1000);
+        File file = cacheDir.listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last + 1);
+        }
+        Assert.assertNull(cache.get(location));
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertFalse(file.exists());
+
+        // truncated
+        put(cache, location, 1000);
+        file = cacheDir.listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        Assert.assertNull(cache.get(location));
+        Assert.assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        DiskContentCache cache = new DiskContentCache(cacheDir.getAbsolutePath(), 3500);
+        put(cache, "file1", 1000);
+        put(cache, "file2", 1000);
+        put(cache, "file3", 1000);
+        // file1 is used recently, so file2 is evicted
+        Assert.assertNotNull(cache.get("file1"));
+        put(cache, "file4", 1000);
+        Assert.assertNull(cache.get("file2"));
+        Assert.assertNotNull(cache.get("file1"));
+        Assert.assertNotNull(cache.get("file3"));
+        Assert.assertNotNull(cache.get("file4"));
+        Assert.assertTrue(cache.getUsedBytes() <= 3500);
+        Assert.assertEquals(3, cacheDir.listFiles().length);
+
+        // larger than capacity
+        put(cache, "file5", 4000);
+        Assert.assertNull(cache.get("file5"));
+        Assert.assertEquals(3, cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testLoadIndex() throws IOException {
+        DiskContentCache cache = new DiskContentCache(cacheDir.getAbsolutePath(), 3500);
+        put(cache, "file1", 1000);
+        put(cache, "file2", 1000);
+        put(cache, "file3", 1000);
+        long now = System.currentTimeMillis();
+        // file2 is used before file3 and file1
+        for (File file : cacheDir.listFiles()) {
+            Assert.assertTrue(file.setLastModified(now - 10000));
+        }
+        Assert.assertTrue(new File(cacheDir, "unfinished.1.tmp").createNewFile());
+        Assert.assertNotNull(cache.get("file3"));
+        Assert.assertNotNull(cache.get("file1"));
+
+        // a restarted fe keeps the recently used files with a smaller capacity
+        DiskContentCache loadedCache = new DiskContentCache(cacheDir.getAbsolutePath(), 2500);
+        Assert.assertEquals(2, cacheDir.listFiles().length);
+        Assert.assertNull(loadedCache.get("file2"));
+        Assert.assertArrayEquals(content("file1", 1000), loadedCache.get("file1"));
+        Assert.assertArrayEquals(content("file3", 1000), loadedCache.get("file3"));
+    }
+}
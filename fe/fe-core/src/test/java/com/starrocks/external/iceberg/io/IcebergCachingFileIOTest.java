@@ -5,12 +5,17 @@ package com.starrocks.external.iceberg.io;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.iceberg.hadoop.HadoopFileIO;
 import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.SeekableInputStream;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -53,4 +58,44 @@ public class IcebergCachingFileIOTest {
         Assert.assertEquals(cacheIOInputFileSize, 39);
         Assert.assertEquals(hadoopIOInputFileSize, 39);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDiskContentCache() throws IOException {
+        writeIcebergMetaTestFile();
+        String path = "file:/tmp/0001.metadata.json";
+        File cacheDir = Files.createTempDirectory("iceberg_disk_cache_test").toFile();
+        try {
+            HadoopFileIO hadoopFileIO = new HadoopFileIO(new Configuration());
+            DiskContentCache diskCache = new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024);
+            IcebergCachingFileIO cachingFileIO = new IcebergCachingFileIO(hadoopFileIO, diskCache);
+            cachingFileIO.initialize(new HashMap<>());
+            readFully(cachingFileIO.newInputFile(path));
+            Assert.assertEquals(1, diskCache.getMissCount());
+
+            // a new memory cache, like the one of a restarted fe, is loaded from local disk
+            IcebergCachingFileIO newCachingFileIO = new IcebergCachingFileIO(hadoopFileIO,
+                    new DiskContentCache(cacheDir.getAbsolutePath(), 1024 * 1024));
+            newCachingFileIO.initialize(new HashMap<>());
+            new File("/tmp/0001.metadata.json").delete();
+            InputFile inputFile = newCachingFileIO.newInputFile(path);
+            Assert.assertTrue(inputFile.exists());
+            Assert.assertEquals(39, inputFile.getLength());
+            Assert.assertEquals("test iceberg metadata json file content", readFully(inputFile));
+
+            newCachingFileIO.deleteFile(path);
+            Assert.assertFalse(newCachingFileIO.newInputFile(path).exists());
+            Assert.assertEquals(0, cacheDir.listFiles().length);
+        } finally {
+            Files.walk(cacheDir.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    private static String readFully(InputFile inputFile) throws IOException {
+        try (SeekableInputStream in = inputFile.newStream()) {
+            byte[] bytes = new byte[(int) inputFile.getLength()];
+            IOUtil.readFully(in, bytes, 0, bytes.length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.planner;
+
+import com.google.common.collect.Lists;
+import com.starrocks.thrift.TScanRangeLocations;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ListScanRangeSourceTest {
+    @Test
+    public void testGetNext() {
+        List<TScanRangeLocations> locations = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            locations.add(new TScanRangeLocations());
+        }
+        ListScanRangeSource source = new ListScanRangeSource(locations);
+
+        Assert.assertTrue(source.hasMore());
+        List<TScanRangeLocations> next = source.getNext(2);
+        Assert.assertEquals(2, next.size());
+        Assert.assertSame(locations.get(0), next.get(0));
+        Assert.assertSame(locations.get(2), source.getNext(2).get(0));
+
+        // the last batch is not full
+        Assert.assertTrue(source.hasMore());
+        Assert.assertEquals(1, source.getNext(2).size());
+        Assert.assertFalse(source.hasMore());
+        Assert.assertTrue(source.getNext(2).isEmpty());
+    }
+
+    @Test
+    public void testClose() {
+        List<TScanRangeLocations> locations = Lists.newArrayList(new TScanRangeLocations(), new TScanRangeLocations());
+        ListScanRangeSource source = new ListScanRangeSource(locations);
+        Assert.assertEquals(1, source.getNext(1).size());
+
+        source.close();
+        Assert.assertFalse(source.hasMore());
+        Assert.assertTrue(source.getNext(1).isEmpty());
+    }
+}
@@ -5,19 +5,27 @@ package com.starrocks.qe;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.starrocks.analysis.TupleId;
+import com.starrocks.common.Config;
 import com.starrocks.planner.DataPartition;
 import com.starrocks.planner.EmptySetNode;
 import com.starrocks.planner.JoinNode;
+import com.starrocks.planner.ListScanRangeSource;
 import com.starrocks.planner.PlanFragment;
 import com.starrocks.planner.PlanFragmentId;
 import com.starrocks.planner.PlanNodeId;
 import com.starrocks.planner.RuntimeFilterDescription;
+import com.starrocks.planner.ScanRangeSource;
 import com.starrocks.thrift.TDescriptorTable;
+import com.starrocks.thrift.TGetScanRangesParams;
+import com.starrocks.thrift.TGetScanRangesResult;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TPartitionType;
+import com.starrocks.thrift.TScanRangeLocations;
 import com.starrocks.thrift.TScanRangeParams;
+import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TUniqueId;
 import com.starrocks.utframe.UtFrameUtils;
+import mockit.Deencapsulation;
 import org.apache.commons.compress.utils.Lists;
 import org.junit.Assert;
 import org.junit.Before;
@@ -70,6 +78,58 @@ public class CoordinatorTest {
         Assert.assertEquals(rf.getBucketSeqToInstance(), Arrays.<Integer>asList(0, 1, 0, 2, 1, 2));
     }
 
+    private ScanRangeSource addScanRangeSource(int planNodeId, int numScanRanges) {
+        List<TScanRangeLocations> locations = new ArrayList<>();
+        for (int i = 0; i < numScanRanges; i++) {
+            locations.add(new TScanRangeLocations());
+        }
+        ScanRangeSource source = new ListScanRangeSource(locations);
+        Map<Integer, ScanRangeSource> scanRangeSources = Deencapsulation.getField(coordinator, "scanRangeSources");
+        scanRangeSources.put(planNodeId, source);
+        return source;
+    }
+
+    private TGetScanRangesParams newScanRangesParams(int planNodeId) {
+        TGetScanRangesParams params = new TGetScanRangesParams();
+        params.setQuery_id(ctx.getExecutionId());
+        params.setPlan_node_id(planNodeId);
+        return params;
+    }
+
+    private TGetScanRangesResult getScanRanges(int planNodeId) throws Exception {
+        return coordinator.getScanRanges(newScanRangesParams(planNodeId));
+    }
+
+    @Test
+    public void testGetScanRangesAfterCancel() throws Exception {
+        ScanRangeSource source = addScanRangeSource(1, Config.incremental_scan_ranges_batch_size + 1);
+        TGetScanRangesResult result = getScanRanges(1);
+        Assert.assertEquals(TStatusCode.OK, result.getStatus().getStatus_code());
+        Assert.assertEquals(Config.incremental_scan_ranges_batch_size, result.getScan_ranges().size());
+        Assert.assertTrue(result.isHas_more());
+
+        // the rest scan ranges are not returned after the query is cancelled
+        coordinator.cancel();
+        Assert.assertFalse(source.hasMore());
+        result = getScanRanges(1);
+        Assert.assertEquals(TStatusCode.CANCELLED, result.getStatus().getStatus_code());
+        Assert.assertFalse(result.isSetScan_ranges());
+
+        Assert.assertEquals(TStatusCode.NOT_FOUND, getScanRanges(2).getStatus().getStatus_code());
+    }
+
+    @Test
+    public void testCloseScanRangeSourcesOnUnregister() throws Exception {
+        ScanRangeSource source = addScanRangeSource(1, 1);
+        QeProcessorImpl.INSTANCE.registerQuery(ctx.getExecutionId(), coordinator);
+        Assert.assertEquals(TStatusCode.OK,
+                QeProcessorImpl.INSTANCE.getScanRanges(newScanRangesParams(1)).getStatus().getStatus_code());
+
+        QeProcessorImpl.INSTANCE.unregisterQuery(ctx.getExecutionId());
+        Assert.assertFalse(source.hasMore());
+        Assert.assertEquals(TStatusCode.CANCELLED, getScanRanges(1).getStatus().getStatus_code());
+    }
+
     @Test
     public void testColocateRuntimeFilter() throws IOException {
         testComputeBucketSeq2InstanceOrdinal(JoinNode.DistributionMode.COLOCATE);
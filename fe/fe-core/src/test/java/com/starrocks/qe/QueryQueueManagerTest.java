@@ -0,0 +1,180 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.UserException;
+import com.starrocks.system.BackendCoreStat;
+import com.starrocks.thrift.TUniqueId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class QueryQueueManagerTest {
+    private static final long GROUP_ID = 1;
+
+    private QueryQueueManager manager;
+    private ExecutorService executor;
+    private long nextQueryId = 0;
+
+    @Before
+    public void setUp() {
+        Config.enable_query_queue = true;
+        Config.query_queue_concurrency_limit = 0;
+        Config.query_queue_mem_limit_bytes = 0;
+        Config.query_queue_be_mem_usage_limit_ratio = 0;
+        Config.query_queue_max_queued_queries = 1024;
+        Config.query_queue_pending_timeout_second = 300;
+        manager = new QueryQueueManager();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_query_queue = false;
+        BackendCoreStat.reset();
+        executor.shutdownNow();
+    }
+
+    private QueryQueueManager.QuerySlot newSlot(int concurrencyLimit, int priority, long memBytes) {
+        return new QueryQueueManager.QuerySlot(new TUniqueId(0, nextQueryId++), GROUP_ID, "rg1", concurrencyLimit,
+                "root", priority, memBytes);
+    }
+
+    private Future<?> acquireAsync(QueryQueueManager.QuerySlot slot) {
+        return executor.submit(() -> {
+            manager.acquire(slot);
+            return null;
+        });
+    }
+
+    private void waitPending(int num) throws InterruptedException {
+        for (int i = 0; i < 100 && manager.getNumPendingQueries() != num; i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(num, manager.getNumPendingQueries());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        QueryQueueManager.QuerySlot slot1 = newSlot(1, 0, 0);
+        manager.acquire(slot1);
+        Assert.assertEquals(QueryQueueManager.State.RUNNING, slot1.getState());
+
+        QueryQueueManager.QuerySlot slot2 = newSlot(1, 0, 0);
+        Future<?> future2 = acquireAsync(slot2);
+        waitPending(1);
+        Assert.assertEquals(QueryQueueManager.State.PENDING, slot2.getState());
+        Assert.assertEquals(2, manager.getQueryInfos(System.currentTimeMillis()).size());
+
+        manager.release(slot1.getQueryId());
+        future2.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(QueryQueueManager.State.RUNNING, slot2.getState());
+        Assert.assertEquals(0, manager.getNumPendingQueries());
+        Assert.assertEquals(1, manager.getNumRunningQueries());
+
+        manager.release(slot2.getQueryId());
+        Assert.assertEquals(0, manager.getNumRunningQueries());
+        Assert.assertTrue(manager.getQueryInfos(System.currentTimeMillis()).isEmpty());
+    }
+
+    @Test
+    public void testPriority() throws Exception {
+        Config.query_queue_concurrency_limit = 1;
+        QueryQueueManager.QuerySlot slot1 = newSlot(0, 0, 0);
+        manager.acquire(slot1);
+
+        QueryQueueManager.QuerySlot lowSlot = newSlot(0, 0, 0);
+        Future<?> lowFuture = acquireAsync(lowSlot);
+        waitPending(1);
+        QueryQueueManager.QuerySlot highSlot = newSlot(0, 1, 0);
+        Future<?> highFuture = acquireAsync(highSlot);
+        waitPending(2);
+
+        // the query with the higher priority is admitted first though it comes later
+        manager.release(slot1.getQueryId());
+        highFuture.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(QueryQueueManager.State.PENDING, lowSlot.getState());
+
+        manager.release(highSlot.getQueryId());
+        lowFuture.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(QueryQueueManager.State.RUNNING, lowSlot.getState());
+    }
+
+    @Test
+    public void testMemLimit() throws Exception {
+        Config.query_queue_mem_limit_bytes = 100;
+        // a query bigger than the limit runs when no query is running
+        QueryQueueManager.QuerySlot bigSlot = newSlot(0, 0, 200);
+        manager.acquire(bigSlot);
+
+        QueryQueueManager.QuerySlot slot = newSlot(0, 0, 50);
+        Future<?> future = acquireAsync(slot);
+        waitPending(1);
+        manager.release(bigSlot.getQueryId());
+        future.get(5, TimeUnit.SECONDS);
+
+        // the queries fit in the limit together
+        manager.acquire(newSlot(0, 0, 50));
+        Assert.assertEquals(2, manager.getNumRunningQueries());
+    }
+
+    @Test
+    public void testBackendLoad() throws Exception {
+        Config.query_queue_be_mem_usage_limit_ratio = 0.9;
+        BackendCoreStat.setLoadOfBe(10001, new BackendCoreStat.BackendLoad(95, 100, 10));
+        manager.acquire(newSlot(0, 0, 0));
+
+        QueryQueueManager.QuerySlot slot = newSlot(0, 0, 0);
+        Future<?> future = acquireAsync(slot);
+        waitPending(1);
+        // the pending queries re-check the backend load reported by the heartbeat
+        BackendCoreStat.setLoadOfBe(10001, new BackendCoreStat.BackendLoad(50, 100, 10));
+        future.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(QueryQueueManager.State.RUNNING, slot.getState());
+    }
+
+    @Test
+    public void testTimeoutAndQueueFull() throws Exception {
+        Config.query_queue_pending_timeout_second = 1;
+        Config.query_queue_max_queued_queries = 1;
+        manager.acquire(newSlot(1, 0, 0));
+
+        Future<?> future = acquireAsync(newSlot(1, 0, 0));
+        waitPending(1);
+        Assert.assertThrows(UserException.class, () -> manager.acquire(newSlot(1, 0, 0)));
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("the pending query should be timeout");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getCause() instanceof UserException);
+        }
+        Assert.assertEquals(0, manager.getNumPendingQueries());
+        Assert.assertEquals(1, manager.getNumRunningQueries());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        manager.acquire(newSlot(1, 0, 0));
+        QueryQueueManager.QuerySlot slot = newSlot(1, 0, 0);
+        Future<?> future = acquireAsync(slot);
+        waitPending(1);
+
+        manager.cancel(slot.getQueryId());
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("the pending query should be cancelled");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getCause() instanceof UserException);
+        }
+        Assert.assertEquals(0, manager.getNumPendingQueries());
+        Assert.assertEquals(1, manager.getQueryInfos(System.currentTimeMillis()).size());
+    }
+}
@@ -0,0 +1,209 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.Status;
+import com.starrocks.common.UserException;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.common.util.ProfileManager;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.planner.JoinNode;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.planner.PlanNode;
+import com.starrocks.sql.plan.PlanTestBase;
+import com.starrocks.thrift.TStatusCode;
+import mockit.Expectations;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+public class StmtExecutorTest extends PlanTestBase {
+    // join on the non distribution columns, so the join of the small tables is broadcast by default
+    private static final String JOIN_SQL = "select * from t0 join t1 on t0.v2 = t1.v5";
+
+    // the join distributions of each execution
+    private final List<List<JoinNode.DistributionMode>> execJoins = Lists.newArrayList();
+
+    @Mocked
+    private MysqlChannel channel;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+    }
+
+    @Before
+    public void setUp() {
+        execJoins.clear();
+        connectContext.getState().reset();
+        connectContext.getSessionVariable().setEnableAdaptiveReplan(true);
+        connectContext.getSessionVariable().setReportSuccess(true);
+    }
+
+    @After
+    public void tearDown() {
+        connectContext.getSessionVariable().setEnableAdaptiveReplan(false);
+        connectContext.getSessionVariable().setReportSuccess(false);
+    }
+
+    private static void collectJoins(PlanNode node, List<JoinNode.DistributionMode> joins) {
+        if (node instanceof JoinNode) {
+            joins.add(((JoinNode) node).getDistributionMode());
+        }
+        for (PlanNode child : node.getChildren()) {
+            collectJoins(child, joins);
+        }
+    }
+
+    // The first execution fails with the given status code, and the next execution succeeds.
+    private void mockCoordinator(TStatusCode failure) {
+        new MockUp<Coordinator>() {
+            @Mock
+            public void exec(Invocation invocation) throws Exception {
+                Coordinator coord = invocation.getInvokedInstance();
+                List<JoinNode.DistributionMode> joins = Lists.newArrayList();
+                for (PlanFragment fragment : coord.getFragments()) {
+                    collectJoins(fragment.getPlanRoot(), joins);
+                }
+                execJoins.add(joins);
+                if (execJoins.size() == 1) {
+                    throw new UserException("query failed");
+                }
+            }
+
+            @Mock
+            public Status getExecStatus() {
+                return new Status(failure, "query failed");
+            }
+
+            @Mock
+            public RowBatch getNext() {
+                return new RowBatch();
+            }
+
+            @Mock
+            public void cancel() {
+            }
+
+            @Mock
+            public RuntimeProfile getQueryProfile() {
+                return new RuntimeProfile("Execution Profile");
+            }
+
+            @Mock
+            public void endProfile() {
+            }
+
+            @Mock
+            public void mergeIsomorphicProfiles() {
+            }
+        };
+    }
+
+    private void execute(String sql) throws Exception {
+        connectContext.setQueryId(UUIDUtil.genUUID());
+        StmtExecutor executor = new StmtExecutor(connectContext, sql);
+        executor.execute();
+    }
+
+    @Test
+    public void testAdaptiveReplan() throws Exception {
+        mockCoordinator(TStatusCode.MEM_LIMIT_EXCEEDED);
+        SessionVariable sessionVariable = connectContext.getSessionVariable();
+        long broadcastRowCountLimit = sessionVariable.getBroadcastRowCountLimit();
+        double broadcastRightTableScaleFactor = sessionVariable.getBroadcastRightTableScaleFactor();
+
+        execute(JOIN_SQL);
+        Assert.assertEquals(QueryState.MysqlStateType.EOF, connectContext.getState().getStateType());
+        Assert.assertEquals(2, execJoins.size());
+        Assert.assertEquals(Lists.newArrayList(JoinNode.DistributionMode.BROADCAST), execJoins.get(0));
+        Assert.assertEquals(1, execJoins.get(1).size());
+        Assert.assertNotEquals(JoinNode.DistributionMode.BROADCAST, execJoins.get(1).get(0));
+
+        // the session variable of the connection is restored
+        Assert.assertSame(sessionVariable, connectContext.getSessionVariable());
+        Assert.assertEquals(broadcastRowCountLimit, sessionVariable.getBroadcastRowCountLimit());
+        Assert.assertEquals(broadcastRightTableScaleFactor, sessionVariable.getBroadcastRightTableScaleFactor(), 0);
+
+        String profile = ProfileManager.getInstance().getProfile(DebugUtil.printId(connectContext.getExecutionId()));
+        Assert.assertNotNull(profile);
+        Assert.assertTrue(profile, profile.contains("Adaptive Replan Times: 1"));
+        Assert.assertTrue(profile,
+                profile.contains("Adaptive Replan Reason: MEM_LIMIT_EXCEEDED with broadcast join in plan: "));
+        Assert.assertTrue(profile, profile.contains("Adaptive Replan Failed Plan Joins: BROADCAST\n"));
+        Assert.assertTrue(profile, profile.contains("Adaptive Replan Failed Plan Time: "));
+        Assert.assertTrue(profile, profile.contains("Adaptive Replan New Plan Joins: " + execJoins.get(1).get(0)));
+        Assert.assertTrue(profile, profile.contains("Adaptive Replan New Plan Time: "));
+    }
+
+    @Test
+    public void testNoAdaptiveReplanWhenDisabled() throws Exception {
+        mockCoordinator(TStatusCode.MEM_LIMIT_EXCEEDED);
+        connectContext.getSessionVariable().setEnableAdaptiveReplan(false);
+
+        execute(JOIN_SQL);
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assert.assertEquals(1, execJoins.size());
+    }
+
+    @Test
+    public void testNoAdaptiveReplanForOtherErrors() throws Exception {
+        mockCoordinator(TStatusCode.INTERNAL_ERROR);
+
+        execute(JOIN_SQL);
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assert.assertEquals(1, execJoins.size());
+    }
+
+    @Test
+    public void testNoAdaptiveReplanWithoutBroadcastJoin() throws Exception {
+        mockCoordinator(TStatusCode.MEM_LIMIT_EXCEEDED);
+
+        execute("select * from t0 join [shuffle] t1 on t0.v2 = t1.v5");
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assert.assertEquals(1, execJoins.size());
+        Assert.assertEquals(Lists.newArrayList(JoinNode.DistributionMode.PARTITIONED), execJoins.get(0));
+    }
+
+    @Test
+    public void testNoAdaptiveReplanAfterResultSent() throws Exception {
+        mockCoordinator(TStatusCode.MEM_LIMIT_EXCEEDED);
+        new Expectations() {
+            {
+                channel.isSend();
+                result = true;
+                minTimes = 0;
+            }
+        };
+
+        execute(JOIN_SQL);
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assert.assertEquals(1, execJoins.size());
+    }
+
+    @Test
+    public void testNoAdaptiveReplanWithoutRetry() throws Exception {
+        mockCoordinator(TStatusCode.MEM_LIMIT_EXCEEDED);
+        int maxQueryRetryTime = Config.max_query_retry_time;
+        Config.max_query_retry_time = 1;
+        try {
+            execute(JOIN_SQL);
+        } finally {
+            Config.max_query_retry_time = maxQueryRetryTime;
+        }
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assert.assertEquals(1, execJoins.size());
+    }
+}
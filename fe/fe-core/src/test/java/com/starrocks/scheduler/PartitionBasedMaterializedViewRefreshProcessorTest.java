@@ -2,10 +2,12 @@
 
 package com.starrocks.scheduler;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.analysis.DmlStmt;
 import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.KeysType;
 import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.MaterializedView;
@@ -17,12 +19,20 @@ import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.io.DeepCopy;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.ScanNode;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.StmtExecutor;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.analyzer.SemanticException;
 import com.starrocks.sql.ast.InsertStmt;
 import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.thrift.TInternalScanRange;
+import com.starrocks.thrift.TScanRangeLocations;
+import com.starrocks.transaction.OlapTableTxnLogApplier;
+import com.starrocks.transaction.PartitionCommitInfo;
+import com.starrocks.transaction.TableCommitInfo;
+import com.starrocks.transaction.TransactionState;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
 import mockit.Mock;
@@ -103,7 +113,27 @@ public class PartitionBasedMaterializedViewRefreshProcessorTest {
                         "distributed by hash(k2)\n" +
                         "refresh manual\n" +
                         "properties('replication_num' = '1')\n" +
-                        "as select k2, sum(v1) as total_sum from tbl3 group by k2;");
+                        "as select k2, sum(v1) as total_sum from tbl3 group by k2;")
+                .withTable("CREATE TABLE test.tbl4\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values less than('2022-02-01'),\n" +
+                        "    PARTITION p2 values less than('2022-03-01')\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view test.mv_incremental\n" +
+                        "partition by k1\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1', 'incremental_refresh' = 'true')\n" +
+                        "as select k1, k2, sum(v1) as total_sum, count(v1) as total_count from tbl4 group by k1, k2;");
     }
 
     @Test
@@ -279,6 +309,110 @@ public class PartitionBasedMaterializedViewRefreshProcessorTest {
         }
     }
 
+    @Test
+    public void testIncrementalRefresh() throws Exception {
+        List<InsertStmt> refreshStmts = Lists.newArrayList();
+        List<ExecPlan> refreshPlans = Lists.newArrayList();
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void handleDMLStmt(ExecPlan execPlan, DmlStmt stmt) throws Exception {
+                InsertStmt insertStmt = (InsertStmt) stmt;
+                if (insertStmt.getTableName().getTbl().equals("tbl4")) {
+                    OlapTable tbl4 = (OlapTable) GlobalStateMgr.getCurrentState().getDb("test").getTable("tbl4");
+                    for (Partition partition : tbl4.getPartitions()) {
+                        if (insertStmt.getTargetPartitionIds().contains(partition.getId())) {
+                            setPartitionVersion(partition, partition.getVisibleVersion() + 1);
+                        }
+                    }
+                } else {
+                    refreshStmts.add(insertStmt);
+                    refreshPlans.add(execPlan);
+                }
+            }
+        };
+        Database testDb = GlobalStateMgr.getCurrentState().getDb("test");
+        OlapTable tbl4 = (OlapTable) testDb.getTable("tbl4");
+        MaterializedView materializedView = ((MaterializedView) testDb.getTable("mv_incremental"));
+        Assert.assertTrue(materializedView.isIncrementalRefresh());
+        Assert.assertEquals(KeysType.AGG_KEYS, materializedView.getKeysType());
+        Task task = TaskBuilder.buildMvTask(materializedView, testDb.getFullName());
+        TaskRun taskRun = TaskRunBuilder.newBuilder(task).build();
+        taskRun.initStatus(UUIDUtil.genUUID().toString(), System.currentTimeMillis());
+
+        // the partitions never refreshed are read fully
+        taskRun.executeTaskRun();
+        Assert.assertEquals(1, refreshStmts.size());
+        Assert.assertFalse(refreshStmts.get(0).isOverwrite());
+        for (TInternalScanRange scanRange : getInternalScanRanges(refreshPlans.get(0))) {
+            Assert.assertFalse(scanRange.isSetStart_version());
+        }
+
+        // only the data appended since the last refresh is read
+        Partition p1 = tbl4.getPartition("p1");
+        long readVersion = p1.getVisibleVersion();
+        new StmtExecutor(connectContext, "insert into tbl4 partition(p1) values('2022-01-01', 1, 1);").execute();
+        taskRun.executeTaskRun();
+        Assert.assertEquals(2, refreshStmts.size());
+        Assert.assertFalse(refreshStmts.get(1).isOverwrite());
+        OlapScanNode scanNode = (OlapScanNode) refreshPlans.get(1).getScanNodes().get(0);
+        Assert.assertEquals(Lists.newArrayList(p1.getId()), Lists.newArrayList(scanNode.getSelectedPartitionIds()));
+        List<TInternalScanRange> scanRanges = getInternalScanRanges(refreshPlans.get(1));
+        Assert.assertFalse(scanRanges.isEmpty());
+        for (TInternalScanRange scanRange : scanRanges) {
+            Assert.assertEquals(readVersion + 1, scanRange.getStart_version());
+        }
+        Map<String, MaterializedView.BasePartitionInfo> basePartitionInfos = materializedView.getRefreshScheme()
+                .getAsyncRefreshContext().getBaseTableVisibleVersionMap().get(tbl4.getId());
+        Assert.assertEquals(p1.getVisibleVersion(), basePartitionInfos.get("p1").getVersion());
+
+        // the replaced partition can't be refreshed incrementally
+        basePartitionInfos.put("p1", new MaterializedView.BasePartitionInfo(-1, p1.getVisibleVersion()));
+        taskRun.executeTaskRun();
+        Assert.assertEquals(3, refreshStmts.size());
+        Assert.assertTrue(refreshStmts.get(2).isOverwrite());
+
+        // the rows deleted from the base partition can't be removed incrementally
+        long deleteVersion = p1.getVisibleVersion() + 1;
+        publishDelete(testDb, tbl4, p1, deleteVersion);
+        Map<String, Long> deleteVersions = materializedView.getRefreshScheme().getAsyncRefreshContext()
+                .getBaseTableDeleteVersionMap().get(tbl4.getId());
+        Assert.assertEquals(deleteVersion, (long) deleteVersions.get("p1"));
+        taskRun.executeTaskRun();
+        Assert.assertEquals(4, refreshStmts.size());
+        Assert.assertTrue(refreshStmts.get(3).isOverwrite());
+        Assert.assertEquals(deleteVersion, basePartitionInfos.get("p1").getVersion());
+        Assert.assertFalse(deleteVersions.containsKey("p1"));
+
+        // the data appended after the delete is refreshed incrementally again
+        new StmtExecutor(connectContext, "insert into tbl4 partition(p1) values('2022-01-01', 1, 1);").execute();
+        taskRun.executeTaskRun();
+        Assert.assertEquals(5, refreshStmts.size());
+        Assert.assertFalse(refreshStmts.get(4).isOverwrite());
+        for (TInternalScanRange scanRange : getInternalScanRanges(refreshPlans.get(4))) {
+            Assert.assertEquals(deleteVersion + 1, scanRange.getStart_version());
+        }
+    }
+
+    // makes the delete of the partition visible, as the publish of the delete transaction does
+    private void publishDelete(Database db, OlapTable table, Partition partition, long version) {
+        TransactionState txnState = new TransactionState(db.getId(), Lists.newArrayList(table.getId()), -1,
+                "delete_" + UUIDUtil.genUUID(), null, TransactionState.LoadJobSourceType.DELETE, null, -1, 0);
+        TableCommitInfo commitInfo = new TableCommitInfo(table.getId());
+        commitInfo.addPartitionCommitInfo(
+                new PartitionCommitInfo(partition.getId(), version, System.currentTimeMillis()));
+        new OlapTableTxnLogApplier(table).applyVisibleLog(txnState, commitInfo, db);
+    }
+
+    private List<TInternalScanRange> getInternalScanRanges(ExecPlan execPlan) {
+        List<TInternalScanRange> scanRanges = Lists.newArrayList();
+        for (ScanNode scanNode : execPlan.getScanNodes()) {
+            for (TScanRangeLocations locations : scanNode.getScanRangeLocations(0)) {
+                scanRanges.add(locations.getScan_range().getInternal_scan_range());
+            }
+        }
+        return scanRanges;
+    }
+
     private void testBaseTablePartitionInsertData(Database testDb, MaterializedView materializedView, TaskRun taskRun)
             throws Exception {
         OlapTable tbl1 = ((OlapTable) testDb.getTable("tbl1"));
@@ -3,6 +3,7 @@ package com.starrocks.sql.common;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 import com.starrocks.analysis.PartitionValue;
 import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.TableName;
@@ -15,6 +16,8 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Map;
@@ -454,4 +457,27 @@ public class SyncPartitionUtilsTest {
         Assert.assertEquals(0, deletes.size());
     }
 
+    @Test
+    public void testMappingDayRange() throws AnalysisException {
+        // the partitions of the hive table are mapped to the day ranges, and then rolled up by month
+        Map<String, Range<PartitionKey>> baseRange = Maps.newHashMap();
+        for (String day : new String[] {"2020-05-03", "2020-05-31", "2020-06-01"}) {
+            LocalDateTime dateTime = LocalDate.parse(day).atStartOfDay();
+            baseRange.put(SyncPartitionUtils.getMVPartitionName(dateTime, dateTime.plusDays(1), "day"),
+                    SyncPartitionUtils.mappingDayRange(dateTime));
+        }
+        Range<PartitionKey> dayRange = baseRange.get("p20200531_20200601");
+        Assert.assertEquals("2020-05-31", dayRange.lowerEndpoint().getKeys().get(0).getStringValue());
+        Assert.assertEquals("2020-06-01", dayRange.upperEndpoint().getKeys().get(0).getStringValue());
+
+        PartitionDiff diff = SyncPartitionUtils.calcSyncRollupPartition(baseRange, Maps.newHashMap(),
+                "month", PrimitiveType.DATE);
+        Map<String, Range<PartitionKey>> adds = diff.getAdds();
+        Assert.assertEquals(2, adds.size());
+        Assert.assertEquals("2020-05-01", adds.get("p202005_202006").lowerEndpoint().getKeys().get(0).getStringValue());
+        Assert.assertEquals("2020-07-01", adds.get("p202006_202007").upperEndpoint().getKeys().get(0).getStringValue());
+        Map<String, Set<String>> mvToBaseNameRef = SyncPartitionUtils.generatePartitionRefMap(adds, baseRange);
+        Assert.assertEquals(Sets.newHashSet("p20200503_20200504", "p20200531_20200601"),
+                mvToBaseNameRef.get("p202005_202006"));
+    }
 }
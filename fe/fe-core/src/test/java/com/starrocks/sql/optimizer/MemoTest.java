@@ -16,6 +16,7 @@ import mockit.Mocked;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MemoTest {
     @Test
@@ -97,4 +98,47 @@ public class MemoTest {
         assertEquals(memo.getGroups().get(3).getPhysicalExpressions().size(), 0);
     }
 
+    @Test
+    public void testMergeGroup(@Mocked OlapTable olapTable1,
+                               @Mocked OlapTable olapTable2) {
+        new Expectations() {
+            {
+                olapTable1.getId();
+                result = 0;
+                minTimes = 0;
+
+                olapTable2.getId();
+                result = 1;
+                minTimes = 0;
+            }
+        };
+
+        OptExpression expr = OptExpression.create(new LogicalProjectOperator(Maps.newHashMap()),
+                OptExpression.create(new LogicalJoinOperator(),
+                        OptExpression.create(new LogicalOlapScanOperator(olapTable1)),
+                        OptExpression.create(new LogicalOlapScanOperator(olapTable2))));
+
+        Memo memo = new Memo();
+        GroupExpression root = memo.init(expr);
+        GroupExpression join = root.inputAt(0).getFirstLogicalExpression();
+        // the cached hash of the join is computed with the old input groups
+        assertEquals(join, memo.getGroupExpressions().get(join));
+
+        // the scan of table1 is inserted into the group of table2, the two groups are merged
+        Group leftGroup = join.inputAt(0);
+        Group rightGroup = join.inputAt(1);
+        memo.insertGroupExpression(
+                new GroupExpression(new LogicalOlapScanOperator(olapTable1), Lists.newArrayList()), rightGroup);
+
+        assertEquals(memo.getGroups().size(), 3);
+        assertEquals(join.inputAt(0), rightGroup);
+        assertEquals(join.inputAt(1), rightGroup);
+        // the join is reinserted with the new input groups and could be found by an equal group expression
+        GroupExpression newJoin =
+                new GroupExpression(new LogicalJoinOperator(), Lists.newArrayList(rightGroup, rightGroup));
+        assertEquals(join, memo.getGroupExpressions().get(newJoin));
+        GroupExpression oldJoin =
+                new GroupExpression(new LogicalJoinOperator(), Lists.newArrayList(leftGroup, rightGroup));
+        assertNull(memo.getGroupExpressions().get(oldJoin));
+    }
 }
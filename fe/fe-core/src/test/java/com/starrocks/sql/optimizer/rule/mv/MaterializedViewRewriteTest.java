@@ -0,0 +1,142 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.optimizer.rule.mv;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.common.Config;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.plan.PlanTestBase;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class MaterializedViewRewriteTest extends PlanTestBase {
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        Config.enable_experimental_mv = true;
+        starRocksAssert.withTable("CREATE TABLE mv_base_1 (\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ") DUPLICATE KEY(k1)\n" +
+                        "PARTITION BY RANGE(k1) (\n" +
+                        "    PARTITION p1 values less than('2022-02-01'),\n" +
+                        "    PARTITION p2 values less than('2022-03-01')\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withTable("CREATE TABLE mv_base_2 (\n" +
+                        "    k2 int,\n" +
+                        "    v2 int\n" +
+                        ") DUPLICATE KEY(k2)\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withNewMaterializedView("create materialized view agg_mv\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select k1, k2, sum(v1) as sum_v1, count(v1) as count_v1 from mv_base_1 group by k1, k2;")
+                .withNewMaterializedView("create materialized view join_mv\n" +
+                        "distributed by hash(k2)\n" +
+                        "refresh manual\n" +
+                        "properties('replication_num' = '1')\n" +
+                        "as select mv_base_1.k1, mv_base_1.k2, mv_base_1.v1, mv_base_2.v2 from mv_base_1 " +
+                        "join mv_base_2 on mv_base_1.k2 = mv_base_2.k2 where mv_base_1.v1 > 10;");
+
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        setTableStatistics((OlapTable) db.getTable("mv_base_1"), 1000000);
+        setTableStatistics((OlapTable) db.getTable("mv_base_2"), 1000000);
+        setTableStatistics((OlapTable) db.getTable("agg_mv"), 100);
+        setTableStatistics((OlapTable) db.getTable("join_mv"), 100);
+        refresh("agg_mv", "mv_base_1");
+        refresh("join_mv", "mv_base_1", "mv_base_2");
+        connectContext.getSessionVariable().setEnableMaterializedViewRewrite(true);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        connectContext.getSessionVariable().setEnableMaterializedViewRewrite(false);
+    }
+
+    // mark the materialized view refreshed with the current versions of the base tables
+    private static void refresh(String mvName, String... baseTableNames) {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        MaterializedView mv = (MaterializedView) db.getTable(mvName);
+        Map<Long, Map<String, MaterializedView.BasePartitionInfo>> versionMap =
+                mv.getRefreshScheme().getAsyncRefreshContext().getBaseTableVisibleVersionMap();
+        for (String baseTableName : baseTableNames) {
+            OlapTable baseTable = (OlapTable) db.getTable(baseTableName);
+            Map<String, MaterializedView.BasePartitionInfo> partitionInfos = Maps.newHashMap();
+            for (Partition partition : baseTable.getPartitions()) {
+                partitionInfos.put(partition.getName(),
+                        new MaterializedView.BasePartitionInfo(partition.getId(), partition.getVisibleVersion()));
+            }
+            versionMap.put(baseTable.getId(), partitionInfos);
+        }
+    }
+
+    @Test
+    public void testAggregateRewrite() throws Exception {
+        // the same grouping keys
+        String plan = getFragmentPlan("select k1, k2, count(v1) from mv_base_1 group by k1, k2");
+        Assert.assertTrue(plan, plan.contains("TABLE: agg_mv"));
+        Assert.assertFalse(plan, plan.contains("AGGREGATE"));
+
+        // roll up by the subset of the grouping keys with the compensation predicate
+        plan = getFragmentPlan("select k1, sum(v1), count(v1) from mv_base_1 where k2 = 1 group by k1");
+        Assert.assertTrue(plan, plan.contains("TABLE: agg_mv"));
+        Assert.assertTrue(plan, plan.contains("AGGREGATE"));
+
+        // count can't be rolled up without grouping keys
+        plan = getFragmentPlan("select count(v1) from mv_base_1");
+        Assert.assertFalse(plan, plan.contains("TABLE: agg_mv"));
+
+        // the aggregate function is not in the view
+        plan = getFragmentPlan("select k1, max(v1) from mv_base_1 group by k1");
+        Assert.assertFalse(plan, plan.contains("TABLE: agg_mv"));
+    }
+
+    @Test
+    public void testJoinRewrite() throws Exception {
+        String plan = getFragmentPlan("select mv_base_1.k1, v2 from mv_base_1 join mv_base_2 " +
+                "on mv_base_1.k2 = mv_base_2.k2 where v1 > 20");
+        Assert.assertTrue(plan, plan.contains("TABLE: join_mv"));
+
+        // the aggregation on the view
+        plan = getFragmentPlan("select mv_base_1.k2, sum(v2) from mv_base_1 join mv_base_2 " +
+                "on mv_base_1.k2 = mv_base_2.k2 where v1 > 10 group by mv_base_1.k2");
+        Assert.assertTrue(plan, plan.contains("TABLE: join_mv"));
+
+        // the view doesn't contain the rows of v1 <= 10
+        plan = getFragmentPlan("select mv_base_1.k1, v2 from mv_base_1 join mv_base_2 " +
+                "on mv_base_1.k2 = mv_base_2.k2 where v1 > 5");
+        Assert.assertFalse(plan, plan.contains("TABLE: join_mv"));
+
+        // the outer join is not rewritten
+        plan = getFragmentPlan("select mv_base_1.k1, v2 from mv_base_1 left join mv_base_2 " +
+                "on mv_base_1.k2 = mv_base_2.k2 where v1 > 20");
+        Assert.assertFalse(plan, plan.contains("TABLE: join_mv"));
+    }
+
+    @Test
+    public void testStaleMaterializedView() throws Exception {
+        Database db = GlobalStateMgr.getCurrentState().getDb("test");
+        Partition partition = ((OlapTable) db.getTable("mv_base_1")).getPartition("p1");
+        long version = partition.getVisibleVersion();
+        partition.setVisibleVersion(version + 1, System.currentTimeMillis());
+        try {
+            String plan = getFragmentPlan("select k1, k2, count(v1) from mv_base_1 group by k1, k2");
+            Assert.assertFalse(plan, plan.contains("TABLE: agg_mv"));
+        } finally {
+            partition.setVisibleVersion(version, System.currentTimeMillis());
+        }
+    }
+}
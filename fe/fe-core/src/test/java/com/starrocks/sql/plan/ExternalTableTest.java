@@ -9,6 +9,7 @@ import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.common.FeConstants;
 import com.starrocks.server.GlobalStateMgr;
 import org.junit.Assert;
 import org.junit.Test;
@@ -176,6 +177,39 @@ public class ExternalTableTest extends PlanTestBase {
                         "     QUERY: SELECT a, b FROM `test_table`"));
     }
 
+    @Test
+    public void testJDBCTableSplitScan() throws Exception {
+        FeConstants.runningUnitTest = true;
+        starRocksAssert.withTable("create external table test.jdbc_split_test\n" +
+                "(a int, b varchar(20), c date)\n" +
+                "ENGINE=jdbc\n" +
+                "PROPERTIES (\n" +
+                "\"resource\"=\"jdbc_test\",\n" +
+                "\"table\"=\"test_split_table\",\n" +
+                "\"split_column\"=\"a\",\n" +
+                "\"split_num\"=\"4\",\n" +
+                "\"split_lower_bound\"=\"0\",\n" +
+                "\"split_upper_bound\"=\"100\"\n" +
+                ");");
+        FeConstants.runningUnitTest = false;
+
+        String sql = "select b, sum(a) from test.jdbc_split_test where a > 10 group by b";
+        String plan = getVerboseExplain(sql);
+        Assert.assertTrue(plan, plan.contains("SPLITS: 4\n" +
+                "       a < 25 OR a IS NULL\n" +
+                "       a >= 25 AND a < 50\n" +
+                "       a >= 50 AND a < 75\n" +
+                "       a >= 75\n"));
+        plan = getFragmentPlan(sql);
+        Assert.assertTrue(plan, plan.contains("  PARTITION: RANDOM\n\n" +
+                "  STREAM DATA SINK"));
+
+        // a limited scan is cheap, keep it on one connection
+        sql = "select * from test.jdbc_split_test limit 10";
+        plan = getFragmentPlan(sql);
+        Assert.assertFalse(plan, plan.contains("SPLITS"));
+    }
+
     @Test
     public void testMysqlTableWithPredicate() throws Exception {
         String sql = "select max(order_dt) over (partition by order_no) from ods_order where order_no > 1";
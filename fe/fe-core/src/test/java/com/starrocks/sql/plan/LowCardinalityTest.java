@@ -13,6 +13,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class LowCardinalityTest extends PlanTestBase {
     @BeforeClass
@@ -1004,6 +1005,46 @@ public class LowCardinalityTest extends PlanTestBase {
         Assert.assertTrue(plan.contains("  |  order by: [20, INT, false] ASC, [2, INT, false] ASC"));
     }
 
+    @Test
+    public void testJoinOnDictColumns() throws Exception {
+        Pattern dictJoinKeys = Pattern.compile(
+                "equal join conjunct: \\[\\d+: S_ADDRESS, INT, (true|false)] = \\[\\d+: S_ADDRESS, INT, (true|false)]");
+        // both sides have the same global dict, the join keys are compared by the dict ids
+        String sql = "select l.S_SUPPKEY, r.S_ADDRESS from supplier l " +
+                "join [broadcast] supplier_nullable r on l.S_ADDRESS = r.S_ADDRESS";
+        String plan = getVerboseExplain(sql);
+        Assert.assertTrue(plan, dictJoinKeys.matcher(plan).find());
+        Assert.assertTrue(plan, plan.contains("Decode"));
+
+        // the shuffle join hashes the join keys of both sides, which are kept as strings
+        sql = "select l.S_SUPPKEY, r.S_ADDRESS from supplier l " +
+                "join [shuffle] supplier_nullable r on l.S_ADDRESS = r.S_ADDRESS";
+        plan = getVerboseExplain(sql);
+        Assert.assertFalse(plan, dictJoinKeys.matcher(plan).find());
+        Assert.assertFalse(plan, plan.contains("Decode"));
+
+        // the join keys with the other expressions are compared by the strings
+        sql = "select l.S_SUPPKEY, r.S_ADDRESS from supplier l " +
+                "join [broadcast] supplier_nullable r on upper(l.S_ADDRESS) = r.S_ADDRESS";
+        plan = getVerboseExplain(sql);
+        Assert.assertFalse(plan, dictJoinKeys.matcher(plan).find());
+    }
+
+    @Test
+    public void testAnalyticOnDictColumns() throws Exception {
+        // the dict column in partition by is passed through the window and decoded after it
+        String sql = "select S_ADDRESS, rank() over (partition by S_ADDRESS order by S_NATIONKEY) from supplier";
+        String plan = getVerboseExplain(sql);
+        Assert.assertTrue(plan, Pattern.compile("partition by: \\[\\d+: S_ADDRESS, INT, (true|false)]")
+                .matcher(plan).find());
+        Assert.assertTrue(plan, plan.contains("Decode"));
+
+        // the analytic function computes on the strings
+        sql = "select S_NATIONKEY, min(S_ADDRESS) over (partition by S_NATIONKEY) from supplier";
+        plan = getVerboseExplain(sql);
+        Assert.assertFalse(plan, plan.contains("S_ADDRESS, INT"));
+    }
+
     @Test
     public void testProjectionPredicate() throws Exception {
         String sql = "select count(t.a) from(select S_ADDRESS in ('kks', 'kks2') as a from supplier) as t";
@@ -416,6 +416,55 @@ public class MultiJoinReorderTest extends PlanTestBase {
                 "  |  equal join conjunct: 4: v10 = 1: v4\n"));
     }
 
+    @Test
+    public void testInnerJoinReorderDPhyp() throws Exception {
+        connectContext.getSessionVariable().disableDPJoinReorder();
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+        connectContext.getSessionVariable().enableDPhypJoinReorder();
+        try {
+            String sql = "select * from t1 " +
+                    "join t3 on t1.v4 = t3.v10 " +
+                    "join t0 on t1.v4 = t0.v2 " +
+                    "join t2 on t1.v5 = t2.v8 ";
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertTrue(planFragment, planFragment.contains("  3:OlapScanNode\n" +
+                    "     TABLE: t0"));
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+        } finally {
+            connectContext.getSessionVariable().enableDPJoinReorder();
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+            connectContext.getSessionVariable().disableDPhypJoinReorder();
+        }
+    }
+
+    @Test
+    public void testNonInnerJoinReorderDPhyp() throws Exception {
+        connectContext.getSessionVariable().enableDPhypJoinReorder();
+        try {
+            // the left join is reordered with the inner joins
+            String sql = "select * from t3 " +
+                    "left join t0 on t3.v10 = t0.v1 " +
+                    "join t1 on t3.v11 = t1.v4 " +
+                    "join t2 on t1.v5 = t2.v7";
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertTrue(planFragment, planFragment.contains("OUTER JOIN"));
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+
+            // the right table of left join is joined after the referenced table of on predicate
+            sql = "select * from t3 " +
+                    "join t1 on t3.v11 = t1.v4 " +
+                    "left join t0 on t1.v5 = t0.v1 " +
+                    "left anti join t2 on t0.v2 = t2.v7 " +
+                    "join t1 as t4 on t3.v12 = t4.v6";
+            planFragment = getFragmentPlan(sql);
+            Assert.assertTrue(planFragment, planFragment.contains("OUTER JOIN"));
+            Assert.assertTrue(planFragment, planFragment.contains("ANTI JOIN"));
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+        } finally {
+            connectContext.getSessionVariable().disableDPhypJoinReorder();
+        }
+    }
+
     @Test
     public void testOutputConstant() throws Exception {
         String sql = "select v from (select v1, 2 as v, 3 from t0 inner join t1 on v2 = v4) t,t2;";
@@ -117,4 +117,33 @@ public class PartitionPruneTest extends PlanTestBase {
                 "     partitions=4/4\n" +
                 "     rollup: ptest"));
     }
+
+    @Test
+    public void testMonotonicFunctionPrune() throws Exception {
+        // all the 4 partitions were scanned without pruning by the monotonic functions
+        String plan = getFragmentPlan("select * from ptest where date_trunc('month', d2) = '2020-05-01'");
+        assertTrue(plan, plan.contains("partitions=1/4"));
+
+        plan = getFragmentPlan("select * from ptest where d2 + interval 1 month >= '2020-08-01'");
+        assertTrue(plan, plan.contains("partitions=2/4"));
+
+        plan = getFragmentPlan("select * from ptest where year(d2) = 2019");
+        assertTrue(plan, plan.contains("partitions=1/4"));
+
+        plan = getFragmentPlan("select * from ptest where date_trunc('month', d2) in ('2020-02-01', '2020-03-01')");
+        assertTrue(plan, plan.contains("partitions=1/4"));
+
+        plan = getFragmentPlan("select * from ptest where cast(d2 as datetime) < '2020-01-01 00:00:00' " +
+                "or date_trunc('month', d2) = '2020-05-01'");
+        assertTrue(plan, plan.contains("partitions=2/4"));
+    }
+
+    @Test
+    public void testNonMonotonicFunctionNotPrune() throws Exception {
+        String plan = getFragmentPlan("select * from ptest where date_format(d2, '%m') = '05'");
+        assertTrue(plan, plan.contains("partitions=4/4"));
+
+        plan = getFragmentPlan("select * from ptest where date_trunc('month', d2) != '2020-05-01'");
+        assertTrue(plan, plan.contains("partitions=4/4"));
+    }
 }
@@ -0,0 +1,82 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.common.FeConstants;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class PushDownAggregateThroughJoinTest extends DistributedEnvPlanTestBase {
+    // the aggregation of lineitem by the join key below the join
+    private static final Pattern PUSHED_DOWN_AGGREGATE = Pattern.compile("group by: \\d+: L_SUPPKEY\n");
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        DistributedEnvPlanTestBase.beforeClass();
+        FeConstants.runningUnitTest = true;
+    }
+
+    @Before
+    public void before() {
+        connectContext.getSessionVariable().setCboPushDownAggregateThroughJoin(true);
+    }
+
+    @After
+    public void after() {
+        connectContext.getSessionVariable().setCboPushDownAggregateThroughJoin(false);
+    }
+
+    private static boolean isPushedDown(String plan) {
+        return PUSHED_DOWN_AGGREGATE.matcher(plan).find();
+    }
+
+    @Test
+    public void testPushDownThroughInnerJoin() throws Exception {
+        String sql = "select s_nationkey, sum(l_extendedprice), count(*), min(l_shipdate), max(l_quantity) " +
+                "from lineitem join supplier on l_suppkey = s_suppkey group by s_nationkey";
+        String plan = getFragmentPlan(sql);
+        Assert.assertTrue(plan, isPushedDown(plan));
+
+        connectContext.getSessionVariable().setCboPushDownAggregateThroughJoin(false);
+        plan = getFragmentPlan(sql);
+        Assert.assertFalse(plan, isPushedDown(plan));
+    }
+
+    @Test
+    public void testPushDownExpressionAndAverage() throws Exception {
+        String plan = getFragmentPlan("select s_nationkey, avg(l_quantity), sum(l_extendedprice * l_discount) " +
+                "from lineitem join supplier on l_suppkey = s_suppkey group by s_nationkey");
+        Assert.assertTrue(plan, isPushedDown(plan));
+        assertContains(plan, " / ");
+    }
+
+    @Test
+    public void testPushDownThroughLeftJoin() throws Exception {
+        String plan = getFragmentPlan("select s_nationkey, sum(l_extendedprice) " +
+                "from lineitem left join supplier on l_suppkey = s_suppkey group by s_nationkey");
+        Assert.assertTrue(plan, isPushedDown(plan));
+
+        // the rows of the null-supplying side aren't aggregated before joining
+        plan = getFragmentPlan("select s_nationkey, sum(l_extendedprice) " +
+                "from supplier left join lineitem on l_suppkey = s_suppkey group by s_nationkey");
+        Assert.assertFalse(plan, isPushedDown(plan));
+    }
+
+    @Test
+    public void testNotPushDown() throws Exception {
+        // the aggregate function uses the columns of both sides
+        String plan = getFragmentPlan("select s_nationkey, sum(l_extendedprice * s_acctbal) " +
+                "from lineitem join supplier on l_suppkey = s_suppkey group by s_nationkey");
+        Assert.assertFalse(plan, isPushedDown(plan));
+
+        // the distinct aggregation can't be merged
+        plan = getFragmentPlan("select s_nationkey, count(distinct l_partkey) " +
+                "from lineitem join supplier on l_suppkey = s_suppkey group by s_nationkey");
+        Assert.assertFalse(plan, isPushedDown(plan));
+    }
+}
@@ -0,0 +1,86 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.starrocks.load.loadv2.etl.EtlJobConfig;
+import org.apache.spark.unsafe.hash.Murmur3_x86_32;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All buckets of the partitions of a table, every bucket is written into one file by one spark task.
+ *
+ * The buckets are numbered by their partitions in order. The spark partition of a row is decided by
+ * the murmur3 hash of its bucket hash key, which is chosen for every bucket number so that the bucket
+ * is hashed into the spark partition with the same number. So a hash repartition by the bucket hash keys
+ * puts every bucket into its own spark partition, like the bucket partitioner of the rdd did.
+ */
+public class DppBuckets implements Serializable {
+    // seed of the murmur3 hash of spark hash partitioning
+    private static final int SPARK_HASH_SEED = 42;
+
+    private final long[] partitionIds;
+    private final int[] bucketIds;
+    private final int[] hashKeys;
+    // partition id => number of the first bucket of the partition
+    private final Map<Long, Integer> partitionBucketOffsets = new HashMap<>();
+
+    public DppBuckets(List<EtlJobConfig.EtlPartition> partitions) {
+        int bucketNum = 0;
+        for (EtlJobConfig.EtlPartition partition : partitions) {
+            partitionBucketOffsets.put(partition.partitionId, bucketNum);
+            bucketNum += partition.bucketNum;
+        }
+        partitionIds = new long[bucketNum];
+        bucketIds = new int[bucketNum];
+        int index = 0;
+        for (EtlJobConfig.EtlPartition partition : partitions) {
+            for (int i = 0; i < partition.bucketNum; i++) {
+                partitionIds[index] = partition.partitionId;
+                bucketIds[index] = i;
+                index++;
+            }
+        }
+        hashKeys = createHashKeys(bucketNum);
+    }
+
+    // the smallest distinct non-negative integers whose hash partitions are the bucket numbers
+    static int[] createHashKeys(int bucketNum) {
+        int[] keys = new int[bucketNum];
+        boolean[] found = new boolean[bucketNum];
+        int foundNum = 0;
+        for (int key = 0; foundNum < bucketNum; key++) {
+            int partition = Math.floorMod(Murmur3_x86_32.hashInt(key, SPARK_HASH_SEED), bucketNum);
+            if (!found[partition]) {
+                found[partition] = true;
+                keys[partition] = key;
+                foundNum++;
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return partitionIds.length;
+    }
+
+    public int getHashKey(long partitionId, int bucketId) {
+        return hashKeys[partitionBucketOffsets.get(partitionId) + bucketId];
+    }
+
+    public long getPartitionId(int bucket) {
+        return partitionIds[bucket];
+    }
+
+    public int getBucketId(int bucket) {
+        return bucketIds[bucket];
+    }
+
+    @Override
+    public String toString() {
+        return "DppBuckets{bucketNum=" + size() + ", partitionBucketOffsets=" + partitionBucketOffsets + "}";
+    }
+}
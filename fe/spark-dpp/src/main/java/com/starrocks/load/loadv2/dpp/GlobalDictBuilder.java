@@ -21,14 +21,18 @@ import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.Function;
 import org.apache.spark.sql.AnalysisException;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalog.Column;
 import org.apache.spark.sql.types.DataTypes;
-import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
+import scala.Tuple2;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -59,12 +63,21 @@ import java.util.stream.Collectors;
  * GlobalDictBuilder.buildGlobalDict()
  * step4, encode intermediate hive table with global dict
  * GlobalDictBuilder.encodeStarRocksIntermediateHiveTable()
+ * <p>
+ * The global dict is built incrementally. Only the distinct values not in the dict are assigned new dict values,
+ * and they are appended into the dict table as new files, instead of rewriting the whole dict in every load.
+ * The new values are hash partitioned into splits and sorted in every split, so the dict values are assigned
+ * by all splits in parallel, and every new dict file is sorted by the dict key.
  */
 
 public class GlobalDictBuilder {
 
     protected static final Logger LOG = LogManager.getLogger(GlobalDictBuilder.class);
 
+    private static final StructType DICT_SCHEMA = DataTypes.createStructType(Arrays.asList(
+            DataTypes.createStructField("dict_key", DataTypes.StringType, false),
+            DataTypes.createStructField("dict_value", DataTypes.LongType, false)));
+
     // name of the column in starrocks table which need to build global dict
     // for example: some dict columns a,b,c
     // case 1: all dict columns has no relation, then the map is as below
@@ -103,8 +116,6 @@ public class GlobalDictBuilder {
 
     private ExecutorService pool;
 
-    private StructType distinctValueSchema;
-
     public GlobalDictBuilder(MultiValueMap dictColumn,
                              List<String> intermediateTableColumnList,
                              List<String> mapSideJoinColumns,
@@ -223,14 +234,12 @@ public class GlobalDictBuilder {
                             distinctColumnNameTmp));
                 }
 
+                int splitNum = 0;
                 if (veryHighCardinalityColumn.contains(distinctColumnNameTmp) &&
                         veryHighCardinalityColumnSplitNum > 1) {
-                    // split distinct key first and then encode with count
-                    buildGlobalDictBySplit(maxDictValue, distinctColumnNameTmp);
-                } else {
-                    // build global dict directly
-                    spark.sql(getBuildGlobalDictSql(maxDictValue, distinctColumnNameTmp));
+                    splitNum = veryHighCardinalityColumnSplitNum;
                 }
+                appendGlobalDict(maxDictValue, distinctColumnNameTmp, splitNum);
 
             });
         }
@@ -302,81 +311,56 @@ public class GlobalDictBuilder {
                 " where dict_column='" + distinctColumnName + "'";
     }
 
-    private void buildGlobalDictBySplit(long maxGlobalDictValue, String distinctColumnName) {
-        // 1. get distinct value
-        Dataset<Row> newDistinctValue = spark.sql(getNewDistinctValue(distinctColumnName));
-
-        // 2. split the newDistinctValue to avoid window functions' single node bottleneck
-        Dataset<Row>[] splitedDistinctValue = newDistinctValue.randomSplit(getRandomSplitWeights());
-        long currentMaxDictValue = maxGlobalDictValue;
-        Map<String, Long> distinctKeyMap = new HashMap<>();
-
-        for (int i = 0; i < splitedDistinctValue.length; i++) {
-            long currentDatasetStartDictValue = currentMaxDictValue;
-            long splitDistinctValueCount = splitedDistinctValue[i].count();
-            currentMaxDictValue += splitDistinctValueCount;
-            String tmpDictTableName =
-                    String.format("%s_%s_tmp_dict_%s", i, currentDatasetStartDictValue, distinctColumnName);
-            distinctKeyMap.put(tmpDictTableName, currentDatasetStartDictValue);
-            Dataset<Row> distinctValueFrame =
-                    spark.createDataFrame(splitedDistinctValue[i].toJavaRDD(), getDistinctValueSchema());
-            distinctValueFrame.createOrReplaceTempView(tmpDictTableName);
-        }
-
-        spark.sql(getSplitBuildGlobalDictSql(distinctKeyMap, distinctColumnName));
-
-    }
-
-    private String getSplitBuildGlobalDictSql(Map<String, Long> distinctKeyMap, String distinctColumnName) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("insert overwrite table ").append(globalDictTableName).append(" partition(dict_column='")
-                .append(distinctColumnName).append("') ")
-                .append(" select dict_key,dict_value from ").append(globalDictTableName).append(" where dict_column='")
-                .append(distinctColumnName).append("' ");
-        for (Map.Entry<String, Long> entry : distinctKeyMap.entrySet()) {
-            sql.append(" union all select dict_key, (row_number() over(order by dict_key)) ")
-                    .append(String.format(" +(%s) as dict_value from %s", entry.getValue(), entry.getKey()));
+    // append the new distinct values of the column with their dict values into the global dict table
+    private void appendGlobalDict(long maxGlobalDictValue, String distinctColumnName, int splitNum) {
+        Dataset<Row> distinctKeys = spark.sql("select dict_key from " + distinctKeyTableName +
+                " where dict_column='" + distinctColumnName + "' and dict_key is not null");
+        Dataset<Row> globalDict = spark.sql("select dict_key, dict_value from " + globalDictTableName +
+                " where dict_column='" + distinctColumnName + "'");
+        Dataset<Row> newDistinctKeys = getNewDistinctKeys(distinctKeys, globalDict, splitNum)
+                .persist(StorageLevel.MEMORY_AND_DISK());
+        try {
+            Dataset<Row> newDictEntries = assignDictValues(spark, newDistinctKeys, maxGlobalDictValue);
+            String newDictViewName = String.format("%s_new_dict_%s", globalDictTableName, distinctColumnName);
+            newDictEntries.createOrReplaceTempView(newDictViewName);
+            // insert into only adds new files to the partition of the column, the old dict is not rewritten
+            spark.sql("insert into table " + globalDictTableName + " partition(dict_column='" +
+                    distinctColumnName + "') select dict_key, dict_value from " + newDictViewName);
+            spark.catalog().dropTempView(newDictViewName);
+        } finally {
+            newDistinctKeys.unpersist();
         }
-        return sql.toString();
     }
 
-    private StructType getDistinctValueSchema() {
-        if (distinctValueSchema == null) {
-            List<StructField> fieldList = new ArrayList<>();
-            fieldList.add(DataTypes.createStructField("dict_key", DataTypes.StringType, false));
-            distinctValueSchema = DataTypes.createStructType(fieldList);
+    /**
+     * Returns the distinct keys not in the global dict, which are hash partitioned into splitNum splits
+     * by the key if splitNum is positive, and sorted in every split.
+     */
+    public static Dataset<Row> getNewDistinctKeys(Dataset<Row> distinctKeys, Dataset<Row> globalDict, int splitNum) {
+        Dataset<Row> newDistinctKeys = distinctKeys.join(globalDict,
+                distinctKeys.col("dict_key").equalTo(globalDict.col("dict_key")), "left_anti");
+        if (splitNum > 0) {
+            newDistinctKeys = newDistinctKeys.repartition(splitNum, newDistinctKeys.col("dict_key"));
         }
-        return distinctValueSchema;
-    }
-
-    private double[] getRandomSplitWeights() {
-        double[] weights = new double[veryHighCardinalityColumnSplitNum];
-        double weight = 1 / Double.parseDouble(String.valueOf(veryHighCardinalityColumnSplitNum));
-        Arrays.fill(weights, weight);
-        return weights;
-    }
-
-    private String getBuildGlobalDictSql(long maxGlobalDictValue, String distinctColumnName) {
-        return "insert overwrite table " + globalDictTableName + " partition(dict_column='" + distinctColumnName + "') "
-                + " select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' "
-                + " union all select t1.dict_key as dict_key,(row_number() over(order by t1.dict_key)) + (" +
-                maxGlobalDictValue + ") as dict_value from "
-                + "(select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join "
-                + " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
+        return newDistinctKeys.sortWithinPartitions("dict_key");
     }
 
-    private String getNewDistinctValue(String distinctColumnName) {
-        return "select t1.dict_key from " +
-                " (select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join " +
-                " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
-
+    /**
+     * Assigns the dict values from maxGlobalDictValue + 1 to the new distinct keys. Every split is assigned
+     * a range of the dict values by the key number of the previous splits, and the keys of all splits are
+     * assigned in parallel in their order in the split, without the single partition window of row_number.
+     */
+    public static Dataset<Row> assignDictValues(SparkSession spark, Dataset<Row> newDistinctKeys,
+                                                long maxGlobalDictValue) {
+        JavaRDD<Row> newDictEntries = newDistinctKeys.toJavaRDD().zipWithIndex().map(
+                new Function<Tuple2<Row, Long>, Row>() {
+                    @Override
+                    public Row call(Tuple2<Row, Long> keyWithIndex) throws Exception {
+                        return RowFactory.create(keyWithIndex._1().getString(0),
+                                maxGlobalDictValue + 1 + keyWithIndex._2());
+                    }
+                });
+        return spark.createDataFrame(newDictEntries, DICT_SCHEMA);
     }
 
     private String getEncodeStarRocksIntermediateHiveTableSql(String dictColumn, List<String> childColumn) {
@@ -24,7 +24,6 @@ import com.google.gson.Gson;
 import com.starrocks.common.SparkDppException;
 import com.starrocks.load.loadv2.etl.EtlJobConfig;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
@@ -37,18 +36,17 @@ import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.spark.Partitioner;
 import org.apache.spark.TaskContext;
-import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.function.FlatMapFunction;
-import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.api.java.function.MapFunction;
 import org.apache.spark.api.java.function.VoidFunction;
+import org.apache.spark.rdd.RDD;
 import org.apache.spark.sql.Column;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.RowFactory;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalyst.InternalRow;
-import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder;
 import org.apache.spark.sql.catalyst.encoders.RowEncoder;
 import org.apache.spark.sql.execution.datasources.parquet.ParquetWriteSupport;
 import org.apache.spark.sql.functions;
@@ -59,7 +57,6 @@ import org.apache.spark.storage.StorageLevel;
 import org.apache.spark.util.LongAccumulator;
 import org.apache.spark.util.SerializableConfiguration;
 import org.apache.spark.util.SizeEstimator;
-import scala.Tuple2;
 import scala.collection.JavaConverters;
 
 import java.io.IOException;
@@ -71,6 +68,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -100,6 +98,8 @@ public final class SparkDpp implements java.io.Serializable {
     private static final String TABLE_LOAD_ROWS = "table_load_rows";
     private static final String TABLE_LOAD_BYTES = "table_load_bytes";
     private static final String TABLE_LOAD_FINISHED = "table_load_finished";
+    private static final String KEY_STRUCT = "__key__";
+    private static final String VALUE_STRUCT = "__value__";
     private SparkSession spark = null;
     private EtlJobConfig etlJobConfig = null;
     private LongAccumulator abnormalRowAcc = null;
@@ -108,7 +108,6 @@ public final class SparkDpp implements java.io.Serializable {
     private LongAccumulator fileNumberAcc = null;
     private LongAccumulator fileSizeAcc = null;
     private LongAccumulator loadEstimateSizeAcc = null;
-    private Map<String, Integer> bucketKeyMap = new HashMap<>();
     // table-level metrics
     private Map<Long, Map<String, LongAccumulator>> tableCounters = new HashMap<>();
     // accumulator to collect invalid rows
@@ -151,178 +150,148 @@ public final class SparkDpp implements java.io.Serializable {
         this.serializableHadoopConf = new SerializableConfiguration(spark.sparkContext().hadoopConfiguration());
     }
 
-    private JavaPairRDD<List<Object>, Object[]> processRDDAggregate(JavaPairRDD<List<Object>, Object[]> currentPairRDD,
-                                                                    RollupTreeNode curNode,
-                                                                    SparkRDDAggregator[] sparkRDDAggregators)
+    // aggregate the rows of the parent index into the rows of the index of curNode, the rows of both
+    // indexes are [bucket hash key, key columns, value columns].
+    private Dataset<Row> processAggregate(Dataset<Row> parentDataframe, RollupTreeNode curNode)
             throws SparkDppException {
         final boolean isDuplicateTable = !StringUtils.equalsIgnoreCase(curNode.indexMeta.indexType, "AGGREGATE")
                 && !StringUtils.equalsIgnoreCase(curNode.indexMeta.indexType, "UNIQUE");
 
-        // Aggregate/UNIQUE table
-        if (!isDuplicateTable) {
-            // TODO(wb) set the reduce concurrency by statistic instead of hard code 200
-            int aggregateConcurrency = 200;
-
-            int idx = 0;
-            for (int i = 0; i < curNode.indexMeta.columns.size(); i++) {
-                if (!curNode.indexMeta.columns.get(i).isKey) {
-                    sparkRDDAggregators[idx] = SparkRDDAggregator.buildAggregator(curNode.indexMeta.columns.get(i));
-                    idx++;
-                }
+        Dataset<Row> dataframe = parentDataframe;
+        if (!curNode.indexMeta.isBaseIndex) {
+            // select the columns of the rollup from the parent rollup by column names
+            List<Column> columns = new ArrayList<>();
+            columns.add(parentDataframe.col(DppUtils.BUCKET_ID));
+            for (String columnName : curNode.keyColumnNames) {
+                columns.add(parentDataframe.col(columnName));
             }
-
-            if (curNode.indexMeta.isBaseIndex) {
-                JavaPairRDD<List<Object>, Object[]> result =
-                        currentPairRDD.mapToPair(new EncodeBaseAggregateTableFunction(sparkRDDAggregators))
-                                .reduceByKey(new AggregateReduceFunction(sparkRDDAggregators), aggregateConcurrency);
-                return result;
-            } else {
-                JavaPairRDD<List<Object>, Object[]> result = currentPairRDD
-                        .mapToPair(new EncodeRollupAggregateTableFunction(
-                                getColumnIndexInParentRollup(curNode.keyColumnNames, curNode.valueColumnNames,
-                                        curNode.parent.keyColumnNames,
-                                        curNode.parent.valueColumnNames)))
-                        .reduceByKey(new AggregateReduceFunction(sparkRDDAggregators), aggregateConcurrency);
-                return result;
-            }
-            // Duplicate Table
-        } else {
-            int idx = 0;
-            for (int i = 0; i < curNode.indexMeta.columns.size(); i++) {
-                if (!curNode.indexMeta.columns.get(i).isKey) {
-                    // duplicate table doesn't need aggregator
-                    // init a aggregator here just for keeping interface compatibility when writing data to HDFS
-                    sparkRDDAggregators[idx] = new DefaultSparkRDDAggregator();
-                    idx++;
-                }
-            }
-            if (curNode.indexMeta.isBaseIndex) {
-                return currentPairRDD;
-            } else {
-                return currentPairRDD.mapToPair(new EncodeRollupAggregateTableFunction(
-                        getColumnIndexInParentRollup(curNode.keyColumnNames, curNode.valueColumnNames,
-                                curNode.parent.keyColumnNames, curNode.parent.valueColumnNames)));
+            for (String columnName : curNode.valueColumnNames) {
+                columns.add(parentDataframe.col(columnName));
             }
+            dataframe = parentDataframe.select(columns.toArray(new Column[0]));
         }
+        // Duplicate Table
+        if (isDuplicateTable) {
+            return dataframe;
+        }
+
+        // Aggregate/UNIQUE table
+        int keyColumnNum = curNode.keyColumnNames.size() + 1;
+        SparkRDDAggregator[] valueAggregators = new SparkRDDAggregator[curNode.valueColumnNames.size()];
+        List<StructField> valueFields = new ArrayList<>();
+        for (int i = 0; i < curNode.valueColumnNames.size(); i++) {
+            EtlJobConfig.EtlColumn column = curNode.indexMeta.getColumn(curNode.valueColumnNames.get(i));
+            valueAggregators[i] = SparkRDDAggregator.buildAggregator(column);
+            valueFields.add(DataTypes.createStructField(column.columnName,
+                    DppUtils.getDataTypeFromColumn(column, true), true));
+        }
+        StructType keySchema = new StructType(Arrays.copyOfRange(dataframe.schema().fields(), 0, keyColumnNum));
+        StructType valueSchema = DataTypes.createStructType(valueFields);
+
+        return dataframe.groupByKey(new MapFunction<Row, Row>() {
+                    @Override
+                    public Row call(Row row) throws Exception {
+                        Object[] keys = new Object[keyColumnNum];
+                        for (int i = 0; i < keyColumnNum; i++) {
+                            keys[i] = row.get(i);
+                        }
+                        return RowFactory.create(keys);
+                    }
+                }, RowEncoder.apply(keySchema))
+                .agg(new SparkRowAggregator(valueAggregators, keyColumnNum, valueSchema).toColumn())
+                .toDF(KEY_STRUCT, VALUE_STRUCT)
+                .select(functions.col(KEY_STRUCT + ".*"), functions.col(VALUE_STRUCT + ".*"));
     }
 
     // write data to parquet file by using writing the parquet scheme of spark.
-    private void writeRepartitionAndSortedRDDToParquet(JavaPairRDD<List<Object>, Object[]> resultRDD,
-                                                       String pathPattern,
-                                                       long tableId,
-                                                       EtlJobConfig.EtlIndex indexMeta,
-                                                       SparkRDDAggregator[] sparkRDDAggregators)
+    private void writeRepartitionAndSortedDataframeToParquet(Dataset<Row> dataframe,
+                                                             String pathPattern,
+                                                             long tableId,
+                                                             EtlJobConfig.EtlIndex indexMeta,
+                                                             List<String> keyColumnNames,
+                                                             DppBuckets buckets)
             throws SparkDppException {
         // TODO(wb) should deal largint as BigInteger instead of string when using biginteger as key,
         // data type may affect sorting logic
         StructType dstSchema = DppUtils.createDstTableSchema(indexMeta.columns, false, true);
-        ExpressionEncoder encoder = RowEncoder.apply(dstSchema);
-
-        resultRDD.repartitionAndSortWithinPartitions(new BucketPartitioner(bucketKeyMap), new BucketComparator())
-                .foreachPartition(new VoidFunction<Iterator<Tuple2<List<Object>, Object[]>>>() {
-                    @Override
-                    public void call(Iterator<Tuple2<List<Object>, Object[]>> t) throws Exception {
-                        // write the data to dst file
-                        Configuration conf = new Configuration(serializableHadoopConf.value());
-                        FileSystem fs = FileSystem.get(URI.create(etlJobConfig.outputPath), conf);
-                        String lastBucketKey = null;
-                        ParquetWriter<InternalRow> parquetWriter = null;
-                        TaskContext taskContext = TaskContext.get();
-                        long taskAttemptId = taskContext.taskAttemptId();
-                        String dstPath = "";
-                        String tmpPath = "";
-
-                        while (t.hasNext()) {
-                            Tuple2<List<Object>, Object[]> pair = t.next();
-                            List<Object> keyColumns = pair._1();
-                            Object[] valueColumns = pair._2();
-                            if ((keyColumns.size() + valueColumns.length) <= 1) {
-                                LOG.warn("invalid row:" + pair);
-                                continue;
-                            }
-
-                            String curBucketKey = keyColumns.get(0).toString();
-                            List<Object> columnObjects = new ArrayList<>();
-                            for (int i = 1; i < keyColumns.size(); ++i) {
-                                columnObjects.add(keyColumns.get(i));
-                            }
-                            for (int i = 0; i < valueColumns.length; ++i) {
-                                columnObjects.add(sparkRDDAggregators[i].finalize(valueColumns[i]));
-                            }
-
-                            Row rowWithoutBucketKey = RowFactory.create(columnObjects.toArray());
-                            // if the bucket key is new, it will belong to a new tablet
-                            if (lastBucketKey == null || !curBucketKey.equals(lastBucketKey)) {
-                                if (parquetWriter != null) {
-                                    parquetWriter.close();
-                                    // rename tmpPath to path
-                                    try {
-                                        fs.rename(new Path(tmpPath), new Path(dstPath));
-                                    } catch (IOException ioe) {
-                                        LOG.warn("rename from tmpPath" + tmpPath + " to dstPath:" + dstPath +
-                                                " failed. exception:" + ioe);
-                                        throw ioe;
-                                    }
-                                }
-                                // flush current writer and create a new writer
-                                String[] bucketKey = curBucketKey.split("_");
-                                if (bucketKey.length != 2) {
-                                    LOG.warn("invalid bucket key:" + curBucketKey);
-                                    continue;
-                                }
-                                int partitionId = Integer.parseInt(bucketKey[0]);
-                                int bucketId = Integer.parseInt(bucketKey[1]);
-                                dstPath = String.format(pathPattern, tableId, partitionId, indexMeta.indexId,
-                                        bucketId, indexMeta.schemaHash);
-                                tmpPath = dstPath + "." + taskAttemptId;
-                                conf.setBoolean("spark.sql.parquet.writeLegacyFormat", false);
-                                conf.setBoolean("spark.sql.parquet.int64AsTimestampMillis", false);
-                                conf.setBoolean("spark.sql.parquet.int96AsTimestamp", true);
-                                conf.setBoolean("spark.sql.parquet.binaryAsString", false);
-                                conf.set("spark.sql.parquet.outputTimestampType", "INT96");
-                                ParquetWriteSupport.setSchema(dstSchema, conf);
-                                ParquetWriteSupport parquetWriteSupport = new ParquetWriteSupport();
-                                parquetWriter = new ParquetWriter<InternalRow>(new Path(tmpPath), parquetWriteSupport,
-                                        CompressionCodecName.SNAPPY,
-                                        256 * 1024 * 1024, 16 * 1024,
-                                        1024 * 1024,
-                                        true, false,
-                                        ParquetProperties.WriterVersion.PARQUET_1_0,
-                                        conf);
-                                if (parquetWriter != null) {
-                                    LOG.info("[HdfsOperate]>> initialize writer succeed! path:" + tmpPath);
-                                }
-                                lastBucketKey = curBucketKey;
-                            }
-                            InternalRow internalRow = encoder.toRow(rowWithoutBucketKey);
-                            parquetWriter.write(internalRow);
-                        }
-                        if (parquetWriter != null) {
-                            parquetWriter.close();
-                            try {
-                                fs.rename(new Path(tmpPath), new Path(dstPath));
-                            } catch (IOException ioe) {
-                                LOG.warn("rename from tmpPath" + tmpPath + " to dstPath:" + dstPath +
-                                        " failed. exception:" + ioe);
-                                throw ioe;
-                            }
-                        }
+        List<Column> sortColumns = new ArrayList<>();
+        for (String columnName : keyColumnNames) {
+            sortColumns.add(dataframe.col(columnName));
+        }
+        List<Column> dstColumns = new ArrayList<>();
+        for (StructField field : dstSchema.fields()) {
+            dstColumns.add(dataframe.col(field.name()).cast(field.dataType()));
+        }
+        // every bucket is repartitioned into the spark partition with the same number by its hash key,
+        // and the rows are written in binary format without converting to java objects
+        RDD<InternalRow> rows = dataframe.repartition(buckets.size(), dataframe.col(DppUtils.BUCKET_ID))
+                .sortWithinPartitions(sortColumns.toArray(new Column[0]))
+                .select(dstColumns.toArray(new Column[0]))
+                .queryExecution().toRdd();
+        if (rows.getNumPartitions() != buckets.size()) {
+            throw new SparkDppException(String.format("partition number %d is not equal to bucket number %d",
+                    rows.getNumPartitions(), buckets.size()));
+        }
 
-                    }
-                });
+        rows.toJavaRDD().foreachPartition(new VoidFunction<Iterator<InternalRow>>() {
+            @Override
+            public void call(Iterator<InternalRow> t) throws Exception {
+                if (!t.hasNext()) {
+                    return;
+                }
+                // write the data to dst file
+                Configuration conf = new Configuration(serializableHadoopConf.value());
+                FileSystem fs = FileSystem.get(URI.create(etlJobConfig.outputPath), conf);
+                TaskContext taskContext = TaskContext.get();
+                long taskAttemptId = taskContext.taskAttemptId();
+                int bucket = taskContext.partitionId();
+                String dstPath = String.format(pathPattern, tableId, buckets.getPartitionId(bucket),
+                        indexMeta.indexId, buckets.getBucketId(bucket), indexMeta.schemaHash);
+                String tmpPath = dstPath + "." + taskAttemptId;
+                conf.setBoolean("spark.sql.parquet.writeLegacyFormat", false);
+                conf.setBoolean("spark.sql.parquet.int64AsTimestampMillis", false);
+                conf.setBoolean("spark.sql.parquet.int96AsTimestamp", true);
+                conf.setBoolean("spark.sql.parquet.binaryAsString", false);
+                conf.set("spark.sql.parquet.outputTimestampType", "INT96");
+                ParquetWriteSupport.setSchema(dstSchema, conf);
+                ParquetWriteSupport parquetWriteSupport = new ParquetWriteSupport();
+                ParquetWriter<InternalRow> parquetWriter = new ParquetWriter<InternalRow>(new Path(tmpPath),
+                        parquetWriteSupport,
+                        CompressionCodecName.SNAPPY,
+                        256 * 1024 * 1024, 16 * 1024,
+                        1024 * 1024,
+                        true, false,
+                        ParquetProperties.WriterVersion.PARQUET_1_0,
+                        conf);
+                LOG.info("[HdfsOperate]>> initialize writer succeed! path:" + tmpPath);
+                while (t.hasNext()) {
+                    parquetWriter.write(t.next());
+                }
+                parquetWriter.close();
+                // rename tmpPath to path
+                try {
+                    fs.rename(new Path(tmpPath), new Path(dstPath));
+                } catch (IOException ioe) {
+                    LOG.warn("rename from tmpPath" + tmpPath + " to dstPath:" + dstPath +
+                            " failed. exception:" + ioe);
+                    throw ioe;
+                }
+            }
+        });
     }
 
     // TODO(wb) one shuffle to calculate the rollup in the same level
     private void processRollupTree(RollupTreeNode rootNode,
-                                   JavaPairRDD<List<Object>, Object[]> rootRDD,
-                                   long tableId, EtlJobConfig.EtlIndex baseIndex) throws SparkDppException {
+                                   Dataset<Row> rootDataframe,
+                                   long tableId, EtlJobConfig.EtlIndex baseIndex,
+                                   DppBuckets buckets) throws SparkDppException {
         Queue<RollupTreeNode> nodeQueue = new LinkedList<>();
         nodeQueue.offer(rootNode);
         int currentLevel = 0;
         // level travel the tree
-        Map<Long, JavaPairRDD<List<Object>, Object[]>> parentRDDMap = new HashMap<>();
-        parentRDDMap.put(baseIndex.indexId, rootRDD);
-        Map<Long, JavaPairRDD<List<Object>, Object[]>> childrenRDDMap = new HashMap<>();
+        Map<Long, Dataset<Row>> parentDataframeMap = new HashMap<>();
+        parentDataframeMap.put(baseIndex.indexId, rootDataframe);
+        Map<Long, Dataset<Row>> childrenDataframeMap = new HashMap<>();
         String pathPattern = etlJobConfig.outputPath + "/" + etlJobConfig.outputFilePattern;
         while (!nodeQueue.isEmpty()) {
             RollupTreeNode curNode = nodeQueue.poll();
@@ -332,16 +301,15 @@ public final class SparkDpp implements java.io.Serializable {
                     nodeQueue.offer(child);
                 }
             }
-            JavaPairRDD<List<Object>, Object[]> curRDD = null;
             // column select for rollup
             if (curNode.level != currentLevel) {
-                for (JavaPairRDD<List<Object>, Object[]> rdd : parentRDDMap.values()) {
-                    rdd.unpersist();
+                for (Dataset<Row> dataframe : parentDataframeMap.values()) {
+                    dataframe.unpersist();
                 }
                 currentLevel = curNode.level;
-                parentRDDMap.clear();
-                parentRDDMap = childrenRDDMap;
-                childrenRDDMap = new HashMap<>();
+                parentDataframeMap.clear();
+                parentDataframeMap = childrenDataframeMap;
+                childrenDataframeMap = new HashMap<>();
             }
 
             long parentIndexId = baseIndex.indexId;
@@ -349,64 +317,23 @@ public final class SparkDpp implements java.io.Serializable {
                 parentIndexId = curNode.parent.indexId;
             }
 
-            JavaPairRDD<List<Object>, Object[]> parentRDD = parentRDDMap.get(parentIndexId);
+            Dataset<Row> parentDataframe = parentDataframeMap.get(parentIndexId);
 
             // aggregate
-            SparkRDDAggregator[] sparkRDDAggregators = new SparkRDDAggregator[curNode.valueColumnNames.size()];
-            curRDD = processRDDAggregate(parentRDD, curNode, sparkRDDAggregators);
+            Dataset<Row> curDataframe = processAggregate(parentDataframe, curNode);
 
-            childrenRDDMap.put(curNode.indexId, curRDD);
+            childrenDataframeMap.put(curNode.indexId, curDataframe);
 
             if (curNode.children != null && curNode.children.size() > 1) {
                 // if the children number larger than 1, persist the dataframe for performance
-                curRDD.persist(StorageLevel.MEMORY_AND_DISK());
+                curDataframe.persist(StorageLevel.MEMORY_AND_DISK());
             }
             // repartition and write to hdfs
-            writeRepartitionAndSortedRDDToParquet(curRDD, pathPattern, tableId, curNode.indexMeta, sparkRDDAggregators);
+            writeRepartitionAndSortedDataframeToParquet(curDataframe, pathPattern, tableId, curNode.indexMeta,
+                    curNode.keyColumnNames, buckets);
         }
     }
 
-    // get column index map from parent rollup to child rollup
-    // not consider bucketId here
-    private Pair<Integer[], Integer[]> getColumnIndexInParentRollup(List<String> childRollupKeyColumns,
-                                                                    List<String> childRollupValueColumns,
-                                                                    List<String> parentRollupKeyColumns,
-                                                                    List<String> parentRollupValueColumns)
-            throws SparkDppException {
-        List<String> parentRollupColumns = new ArrayList<>();
-        parentRollupColumns.addAll(parentRollupKeyColumns);
-        parentRollupColumns.addAll(parentRollupValueColumns);
-
-        List<Integer> keyMap = new ArrayList<>();
-        List<Integer> valueMap = new ArrayList<>();
-        // find column index in parent rollup schema
-        for (int i = 0; i < childRollupKeyColumns.size(); i++) {
-            for (int j = 0; j < parentRollupColumns.size(); j++) {
-                if (StringUtils.equalsIgnoreCase(childRollupKeyColumns.get(i), parentRollupColumns.get(j))) {
-                    keyMap.add(j);
-                    break;
-                }
-            }
-        }
-
-        for (int i = 0; i < childRollupValueColumns.size(); i++) {
-            for (int j = 0; j < parentRollupColumns.size(); j++) {
-                if (StringUtils.equalsIgnoreCase(childRollupValueColumns.get(i), parentRollupColumns.get(j))) {
-                    valueMap.add(j);
-                    break;
-                }
-            }
-        }
-
-        if (keyMap.size() != childRollupKeyColumns.size() || valueMap.size() != childRollupValueColumns.size()) {
-            throw new SparkDppException(String.format(
-                    "column map index from child to parent has error, key size src: %s, dst: %s; value size src: %s, dst: %s",
-                    childRollupKeyColumns.size(), keyMap.size(), childRollupValueColumns.size(), valueMap.size()));
-        }
-
-        return Pair.of(keyMap.toArray(new Integer[keyMap.size()]), valueMap.toArray(new Integer[valueMap.size()]));
-    }
-
     /**
      * check decimal,char/varchar
      */
@@ -452,7 +379,9 @@ public final class SparkDpp implements java.io.Serializable {
      * 2 validate data
      * 3 fill tuple with partition column
      */
-    private JavaPairRDD<List<Object>, Object[]> fillTupleWithPartitionColumn(
+    // validate the rows and fill the bucket hash key column,
+    // the result rows are [bucket hash key, key columns, value columns]
+    private Dataset<Row> fillBucketColumn(
             Dataset<Row> dataframe,
             EtlJobConfig.EtlPartitionInfo partitionInfo,
             List<Integer> partitionKeyIndex,
@@ -460,7 +389,8 @@ public final class SparkDpp implements java.io.Serializable {
             List<String> keyColumnNames,
             List<String> valueColumnNames,
             StructType dstTableSchema,
-            EtlJobConfig.EtlIndex baseIndex) throws SparkDppException {
+            EtlJobConfig.EtlIndex baseIndex,
+            DppBuckets buckets) throws SparkDppException {
         List<String> distributeColumns = partitionInfo.distributionColumnRefs;
         Partitioner partitioner = new StarRocksRangePartitioner(partitionInfo, partitionKeyIndex, partitionRangeKeys);
 
@@ -469,67 +399,69 @@ public final class SparkDpp implements java.io.Serializable {
             parsers.add(ColumnParser.create(column));
         }
 
-        // use PairFlatMapFunction instead of PairMapFunction because the there will be
-        // 0 or 1 output row for 1 input row
-        JavaPairRDD<List<Object>, Object[]> resultPairRDD =
-                dataframe.toJavaRDD().flatMapToPair(new PairFlatMapFunction<Row, List<Object>, Object[]>() {
-                    @Override
-                    public Iterator<Tuple2<List<Object>, Object[]>> call(Row row) throws Exception {
-                        List<Tuple2<List<Object>, Object[]>> result = new ArrayList<>();
-                        List<Object> keyColumns = new ArrayList<>();
-                        List<Object> valueColumns = new ArrayList<>(valueColumnNames.size());
-                        List<Object> allColumns = new ArrayList<>();
-                        for (int i = 0; i < keyColumnNames.size(); i++) {
-                            String columnName = keyColumnNames.get(i);
-                            Object columnObject = row.get(row.fieldIndex(columnName));
-                            if (!validateData(columnObject, baseIndex.getColumn(columnName), parsers.get(i), row)) {
-                                abnormalRowAcc.add(1);
-                                return result.iterator();
-                            }
-                            keyColumns.add(columnObject);
-                            allColumns.add(columnObject);
-                        }
-
-                        for (int i = 0; i < valueColumnNames.size(); i++) {
-                            String columnName = valueColumnNames.get(i);
-                            Object columnObject = row.get(row.fieldIndex(columnName));
-                            if (!validateData(columnObject, baseIndex.getColumn(columnName),
-                                    parsers.get(i + keyColumnNames.size()), row)) {
-                                abnormalRowAcc.add(1);
-                                return result.iterator();
-                            }
-                            valueColumns.add(columnObject);
-                            allColumns.add(columnObject);
-                            loadEstimateSizeAcc.add(SizeEstimator.estimate(columnObject));
-                        }
+        List<String> columnNames = new ArrayList<>(keyColumnNames);
+        columnNames.addAll(valueColumnNames);
+        int[] columnIndexes = new int[columnNames.size()];
+        List<StructField> fields = new ArrayList<>();
+        fields.add(DataTypes.createStructField(DppUtils.BUCKET_ID, DataTypes.IntegerType, false));
+        // bitmap and hll values are encoded to binary, so the rows of all file groups are in the same schema
+        SparkRDDAggregator[] binaryEncoders = new SparkRDDAggregator[columnNames.size()];
+        for (int i = 0; i < columnNames.size(); i++) {
+            EtlJobConfig.EtlColumn column = baseIndex.getColumn(columnNames.get(i));
+            columnIndexes[i] = dataframe.schema().fieldIndex(columnNames.get(i));
+            fields.add(DataTypes.createStructField(column.columnName, DppUtils.getDataTypeFromColumn(column, true),
+                    true));
+            if (column.columnType.equalsIgnoreCase("BITMAP")) {
+                binaryEncoders[i] = new BitmapUnionAggregator();
+            } else if (column.columnType.equalsIgnoreCase("HLL")) {
+                binaryEncoders[i] = new HllUnionAggregator();
+            }
+        }
+        StructType bucketSchema = DataTypes.createStructType(fields);
+        int keyColumnNum = keyColumnNames.size();
 
-                        int pid = partitioner.getPartition(new DppColumns(allColumns));
-                        if (pid < 0) {
-                            abnormalRowAcc.add(1);
-                            LOG.warn("invalid partition for row:" + row + ", abnormal rows num:" +
-                                    abnormalRowAcc.value());
-                            if (abnormalRowAcc.value() < 5) {
-                                invalidRows.add(row.toString());
-                            }
-                        } else {
-                            // TODO(wb) support lagreint for hash
-                            long hashValue = DppUtils.getHashValue(row, distributeColumns, dstTableSchema);
-                            int bucketId =
-                                    (int) ((hashValue & 0xffffffff) % partitionInfo.partitions.get(pid).bucketNum);
-                            long partitionId = partitionInfo.partitions.get(pid).partitionId;
-                            // bucketKey is partitionId_bucketId
-                            String bucketKey = partitionId + "_" + bucketId;
-
-                            List<Object> tuple = new ArrayList<>();
-                            tuple.add(bucketKey);
-                            tuple.addAll(keyColumns);
-                            result.add(new Tuple2<>(tuple, valueColumns.toArray()));
-                        }
-                        return result.iterator();
+        // use FlatMapFunction instead of MapFunction because the there will be
+        // 0 or 1 output row for 1 input row
+        return dataframe.flatMap(new FlatMapFunction<Row, Row>() {
+            @Override
+            public Iterator<Row> call(Row row) throws Exception {
+                Object[] columns = new Object[columnNames.size() + 1];
+                List<Object> allColumns = new ArrayList<>(columnNames.size());
+                for (int i = 0; i < columnNames.size(); i++) {
+                    String columnName = columnNames.get(i);
+                    Object columnObject = row.get(columnIndexes[i]);
+                    if (!validateData(columnObject, baseIndex.getColumn(columnName), parsers.get(i), row)) {
+                        abnormalRowAcc.add(1);
+                        return Collections.emptyIterator();
                     }
-                });
+                    allColumns.add(columnObject);
+                    if (i >= keyColumnNum) {
+                        loadEstimateSizeAcc.add(SizeEstimator.estimate(columnObject));
+                    }
+                    if (binaryEncoders[i] != null) {
+                        columnObject = binaryEncoders[i].finalize(binaryEncoders[i].init(columnObject));
+                    }
+                    columns[i + 1] = columnObject;
+                }
 
-        return resultPairRDD;
+                int pid = partitioner.getPartition(new DppColumns(allColumns));
+                if (pid < 0) {
+                    abnormalRowAcc.add(1);
+                    LOG.warn("invalid partition for row:" + row + ", abnormal rows num:" +
+                            abnormalRowAcc.value());
+                    if (abnormalRowAcc.value() < 5) {
+                        invalidRows.add(row.toString());
+                    }
+                    return Collections.emptyIterator();
+                }
+                // TODO(wb) support lagreint for hash
+                long hashValue = DppUtils.getHashValue(row, distributeColumns, dstTableSchema);
+                int bucketId = (int) ((hashValue & 0xffffffff) % partitionInfo.partitions.get(pid).bucketNum);
+                long partitionId = partitionInfo.partitions.get(pid).partitionId;
+                columns[0] = buckets.getHashKey(partitionId, bucketId);
+                return Collections.singletonList(RowFactory.create(columns)).iterator();
+            }
+        }, RowEncoder.apply(bucketSchema));
     }
 
     // do the etl process
@@ -1134,16 +1066,10 @@ public final class SparkDpp implements java.io.Serializable {
                 LOG.info("Start to process rollup tree:" + rootNode);
 
                 // use bucket number as the parallel reduce task number
-                int reduceNum = 0;
-                for (EtlJobConfig.EtlPartition partition : partitionInfo.partitions) {
-                    for (int i = 0; i < partition.bucketNum; i++) {
-                        bucketKeyMap.put(partition.partitionId + "_" + i, reduceNum);
-                        reduceNum++;
-                    }
-                }
-                LOG.info("bucket key map:" + bucketKeyMap.toString());
+                DppBuckets buckets = new DppBuckets(partitionInfo.partitions);
+                LOG.info("buckets:" + buckets);
 
-                JavaPairRDD<List<Object>, Object[]> tablePairRDD = null;
+                Dataset<Row> tableDataframe = null;
                 for (EtlJobConfig.EtlFileGroup fileGroup : etlTable.fileGroups) {
                     List<String> filePaths = fileGroup.filePaths;
                     Dataset<Row> fileGroupDataframe = null;
@@ -1182,16 +1108,16 @@ public final class SparkDpp implements java.io.Serializable {
                             partitionInfo.partitionType, partitionInfo.partitionColumnRefs,
                             partitionInfo.distributionColumnRefs, fileGroupPartitions);
 
-                    JavaPairRDD<List<Object>, Object[]> ret = fillTupleWithPartitionColumn(
+                    Dataset<Row> ret = fillBucketColumn(
                             fileGroupDataframe, fileGroupPartitionInfo, partitionKeyIndex, fileGroupPartitionRangeKeys,
-                            keyColumnNames, valueColumnNames, dstTableSchema, baseIndex);
-                    if (tablePairRDD == null) {
-                        tablePairRDD = ret;
+                            keyColumnNames, valueColumnNames, dstTableSchema, baseIndex, buckets);
+                    if (tableDataframe == null) {
+                        tableDataframe = ret;
                     } else {
-                        tablePairRDD = tablePairRDD.union(ret);
+                        tableDataframe = tableDataframe.union(ret);
                     }
                 }
-                processRollupTree(rootNode, tablePairRDD, tableId, baseIndex);
+                processRollupTree(rootNode, tableDataframe, tableId, baseIndex, buckets);
                 // calculate table-level metrics
                 // loaded rows
                 long loadRows = scannedRowsAcc.value() - unselectedRowAcc.value() - abnormalRowAcc.value();
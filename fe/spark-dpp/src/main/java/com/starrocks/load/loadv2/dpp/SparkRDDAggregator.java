@@ -20,11 +20,6 @@ package com.starrocks.load.loadv2.dpp;
 import com.starrocks.common.SparkDppException;
 import com.starrocks.load.loadv2.etl.EtlJobConfig;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.spark.Partitioner;
-import org.apache.spark.api.java.function.Function2;
-import org.apache.spark.api.java.function.PairFunction;
-import scala.Tuple2;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -34,10 +29,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
 
 // contains all class about spark aggregate
 
@@ -49,6 +40,11 @@ public abstract class SparkRDDAggregator<T> implements Serializable {
 
     abstract T update(T v1, T v2);
 
+    // like update, but dst could be modified in place, because it's only owned by the caller
+    T merge(T dst, T src) {
+        return update(dst, src);
+    }
+
     Object finalize(Object value) {
         return value;
     }
@@ -145,93 +141,6 @@ public abstract class SparkRDDAggregator<T> implements Serializable {
 
 }
 
-// just used for duplicate table, default logic is enough
-class DefaultSparkRDDAggregator extends SparkRDDAggregator {
-
-    @Override
-    Object update(Object v1, Object v2) {
-        return null;
-    }
-}
-
-// just encode value column,used for base rollup
-class EncodeBaseAggregateTableFunction implements PairFunction<Tuple2<List<Object>, Object[]>, List<Object>, Object[]> {
-
-    private SparkRDDAggregator[] valueAggregators;
-
-    public EncodeBaseAggregateTableFunction(SparkRDDAggregator[] valueAggregators) {
-        this.valueAggregators = valueAggregators;
-    }
-
-    @Override
-    public Tuple2<List<Object>, Object[]> call(Tuple2<List<Object>, Object[]> srcPair) throws Exception {
-        for (int i = 0; i < srcPair._2().length; i++) {
-            srcPair._2()[i] = valueAggregators[i].init(srcPair._2()[i]);
-        }
-        return srcPair;
-    }
-}
-
-// just map column from parent rollup index to child rollup index,used for child rollup
-class EncodeRollupAggregateTableFunction
-        implements PairFunction<Tuple2<List<Object>, Object[]>, List<Object>, Object[]> {
-
-    Pair<Integer[], Integer[]> columnIndexInParentRollup;
-
-    public EncodeRollupAggregateTableFunction(Pair<Integer[], Integer[]> columnIndexInParentRollup) {
-        this.columnIndexInParentRollup = columnIndexInParentRollup;
-    }
-
-    @Override
-    public Tuple2<List<Object>, Object[]> call(Tuple2<List<Object>, Object[]> parentRollupKeyValuePair)
-            throws Exception {
-        Integer[] keyColumnIndexMap = columnIndexInParentRollup.getKey();
-        Integer[] valueColumnIndexMap = columnIndexInParentRollup.getValue();
-
-        List<Object> keys = new ArrayList();
-        Object[] values = new Object[valueColumnIndexMap.length];
-
-        int parentRollupKeysSize = parentRollupKeyValuePair._1.size() - 1;
-
-        // deal bucket_id column
-        keys.add(parentRollupKeyValuePair._1().get(0));
-        for (int i = 0; i < keyColumnIndexMap.length; i++) {
-            if (keyColumnIndexMap[i] < parentRollupKeysSize) {
-                keys.add(parentRollupKeyValuePair._1().get(keyColumnIndexMap[i] + 1));
-            } else {
-                keys.add(parentRollupKeyValuePair._2()[keyColumnIndexMap[i] - parentRollupKeysSize]);
-            }
-        }
-
-        for (int i = 0; i < valueColumnIndexMap.length; i++) {
-            if (valueColumnIndexMap[i] < parentRollupKeysSize) {
-                values[i] = parentRollupKeyValuePair._1().get(valueColumnIndexMap[i] + 1);
-            } else {
-                values[i] = parentRollupKeyValuePair._2()[valueColumnIndexMap[i] - parentRollupKeysSize];
-            }
-        }
-        return new Tuple2<>(keys, values);
-    }
-}
-
-class AggregateReduceFunction implements Function2<Object[], Object[], Object[]> {
-
-    private SparkRDDAggregator[] valueAggregators;
-
-    public AggregateReduceFunction(SparkRDDAggregator[] sparkDppAggregators) {
-        this.valueAggregators = sparkDppAggregators;
-    }
-
-    @Override
-    public Object[] call(Object[] v1, Object[] v2) throws Exception {
-        Object[] result = new Object[valueAggregators.length];
-        for (int i = 0; i < v1.length; i++) {
-            result[i] = valueAggregators[i].update(v1[i], v2[i]);
-        }
-        return result;
-    }
-}
-
 class ReplaceAggregator extends SparkRDDAggregator<Object> {
 
     @Override
@@ -265,6 +174,17 @@ class BitmapUnionAggregator extends SparkRDDAggregator<BitmapValue> {
         }
     }
 
+    @Override
+    BitmapValue merge(BitmapValue dst, BitmapValue src) {
+        if (dst == null) {
+            return src;
+        }
+        if (src != null) {
+            dst.or(src);
+        }
+        return dst;
+    }
+
     @Override
     BitmapValue update(BitmapValue v1, BitmapValue v2) {
         BitmapValue newBitmapValue = new BitmapValue();
@@ -309,6 +229,17 @@ class HllUnionAggregator extends SparkRDDAggregator<Hll> {
         }
     }
 
+    @Override
+    Hll merge(Hll dst, Hll src) {
+        if (dst == null) {
+            return src;
+        }
+        if (src != null) {
+            dst.merge(src);
+        }
+        return dst;
+    }
+
     @Override
     Hll update(Hll v1, Hll v2) {
         Hll newHll = new Hll();
@@ -553,52 +484,3 @@ class BigDecimalSumAggregator extends SparkRDDAggregator<BigDecimal> {
         return src.add(dst);
     }
 }
-
-class BucketComparator implements Comparator<List<Object>>, Serializable {
-
-    @Override
-    public int compare(List<Object> keyArray1, List<Object> keyArray2) {
-        int cmp = 0;
-
-        for (int i = 0; i < keyArray1.size(); i++) {
-            Object key1 = keyArray1.get(i);
-            Object key2 = keyArray2.get(i);
-            if (key1 == key2) {
-                continue;
-            }
-            if (key1 == null || key2 == null) {
-                return key1 == null ? -1 : 1;
-            }
-            if (key1 instanceof Comparable && key2 instanceof Comparable) {
-                cmp = ((Comparable) key1).compareTo(key2);
-            } else {
-                throw new RuntimeException(String.format("uncomparable column type %s", key1.getClass().toString()));
-            }
-            if (cmp != 0) {
-                return cmp;
-            }
-        }
-
-        return cmp;
-    }
-}
-
-class BucketPartitioner extends Partitioner {
-
-    private Map<String, Integer> bucketKeyMap;
-
-    public BucketPartitioner(Map<String, Integer> bucketKeyMap) {
-        this.bucketKeyMap = bucketKeyMap;
-    }
-
-    @Override
-    public int numPartitions() {
-        return bucketKeyMap.size();
-    }
-
-    @Override
-    public int getPartition(Object key) {
-        List<Object> rddKey = (List<Object>) key;
-        return bucketKeyMap.get(String.valueOf(rddKey.get(0)));
-    }
-}
\ No newline at end of file
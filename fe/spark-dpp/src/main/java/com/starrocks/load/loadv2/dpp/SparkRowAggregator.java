@@ -0,0 +1,71 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.spark.sql.Encoder;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.catalyst.encoders.RowEncoder;
+import org.apache.spark.sql.expressions.Aggregator;
+import org.apache.spark.sql.types.StructType;
+
+/**
+ * Aggregates the value columns of the rows with the same key columns by the {@link SparkRDDAggregator}
+ * of every value column, the value columns of a row start from valueOffset.
+ *
+ * The buffer is encoded by kryo, so spark keeps it as objects between rows in the object hash aggregate
+ * and only serializes it when it's shuffled or spilled. A bitmap or hll is not encoded for every row
+ * like the binary buffer of a UserDefinedAggregateFunction.
+ */
+public class SparkRowAggregator extends Aggregator<Row, Object[], Row> {
+    private final SparkRDDAggregator[] valueAggregators;
+    private final int valueOffset;
+    private final StructType valueSchema;
+
+    public SparkRowAggregator(SparkRDDAggregator[] valueAggregators, int valueOffset, StructType valueSchema) {
+        this.valueAggregators = valueAggregators;
+        this.valueOffset = valueOffset;
+        this.valueSchema = valueSchema;
+    }
+
+    @Override
+    public Object[] zero() {
+        return new Object[valueAggregators.length];
+    }
+
+    @Override
+    public Object[] reduce(Object[] buffer, Row row) {
+        for (int i = 0; i < valueAggregators.length; i++) {
+            buffer[i] = valueAggregators[i].merge(buffer[i], valueAggregators[i].init(row.get(valueOffset + i)));
+        }
+        return buffer;
+    }
+
+    @Override
+    public Object[] merge(Object[] buffer1, Object[] buffer2) {
+        for (int i = 0; i < valueAggregators.length; i++) {
+            buffer1[i] = valueAggregators[i].merge(buffer1[i], buffer2[i]);
+        }
+        return buffer1;
+    }
+
+    @Override
+    public Row finish(Object[] buffer) {
+        Object[] values = new Object[valueAggregators.length];
+        for (int i = 0; i < valueAggregators.length; i++) {
+            values[i] = valueAggregators[i].finalize(buffer[i]);
+        }
+        return RowFactory.create(values);
+    }
+
+    @Override
+    public Encoder<Object[]> bufferEncoder() {
+        return Encoders.kryo(Object[].class);
+    }
+
+    @Override
+    public Encoder<Row> outputEncoder() {
+        return RowEncoder.apply(valueSchema);
+    }
+}
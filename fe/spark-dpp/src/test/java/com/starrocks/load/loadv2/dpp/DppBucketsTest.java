@@ -0,0 +1,54 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.google.common.collect.Lists;
+import com.starrocks.load.loadv2.etl.EtlJobConfig;
+import org.apache.spark.sql.catalyst.expressions.Expression;
+import org.apache.spark.sql.catalyst.expressions.Literal;
+import org.apache.spark.sql.catalyst.expressions.Murmur3Hash;
+import org.apache.spark.sql.types.DataTypes;
+import org.junit.Assert;
+import org.junit.Test;
+import scala.collection.JavaConverters;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DppBucketsTest {
+
+    // the spark partition of the key in a hash repartition into partitionNum partitions
+    private static int sparkPartition(int key, int partitionNum) {
+        List<Expression> children = Lists.newArrayList(Literal.create(key, DataTypes.IntegerType));
+        Murmur3Hash hash = new Murmur3Hash(JavaConverters.asScalaBufferConverter(children).asScala().toSeq());
+        return Math.floorMod((Integer) hash.eval(null), partitionNum);
+    }
+
+    @Test
+    public void testCreateHashKeys() {
+        for (int bucketNum : new int[] {1, 2, 7, 64, 1000}) {
+            int[] keys = DppBuckets.createHashKeys(bucketNum);
+            Assert.assertEquals(bucketNum, keys.length);
+            Set<Integer> distinctKeys = new HashSet<>();
+            for (int bucket = 0; bucket < bucketNum; bucket++) {
+                Assert.assertEquals(bucket, sparkPartition(keys[bucket], bucketNum));
+                distinctKeys.add(keys[bucket]);
+            }
+            Assert.assertEquals(bucketNum, distinctKeys.size());
+        }
+    }
+
+    @Test
+    public void testBuckets() {
+        EtlJobConfig.EtlPartition partition1 = new EtlJobConfig.EtlPartition(10L, null, null, false, false, 2);
+        EtlJobConfig.EtlPartition partition2 = new EtlJobConfig.EtlPartition(20L, null, null, false, false, 3);
+        DppBuckets buckets = new DppBuckets(Lists.newArrayList(partition1, partition2));
+        Assert.assertEquals(5, buckets.size());
+        Assert.assertEquals(10L, buckets.getPartitionId(1));
+        Assert.assertEquals(1, buckets.getBucketId(1));
+        Assert.assertEquals(20L, buckets.getPartitionId(2));
+        Assert.assertEquals(0, buckets.getBucketId(2));
+        Assert.assertEquals(DppBuckets.createHashKeys(5)[4], buckets.getHashKey(20L, 2));
+    }
+}
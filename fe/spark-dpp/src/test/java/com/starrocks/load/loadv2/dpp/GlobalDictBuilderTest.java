@@ -0,0 +1,116 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.types.StructType;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class GlobalDictBuilderTest {
+    private static final Logger LOG = LogManager.getLogger(GlobalDictBuilderTest.class);
+
+    private static SparkSession spark;
+
+    @BeforeClass
+    public static void setUp() {
+        spark = SparkSession.builder().master("local[2]").appName("GlobalDictBuilderTest")
+                .config("spark.sql.shuffle.partitions", "4")
+                .getOrCreate();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        spark.stop();
+    }
+
+    private static Dataset<Row> distinctKeys(long start, long end) {
+        List<String> keys = LongStream.range(start, end).mapToObj(i -> "key_" + i).collect(Collectors.toList());
+        return spark.createDataset(keys, Encoders.STRING()).toDF("dict_key");
+    }
+
+    private static Dataset<Row> emptyDict() {
+        return spark.createDataFrame(new ArrayList<>(),
+                new StructType().add("dict_key", "string").add("dict_value", "bigint"));
+    }
+
+    // appends the new keys into the dict like GlobalDictBuilder does, returns the new dict
+    private static Dataset<Row> append(Dataset<Row> globalDict, Dataset<Row> distinctKeys, int splitNum) {
+        Row maxRow = globalDict.selectExpr("max(dict_value)").collectAsList().get(0);
+        long maxDictValue = maxRow.isNullAt(0) ? 0 : maxRow.getLong(0);
+        Dataset<Row> newDictEntries = GlobalDictBuilder.assignDictValues(spark,
+                GlobalDictBuilder.getNewDistinctKeys(distinctKeys, globalDict, splitNum), maxDictValue);
+        return globalDict.union(newDictEntries).localCheckpoint();
+    }
+
+    private static Map<String, Long> collect(Dataset<Row> globalDict) {
+        Map<String, Long> dict = new HashMap<>();
+        for (Row row : globalDict.collectAsList()) {
+            Assert.assertNull("duplicate key " + row.getString(0), dict.put(row.getString(0), row.getLong(1)));
+        }
+        return dict;
+    }
+
+    private static void assertDictValues(Map<String, Long> dict) {
+        // the dict values are 1 to the key number without gaps
+        Assert.assertEquals(dict.size(), dict.values().stream().distinct().count());
+        Assert.assertEquals(1L, (long) dict.values().stream().min(Long::compare).get());
+        Assert.assertEquals(dict.size(), (long) dict.values().stream().max(Long::compare).get());
+    }
+
+    @Test
+    public void testAppendOnlyLoads() {
+        Dataset<Row> globalDict = emptyDict();
+        Map<String, Long> previousDict = new HashMap<>();
+        for (int load = 0; load < 5; load++) {
+            // every load has half of the keys of the previous load
+            long startTime = System.currentTimeMillis();
+            globalDict = append(globalDict, distinctKeys(load * 10000L, (load + 2) * 10000L), 4);
+            Map<String, Long> dict = collect(globalDict);
+            LOG.info("append load " + load + " into global dict of " + dict.size() + " keys in " +
+                    (System.currentTimeMillis() - startTime) + " ms");
+
+            Assert.assertEquals((load + 2) * 10000L, dict.size());
+            assertDictValues(dict);
+            // the values of the old keys are not changed
+            for (Map.Entry<String, Long> entry : previousDict.entrySet()) {
+                Assert.assertEquals(entry.getValue(), dict.get(entry.getKey()));
+            }
+            previousDict = dict;
+        }
+    }
+
+    @Test
+    public void testAssignInSplitOrder() {
+        Dataset<Row> globalDict = emptyDict();
+        // without split the keys are only sorted in the partitions of the join
+        for (int splitNum : new int[] {0, 1, 3}) {
+            Dataset<Row> newKeys = GlobalDictBuilder.getNewDistinctKeys(distinctKeys(0, 1000), globalDict, splitNum);
+            List<Row> entries = GlobalDictBuilder.assignDictValues(spark, newKeys, 100).collectAsList();
+            Assert.assertEquals(1000, entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Assert.assertEquals(101L + i, entries.get(i).getLong(1));
+            }
+            if (splitNum == 1) {
+                // one split is sorted totally
+                for (int i = 1; i < entries.size(); i++) {
+                    Assert.assertTrue(entries.get(i - 1).getString(0).compareTo(entries.get(i).getString(0)) < 0);
+                }
+            }
+        }
+    }
+}
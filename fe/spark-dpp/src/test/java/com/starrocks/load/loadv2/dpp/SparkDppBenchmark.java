@@ -0,0 +1,124 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.google.common.collect.Lists;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.function.MapFunction;
+import org.apache.spark.scheduler.SparkListener;
+import org.apache.spark.scheduler.SparkListenerTaskEnd;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.encoders.RowEncoder;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import scala.Tuple2;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the aggregation of spark load by the boxed rdd pairs and by the dataframe with {@link SparkRowAggregator}
+ * in spark local mode, on the job time and the shuffle bytes.
+ *
+ * Not a unit test, run it by main with the row number and the key number as the arguments.
+ */
+public class SparkDppBenchmark {
+    private static final AtomicLong SHUFFLE_BYTES = new AtomicLong(0);
+
+    public static class ShuffleBytesListener extends SparkListener {
+        @Override
+        public void onTaskEnd(SparkListenerTaskEnd taskEnd) {
+            if (taskEnd.taskMetrics() != null) {
+                SHUFFLE_BYTES.addAndGet(taskEnd.taskMetrics().shuffleWriteMetrics().bytesWritten());
+            }
+        }
+    }
+
+    private static final StructType SCHEMA = DataTypes.createStructType(Lists.newArrayList(
+            DataTypes.createStructField(DppUtils.BUCKET_ID, DataTypes.IntegerType, false),
+            DataTypes.createStructField("k1", DataTypes.LongType, true),
+            DataTypes.createStructField("v1", DataTypes.LongType, true),
+            DataTypes.createStructField("v2", DataTypes.BinaryType, true)));
+
+    private static final StructType VALUE_SCHEMA = DataTypes.createStructType(Lists.newArrayList(
+            DataTypes.createStructField("v1", DataTypes.LongType, true),
+            DataTypes.createStructField("v2", DataTypes.BinaryType, true)));
+
+    private static Dataset<Row> generate(SparkSession spark, long rowNum, long keyNum) {
+        return spark.range(rowNum).map(new MapFunction<Long, Row>() {
+            @Override
+            public Row call(Long id) throws Exception {
+                BitmapUnionAggregator bitmapAggregator = new BitmapUnionAggregator();
+                return RowFactory.create((int) (id % 16), id % keyNum, id, bitmapAggregator.finalize(
+                        bitmapAggregator.init(id)));
+            }
+        }, RowEncoder.apply(SCHEMA));
+    }
+
+    private static long aggregateByRdd(Dataset<Row> dataframe) {
+        SparkRDDAggregator[] aggregators = new SparkRDDAggregator[] {
+                new LongSumAggregator(), new BitmapUnionAggregator()};
+        JavaPairRDD<List<Object>, Object[]> pairs = dataframe.toJavaRDD().mapToPair(row -> {
+            List<Object> keys = Lists.newArrayList(row.get(0), row.get(1));
+            Object[] values = new Object[aggregators.length];
+            for (int i = 0; i < aggregators.length; i++) {
+                values[i] = aggregators[i].init(row.get(i + 2));
+            }
+            return new Tuple2<>(keys, values);
+        });
+        return pairs.reduceByKey((values1, values2) -> {
+            Object[] result = new Object[aggregators.length];
+            for (int i = 0; i < aggregators.length; i++) {
+                result[i] = aggregators[i].update(values1[i], values2[i]);
+            }
+            return result;
+        }).count();
+    }
+
+    private static long aggregateByDataframe(Dataset<Row> dataframe) {
+        SparkRDDAggregator[] aggregators = new SparkRDDAggregator[] {
+                new LongSumAggregator(), new BitmapUnionAggregator()};
+        StructType keySchema = DataTypes.createStructType(Lists.newArrayList(SCHEMA.fields()[0], SCHEMA.fields()[1]));
+        return dataframe.groupByKey(new MapFunction<Row, Row>() {
+                    @Override
+                    public Row call(Row row) throws Exception {
+                        return RowFactory.create(row.get(0), row.get(1));
+                    }
+                }, RowEncoder.apply(keySchema))
+                .agg(new SparkRowAggregator(aggregators, 2, VALUE_SCHEMA).toColumn())
+                .count();
+    }
+
+    private static void run(String name, Dataset<Row> dataframe, boolean byRdd) {
+        SHUFFLE_BYTES.set(0);
+        long startTime = System.currentTimeMillis();
+        long resultRows = byRdd ? aggregateByRdd(dataframe) : aggregateByDataframe(dataframe);
+        System.out.printf("%s: %d result rows, %d ms, %d shuffle bytes%n", name, resultRows,
+                System.currentTimeMillis() - startTime, SHUFFLE_BYTES.get());
+    }
+
+    public static void main(String[] args) {
+        long rowNum = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        long keyNum = args.length > 1 ? Long.parseLong(args[1]) : 100_000L;
+        SparkSession spark = SparkSession.builder()
+                .master("local[4]")
+                .appName("SparkDppBenchmark")
+                .config("spark.serializer", "org.apache.spark.serializer.KryoSerializer")
+                .config("spark.kryo.registrator", StarRocksKryoRegistrator.class.getName())
+                .config("spark.extraListeners", ShuffleBytesListener.class.getName())
+                .getOrCreate();
+        try {
+            Dataset<Row> dataframe = generate(spark, rowNum, keyNum).cache();
+            dataframe.count();
+            for (int i = 0; i < 2; i++) {
+                run("rdd", dataframe, true);
+                run("dataframe", dataframe, false);
+            }
+        } finally {
+            spark.stop();
+        }
+    }
+}
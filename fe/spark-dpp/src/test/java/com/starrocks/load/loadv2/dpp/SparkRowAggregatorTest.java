@@ -0,0 +1,52 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparkRowAggregatorTest {
+
+    private static byte[] bitmap(long value) {
+        BitmapUnionAggregator aggregator = new BitmapUnionAggregator();
+        return aggregator.finalize(aggregator.init(value));
+    }
+
+    @Test
+    public void testAggregate() {
+        SparkRDDAggregator[] aggregators = new SparkRDDAggregator[] {
+                new LongSumAggregator(), new BitmapUnionAggregator(), new ReplaceIfNotNullAggregator()};
+        // rows are [bucket hash key, key, sum value, bitmap value, replace value]
+        SparkRowAggregator aggregator = new SparkRowAggregator(aggregators, 2, null);
+
+        Object[] buffer1 = aggregator.zero();
+        buffer1 = aggregator.reduce(buffer1, RowFactory.create(0, "a", 1L, bitmap(1), "v1"));
+        buffer1 = aggregator.reduce(buffer1, RowFactory.create(0, "a", 2L, bitmap(2), null));
+        Object[] buffer2 = aggregator.zero();
+        buffer2 = aggregator.reduce(buffer2, RowFactory.create(0, "a", 3L, bitmap(1), "v2"));
+        buffer2 = aggregator.reduce(buffer2, RowFactory.create(0, "a", 4L, bitmap(3), null));
+
+        Row result = aggregator.finish(aggregator.merge(buffer1, buffer2));
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(10L, result.get(0));
+        BitmapValue bitmapValue = new BitmapUnionAggregator().init(result.get(1));
+        Assert.assertEquals(3, bitmapValue.cardinality());
+        Assert.assertEquals("v2", result.get(2));
+    }
+
+    @Test
+    public void testMergeInPlace() {
+        BitmapUnionAggregator bitmapAggregator = new BitmapUnionAggregator();
+        BitmapValue dst = bitmapAggregator.init(1L);
+        Assert.assertSame(dst, bitmapAggregator.merge(dst, bitmapAggregator.init(2L)));
+        Assert.assertEquals(2, dst.cardinality());
+        Assert.assertSame(dst, bitmapAggregator.merge(null, dst));
+
+        HllUnionAggregator hllAggregator = new HllUnionAggregator();
+        Hll hll = hllAggregator.init(1L);
+        Assert.assertSame(hll, hllAggregator.merge(hll, hllAggregator.init(2L)));
+        Assert.assertEquals(2, hll.estimateCardinality());
+    }
+}
@@ -0,0 +1,162 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerPerfMonitor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Local disk cache of remote file blocks.
+ *
+ * A block is identified by the path and modification time of the remote file and the block index,
+ * so a rewritten file never hits the blocks of the old one. Every block is stored in its own file
+ * under the cache directory, and blocks are evicted in LRU order when the total size exceeds the capacity.
+ *
+ * The index is only kept in memory, the block files left in the cache directory are deleted when the cache
+ * is created. The other files in the directory are kept, it may be shared with others.
+ */
+public class BlockCache {
+    private static Logger logger = Logger.getLogger(BlockCache.class.getName());
+
+    // the names of the block files and the temporary files written by put
+    private static final Pattern BLOCK_FILE_NAME = Pattern.compile("[0-9a-f]{32}(\\.\\d+\\.tmp)?");
+
+    private final File cacheDir;
+    private final long capacity;
+    private final int blockSize;
+
+    // block key -> block length, in access order. guarded by this
+    private final LinkedHashMap<String, Integer> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0;
+
+    public BlockCache(String cacheDir, long capacity, int blockSize) throws IOException {
+        this.cacheDir = new File(cacheDir);
+        this.capacity = capacity;
+        this.blockSize = blockSize;
+        if (!this.cacheDir.exists() && !this.cacheDir.mkdirs()) {
+            throw new IOException("could not create block cache dir " + cacheDir);
+        }
+        File[] files = this.cacheDir.listFiles((dir, name) -> BLOCK_FILE_NAME.matcher(name).matches());
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && !file.delete()) {
+                    logger.warn("could not delete block cache file " + file);
+                }
+            }
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public static String fileKey(String path, long modificationTime) {
+        return path + "@" + modificationTime;
+    }
+
+    private static String blockKey(String fileKey, long blockIndex) {
+        return DigestUtils.md5Hex(fileKey + "#" + blockIndex);
+    }
+
+    /**
+     * Read at most length bytes of the block from offsetInBlock.
+     * @return bytes read, 0 if offsetInBlock is at the end of a short block, -1 if the block is not cached
+     */
+    public int read(String fileKey, long blockIndex, int offsetInBlock, byte[] dst, int dstOffset, int length) {
+        String key = blockKey(fileKey, blockIndex);
+        Integer blockLength;
+        synchronized (this) {
+            blockLength = blocks.get(key);
+        }
+        if (blockLength == null) {
+            BrokerPerfMonitor.addBlockCacheMiss();
+            return -1;
+        }
+        int readLength = Math.max(0, Math.min(length, blockLength - offsetInBlock));
+        try (RandomAccessFile file = new RandomAccessFile(new File(cacheDir, key), "r")) {
+            file.seek(offsetInBlock);
+            file.readFully(dst, dstOffset, readLength);
+        } catch (IOException e) {
+            // evicted by others
+            logger.debug("could not read block cache file " + key, e);
+            BrokerPerfMonitor.addBlockCacheMiss();
+            return -1;
+        }
+        BrokerPerfMonitor.addBlockCacheHit(readLength);
+        return readLength;
+    }
+
+    /**
+     * Cache the block, length is less than block size only for the last block of the file.
+     */
+    public void put(String fileKey, long blockIndex, byte[] data, int offset, int length) {
+        if (length > capacity) {
+            return;
+        }
+        String key = blockKey(fileKey, blockIndex);
+        synchronized (this) {
+            if (blocks.containsKey(key)) {
+                return;
+            }
+        }
+        File tmpFile = new File(cacheDir, key + "." + Thread.currentThread().getId() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+            out.write(data, offset, length);
+        } catch (IOException e) {
+            logger.warn("could not write block cache file " + tmpFile, e);
+            tmpFile.delete();
+            return;
+        }
+        synchronized (this) {
+            if (blocks.containsKey(key) || !tmpFile.renameTo(new File(cacheDir, key))) {
+                tmpFile.delete();
+                return;
+            }
+            blocks.put(key, length);
+            usedBytes += length;
+            evict();
+        }
+    }
+
+    // guarded by this
+    private void evict() {
+        Iterator<Map.Entry<String, Integer>> iterator = blocks.entrySet().iterator();
+        while (usedBytes > capacity && iterator.hasNext()) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            iterator.remove();
+            usedBytes -= entry.getValue();
+            if (!new File(cacheDir, entry.getKey()).delete()) {
+                logger.warn("could not delete block cache file " + entry.getKey());
+            }
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+}
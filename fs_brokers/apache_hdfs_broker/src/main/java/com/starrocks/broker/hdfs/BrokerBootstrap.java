@@ -58,8 +58,10 @@ public class BrokerBootstrap {
             logger.info("starting apache hdfs broker....");
             new BrokerConfig().init(brokerHome + "/conf/apache_hdfs_broker.conf");
 
-            TProcessor tprocessor = new TFileBrokerService.Processor<TFileBrokerService.Iface>(
-                    new HDFSBrokerServiceImpl());
+            HDFSBrokerServiceImpl brokerService = new HDFSBrokerServiceImpl();
+            TProcessor tprocessor = new ReleaseReadBufferProcessor(
+                    new TFileBrokerService.Processor<TFileBrokerService.Iface>(brokerService),
+                    brokerService.getReadBufferPool());
             ThriftServer server = new ThriftServer(BrokerConfig.broker_ipc_port, tprocessor);
             server.start();
             logger.info("starting apache hdfs broker....succeed");
@@ -27,6 +27,30 @@ public class BrokerConfig extends ConfigBase {
     
     @ConfField
     public static int hdfs_write_buffer_size_kb = 1024;
+
+    // the read ahead window of a reader starts from min size and doubles on sequential reads
+    @ConfField
+    public static int hdfs_read_ahead_min_size_kb = 128;
+
+    @ConfField
+    public static int hdfs_read_ahead_max_size_kb = 8192;
+
+    // max bytes of read buffers kept in the pool for reuse
+    @ConfField
+    public static int hdfs_read_buffer_pool_size_mb = 512;
+
+    // cache the blocks of remote files on local disk, for files read repeatedly by retried loads or exports
+    @ConfField
+    public static boolean enable_block_cache = false;
+
+    @ConfField
+    public static String block_cache_dir = System.getenv("BROKER_HOME") + "/block_cache";
+
+    @ConfField
+    public static long block_cache_size_mb = 10240;
+
+    @ConfField
+    public static int block_cache_block_size_kb = 1024;
     
     @ConfField
     public static int client_expire_seconds = 300;
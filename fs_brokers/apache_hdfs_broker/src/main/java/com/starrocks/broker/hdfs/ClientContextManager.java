@@ -63,18 +63,23 @@ public class ClientContextManager {
         fdToClientMap.putIfAbsent(fd, clientId);
     }
     
-    public synchronized void putNewInputStream(String clientId, TBrokerFD fd, FSDataInputStream fsDataInputStream, 
+    public synchronized void putNewInputStream(String clientId, TBrokerFD fd, ReadAheadReader reader,
             BrokerFileSystem brokerFileSystem) {
         if (!clientContexts.containsKey(clientId)) {
             clientContexts.putIfAbsent(clientId, new ClientResourceContext(clientId));
         }
         ClientResourceContext clientContext = clientContexts.get(clientId);
         clientContext.updateClientLastPingTime();
-        clientContext.putInputStream(fd, fsDataInputStream, brokerFileSystem);
+        clientContext.putInputStream(fd, reader, brokerFileSystem);
         fdToClientMap.putIfAbsent(fd, clientId);
     }
     
     public synchronized FSDataInputStream getFsDataInputStream(TBrokerFD fd) {
+        ReadAheadReader reader = getReader(fd);
+        return reader == null ? null : reader.getInputStream();
+    }
+
+    public synchronized ReadAheadReader getReader(TBrokerFD fd) {
         String clientId = fdToClientMap.get(fd);
         if (clientId == null) {
             throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR, 
@@ -82,8 +87,7 @@ public class ClientContextManager {
         }
         ClientResourceContext clientContext = clientContexts.get(clientId);
         clientContext.updateClientLastPingTime();
-        FSDataInputStream fsDataInputStream = clientContext.getInputStream(fd);
-        return fsDataInputStream;
+        return clientContext.getReader(fd);
     }
     
     public synchronized FSDataOutputStream getFsDataOutputStream(TBrokerFD fd) {
@@ -107,7 +111,8 @@ public class ClientContextManager {
         BrokerInputStream brokerInputStream = clientContext.inputStreams.remove(fd);
         try {
             if (brokerInputStream != null) {
-                brokerInputStream.inputStream.close();
+                brokerInputStream.reader.close();
+                brokerInputStream.reader.getInputStream().close();
             }
         } catch (Exception e) {
             logger.error("errors while close file data input stream", e);
@@ -177,18 +182,18 @@ public class ClientContextManager {
     
     private static class BrokerInputStream {
         
-        private final FSDataInputStream inputStream;
+        private final ReadAheadReader reader;
         private final BrokerFileSystem brokerFileSystem;
         
-        public BrokerInputStream(FSDataInputStream inputStream, BrokerFileSystem brokerFileSystem) {
-            this.inputStream = inputStream;
+        public BrokerInputStream(ReadAheadReader reader, BrokerFileSystem brokerFileSystem) {
+            this.reader = reader;
             this.brokerFileSystem = brokerFileSystem;
             this.brokerFileSystem.updateLastUpdateAccessTime();
         }
         
-        public FSDataInputStream getInputStream() {
+        public ReadAheadReader getReader() {
             this.brokerFileSystem.updateLastUpdateAccessTime();
-            return inputStream;
+            return reader;
         }
         
         public void updateLastUpdateAccessTime() {
@@ -210,18 +215,18 @@ public class ClientContextManager {
             this.lastPingTimestamp = System.currentTimeMillis();
         }
         
-        public void putInputStream(TBrokerFD fd, FSDataInputStream inputStream, BrokerFileSystem fileSystem) {
-            inputStreams.putIfAbsent(fd, new BrokerInputStream(inputStream, fileSystem));
+        public void putInputStream(TBrokerFD fd, ReadAheadReader reader, BrokerFileSystem fileSystem) {
+            inputStreams.putIfAbsent(fd, new BrokerInputStream(reader, fileSystem));
         }
         
         public void putOutputStream(TBrokerFD fd, FSDataOutputStream outputStream, BrokerFileSystem fileSystem) {
             outputStreams.putIfAbsent(fd, new BrokerOutputStream(outputStream, fileSystem));
         }
         
-        public FSDataInputStream getInputStream(TBrokerFD fd) {
+        public ReadAheadReader getReader(TBrokerFD fd) {
             BrokerInputStream brokerInputStream = inputStreams.get(fd);
             if (brokerInputStream != null) {
-                return brokerInputStream.getInputStream();
+                return brokerInputStream.getReader();
             }
             return null;
         }
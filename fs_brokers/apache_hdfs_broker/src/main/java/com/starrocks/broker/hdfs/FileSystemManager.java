@@ -23,6 +23,7 @@
 
 package com.starrocks.broker.hdfs;
 
+import com.starrocks.common.BrokerPerfMonitor;
 import com.starrocks.common.WildcardURI;
 import com.starrocks.thrift.TBrokerFD;
 import com.starrocks.thrift.TBrokerFileStatus;
@@ -145,13 +146,31 @@ public class FileSystemManager {
 
     private ConcurrentHashMap<FileSystemIdentity, BrokerFileSystem> cachedFileSystem;
     private ClientContextManager clientContextManager;
+    private ReadBufferPool readBufferPool;
+    // null if block cache is disabled
+    private BlockCache blockCache;
 
     public FileSystemManager() {
         cachedFileSystem = new ConcurrentHashMap<>();
         clientContextManager = new ClientContextManager(handleManagementPool);
         readBufferSize = BrokerConfig.hdfs_read_buffer_size_kb << 10;
         writeBufferSize = BrokerConfig.hdfs_write_buffer_size_kb << 10;
+        readBufferPool = new ReadBufferPool((long) BrokerConfig.hdfs_read_buffer_pool_size_mb << 20);
+        if (BrokerConfig.enable_block_cache) {
+            try {
+                blockCache = new BlockCache(BrokerConfig.block_cache_dir, BrokerConfig.block_cache_size_mb << 20,
+                        BrokerConfig.block_cache_block_size_kb << 10);
+            } catch (IOException e) {
+                logger.warn("failed to create block cache in " + BrokerConfig.block_cache_dir
+                        + ", block cache is disabled", e);
+            }
+        }
         handleManagementPool.schedule(new FileSystemExpirationChecker(), 0, TimeUnit.SECONDS);
+        handleManagementPool.schedule(new ReadMetricsLogger(), 60, TimeUnit.SECONDS);
+    }
+
+    public ReadBufferPool getReadBufferPool() {
+        return readBufferPool;
     }
 
     private static String preparePrincipal(String originalPrincipal) throws UnknownHostException {
@@ -803,11 +822,20 @@ public class FileSystemManager {
         Path inputFilePath = new Path(pathUri.getPath());
         BrokerFileSystem fileSystem = getFileSystem(path, properties);
         try {
+            String cacheFileKey = null;
+            if (blockCache != null) {
+                long modificationTime = fileSystem.getDFSFileSystem().getFileStatus(inputFilePath)
+                        .getModificationTime();
+                cacheFileKey = BlockCache.fileKey(path, modificationTime);
+            }
             FSDataInputStream fsDataInputStream = fileSystem.getDFSFileSystem().open(inputFilePath, readBufferSize);
             fsDataInputStream.seek(startOffset);
+            ReadAheadReader reader = new ReadAheadReader(fsDataInputStream, startOffset, readBufferPool,
+                    BrokerConfig.hdfs_read_ahead_min_size_kb << 10, BrokerConfig.hdfs_read_ahead_max_size_kb << 10,
+                    blockCache, cacheFileKey);
             UUID uuid = UUID.randomUUID();
             TBrokerFD fd = parseUUIDToFD(uuid);
-            clientContextManager.putNewInputStream(clientId, fd, fsDataInputStream, fileSystem);
+            clientContextManager.putNewInputStream(clientId, fd, reader, fileSystem);
             return fd;
         } catch (IOException e) {
             logger.error("errors while open path", e);
@@ -816,51 +844,28 @@ public class FileSystemManager {
         }
     }
 
+    /**
+     * The returned buffer is borrowed from the read buffer pool,
+     * it is released by {@link ReleaseReadBufferProcessor} after the response is written.
+     */
     public ByteBuffer pread(TBrokerFD fd, long offset, long length) {
-        FSDataInputStream fsDataInputStream = clientContextManager.getFsDataInputStream(fd);
-        synchronized (fsDataInputStream) {
-            long currentStreamOffset;
-            try {
-                currentStreamOffset = fsDataInputStream.getPos();
-            } catch (IOException e) {
-                logger.error("errors while get file pos from output stream", e);
-                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
-                        "errors while get file pos from output stream");
-            }
-            if (currentStreamOffset != offset) {
-                // it's ok, when reading some format like parquet, it is not a sequential read
-                logger.debug("invalid offset, current read offset is "
-                        + currentStreamOffset + " is not equal to request offset "
-                        + offset + " seek to it");
-                try {
-                    fsDataInputStream.seek(offset);
-                } catch (IOException e) {
-                    throw new BrokerException(TBrokerOperationStatusCode.INVALID_INPUT_OFFSET,
-                            e, "current read offset {} is not equal to {}, and could not seek to it",
-                            currentStreamOffset, offset);
-                }
-            }
-            byte[] buf;
-            if (length > readBufferSize) {
-                buf = new byte[readBufferSize];
-            } else {
-                buf = new byte[(int) length];
-            }
-            try {
-                int readLength = readByteArrayFully(fsDataInputStream, buf);
-                if (readLength < 0) {
-                    throw new BrokerException(TBrokerOperationStatusCode.END_OF_FILE,
-                            "end of file reached");
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("read buffer from input stream, buffer size:" + buf.length + ", read length:" + readLength);
-                }
-                return ByteBuffer.wrap(buf, 0, readLength);
-            } catch (IOException e) {
-                logger.error("errors while read data from stream", e);
-                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
-                        e, "errors while read data from stream");
+        ReadAheadReader reader = clientContextManager.getReader(fd);
+        if (reader == null) {
+            throw new BrokerException(TBrokerOperationStatusCode.INVALID_ARGUMENT,
+                    "the fd {} is not opened or already closed", fd);
+        }
+        int readLength = (int) Math.min(length, readBufferSize);
+        try {
+            ByteBuffer buf = reader.pread(offset, readLength);
+            if (logger.isDebugEnabled()) {
+                logger.debug("read buffer from input stream, buffer size:" + readLength
+                        + ", read length:" + buf.remaining());
             }
+            return buf;
+        } catch (IOException e) {
+            logger.error("errors while read data from stream", e);
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    e, "errors while read data from stream");
         }
     }
 
@@ -945,18 +950,6 @@ public class FileSystemManager {
         return new TBrokerFD(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
-    private int readByteArrayFully(FSDataInputStream is, byte[] dest) throws IOException {
-        int readLength = 0;
-        while (readLength < dest.length) {
-            int n = is.read(dest, readLength, dest.length - readLength);
-            if (n <= 0) {
-                break;
-            }
-            readLength += n;
-        }
-        return readLength;
-    }
-
     class FileSystemExpirationChecker implements Runnable {
         @Override
         public void run() {
@@ -981,4 +974,23 @@ public class FileSystemManager {
         }
 
     }
+
+    class ReadMetricsLogger implements Runnable {
+        private long lastReadBytes = 0;
+
+        @Override
+        public void run() {
+            try {
+                long readBytes = BrokerPerfMonitor.getReadBytes();
+                if (readBytes != lastReadBytes) {
+                    logger.info("pread metrics, " + BrokerPerfMonitor.getReadMetrics()
+                            + ", pooled buffer bytes: " + readBufferPool.getPooledBytes()
+                            + ", block cache bytes: " + (blockCache == null ? 0 : blockCache.getUsedBytes()));
+                    lastReadBytes = readBytes;
+                }
+            } finally {
+                FileSystemManager.this.handleManagementPool.schedule(this, 60, TimeUnit.SECONDS);
+            }
+        }
+    }
 }
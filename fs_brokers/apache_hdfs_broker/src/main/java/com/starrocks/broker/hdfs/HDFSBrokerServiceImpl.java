@@ -56,6 +56,10 @@ public class HDFSBrokerServiceImpl implements TFileBrokerService.Iface {
     public HDFSBrokerServiceImpl() {
         fileSystemManager = new FileSystemManager();
     }
+
+    public ReadBufferPool getReadBufferPool() {
+        return fileSystemManager.getReadBufferPool();
+    }
     
     private TBrokerOperationStatus generateOKStatus() {
         return new TBrokerOperationStatus(TBrokerOperationStatusCode.OK);
@@ -155,7 +159,8 @@ public class HDFSBrokerServiceImpl implements TFileBrokerService.Iface {
         TBrokerReadResponse response = new TBrokerReadResponse();
         try {
             ByteBuffer readBuf = fileSystemManager.pread(request.fd, request.offset, request.length);
-            response.setData(readBuf);
+            // setData copies the buffer, the pooled buffer is released after the response is written
+            response.data = readBuf;
             response.setOpStatus(generateOKStatus());
         } catch (BrokerException e) {
             logger.warn("failed to pread: " + request.fd, e);
@@ -0,0 +1,210 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerPerfMonitor;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reader of an opened file, which serves pread with a read ahead window.
+ *
+ * The window is filled with one remote read when the file is read sequentially, and its size starts from
+ * the min read ahead size and doubles on every sequential read until the max size. A random read resets the
+ * size and is read directly, so formats like parquet and orc don't read useless data.
+ *
+ * Remote reads are positional reads, which don't change the position of the stream, so concurrent
+ * readers of the same file are not serialized, only the window is guarded by the lock of the reader.
+ *
+ * If the block cache is set, remote reads are aligned to blocks and served by the cache when the block is cached.
+ */
+public class ReadAheadReader {
+    private final FSDataInputStream inputStream;
+    private final ReadBufferPool readBufferPool;
+    private final int minReadAheadSize;
+    private final int maxReadAheadSize;
+    private final BlockCache blockCache;
+    // path and modification time of the file, the key of blocks in block cache
+    private final String cacheFileKey;
+
+    // guarded by this
+    private ByteBuffer window;
+    private long windowOffset = -1;
+    // the window is shorter than the read ahead size, reads after the window end are at the end of file
+    private boolean windowReachesEnd = false;
+    private long lastReadEnd = -1;
+    private int readAheadSize;
+    private boolean closed = false;
+
+    /**
+     * @param startOffset the offset of the first read, which is treated as a sequential read
+     */
+    public ReadAheadReader(FSDataInputStream inputStream, long startOffset, ReadBufferPool readBufferPool,
+                           int minReadAheadSize, int maxReadAheadSize) {
+        this(inputStream, startOffset, readBufferPool, minReadAheadSize, maxReadAheadSize, null, null);
+    }
+
+    public ReadAheadReader(FSDataInputStream inputStream, long startOffset, ReadBufferPool readBufferPool,
+                           int minReadAheadSize, int maxReadAheadSize, BlockCache blockCache, String cacheFileKey) {
+        this.inputStream = inputStream;
+        this.blockCache = blockCache;
+        this.cacheFileKey = cacheFileKey;
+        this.lastReadEnd = startOffset;
+        this.readBufferPool = readBufferPool;
+        this.minReadAheadSize = minReadAheadSize;
+        this.maxReadAheadSize = Math.max(minReadAheadSize, maxReadAheadSize);
+        this.readAheadSize = minReadAheadSize;
+    }
+
+    public FSDataInputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Read at most length bytes from offset.
+     * The returned buffer is borrowed from the pool, and is released after the response is written.
+     * The buffer is empty if offset is at the end of file.
+     */
+    public ByteBuffer pread(long offset, int length) throws IOException {
+        ByteBuffer result = readBufferPool.borrow(length);
+        boolean fillWindow;
+        int fillSize;
+        synchronized (this) {
+            if (copyFromWindow(offset, length, result)) {
+                BrokerPerfMonitor.addReadAheadHit();
+                lastReadEnd = offset + result.remaining();
+                BrokerPerfMonitor.addReadBytes(result.remaining());
+                return result;
+            }
+            BrokerPerfMonitor.addReadAheadMiss();
+            if (offset == lastReadEnd) {
+                readAheadSize = (int) Math.min(maxReadAheadSize, readAheadSize * 2L);
+            } else {
+                readAheadSize = minReadAheadSize;
+            }
+            fillWindow = offset == lastReadEnd && length < readAheadSize;
+            fillSize = readAheadSize;
+            lastReadEnd = offset + length;
+        }
+
+        if (!fillWindow) {
+            int readLength = readFully(offset, result.array(), result.arrayOffset(), length);
+            result.limit(readLength);
+            BrokerPerfMonitor.addReadBytes(readLength);
+            return result;
+        }
+
+        ByteBuffer newWindow = readBufferPool.allocate(fillSize);
+        int windowLength = readFully(offset, newWindow.array(), newWindow.arrayOffset(), fillSize);
+        newWindow.limit(windowLength);
+        int readLength = Math.min(length, windowLength);
+        System.arraycopy(newWindow.array(), newWindow.arrayOffset(), result.array(), result.arrayOffset(),
+                readLength);
+        result.limit(readLength);
+        BrokerPerfMonitor.addReadBytes(readLength);
+        synchronized (this) {
+            if (closed) {
+                readBufferPool.release(newWindow);
+            } else {
+                if (window != null) {
+                    readBufferPool.release(window);
+                }
+                window = newWindow;
+                windowOffset = offset;
+                windowReachesEnd = windowLength < fillSize;
+            }
+        }
+        return result;
+    }
+
+    // copy the data from window to result if the requested range is in the window,
+    // or the window reaches the end of file
+    private boolean copyFromWindow(long offset, int length, ByteBuffer result) {
+        if (window == null || offset < windowOffset) {
+            return false;
+        }
+        long windowEnd = windowOffset + window.limit();
+        if (offset + length > windowEnd && !(windowReachesEnd && offset <= windowEnd)) {
+            return false;
+        }
+        int readLength = (int) Math.min(length, windowEnd - offset);
+        System.arraycopy(window.array(), window.arrayOffset() + (int) (offset - windowOffset),
+                result.array(), result.arrayOffset(), readLength);
+        result.limit(readLength);
+        return true;
+    }
+
+    private int readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (blockCache == null) {
+            return readRemoteFully(position, buffer, offset, length);
+        }
+        int blockSize = blockCache.getBlockSize();
+        int readLength = 0;
+        while (readLength < length) {
+            long blockIndex = (position + readLength) / blockSize;
+            int offsetInBlock = (int) ((position + readLength) % blockSize);
+            int n = blockCache.read(cacheFileKey, blockIndex, offsetInBlock, buffer, offset + readLength,
+                    length - readLength);
+            if (n < 0) {
+                // read the whole block and cache it
+                ByteBuffer block = readBufferPool.allocate(blockSize);
+                try {
+                    int blockLength = readRemoteFully(blockIndex * blockSize, block.array(), block.arrayOffset(),
+                            blockSize);
+                    blockCache.put(cacheFileKey, blockIndex, block.array(), block.arrayOffset(), blockLength);
+                    n = Math.max(0, Math.min(blockLength - offsetInBlock, length - readLength));
+                    System.arraycopy(block.array(), block.arrayOffset() + offsetInBlock, buffer,
+                            offset + readLength, n);
+                } finally {
+                    readBufferPool.release(block);
+                }
+            }
+            if (n <= 0) {
+                break;
+            }
+            readLength += n;
+        }
+        return readLength;
+    }
+
+    private int readRemoteFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        int readLength = 0;
+        while (readLength < length) {
+            int n = inputStream.read(position + readLength, buffer, offset + readLength, length - readLength);
+            if (n <= 0) {
+                break;
+            }
+            BrokerPerfMonitor.addRemoteRead(n);
+            readLength += n;
+        }
+        return readLength;
+    }
+
+    /**
+     * Release the window, the input stream is closed by the caller.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (window != null) {
+            readBufferPool.release(window);
+            window = null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerPerfMonitor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of read buffers, to avoid allocating a new buffer for every pread.
+ *
+ * Buffers are grouped by capacity, which is the size rounded up to a power of two.
+ * The buffers are heap buffers, because thrift TBinaryProtocol writes a ByteBuffer through array().
+ *
+ * A buffer returned in a thrift response can't be released until the response is written,
+ * so it is borrowed by {@link ReadBufferPool#borrow(int)} and released by
+ * {@link ReadBufferPool#releaseBorrowedBuffers()} in the same thread after the request is processed,
+ * see {@link ReleaseReadBufferProcessor}.
+ */
+public class ReadBufferPool {
+    private static final int MIN_CAPACITY = 4 << 10;
+
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<ByteBuffer>> pools = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<ByteBuffer>> borrowedBuffers = ThreadLocal.withInitial(ArrayList::new);
+
+    public ReadBufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * @return a buffer whose position is 0 and limit is size
+     */
+    public ByteBuffer allocate(int size) {
+        int capacity = capacityOf(size);
+        ConcurrentLinkedQueue<ByteBuffer> pool = pools.get(capacity);
+        ByteBuffer buffer = pool == null ? null : pool.poll();
+        if (buffer == null) {
+            BrokerPerfMonitor.addBufferPoolMiss();
+            buffer = ByteBuffer.allocate(capacity);
+        } else {
+            BrokerPerfMonitor.addBufferPoolHit();
+            pooledBytes.addAndGet(-capacity);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (capacity != capacityOf(capacity)) {
+            // not allocated by the pool
+            return;
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        pools.computeIfAbsent(capacity, k -> new ConcurrentLinkedQueue<>()).offer(buffer);
+    }
+
+    /**
+     * Allocate a buffer which is released by {@link ReadBufferPool#releaseBorrowedBuffers()} in this thread.
+     */
+    public ByteBuffer borrow(int size) {
+        ByteBuffer buffer = allocate(size);
+        borrowedBuffers.get().add(buffer);
+        return buffer;
+    }
+
+    public void releaseBorrowedBuffers() {
+        List<ByteBuffer> buffers = borrowedBuffers.get();
+        if (buffers.isEmpty()) {
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            release(buffer);
+        }
+        buffers.clear();
+    }
+
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    static int capacityOf(int size) {
+        if (size <= MIN_CAPACITY) {
+            return MIN_CAPACITY;
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
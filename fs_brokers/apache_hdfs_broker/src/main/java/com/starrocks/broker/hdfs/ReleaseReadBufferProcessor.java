@@ -0,0 +1,45 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+
+/**
+ * Return the read buffers borrowed while processing a request to the pool
+ * after the response has been written.
+ */
+public class ReleaseReadBufferProcessor implements TProcessor {
+    private final TProcessor processor;
+    private final ReadBufferPool readBufferPool;
+
+    public ReleaseReadBufferProcessor(TProcessor processor, ReadBufferPool readBufferPool) {
+        this.processor = processor;
+        this.readBufferPool = readBufferPool;
+    }
+
+    @Override
+    public void process(TProtocol in, TProtocol out) throws TException {
+        try {
+            processor.process(in, out);
+        } finally {
+            readBufferPool.releaseBorrowedBuffers();
+        }
+    }
+}
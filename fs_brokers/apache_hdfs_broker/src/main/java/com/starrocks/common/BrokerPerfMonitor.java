@@ -19,11 +19,103 @@ package com.starrocks.common;
 
 import com.google.common.base.Stopwatch;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class BrokerPerfMonitor {
+    // bytes returned to clients by pread
+    private static final AtomicLong READ_BYTES = new AtomicLong();
+    // reads issued to the remote file system and the bytes read by them
+    private static final AtomicLong REMOTE_READ_IOPS = new AtomicLong();
+    private static final AtomicLong REMOTE_READ_BYTES = new AtomicLong();
+    // pread requests served from the read ahead window
+    private static final AtomicLong READ_AHEAD_HITS = new AtomicLong();
+    private static final AtomicLong READ_AHEAD_MISSES = new AtomicLong();
+    // read buffers reused from the pool and newly allocated
+    private static final AtomicLong BUFFER_POOL_HITS = new AtomicLong();
+    private static final AtomicLong BUFFER_POOL_MISSES = new AtomicLong();
+    // blocks read from the local block cache
+    private static final AtomicLong BLOCK_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong BLOCK_CACHE_HIT_BYTES = new AtomicLong();
+    private static final AtomicLong BLOCK_CACHE_MISSES = new AtomicLong();
 
     public static Stopwatch startWatch() {
         Stopwatch stopwatch = Stopwatch.createUnstarted();
         stopwatch.start();
         return stopwatch;
     }
+
+    public static void addReadBytes(long bytes) {
+        READ_BYTES.addAndGet(bytes);
+    }
+
+    public static void addRemoteRead(long bytes) {
+        REMOTE_READ_IOPS.incrementAndGet();
+        REMOTE_READ_BYTES.addAndGet(bytes);
+    }
+
+    public static void addReadAheadHit() {
+        READ_AHEAD_HITS.incrementAndGet();
+    }
+
+    public static void addReadAheadMiss() {
+        READ_AHEAD_MISSES.incrementAndGet();
+    }
+
+    public static void addBufferPoolHit() {
+        BUFFER_POOL_HITS.incrementAndGet();
+    }
+
+    public static void addBufferPoolMiss() {
+        BUFFER_POOL_MISSES.incrementAndGet();
+    }
+
+    public static void addBlockCacheHit(long bytes) {
+        BLOCK_CACHE_HITS.incrementAndGet();
+        BLOCK_CACHE_HIT_BYTES.addAndGet(bytes);
+    }
+
+    public static void addBlockCacheMiss() {
+        BLOCK_CACHE_MISSES.incrementAndGet();
+    }
+
+    public static long getBlockCacheHits() {
+        return BLOCK_CACHE_HITS.get();
+    }
+
+    public static long getBlockCacheMisses() {
+        return BLOCK_CACHE_MISSES.get();
+    }
+
+    public static long getReadBytes() {
+        return READ_BYTES.get();
+    }
+
+    public static long getRemoteReadIops() {
+        return REMOTE_READ_IOPS.get();
+    }
+
+    public static long getRemoteReadBytes() {
+        return REMOTE_READ_BYTES.get();
+    }
+
+    public static long getReadAheadHits() {
+        return READ_AHEAD_HITS.get();
+    }
+
+    public static long getReadAheadMisses() {
+        return READ_AHEAD_MISSES.get();
+    }
+
+    public static String getReadMetrics() {
+        return "read bytes: " + READ_BYTES.get()
+                + ", remote read iops: " + REMOTE_READ_IOPS.get()
+                + ", remote read bytes: " + REMOTE_READ_BYTES.get()
+                + ", read ahead hits: " + READ_AHEAD_HITS.get()
+                + ", read ahead misses: " + READ_AHEAD_MISSES.get()
+                + ", buffer pool hits: " + BUFFER_POOL_HITS.get()
+                + ", buffer pool misses: " + BUFFER_POOL_MISSES.get()
+                + ", block cache hits: " + BLOCK_CACHE_HITS.get()
+                + ", block cache hit bytes: " + BLOCK_CACHE_HIT_BYTES.get()
+                + ", block cache misses: " + BLOCK_CACHE_MISSES.get();
+    }
 }
@@ -0,0 +1,106 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class BlockCacheTest {
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("block_cache_test").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : cacheDir.listFiles()) {
+            file.delete();
+        }
+        cacheDir.delete();
+    }
+
+    private static byte[] block(int length, byte value) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (value + i);
+        }
+        return data;
+    }
+
+    @Test
+    public void testPutAndRead() throws IOException {
+        BlockCache cache = new BlockCache(cacheDir.getAbsolutePath(), 1 << 20, 1024);
+        String fileKey = BlockCache.fileKey("hdfs://host/path/file", 100);
+        byte[] dst = new byte[1024];
+        Assert.assertEquals(-1, cache.read(fileKey, 0, 0, dst, 0, 1024));
+
+        cache.put(fileKey, 0, block(1024, (byte) 0), 0, 1024);
+        // the last block of the file is short
+        cache.put(fileKey, 1, block(100, (byte) 1), 0, 100);
+        Assert.assertEquals(1124, cache.getUsedBytes());
+
+        Assert.assertEquals(24, cache.read(fileKey, 0, 1000, dst, 0, 1024));
+        Assert.assertEquals((byte) 1000, dst[0]);
+        Assert.assertEquals(50, cache.read(fileKey, 1, 50, dst, 10, 1024));
+        Assert.assertEquals((byte) 51, dst[10]);
+        Assert.assertEquals(0, cache.read(fileKey, 1, 100, dst, 0, 1024));
+
+        // a rewritten file has a new modification time and never hits the old blocks
+        Assert.assertEquals(-1, cache.read(BlockCache.fileKey("hdfs://host/path/file", 200), 0, 0, dst, 0, 1024));
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        BlockCache cache = new BlockCache(cacheDir.getAbsolutePath(), 3 * 1024, 1024);
+        String fileKey = BlockCache.fileKey("hdfs://host/path/file", 100);
+        byte[] dst = new byte[1024];
+        for (int i = 0; i < 3; i++) {
+            cache.put(fileKey, i, block(1024, (byte) i), 0, 1024);
+        }
+        // block 0 is the most recently used one, so block 1 is evicted first
+        Assert.assertEquals(1024, cache.read(fileKey, 0, 0, dst, 0, 1024));
+        cache.put(fileKey, 3, block(1024, (byte) 3), 0, 1024);
+        Assert.assertEquals(3 * 1024, cache.getUsedBytes());
+        Assert.assertEquals(3, cacheDir.listFiles().length);
+        Assert.assertEquals(-1, cache.read(fileKey, 1, 0, dst, 0, 1024));
+        Assert.assertEquals(1024, cache.read(fileKey, 0, 0, dst, 0, 1024));
+        Assert.assertEquals(1024, cache.read(fileKey, 2, 0, dst, 0, 1024));
+        Assert.assertEquals(1024, cache.read(fileKey, 3, 0, dst, 0, 1024));
+    }
+
+    @Test
+    public void testClearOnCreate() throws IOException {
+        BlockCache cache = new BlockCache(cacheDir.getAbsolutePath(), 1 << 20, 1024);
+        cache.put(BlockCache.fileKey("file", 1), 0, block(10, (byte) 0), 0, 10);
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+        // the files not written by the cache are kept
+        File otherFile = new File(cacheDir, "other_file");
+        Assert.assertTrue(otherFile.createNewFile());
+        new BlockCache(cacheDir.getAbsolutePath(), 1 << 20, 1024);
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+        Assert.assertTrue(otherFile.exists());
+    }
+}
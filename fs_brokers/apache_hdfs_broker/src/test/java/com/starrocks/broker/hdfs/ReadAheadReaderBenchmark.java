@@ -0,0 +1,119 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerPerfMonitor;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Compare pread of the broker against a local file, with the seek and read on a shared stream
+ * and a new buffer per call as before, and with {@link ReadAheadReader}.
+ *
+ * Usage: ReadAheadReaderBenchmark [file size mb] [read size kb] [threads]
+ */
+public class ReadAheadReaderBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int fileSizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int readSize = (args.length > 1 ? Integer.parseInt(args[1]) : 64) << 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        File file = File.createTempFile("read_ahead_reader_benchmark", ".data");
+        try {
+            byte[] block = new byte[1 << 20];
+            new Random(0).nextBytes(block);
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                for (int i = 0; i < fileSizeMb; i++) {
+                    out.write(block);
+                }
+            }
+            FileSystem fs = FileSystem.getLocal(new Configuration());
+            Path path = new Path(file.getAbsolutePath());
+            long fileSize = (long) fileSizeMb << 20;
+            for (int round = 0; round < 3; round++) {
+                System.out.printf("seek and read: %d ms%n", run(fs, path, fileSize, readSize, threads, false));
+                System.out.printf("read ahead:    %d ms%n", run(fs, path, fileSize, readSize, threads, true));
+            }
+            System.out.println(BrokerPerfMonitor.getReadMetrics());
+        } finally {
+            file.delete();
+        }
+    }
+
+    // every thread reads its own range of the file sequentially through the same stream
+    private static long run(FileSystem fs, Path path, long fileSize, int readSize, int threads, boolean readAhead)
+            throws Exception {
+        ReadBufferPool pool = new ReadBufferPool(256L << 20);
+        try (FSDataInputStream in = fs.open(path)) {
+            ReadAheadReader reader = new ReadAheadReader(in, 0, pool, 128 << 10, 8 << 20);
+            long rangeSize = fileSize / threads;
+            Thread[] workers = new Thread[threads];
+            long start = System.currentTimeMillis();
+            for (int t = 0; t < threads; t++) {
+                long rangeStart = rangeSize * t;
+                workers[t] = new Thread(() -> {
+                    try {
+                        for (long offset = rangeStart; offset < rangeStart + rangeSize; offset += readSize) {
+                            if (readAhead) {
+                                reader.pread(offset, readSize);
+                                pool.releaseBorrowedBuffers();
+                            } else {
+                                seekAndRead(in, offset, readSize);
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            reader.close();
+            return System.currentTimeMillis() - start;
+        }
+    }
+
+    private static ByteBuffer seekAndRead(FSDataInputStream in, long offset, int length) throws IOException {
+        synchronized (in) {
+            if (in.getPos() != offset) {
+                in.seek(offset);
+            }
+            byte[] buf = new byte[length];
+            int readLength = 0;
+            while (readLength < length) {
+                int n = in.read(buf, readLength, length - readLength);
+                if (n <= 0) {
+                    break;
+                }
+                readLength += n;
+            }
+            return ByteBuffer.wrap(buf, 0, readLength);
+        }
+    }
+}
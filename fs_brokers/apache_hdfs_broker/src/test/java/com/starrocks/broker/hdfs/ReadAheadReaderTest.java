@@ -0,0 +1,165 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerPerfMonitor;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class ReadAheadReaderTest {
+    private static final int FILE_SIZE = 1 << 20;
+
+    private File file;
+    private byte[] content;
+    private FileSystem fs;
+    private ReadBufferPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("read_ahead_reader_test", ".data");
+        content = new byte[FILE_SIZE];
+        new Random(0).nextBytes(content);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        fs = FileSystem.getLocal(new Configuration());
+        pool = new ReadBufferPool(64 << 20);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.releaseBorrowedBuffers();
+        fs.close();
+        file.delete();
+    }
+
+    private ReadAheadReader open(long startOffset) throws IOException {
+        FSDataInputStream in = fs.open(new Path(file.getAbsolutePath()));
+        return new ReadAheadReader(in, startOffset, pool, 4 << 10, 64 << 10);
+    }
+
+    private void assertContent(long offset, ByteBuffer buffer, int expectedLength) {
+        Assert.assertEquals(expectedLength, buffer.remaining());
+        for (int i = 0; i < expectedLength; i++) {
+            Assert.assertEquals(content[(int) offset + i], buffer.get(buffer.position() + i));
+        }
+    }
+
+    @Test
+    public void testSequentialRead() throws IOException {
+        ReadAheadReader reader = open(0);
+        long hits = BrokerPerfMonitor.getReadAheadHits();
+        long offset = 0;
+        while (true) {
+            ByteBuffer buffer = reader.pread(offset, 1000);
+            int expected = (int) Math.min(1000, FILE_SIZE - offset);
+            assertContent(offset, buffer, expected);
+            if (expected == 0) {
+                break;
+            }
+            offset += expected;
+            pool.releaseBorrowedBuffers();
+        }
+        Assert.assertEquals(FILE_SIZE, offset);
+        // most of the small sequential reads are served by the window
+        Assert.assertTrue(BrokerPerfMonitor.getReadAheadHits() - hits > FILE_SIZE / 1000 / 2);
+        reader.close();
+        reader.getInputStream().close();
+    }
+
+    @Test
+    public void testRandomRead() throws IOException {
+        ReadAheadReader reader = open(0);
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            long offset = random.nextInt(FILE_SIZE);
+            int length = random.nextInt(100 << 10);
+            ByteBuffer buffer = reader.pread(offset, length);
+            assertContent(offset, buffer, (int) Math.min(length, FILE_SIZE - offset));
+            pool.releaseBorrowedBuffers();
+        }
+        reader.close();
+        reader.getInputStream().close();
+    }
+
+    @Test
+    public void testBlockCache() throws IOException {
+        File cacheDir = new File(file.getAbsolutePath() + ".cache");
+        BlockCache blockCache = new BlockCache(cacheDir.getAbsolutePath(), 64 << 20, 64 << 10);
+        String cacheFileKey = BlockCache.fileKey(file.getAbsolutePath(), file.lastModified());
+        try {
+            for (int round = 0; round < 2; round++) {
+                long remoteReadBytes = BrokerPerfMonitor.getRemoteReadBytes();
+                FSDataInputStream in = fs.open(new Path(file.getAbsolutePath()));
+                ReadAheadReader reader =
+                        new ReadAheadReader(in, 0, pool, 4 << 10, 64 << 10, blockCache, cacheFileKey);
+                Random random = new Random(2);
+                for (int i = 0; i < 100; i++) {
+                    long offset = random.nextInt(FILE_SIZE);
+                    int length = random.nextInt(100 << 10);
+                    ByteBuffer buffer = reader.pread(offset, length);
+                    assertContent(offset, buffer, (int) Math.min(length, FILE_SIZE - offset));
+                    pool.releaseBorrowedBuffers();
+                }
+                // all blocks read in the first round are served by the cache in the second round
+                if (round == 1) {
+                    Assert.assertEquals(remoteReadBytes, BrokerPerfMonitor.getRemoteReadBytes());
+                }
+                reader.close();
+                in.close();
+            }
+            Assert.assertTrue(blockCache.getUsedBytes() > 0);
+        } finally {
+            for (File cacheFile : cacheDir.listFiles()) {
+                cacheFile.delete();
+            }
+            cacheDir.delete();
+        }
+    }
+
+    @Test
+    public void testBufferPool() {
+        Assert.assertEquals(4 << 10, ReadBufferPool.capacityOf(1));
+        Assert.assertEquals(8 << 10, ReadBufferPool.capacityOf((4 << 10) + 1));
+        Assert.assertEquals(1 << 20, ReadBufferPool.capacityOf(1 << 20));
+
+        ReadBufferPool smallPool = new ReadBufferPool(16 << 10);
+        ByteBuffer buffer = smallPool.allocate(5000);
+        Assert.assertEquals(5000, buffer.remaining());
+        smallPool.release(buffer);
+        Assert.assertEquals(8 << 10, smallPool.getPooledBytes());
+        Assert.assertSame(buffer, smallPool.allocate(6000));
+        Assert.assertEquals(0, smallPool.getPooledBytes());
+
+        // buffers over the max pooled bytes are dropped
+        smallPool.release(smallPool.allocate(32 << 10));
+        Assert.assertEquals(0, smallPool.getPooledBytes());
+    }
+}
@@ -385,6 +385,21 @@ struct TReportExecStatusResult {
   1: optional Status.TStatus status
 }
 
+// Fetch the scan ranges of a scan node not sent in the plan fragment,
+// see THdfsScanNode.has_more_scan_ranges
+struct TGetScanRangesParams {
+  1: optional Types.TUniqueId query_id
+  2: optional Types.TUniqueId fragment_instance_id
+  3: optional Types.TPlanNodeId plan_node_id
+}
+
+struct TGetScanRangesResult {
+  1: optional Status.TStatus status
+  2: optional list<InternalService.TScanRangeParams> scan_ranges
+  // false if all scan ranges of the scan node have been fetched
+  3: optional bool has_more
+}
+
 // Service Protocol Details
 enum FrontendServiceVersion {
   V1
@@ -1043,6 +1058,7 @@ service FrontendService {
     TShowVariableResult showVariables(1:TShowVariableRequest params)
     TReportExecStatusResult reportExecStatus(1:TReportExecStatusParams params)
     TBatchReportExecStatusResult batchReportExecStatus(1:TBatchReportExecStatusParams params)
+    TGetScanRangesResult getScanRanges(1:TGetScanRangesParams params)
 
     MasterService.TMasterResult finishTask(1:MasterService.TFinishTaskRequest request)
     MasterService.TMasterResult report(1:MasterService.TReportRequest request)
@@ -41,6 +41,10 @@ struct TBackendInfo {
     6: optional i32 num_hardware_cores
     7: optional Types.TPort starlet_port
     8: optional i64 reboot_time
+    // load of the backend for the query admission of frontend
+    9: optional i64 mem_used_bytes
+    10: optional i64 mem_limit_bytes
+    11: optional i32 num_running_queries
 }
 
 struct THeartbeatResult {
@@ -105,6 +105,9 @@ struct TInternalScanRange {
   7: optional list<TKeyRange> partition_column_ranges
   8: optional string index_name
   9: optional string table_name
+  // Only the rowsets of the versions in [start_version, version] are read if set, it's used to read
+  // the data appended since the last refresh of the incremental materialized views.
+  10: optional i64 start_version
 }
 
 enum TFileFormatType {
@@ -270,6 +273,12 @@ struct THdfsScanRange {
     10: optional bool use_hudi_jni_reader;
 }
 
+// One split of a JDBC table scan, the predicates are appended to the
+// WHERE clause of the query sent to the remote database
+struct TJDBCScanRange {
+    1: optional list<string> filters
+}
+
 // Specification of an individual data range which is held in its entirety
 // by a storage server
 struct TScanRange {
@@ -281,6 +290,9 @@ struct TScanRange {
 
   // scan range for hdfs
   20: optional THdfsScanRange hdfs_scan_range
+
+  // scan range for jdbc
+  21: optional TJDBCScanRange jdbc_scan_range
 }
 
 struct TMySQLScanNode {
@@ -856,6 +868,10 @@ struct THdfsScanNode {
 
     // Flag to indicate wheather the column names are case sensitive
     12: optional bool case_sensitive;
+
+    // The scan ranges in the plan fragment are only the first ones, the instances
+    // fetch the rest in batches from the coordinator by FrontendService.getScanRanges
+    13: optional bool has_more_scan_ranges;
 }
 
 struct TProjectNode {
@@ -0,0 +1,654 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.hudi.reader;
+
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.jni.connector.OffHeapColumnVector.OffHeapColumnType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieRecordPayload;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.TableSchemaResolver;
+import org.apache.hudi.common.table.log.HoodieMergedLogRecordScanner;
+import org.apache.hudi.common.util.Option;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.DecimalMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar reader of a hudi file slice.
+ *
+ * The base parquet file is read column by column with the parquet column readers, values of one batch
+ * are decoded into primitive arrays and appended to the off-heap column vectors in bulk.
+ * For merge-on-read slices, the log files are scanned once into a map indexed by record key,
+ * a base row whose key has a log record is replaced (or dropped if deleted) by the log record,
+ * the log records which do not match any base row are appended after the base file is exhausted.
+ * Replacing the base row is only the merge of {@link OverwriteWithLatestAvroPayload}, merge-on-read slices
+ * of tables with other payloads (ordering field, partial update, ...) are not opened by this reader.
+ *
+ * Only flat columns of the types in {@link com.starrocks.jni.connector.TypeMapping} are supported,
+ * the caller should fall back to the InputFormat reader for other types.
+ */
+public class HudiColumnarReader implements Closeable {
+    private static final String RECORD_KEY_FIELD = HoodieRecord.RECORD_KEY_METADATA_FIELD;
+    private static final int LOG_SCANNER_BUFFER_SIZE = 1024 * 1024;
+    private static final long LOG_SCANNER_MAX_MEMORY = 512L * 1024 * 1024;
+
+    /**
+     * Sink of the decoded values, implemented by the scanner
+     */
+    public interface ValueAppender {
+        OffHeapColumnVector getColumnVector(int index);
+
+        void appendValue(int index, Object value);
+    }
+
+    private final Configuration conf;
+    private final String basePath;
+    private final String dataFilePath;
+    private final String[] deltaFilePaths;
+    private final String instantTime;
+    private final String[] requiredFields;
+    private final OffHeapColumnType[] requiredTypes;
+
+    private ParquetFileReader fileReader;
+    private MessageType requestedSchema;
+    private String createdBy;
+    // column index in requested schema of each required field, -1 if the field is not in the file
+    private int[] fileColumnIndexes;
+    // column index in requested schema of the record key, -1 if no log files
+    private int recordKeyIndex = -1;
+    // index in required fields of the record key, -1 if the record key is not required
+    private int recordKeyFieldIndex = -1;
+
+    private ColumnReader[] columnReaders;
+    private long rowsLeftInGroup = 0;
+    private boolean baseExhausted = false;
+
+    // log records indexed by record key
+    private HoodieMergedLogRecordScanner logScanner;
+    private Map<String, HoodieRecord<? extends HoodieRecordPayload>> logRecords;
+    private Set<String> mergedKeys;
+    private Iterator<HoodieRecord<? extends HoodieRecordPayload>> pendingLogRecords;
+    private Schema readerSchema;
+    private int[] avroFieldIndexes;
+
+    // reused batch buffers
+    private Object[] batchValues;
+    private boolean[][] batchNulls;
+    private String[] batchKeys;
+
+    public HudiColumnarReader(Configuration conf, String basePath, String dataFilePath, String[] deltaFilePaths,
+                              String instantTime, String[] requiredFields, OffHeapColumnType[] requiredTypes) {
+        this.conf = conf;
+        this.basePath = basePath;
+        this.dataFilePath = dataFilePath;
+        this.deltaFilePaths = deltaFilePaths;
+        this.instantTime = instantTime;
+        this.requiredFields = requiredFields;
+        this.requiredTypes = requiredTypes;
+    }
+
+    /**
+     * @return false if the log records of the slice can't be merged by this reader,
+     * the caller should close it and fall back to the InputFormat reader
+     */
+    public boolean open() throws IOException {
+        if (deltaFilePaths.length > 0 && !openLogScanner()) {
+            return false;
+        }
+        if (dataFilePath == null || dataFilePath.isEmpty()) {
+            // log files only slice
+            baseExhausted = true;
+            return true;
+        }
+
+        fileReader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(dataFilePath), conf));
+        MessageType fileSchema = fileReader.getFooter().getFileMetaData().getSchema();
+        createdBy = fileReader.getFooter().getFileMetaData().getCreatedBy();
+
+        List<Type> fields = new ArrayList<>();
+        fileColumnIndexes = new int[requiredFields.length];
+        for (int i = 0; i < requiredFields.length; i++) {
+            Type field = findField(fileSchema, requiredFields[i]);
+            if (field == null) {
+                fileColumnIndexes[i] = -1;
+                continue;
+            }
+            if (!field.isPrimitive()) {
+                throw new IOException("Unsupported nested column in columnar reader: " + requiredFields[i]);
+            }
+            fileColumnIndexes[i] = fields.size();
+            fields.add(field);
+        }
+        if (logRecords != null) {
+            Type keyField = findField(fileSchema, RECORD_KEY_FIELD);
+            if (keyField == null) {
+                throw new IOException("Record key field not found in base file: " + dataFilePath);
+            }
+            recordKeyIndex = fields.indexOf(keyField);
+            if (recordKeyIndex >= 0) {
+                for (int i = 0; i < fileColumnIndexes.length; i++) {
+                    if (fileColumnIndexes[i] == recordKeyIndex) {
+                        recordKeyFieldIndex = i;
+                    }
+                }
+            } else {
+                recordKeyIndex = fields.size();
+                fields.add(keyField);
+            }
+        }
+        requestedSchema = new MessageType(fileSchema.getName(), fields);
+        fileReader.setRequestedSchema(requestedSchema);
+
+        batchValues = new Object[requiredFields.length];
+        batchNulls = new boolean[requiredFields.length][];
+        return true;
+    }
+
+    private boolean openLogScanner() throws IOException {
+        try {
+            HoodieTableMetaClient metaClient = HoodieTableMetaClient.builder().setConf(conf).setBasePath(basePath)
+                    .build();
+            // other payloads combine the log record with the base row, e.g. by the ordering field
+            if (!OverwriteWithLatestAvroPayload.class.getName().equals(
+                    metaClient.getTableConfig().getPayloadClass())) {
+                return false;
+            }
+            readerSchema = new TableSchemaResolver(metaClient).getTableAvroSchema();
+        } catch (Exception e) {
+            throw new IOException("Failed to resolve the avro schema of hudi table " + basePath, e);
+        }
+        logScanner = HoodieMergedLogRecordScanner.newBuilder()
+                .withFileSystem(FileSystem.get(new Path(basePath).toUri(), conf))
+                .withBasePath(basePath)
+                .withLogFilePaths(Arrays.asList(deltaFilePaths))
+                .withReaderSchema(readerSchema)
+                .withLatestInstantTime(instantTime)
+                .withReadBlocksLazily(true)
+                .withReverseReader(false)
+                .withBufferSize(LOG_SCANNER_BUFFER_SIZE)
+                .withMaxMemorySizeInBytes(LOG_SCANNER_MAX_MEMORY)
+                .withSpillableMapBasePath(System.getProperty("java.io.tmpdir"))
+                .build();
+        logRecords = logScanner.getRecords();
+        mergedKeys = new HashSet<>();
+        avroFieldIndexes = new int[requiredFields.length];
+        for (int i = 0; i < requiredFields.length; i++) {
+            Schema.Field field = readerSchema.getField(requiredFields[i]);
+            avroFieldIndexes[i] = field == null ? -1 : field.pos();
+        }
+        return true;
+    }
+
+    private static Type findField(MessageType schema, String name) {
+        // hive lower-cases the column names
+        for (Type field : schema.getFields()) {
+            if (field.getName().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read at most maxRows rows and append them to the column vectors
+     * @return the number of rows appended
+     */
+    public int read(int maxRows, ValueAppender appender) throws IOException {
+        int numRows = 0;
+        while (numRows < maxRows && !baseExhausted) {
+            if (rowsLeftInGroup == 0 && !nextRowGroup()) {
+                baseExhausted = true;
+                break;
+            }
+            int batchSize = (int) Math.min(rowsLeftInGroup, maxRows - numRows);
+            numRows += readBaseBatch(batchSize, appender);
+            rowsLeftInGroup -= batchSize;
+        }
+        if (baseExhausted && logRecords != null) {
+            numRows += readPendingLogRecords(maxRows - numRows, appender);
+        }
+        return numRows;
+    }
+
+    private boolean nextRowGroup() throws IOException {
+        PageReadStore pages = fileReader.readNextRowGroup();
+        if (pages == null) {
+            return false;
+        }
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(pages,
+                new GroupRecordConverter(requestedSchema).getRootConverter(), requestedSchema, createdBy);
+        List<ColumnDescriptor> columns = requestedSchema.getColumns();
+        columnReaders = new ColumnReader[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            columnReaders[i] = store.getColumnReader(columns.get(i));
+        }
+        rowsLeftInGroup = pages.getRowCount();
+        return true;
+    }
+
+    private int readBaseBatch(int batchSize, ValueAppender appender) {
+        // 1. decide which base rows are kept, a null entry means the row is kept as it is
+        IndexedRecord[] replaced = null;
+        boolean[] dropped = null;
+        if (recordKeyIndex >= 0) {
+            readRecordKeys(batchSize);
+            for (int row = 0; row < batchSize; row++) {
+                HoodieRecord<? extends HoodieRecordPayload> record = logRecords.get(batchKeys[row]);
+                if (record == null) {
+                    continue;
+                }
+                mergedKeys.add(batchKeys[row]);
+                if (replaced == null) {
+                    replaced = new IndexedRecord[batchSize];
+                    dropped = new boolean[batchSize];
+                }
+                Option<IndexedRecord> value = getInsertValue(record);
+                if (value.isPresent()) {
+                    replaced[row] = value.get();
+                } else {
+                    dropped[row] = true;
+                }
+            }
+        }
+
+        // 2. decode each column and append runs of kept base rows in bulk
+        int numRows = 0;
+        for (int i = 0; i < requiredFields.length; i++) {
+            OffHeapColumnVector vector = appender.getColumnVector(i);
+            if (fileColumnIndexes[i] < 0) {
+                numRows = appendMissingColumn(i, batchSize, replaced, dropped, appender);
+                continue;
+            }
+            if (i != recordKeyFieldIndex) {
+                // the record key column has been decoded when reading record keys
+                decodeColumn(i, batchSize);
+            }
+            numRows = 0;
+            int runStart = 0;
+            for (int row = 0; row <= batchSize; row++) {
+                boolean fromBase = row < batchSize && (replaced == null || (replaced[row] == null && !dropped[row]));
+                if (fromBase) {
+                    continue;
+                }
+                numRows += appendRun(i, vector, runStart, row - runStart);
+                if (row < batchSize && replaced[row] != null) {
+                    appender.appendValue(i, fromAvro(i, replaced[row]));
+                    numRows++;
+                }
+                runStart = row + 1;
+            }
+        }
+        if (requiredFields.length == 0) {
+            // count(*) like queries
+            for (int row = 0; row < batchSize; row++) {
+                if (replaced == null || !dropped[row]) {
+                    numRows++;
+                }
+            }
+        }
+        return numRows;
+    }
+
+    private int appendMissingColumn(int index, int batchSize, IndexedRecord[] replaced, boolean[] dropped,
+                                    ValueAppender appender) {
+        int numRows = 0;
+        for (int row = 0; row < batchSize; row++) {
+            if (replaced != null && replaced[row] != null) {
+                appender.appendValue(index, fromAvro(index, replaced[row]));
+                numRows++;
+            } else if (replaced == null || !dropped[row]) {
+                appender.getColumnVector(index).appendNull();
+                numRows++;
+            }
+        }
+        return numRows;
+    }
+
+    // the same as combineAndGetUpdateValue of OverwriteWithLatestAvroPayload, which ignores the base row
+    private Option<IndexedRecord> getInsertValue(HoodieRecord<? extends HoodieRecordPayload> record) {
+        try {
+            return record.getData().getInsertValue(readerSchema);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read hudi log record " + record.getRecordKey(), e);
+        }
+    }
+
+    private void readRecordKeys(int batchSize) {
+        if (batchKeys == null || batchKeys.length < batchSize) {
+            batchKeys = new String[batchSize];
+        }
+        if (recordKeyFieldIndex >= 0) {
+            decodeColumn(recordKeyFieldIndex, batchSize);
+            byte[][] values = (byte[][]) batchValues[recordKeyFieldIndex];
+            for (int row = 0; row < batchSize; row++) {
+                batchKeys[row] = values[row] == null ? null : new String(values[row], StandardCharsets.UTF_8);
+            }
+            return;
+        }
+        ColumnReader reader = columnReaders[recordKeyIndex];
+        int maxDef = reader.getDescriptor().getMaxDefinitionLevel();
+        for (int row = 0; row < batchSize; row++) {
+            if (reader.getCurrentDefinitionLevel() == maxDef) {
+                batchKeys[row] = reader.getBinary().toStringUsingUTF8();
+            } else {
+                batchKeys[row] = null;
+            }
+            reader.consume();
+        }
+    }
+
+    private void decodeColumn(int index, int batchSize) {
+        ColumnReader reader = columnReaders[fileColumnIndexes[index]];
+        ColumnDescriptor descriptor = reader.getDescriptor();
+        int maxDef = descriptor.getMaxDefinitionLevel();
+        boolean[] nulls = batchNulls[index];
+        if (nulls == null || nulls.length < batchSize) {
+            nulls = new boolean[batchSize];
+            batchNulls[index] = nulls;
+        }
+        PrimitiveType primitiveType = descriptor.getPrimitiveType();
+        switch (requiredTypes[index]) {
+            case BOOLEAN: {
+                boolean[] values = ensureCapacity(index, batchSize, boolean[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = !nulls[row] && reader.getBoolean();
+                    reader.consume();
+                }
+                break;
+            }
+            case BYTE: {
+                byte[] values = ensureCapacity(index, batchSize, byte[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : (byte) reader.getInteger();
+                    reader.consume();
+                }
+                break;
+            }
+            case SHORT: {
+                short[] values = ensureCapacity(index, batchSize, short[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : (short) reader.getInteger();
+                    reader.consume();
+                }
+                break;
+            }
+            case INT: {
+                int[] values = ensureCapacity(index, batchSize, int[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : reader.getInteger();
+                    reader.consume();
+                }
+                break;
+            }
+            case LONG: {
+                long[] values = ensureCapacity(index, batchSize, long[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : reader.getLong();
+                    reader.consume();
+                }
+                break;
+            }
+            case FLOAT: {
+                float[] values = ensureCapacity(index, batchSize, float[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : reader.getFloat();
+                    reader.consume();
+                }
+                break;
+            }
+            case DOUBLE: {
+                double[] values = ensureCapacity(index, batchSize, double[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? 0 : reader.getDouble();
+                    reader.consume();
+                }
+                break;
+            }
+            case DECIMAL: {
+                BigDecimal[] values = ensureCapacity(index, batchSize, BigDecimal[].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? null : readDecimal(reader, primitiveType);
+                    reader.consume();
+                }
+                break;
+            }
+            case STRING:
+            case DATE: {
+                // variable length values are kept as utf-8 bytes
+                byte[][] values = ensureCapacity(index, batchSize, byte[][].class);
+                for (int row = 0; row < batchSize; row++) {
+                    nulls[row] = reader.getCurrentDefinitionLevel() != maxDef;
+                    values[row] = nulls[row] ? null : readBytes(index, reader, primitiveType);
+                    reader.consume();
+                }
+                break;
+            }
+            default:
+                throw new RuntimeException("Unsupported type: " + requiredTypes[index]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T ensureCapacity(int index, int batchSize, Class<T> clazz) {
+        Object values = batchValues[index];
+        if (values == null || Array.getLength(values) < batchSize) {
+            values = Array.newInstance(clazz.getComponentType(), batchSize);
+            batchValues[index] = values;
+        }
+        return (T) values;
+    }
+
+    private byte[] readBytes(int index, ColumnReader reader, PrimitiveType primitiveType) {
+        switch (requiredTypes[index]) {
+            case DATE:
+                // the same format as java.sql.Date.toString
+                return LocalDate.ofEpochDay(reader.getInteger()).toString().getBytes(StandardCharsets.UTF_8);
+            default: {
+                Binary binary = reader.getBinary();
+                return binary.getBytes();
+            }
+        }
+    }
+
+    private static BigDecimal readDecimal(ColumnReader reader, PrimitiveType primitiveType) {
+        DecimalMetadata decimal = primitiveType.getDecimalMetadata();
+        int scale = decimal == null ? 0 : decimal.getScale();
+        switch (primitiveType.getPrimitiveTypeName()) {
+            case INT32:
+                return BigDecimal.valueOf(reader.getInteger(), scale);
+            case INT64:
+                return BigDecimal.valueOf(reader.getLong(), scale);
+            default:
+                return new BigDecimal(new BigInteger(reader.getBinary().getBytes()), scale);
+        }
+    }
+
+    // append count values of column index from the decoded batch, skipping nulls one by one
+    private int appendRun(int index, OffHeapColumnVector vector, int start, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        boolean[] nulls = batchNulls[index];
+        int runStart = start;
+        int end = start + count;
+        for (int row = start; row <= end; row++) {
+            if (row < end && !nulls[row]) {
+                continue;
+            }
+            appendNotNull(index, vector, runStart, row - runStart);
+            if (row < end) {
+                vector.appendNull();
+            }
+            runStart = row + 1;
+        }
+        return count;
+    }
+
+    private void appendNotNull(int index, OffHeapColumnVector vector, int start, int count) {
+        if (count == 0) {
+            return;
+        }
+        Object values = batchValues[index];
+        switch (requiredTypes[index]) {
+            case BOOLEAN:
+                vector.appendBooleans((boolean[]) values, start, count);
+                break;
+            case BYTE:
+                vector.appendBytes((byte[]) values, start, count);
+                break;
+            case SHORT:
+                vector.appendShorts((short[]) values, start, count);
+                break;
+            case INT:
+                vector.appendInts((int[]) values, start, count);
+                break;
+            case LONG:
+                vector.appendLongs((long[]) values, start, count);
+                break;
+            case FLOAT:
+                vector.appendFloats((float[]) values, start, count);
+                break;
+            case DOUBLE:
+                vector.appendDoubles((double[]) values, start, count);
+                break;
+            case DECIMAL: {
+                BigDecimal[] decimals = (BigDecimal[]) values;
+                for (int row = start; row < start + count; row++) {
+                    vector.appendDecimal(decimals[row]);
+                }
+                break;
+            }
+            default: {
+                byte[][] bytes = (byte[][]) values;
+                for (int row = start; row < start + count; row++) {
+                    vector.appendByteArray(bytes[row], 0, bytes[row].length);
+                }
+                break;
+            }
+        }
+    }
+
+    private int readPendingLogRecords(int maxRows, ValueAppender appender) {
+        if (pendingLogRecords == null) {
+            pendingLogRecords = logRecords.values().iterator();
+        }
+        int numRows = 0;
+        while (numRows < maxRows && pendingLogRecords.hasNext()) {
+            HoodieRecord<? extends HoodieRecordPayload> record = pendingLogRecords.next();
+            if (mergedKeys.contains(record.getRecordKey())) {
+                continue;
+            }
+            Option<IndexedRecord> value = getInsertValue(record);
+            if (!value.isPresent()) {
+                continue;
+            }
+            for (int i = 0; i < requiredFields.length; i++) {
+                appender.appendValue(i, fromAvro(i, value.get()));
+            }
+            numRows++;
+        }
+        return numRows;
+    }
+
+    // convert avro value to the java object accepted by OffHeapTable.appendData
+    private Object fromAvro(int index, IndexedRecord record) {
+        if (avroFieldIndexes[index] < 0) {
+            return null;
+        }
+        Object value = record.get(avroFieldIndexes[index]);
+        if (value == null) {
+            return null;
+        }
+        switch (requiredTypes[index]) {
+            case BYTE:
+                return ((Number) value).byteValue();
+            case SHORT:
+                return ((Number) value).shortValue();
+            case DATE:
+                return value instanceof Integer ? LocalDate.ofEpochDay((Integer) value) : value;
+            case DECIMAL: {
+                Schema schema = nonNullSchema(record.getSchema().getFields().get(avroFieldIndexes[index]).schema());
+                if (schema.getLogicalType() instanceof LogicalTypes.Decimal) {
+                    int scale = ((LogicalTypes.Decimal) schema.getLogicalType()).getScale();
+                    byte[] bytes = value instanceof ByteBuffer ? toBytes((ByteBuffer) value) :
+                            ((GenericData.Fixed) value).bytes();
+                    return new BigDecimal(new BigInteger(bytes), scale);
+                }
+                return value;
+            }
+            default:
+                return value;
+        }
+    }
+
+    private static Schema nonNullSchema(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema type : schema.getTypes()) {
+                if (type.getType() != Schema.Type.NULL) {
+                    return type;
+                }
+            }
+        }
+        return schema;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileReader != null) {
+            fileReader.close();
+            fileReader = null;
+        }
+        if (logScanner != null) {
+            logScanner.close();
+            logScanner = null;
+        }
+    }
+}
@@ -2,16 +2,22 @@
 
 package com.starrocks.hudi.reader;
 
+import com.starrocks.jni.connector.ColumnType;
 import com.starrocks.jni.connector.ConnectorScanner;
+import com.starrocks.jni.connector.OffHeapColumnVector;
 import com.starrocks.jni.connector.TypeMapping;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.common.JavaUtils;
 import org.apache.hadoop.hive.serde2.Deserializer;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.MapObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.apache.hadoop.io.ArrayWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.FileSplit;
@@ -25,8 +31,10 @@ import org.apache.hudi.common.util.Option;
 import org.apache.hudi.hadoop.realtime.HoodieRealtimeFileSplit;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -34,7 +42,7 @@ import java.util.Properties;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toList;
 
-public class HudiSliceScanner extends ConnectorScanner {
+public class HudiSliceScanner extends ConnectorScanner implements HudiColumnarReader.ValueAppender {
 
     private final String basePath;
     private final String hiveColumnNames;
@@ -52,12 +60,17 @@ public class HudiSliceScanner extends ConnectorScanner {
     private StructField[] structFields;
     private Deserializer deserializer;
     private final int fetchSize;
+    // read parquet base file and log files columnarly instead of through InputFormat and SerDe
+    private final boolean useColumnarReader;
+    private HudiColumnarReader columnarReader;
 
     public HudiSliceScanner(int fetchSize, Map<String, String> params) {
         this.fetchSize = fetchSize;
         this.basePath = params.get("base_path");
         this.hiveColumnNames = params.get("hive_column_names");
-        this.hiveColumnTypes = params.get("hive_column_types").split(":");
+        // types are separated by ':', which is also used in struct types, so parse them by hive
+        this.hiveColumnTypes = TypeInfoUtils.getTypeInfosFromTypeString(params.get("hive_column_types")).stream()
+                .map(TypeInfo::getTypeName).toArray(String[]::new);
         this.requiredFields = params.get("required_fields").split(",");
         this.instantTime = params.get("instant_time");
         if (params.get("delta_file_paths").length() == 0) {
@@ -68,7 +81,10 @@ public class HudiSliceScanner extends ConnectorScanner {
         this.dataFilePath = params.get("data_file_path");
         this.dataFileLenth = Long.parseLong(params.get("data_file_length"));
         this.serde = params.get("serde");
-        this.inputFormat = params.get("input_format");;
+        this.inputFormat = params.get("input_format");
+        // opt-in by hudi_columnar_reader_enable of BE
+        this.useColumnarReader = "true".equalsIgnoreCase(params.get("use_columnar_reader")) &&
+                inputFormat != null && inputFormat.contains("Parquet");
         this.fieldInspectors = new ObjectInspector[requiredFields.length];
         this.structFields = new StructField[requiredFields.length];
     }
@@ -98,15 +114,14 @@ public class HudiSliceScanner extends ConnectorScanner {
                     columnIdBuilder.append(",");
                 }
                 columnIdBuilder.append(hiveColumnNameToIndex.get(requiredFields[i]));
-                String typeStr = hiveColumnNameToType.get(requiredFields[i]);
-                // convert decimal(x,y) to decimal
-                if (typeStr.startsWith("decimal")) {
-                    typeStr = "decimal";
-                }
-                requiredTypes[i] = typeStr;
+                // decimal(x,y) is kept, the decimal values are written in scale y
+                requiredTypes[i] = hiveColumnNameToType.get(requiredFields[i]);
                 isFirst = false;
             }
             initOffHeapTableWriter(requiredTypes, fetchSize, TypeMapping.hiveTypeMappings);
+            if (useColumnarReader && openColumnarReader(conf, requiredTypes)) {
+                return;
+            }
 
             properties.setProperty("hive.io.file.readcolumn.ids", columnIdBuilder.toString());
             properties.setProperty("hive.io.file.readcolumn.names", String.join(",", this.requiredFields));
@@ -142,9 +157,53 @@ public class HudiSliceScanner extends ConnectorScanner {
         }
     }
 
+    private boolean openColumnarReader(Configuration conf, String[] requiredTypes) throws IOException {
+        OffHeapColumnVector.OffHeapColumnType[] types = new OffHeapColumnVector.OffHeapColumnType[requiredTypes.length];
+        for (int i = 0; i < requiredTypes.length; i++) {
+            ColumnType columnType = ColumnType.parse(requiredTypes[i], TypeMapping.hiveTypeMappings);
+            // nested and timestamp columns are read through SerDe
+            if (columnType == null || columnType.isNested() ||
+                    columnType.getType() == OffHeapColumnVector.OffHeapColumnType.DATETIME) {
+                return false;
+            }
+            types[i] = columnType.getType();
+        }
+        // dataFileLenth==-1 means logs only scan
+        String baseFile = dataFileLenth != -1 ? dataFilePath : "";
+        columnarReader = new HudiColumnarReader(conf, basePath, baseFile, deltaFilePaths, instantTime,
+                requiredFields, types);
+        if (!columnarReader.open()) {
+            // the log records can't be merged columnarly
+            columnarReader.close();
+            columnarReader = null;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * For test only
+     */
+    boolean isColumnarReaderOpened() {
+        return columnarReader != null;
+    }
+
+    @Override
+    public OffHeapColumnVector getColumnVector(int index) {
+        return super.getColumnVector(index);
+    }
+
+    @Override
+    public void appendValue(int index, Object value) {
+        scanData(index, value);
+    }
+
     @Override
     public void close() throws IOException {
         try {
+            if (columnarReader != null) {
+                columnarReader.close();
+            }
             if (reader != null) {
                 reader.close();
             }
@@ -157,6 +216,9 @@ public class HudiSliceScanner extends ConnectorScanner {
     @Override
     public int getNext() throws IOException {
         try {
+            if (columnarReader != null) {
+                return columnarReader.read(getTableSize(), this);
+            }
             NullWritable key = reader.createKey();
             ArrayWritable value = reader.createValue();
             int numRows = 0;
@@ -167,12 +229,7 @@ public class HudiSliceScanner extends ConnectorScanner {
                 Object rowData = deserializer.deserialize(value);
                 for (int i = 0; i < requiredFields.length; i++) {
                     Object fieldData = rowInspector.getStructFieldData(rowData, structFields[i]);
-                    if (fieldData == null) {
-                        scanData(i, null);
-                    } else {
-                        Object fieldValue = ((PrimitiveObjectInspector) fieldInspectors[i]).getPrimitiveJavaObject(fieldData);
-                        scanData(i, fieldValue);
-                    }
+                    scanData(i, toJavaObject(fieldInspectors[i], fieldData));
                 }
             }
             return numRows;
@@ -183,6 +240,53 @@ public class HudiSliceScanner extends ConnectorScanner {
         }
     }
 
+    // convert the hive object to the java object accepted by OffHeapColumnVector.appendValue
+    private static Object toJavaObject(ObjectInspector inspector, Object data) {
+        if (data == null) {
+            return null;
+        }
+        switch (inspector.getCategory()) {
+            case PRIMITIVE:
+                return ((PrimitiveObjectInspector) inspector).getPrimitiveJavaObject(data);
+            case LIST: {
+                ListObjectInspector listInspector = (ListObjectInspector) inspector;
+                List<?> list = listInspector.getList(data);
+                if (list == null) {
+                    return null;
+                }
+                List<Object> values = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    values.add(toJavaObject(listInspector.getListElementObjectInspector(), element));
+                }
+                return values;
+            }
+            case MAP: {
+                MapObjectInspector mapInspector = (MapObjectInspector) inspector;
+                Map<?, ?> map = mapInspector.getMap(data);
+                if (map == null) {
+                    return null;
+                }
+                Map<Object, Object> values = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    values.put(toJavaObject(mapInspector.getMapKeyObjectInspector(), entry.getKey()),
+                            toJavaObject(mapInspector.getMapValueObjectInspector(), entry.getValue()));
+                }
+                return values;
+            }
+            case STRUCT: {
+                StructObjectInspector structInspector = (StructObjectInspector) inspector;
+                List<Object> values = new ArrayList<>();
+                for (StructField field : structInspector.getAllStructFieldRefs()) {
+                    values.add(toJavaObject(field.getFieldObjectInspector(),
+                            structInspector.getStructFieldData(data, field)));
+                }
+                return values;
+            }
+            default:
+                throw new UnsupportedOperationException("Unsupported hive type: " + inspector.getTypeName());
+        }
+    }
+
     private InputFormat<?, ?> createInputFormat(Configuration conf, String inputFormat) throws Exception {
         Class<?> clazz = conf.getClassByName(inputFormat);
         Class<? extends InputFormat<?, ?>> cls = (Class<? extends InputFormat<?, ?>>) clazz.asSubclass(InputFormat.class);
@@ -0,0 +1,125 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.hudi.reader;
+
+import com.starrocks.utils.Platform;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compare the columnar reader with the InputFormat and SerDe reader on a locally generated slice
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class HudiSliceScannerBench {
+    private static final String REQUIRED_FIELDS = "id,name,price,ts";
+    private static final int FETCH_SIZE = 4096;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HudiSliceScannerBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    private static class BenchSliceScanner extends HudiSliceScanner {
+        BenchSliceScanner(HudiTableGenerator table, boolean useColumnarReader) {
+            super(FETCH_SIZE, table.getScannerParams(REQUIRED_FIELDS, useColumnarReader));
+        }
+
+        long scan() throws IOException {
+            long totalRows = 0;
+            open();
+            try {
+                while (true) {
+                    long numRows = Platform.getLong(null, getNextOffHeapChunk());
+                    totalRows += numRows;
+                    releaseOffHeapTable();
+                    if (numRows < FETCH_SIZE) {
+                        return totalRows;
+                    }
+                }
+            } finally {
+                close();
+                freeOffHeapTable();
+            }
+        }
+    }
+
+    @Param({"1000000"})
+    public int rows;
+
+    // percent of the base rows updated in the log file, 0 for copy-on-write slices
+    @Param({"0", "10"})
+    public int updatePercent;
+
+    private File tableDir;
+    private HudiTableGenerator table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // the memory tracker natives are only registered in BE
+        Platform.setMemoryAllocator(Platform.UNSAFE_ALLOCATOR);
+        tableDir = Files.createTempDirectory("hudi_bench").toFile();
+        HoodieTableType tableType = updatePercent == 0 ? HoodieTableType.COPY_ON_WRITE : HoodieTableType.MERGE_ON_READ;
+        table = new HudiTableGenerator(tableDir.getAbsolutePath(), tableType,
+                OverwriteWithLatestAvroPayload.class.getName());
+        List<GenericRecord> baseRows = new ArrayList<>(rows);
+        for (int id = 0; id < rows; id++) {
+            baseRows.add(HudiTableGenerator.newRow(id, "name" + id, id * 0.5, 1));
+        }
+        table.writeBaseFile(baseRows);
+        if (updatePercent > 0) {
+            List<GenericRecord> updates = new ArrayList<>();
+            for (int id = 0; id < rows; id += 100 / updatePercent) {
+                updates.add(HudiTableGenerator.newRow(id, "updated" + id, id * 1.5, 2));
+            }
+            table.writeLogFile(updates, Collections.emptyList());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtil.fullyDelete(tableDir);
+        Platform.setMemoryAllocator(Platform.MEMORY_TRACKER_ALLOCATOR);
+    }
+
+    @Benchmark
+    public long columnarReader() throws IOException {
+        return new BenchSliceScanner(table, true).scan();
+    }
+
+    @Benchmark
+    public long serdeReader() throws IOException {
+        return new BenchSliceScanner(table, false).scan();
+    }
+}
@@ -0,0 +1,205 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.hudi.reader;
+
+import com.starrocks.jni.connector.OffHeapColumnVector;
+import com.starrocks.utils.Platform;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hudi.common.model.DefaultHoodieRecordPayload;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.OverwriteWithLatestAvroPayload;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Compare the columnar reader with the InputFormat and SerDe reader on locally generated slices
+public class HudiSliceScannerTest {
+    private static final String REQUIRED_FIELDS = "id,name,price,ts";
+    private static final int FETCH_SIZE = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // reads all rows of the slice as strings
+    private static class TestSliceScanner extends HudiSliceScanner {
+        TestSliceScanner(Map<String, String> params) {
+            super(FETCH_SIZE, params);
+        }
+
+        List<String> readRows(int numColumns) throws IOException {
+            List<String> rows = new ArrayList<>();
+            open();
+            try {
+                while (true) {
+                    long numRows = Platform.getLong(null, getNextOffHeapChunk());
+                    for (int row = 0; row < numRows; row++) {
+                        StringBuilder sb = new StringBuilder();
+                        for (int i = 0; i < numColumns; i++) {
+                            OffHeapColumnVector vector = getColumnVector(i);
+                            sb.append(i == 0 ? "" : ",").append(vector.toString(row));
+                        }
+                        rows.add(sb.toString());
+                    }
+                    releaseOffHeapTable();
+                    if (numRows < FETCH_SIZE) {
+                        break;
+                    }
+                }
+            } finally {
+                close();
+                freeOffHeapTable();
+            }
+            Collections.sort(rows);
+            return rows;
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        // the memory tracker natives are only registered in BE
+        Platform.setMemoryAllocator(Platform.UNSAFE_ALLOCATOR);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Platform.setMemoryAllocator(Platform.MEMORY_TRACKER_ALLOCATOR);
+    }
+
+    private HudiTableGenerator newTable(HoodieTableType tableType, String payloadClass) throws IOException {
+        return new HudiTableGenerator(folder.newFolder().getAbsolutePath(), tableType, payloadClass);
+    }
+
+    private static List<GenericRecord> baseRows(int numRows) {
+        List<GenericRecord> rows = new ArrayList<>();
+        for (int id = 1; id <= numRows; id++) {
+            rows.add(HudiTableGenerator.newRow(id, id % 3 == 0 ? null : "name" + id, id * 1.5, 10));
+        }
+        return rows;
+    }
+
+    // rows read by the columnar reader and the SerDe reader are the same, returns the rows
+    private static List<String> readAndCompare(HudiTableGenerator table, String requiredFields,
+                                               boolean expectColumnar) throws IOException {
+        int numColumns = requiredFields.split(",").length;
+        TestSliceScanner columnar = new TestSliceScanner(table.getScannerParams(requiredFields, true));
+        List<String> columnarRows = columnar.readRows(numColumns);
+        Assert.assertEquals(expectColumnar, columnar.isColumnarReaderOpened());
+
+        TestSliceScanner serde = new TestSliceScanner(table.getScannerParams(requiredFields, false));
+        List<String> serdeRows = serde.readRows(numColumns);
+        Assert.assertFalse(serde.isColumnarReaderOpened());
+        Assert.assertEquals(serdeRows, columnarRows);
+        return columnarRows;
+    }
+
+    @Test
+    public void testCopyOnWrite() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.COPY_ON_WRITE,
+                OverwriteWithLatestAvroPayload.class.getName());
+        table.writeBaseFile(baseRows(10));
+
+        List<String> rows = readAndCompare(table, REQUIRED_FIELDS, true);
+        Assert.assertEquals(10, rows.size());
+        Assert.assertEquals("1,name1,1.5,10", rows.get(0));
+        Assert.assertTrue(rows.contains("3,NULL,4.5,10"));
+        // the record key and a reordered subset of columns
+        rows = readAndCompare(table, "ts,_hoodie_record_key,id", true);
+        Assert.assertTrue(rows.contains("10,7,7"));
+    }
+
+    @Test
+    public void testColumnarReaderIsOptIn() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.COPY_ON_WRITE,
+                OverwriteWithLatestAvroPayload.class.getName());
+        table.writeBaseFile(baseRows(2));
+        Map<String, String> params = table.getScannerParams(REQUIRED_FIELDS, true);
+        params.remove("use_columnar_reader");
+        TestSliceScanner scanner = new TestSliceScanner(params);
+        Assert.assertEquals(2, scanner.readRows(4).size());
+        Assert.assertFalse(scanner.isColumnarReaderOpened());
+    }
+
+    @Test
+    public void testMergeOnReadUpdatesAndDeletes() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.MERGE_ON_READ,
+                OverwriteWithLatestAvroPayload.class.getName());
+        table.writeBaseFile(baseRows(10));
+        // update 2, insert 11, delete 3
+        table.writeLogFile(Arrays.asList(HudiTableGenerator.newRow(2, "updated", 0.5, 20),
+                HudiTableGenerator.newRow(11, "inserted", 11.5, 20)), Arrays.asList(3));
+        // update 11 again and delete 5 in the next log block
+        table.writeLogFile(Arrays.asList(HudiTableGenerator.newRow(11, null, 12.5, 30)), Arrays.asList(5));
+
+        List<String> rows = readAndCompare(table, REQUIRED_FIELDS, true);
+        Assert.assertEquals(9, rows.size());
+        Assert.assertTrue(rows.contains("2,updated,0.5,20"));
+        Assert.assertTrue(rows.contains("11,NULL,12.5,30"));
+        Assert.assertFalse(rows.stream().anyMatch(row -> row.startsWith("3,") || row.startsWith("5,")));
+        Assert.assertTrue(rows.contains("4,name4,6.0,10"));
+    }
+
+    @Test
+    public void testMergeOnReadLogFilesOnly() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.MERGE_ON_READ,
+                OverwriteWithLatestAvroPayload.class.getName());
+        table.writeLogFile(baseRows(6), Collections.emptyList());
+        table.writeLogFile(Collections.emptyList(), Arrays.asList(1, 2));
+
+        List<String> rows = readAndCompare(table, REQUIRED_FIELDS, true);
+        Assert.assertEquals(4, rows.size());
+        Assert.assertEquals("3,NULL,4.5,10", rows.get(0));
+    }
+
+    @Test
+    public void testMergeOnReadOrderingField() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.MERGE_ON_READ,
+                DefaultHoodieRecordPayload.class.getName());
+        table.writeBaseFile(baseRows(4));
+        // the update of 1 has a smaller ordering value than the base row
+        table.writeLogFile(Arrays.asList(HudiTableGenerator.newRow(1, "older", 100, 5),
+                HudiTableGenerator.newRow(2, "newer", 200, 20)), Collections.emptyList());
+
+        // the log records are combined with the base rows by the payload, which is read through SerDe
+        List<String> rows = readAndCompare(table, REQUIRED_FIELDS, false);
+        Assert.assertEquals(4, rows.size());
+        Assert.assertTrue(rows.contains("2,newer,200.0,20"));
+
+        HudiColumnarReader reader = new HudiColumnarReader(new Configuration(), table.getBasePath(),
+                table.getBaseFilePath(), table.getLogFilePaths().toArray(new String[0]), table.getLatestInstant(),
+                REQUIRED_FIELDS.split(","), new OffHeapColumnVector.OffHeapColumnType[] {
+                        OffHeapColumnVector.OffHeapColumnType.INT, OffHeapColumnVector.OffHeapColumnType.STRING,
+                        OffHeapColumnVector.OffHeapColumnType.DOUBLE, OffHeapColumnVector.OffHeapColumnType.LONG});
+        Assert.assertFalse(reader.open());
+        reader.close();
+    }
+
+    @Test
+    public void testMergeOnReadMissingColumns() throws IOException {
+        HudiTableGenerator table = newTable(HoodieTableType.MERGE_ON_READ,
+                OverwriteWithLatestAvroPayload.class.getName());
+        table.writeBaseFile(baseRows(5));
+        // note is added after the base file is written
+        table.evolveSchema();
+        GenericRecord updated = HudiTableGenerator.newRow(2, "updated", 0.5, 20);
+        updated.put("note", "noted");
+        table.writeLogFile(Arrays.asList(updated, HudiTableGenerator.newRow(6, "inserted", 6.5, 20)),
+                Collections.emptyList());
+
+        List<String> rows = readAndCompare(table, "id,note,name", true);
+        Assert.assertEquals(6, rows.size());
+        Assert.assertTrue(rows.contains("1,NULL,name1"));
+        Assert.assertTrue(rows.contains("2,noted,updated"));
+        Assert.assertTrue(rows.contains("6,NULL,inserted"));
+    }
+}
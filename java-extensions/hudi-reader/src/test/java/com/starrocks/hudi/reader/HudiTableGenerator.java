@@ -0,0 +1,222 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.hudi.reader;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hudi.avro.HoodieAvroUtils;
+import org.apache.hudi.common.model.DeleteRecord;
+import org.apache.hudi.common.model.HoodieCommitMetadata;
+import org.apache.hudi.common.model.HoodieKey;
+import org.apache.hudi.common.model.HoodieLogFile;
+import org.apache.hudi.common.model.HoodieRecord;
+import org.apache.hudi.common.model.HoodieTableType;
+import org.apache.hudi.common.model.WriteOperationType;
+import org.apache.hudi.common.table.HoodieTableMetaClient;
+import org.apache.hudi.common.table.log.HoodieLogFormat;
+import org.apache.hudi.common.table.log.block.HoodieAvroDataBlock;
+import org.apache.hudi.common.table.log.block.HoodieDeleteBlock;
+import org.apache.hudi.common.table.log.block.HoodieLogBlock;
+import org.apache.hudi.common.table.timeline.HoodieTimeline;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a non-partitioned hudi table of one file group on the local file system.
+ * Rows are (id int, name string, price double, ts bigint) and an optional note string added by
+ * {@link HudiTableGenerator#evolveSchema()}, the record key is id and the ordering field is ts.
+ */
+public class HudiTableGenerator {
+    static final String FILE_ID = "f1-0";
+    static final String HIVE_COLUMN_NAMES = "_hoodie_commit_time,_hoodie_commit_seqno,_hoodie_record_key," +
+            "_hoodie_partition_path,_hoodie_file_name,id,name,price,ts,note";
+    static final String HIVE_COLUMN_TYPES = "string:string:string:string:string:int:string:double:bigint:string";
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"test_record\"," +
+            "\"namespace\":\"hoodie.test\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"}," +
+            "{\"name\":\"name\",\"type\":[\"null\",\"string\"],\"default\":null}," +
+            "{\"name\":\"price\",\"type\":\"double\"},{\"name\":\"ts\",\"type\":\"long\"}]}");
+    private static final Schema EVOLVED_SCHEMA = new Schema.Parser().parse("{\"type\":\"record\"," +
+            "\"name\":\"test_record\",\"namespace\":\"hoodie.test\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"}," +
+            "{\"name\":\"name\",\"type\":[\"null\",\"string\"],\"default\":null}," +
+            "{\"name\":\"price\",\"type\":\"double\"},{\"name\":\"ts\",\"type\":\"long\"}," +
+            "{\"name\":\"note\",\"type\":[\"null\",\"string\"],\"default\":null}]}");
+
+    private final Configuration conf = new Configuration();
+    private final String basePath;
+    private final HoodieTableType tableType;
+    private final FileSystem fs;
+    private Schema schema = SCHEMA;
+    private int nextInstant = 1;
+    private String baseInstant;
+    private String baseFilePath = "";
+    private final List<String> logFilePaths = new ArrayList<>();
+
+    public HudiTableGenerator(String basePath, HoodieTableType tableType, String payloadClass) throws IOException {
+        this.basePath = basePath;
+        this.tableType = tableType;
+        this.fs = FileSystem.get(new Path(basePath).toUri(), conf);
+        HoodieTableMetaClient.withPropertyBuilder()
+                .setTableType(tableType)
+                .setTableName("test")
+                .setPayloadClassName(payloadClass)
+                .setRecordKeyFields("id")
+                .setPreCombineField("ts")
+                .initTable(conf, basePath);
+    }
+
+    public static GenericRecord newRow(int id, String name, double price, long ts) {
+        GenericRecord row = new GenericData.Record(EVOLVED_SCHEMA);
+        row.put("id", id);
+        row.put("name", name);
+        row.put("price", price);
+        row.put("ts", ts);
+        return row;
+    }
+
+    public String getBasePath() {
+        return basePath;
+    }
+
+    public String getBaseFilePath() {
+        return baseFilePath;
+    }
+
+    public List<String> getLogFilePaths() {
+        return logFilePaths;
+    }
+
+    public String getLatestInstant() {
+        return instantTime(nextInstant - 1);
+    }
+
+    // the following rows and log blocks have the note column
+    public void evolveSchema() {
+        schema = EVOLVED_SCHEMA;
+    }
+
+    public void writeBaseFile(List<GenericRecord> rows) throws IOException {
+        String instant = instantTime(nextInstant++);
+        baseInstant = instant;
+        String fileName = FILE_ID + "_0-0-0_" + instant + ".parquet";
+        baseFilePath = basePath + "/" + fileName;
+        Schema fileSchema = HoodieAvroUtils.addMetadataFields(schema);
+        try (ParquetWriter<IndexedRecord> writer = AvroParquetWriter.<IndexedRecord>builder(new Path(baseFilePath))
+                .withSchema(fileSchema).withConf(conf).build()) {
+            int seqNo = 0;
+            for (GenericRecord row : rows) {
+                GenericRecord record = toFileRecord(row, fileSchema);
+                record.put(HoodieRecord.COMMIT_TIME_METADATA_FIELD, instant);
+                record.put(HoodieRecord.COMMIT_SEQNO_METADATA_FIELD, instant + "_0_" + seqNo++);
+                record.put(HoodieRecord.FILENAME_METADATA_FIELD, fileName);
+                writer.write(record);
+            }
+        }
+        commit(instant);
+    }
+
+    public void writeLogFile(List<GenericRecord> rows, List<Integer> deletedIds) throws IOException {
+        String instant = instantTime(nextInstant++);
+        if (baseInstant == null) {
+            // log files only file group
+            baseInstant = instant;
+        }
+        Map<HoodieLogBlock.HeaderMetadataType, String> header = new HashMap<>();
+        header.put(HoodieLogBlock.HeaderMetadataType.INSTANT_TIME, instant);
+        Schema fileSchema = HoodieAvroUtils.addMetadataFields(schema);
+        header.put(HoodieLogBlock.HeaderMetadataType.SCHEMA, fileSchema.toString());
+        try (HoodieLogFormat.Writer writer = HoodieLogFormat.newWriterBuilder()
+                .onParentPath(new Path(basePath))
+                .withFileId(FILE_ID)
+                .overBaseCommit(baseInstant)
+                .withFileExtension(HoodieLogFile.DELTA_EXTENSION)
+                .withFs(fs)
+                .build()) {
+            if (!rows.isEmpty()) {
+                List<IndexedRecord> records = new ArrayList<>();
+                for (GenericRecord row : rows) {
+                    records.add(toFileRecord(row, fileSchema));
+                }
+                writer.appendBlock(new HoodieAvroDataBlock(records, header, HoodieRecord.RECORD_KEY_METADATA_FIELD));
+            }
+            if (!deletedIds.isEmpty()) {
+                DeleteRecord[] deletes = deletedIds.stream()
+                        .map(id -> DeleteRecord.create(new HoodieKey(String.valueOf(id), "")))
+                        .toArray(DeleteRecord[]::new);
+                writer.appendBlock(new HoodieDeleteBlock(deletes, header));
+            }
+            String logFilePath = writer.getLogFile().getPath().toString();
+            if (!logFilePaths.contains(logFilePath)) {
+                logFilePaths.add(logFilePath);
+            }
+        }
+        commit(instant);
+    }
+
+    private GenericRecord toFileRecord(GenericRecord row, Schema fileSchema) {
+        GenericRecord record = new GenericData.Record(fileSchema);
+        for (Schema.Field field : schema.getFields()) {
+            record.put(field.name(), row.get(field.name()));
+        }
+        record.put(HoodieRecord.RECORD_KEY_METADATA_FIELD, String.valueOf(row.get("id")));
+        record.put(HoodieRecord.PARTITION_PATH_METADATA_FIELD, "");
+        return record;
+    }
+
+    // completed instant with the table schema in the commit metadata
+    private void commit(String instant) throws IOException {
+        HoodieCommitMetadata metadata = new HoodieCommitMetadata();
+        metadata.addMetadata(HoodieCommitMetadata.SCHEMA_KEY, schema.toString());
+        metadata.setOperationType(WriteOperationType.UPSERT);
+        String action = tableType == HoodieTableType.MERGE_ON_READ ?
+                HoodieTimeline.DELTA_COMMIT_ACTION : HoodieTimeline.COMMIT_ACTION;
+        Path path = new Path(basePath + "/" + HoodieTableMetaClient.METAFOLDER_NAME + "/" + instant + "." + action);
+        try (FSDataOutputStream out = fs.create(path)) {
+            out.write(metadata.toJsonString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String instantTime(int instant) {
+        return String.format("20221019000%03d", instant);
+    }
+
+    /**
+     * Parameters of the slice, the same as set by BE
+     */
+    public Map<String, String> getScannerParams(String requiredFields, boolean useColumnarReader) {
+        Map<String, String> params = new HashMap<>();
+        params.put("base_path", basePath);
+        params.put("hive_column_names", HIVE_COLUMN_NAMES);
+        params.put("hive_column_types", HIVE_COLUMN_TYPES);
+        params.put("required_fields", requiredFields);
+        params.put("instant_time", getLatestInstant());
+        params.put("delta_file_paths", String.join(",", logFilePaths));
+        params.put("data_file_path", baseFilePath);
+        params.put("data_file_length", baseFilePath.isEmpty() ? "-1" : String.valueOf(fileLength(baseFilePath)));
+        params.put("serde", "org.apache.hadoop.hive.ql.io.parquet.serde.ParquetHiveSerDe");
+        params.put("input_format", "org.apache.hudi.hadoop.realtime.HoodieParquetRealtimeInputFormat");
+        params.put("use_columnar_reader", String.valueOf(useColumnarReader));
+        return params;
+    }
+
+    private long fileLength(String path) {
+        try {
+            return fs.getFileStatus(new Path(path)).getLen();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -11,6 +11,47 @@ import java.lang.reflect.Field;
  */
 public final class Platform {
 
+    /**
+     * Allocator of the native memory, the memory tracker of BE by default.
+     */
+    public interface MemoryAllocator {
+        long allocate(long size);
+
+        void free(long address);
+    }
+
+    /**
+     * Allocates through the memory tracker, whose native methods are registered by BE.
+     */
+    public static final MemoryAllocator MEMORY_TRACKER_ALLOCATOR = new MemoryAllocator() {
+        @Override
+        public long allocate(long size) {
+            return NativeMethodHelper.memoryTrackerMalloc(size);
+        }
+
+        @Override
+        public void free(long address) {
+            NativeMethodHelper.memoryTrackerFree(address);
+        }
+    };
+
+    /**
+     * Allocates by Unsafe without the memory tracker, for tests and benchmarks running outside of BE.
+     */
+    public static final MemoryAllocator UNSAFE_ALLOCATOR = new MemoryAllocator() {
+        @Override
+        public long allocate(long size) {
+            return _UNSAFE.allocateMemory(size);
+        }
+
+        @Override
+        public void free(long address) {
+            _UNSAFE.freeMemory(address);
+        }
+    };
+
+    private static volatile MemoryAllocator allocator = MEMORY_TRACKER_ALLOCATOR;
+
     private static final Unsafe _UNSAFE;
 
     public static final int BOOLEAN_ARRAY_OFFSET;
@@ -83,14 +124,19 @@ public final class Platform {
         _UNSAFE.putDouble(object, offset, value);
     }
 
+    /**
+     * Replace the allocator of the native memory, the memory allocated by the old allocator must be freed before.
+     */
+    public static void setMemoryAllocator(MemoryAllocator memoryAllocator) {
+        allocator = memoryAllocator;
+    }
+
     public static void freeMemory(long address) {
-        //_UNSAFE.freeMemory(address);
-        com.starrocks.utils.NativeMethodHelper.memoryTrackerFree(address);
+        allocator.free(address);
     }
 
     public static long allocateMemory(long size) {
-        //return _UNSAFE.allocateMemory(size);
-        return com.starrocks.utils.NativeMethodHelper.memoryTrackerMalloc(size);
+        return allocator.allocate(size);
     }
 
     public static long reallocateMemory(long address, long oldSize, long newSize) {
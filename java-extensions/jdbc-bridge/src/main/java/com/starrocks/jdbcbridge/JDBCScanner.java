@@ -31,8 +31,10 @@ public class JDBCScanner {
     }
 
     public void open() throws Exception {
-
-        dataSource = DataSourceCache.getInstance().getSource(driverLocation, () -> {
+        // the splits of one table are read concurrently, they should share the pool of the same
+        // database instead of the pool of whichever database first used this driver
+        String dataSourceKey = driverLocation + "|" + scanContext.getJdbcURL() + "|" + scanContext.getUser();
+        dataSource = DataSourceCache.getInstance().getSource(dataSourceKey, () -> {
             HikariConfig config = new HikariConfig();
             config.setDriverClassName(scanContext.getDriverClassName());
             config.setJdbcUrl(scanContext.getJdbcURL());
@@ -0,0 +1,200 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.jni.connector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type of an off-heap column, nested types have child types.
+ * Parsed from hive type strings such as
+ * int, decimal(10,2), array<int>, map<string,int>, struct<a:int,b:array<string>>
+ */
+public class ColumnType {
+    // the default precision and scale of hive decimal
+    private static final int DEFAULT_DECIMAL_PRECISION = 10;
+    private static final int DEFAULT_DECIMAL_SCALE = 0;
+
+    private final OffHeapColumnVector.OffHeapColumnType type;
+    // element type of array, key and value types of map, field types of struct
+    private final List<ColumnType> childTypes;
+    // field names of struct
+    private final List<String> childNames;
+    // precision and scale of decimal
+    private final int precision;
+    private final int scale;
+
+    public ColumnType(OffHeapColumnVector.OffHeapColumnType type) {
+        this(type, Collections.emptyList(), Collections.emptyList());
+    }
+
+    public ColumnType(OffHeapColumnVector.OffHeapColumnType type, List<ColumnType> childTypes,
+                      List<String> childNames) {
+        this(type, childTypes, childNames, DEFAULT_DECIMAL_PRECISION, DEFAULT_DECIMAL_SCALE);
+    }
+
+    private ColumnType(OffHeapColumnVector.OffHeapColumnType type, List<ColumnType> childTypes,
+                       List<String> childNames, int precision, int scale) {
+        this.type = type;
+        this.childTypes = childTypes;
+        this.childNames = childNames;
+        this.precision = precision;
+        this.scale = scale;
+    }
+
+    public static ColumnType createDecimal(int precision, int scale) {
+        return new ColumnType(OffHeapColumnVector.OffHeapColumnType.DECIMAL, Collections.emptyList(),
+                Collections.emptyList(), precision, scale);
+    }
+
+    public OffHeapColumnVector.OffHeapColumnType getType() {
+        return type;
+    }
+
+    public List<ColumnType> getChildTypes() {
+        return childTypes;
+    }
+
+    public List<String> getChildNames() {
+        return childNames;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isVariableLength() {
+        return type == OffHeapColumnVector.OffHeapColumnType.STRING ||
+                type == OffHeapColumnVector.OffHeapColumnType.DATE ||
+                type == OffHeapColumnVector.OffHeapColumnType.DATETIME;
+    }
+
+    public boolean isNested() {
+        return type == OffHeapColumnVector.OffHeapColumnType.ARRAY ||
+                type == OffHeapColumnVector.OffHeapColumnType.MAP ||
+                type == OffHeapColumnVector.OffHeapColumnType.STRUCT;
+    }
+
+    /**
+     * @return null if the type or any child type is not in typeMappings
+     */
+    public static ColumnType parse(String typeStr, Map<String, OffHeapColumnVector.OffHeapColumnType> typeMappings) {
+        String t = typeStr.trim();
+        String lower = t.toLowerCase();
+        if (lower.startsWith("array<") && lower.endsWith(">")) {
+            ColumnType element = parse(t.substring("array<".length(), t.length() - 1), typeMappings);
+            if (element == null) {
+                return null;
+            }
+            return new ColumnType(OffHeapColumnVector.OffHeapColumnType.ARRAY, Collections.singletonList(element),
+                    Collections.emptyList());
+        }
+        if (lower.startsWith("map<") && lower.endsWith(">")) {
+            List<String> kv = splitTopLevel(t.substring("map<".length(), t.length() - 1));
+            if (kv.size() != 2) {
+                return null;
+            }
+            ColumnType key = parse(kv.get(0), typeMappings);
+            ColumnType value = parse(kv.get(1), typeMappings);
+            if (key == null || value == null) {
+                return null;
+            }
+            List<ColumnType> children = new ArrayList<>();
+            children.add(key);
+            children.add(value);
+            return new ColumnType(OffHeapColumnVector.OffHeapColumnType.MAP, children, Collections.emptyList());
+        }
+        if (lower.startsWith("struct<") && lower.endsWith(">")) {
+            List<ColumnType> children = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (String field : splitTopLevel(t.substring("struct<".length(), t.length() - 1))) {
+                int idx = field.indexOf(':');
+                if (idx < 0) {
+                    return null;
+                }
+                ColumnType child = parse(field.substring(idx + 1), typeMappings);
+                if (child == null) {
+                    return null;
+                }
+                names.add(field.substring(0, idx).trim());
+                children.add(child);
+            }
+            return new ColumnType(OffHeapColumnVector.OffHeapColumnType.STRUCT, children, names);
+        }
+        if (lower.startsWith("decimal") &&
+                typeMappings.get("decimal") == OffHeapColumnVector.OffHeapColumnType.DECIMAL) {
+            return parseDecimal(lower);
+        }
+        OffHeapColumnVector.OffHeapColumnType type = typeMappings.get(lower);
+        return type == null ? null : new ColumnType(type);
+    }
+
+    // decimal, decimal(p) or decimal(p,s)
+    private static ColumnType parseDecimal(String typeStr) {
+        String args = typeStr.substring("decimal".length()).trim();
+        if (args.isEmpty()) {
+            return createDecimal(DEFAULT_DECIMAL_PRECISION, DEFAULT_DECIMAL_SCALE);
+        }
+        if (!args.startsWith("(") || !args.endsWith(")")) {
+            return null;
+        }
+        String[] ps = args.substring(1, args.length() - 1).split(",");
+        try {
+            int precision = Integer.parseInt(ps[0].trim());
+            int scale = ps.length > 1 ? Integer.parseInt(ps[1].trim()) : DEFAULT_DECIMAL_SCALE;
+            return ps.length > 2 ? null : createDecimal(precision, scale);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // split by ',' which is not inside <> or ()
+    private static List<String> splitTopLevel(String s) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '<' || c == '(') {
+                depth++;
+            } else if (c == '>' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(s.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(s.substring(start));
+        return parts;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ARRAY:
+                return "array<" + childTypes.get(0) + ">";
+            case MAP:
+                return "map<" + childTypes.get(0) + "," + childTypes.get(1) + ">";
+            case STRUCT: {
+                StringBuilder sb = new StringBuilder("struct<");
+                for (int i = 0; i < childTypes.size(); i++) {
+                    if (i > 0) {
+                        sb.append(",");
+                    }
+                    sb.append(childNames.get(i)).append(":").append(childTypes.get(i));
+                }
+                return sb.append(">").toString();
+            }
+            case DECIMAL:
+                return "decimal(" + precision + "," + scale + ")";
+            default:
+                return type.name().toLowerCase();
+        }
+    }
+}
@@ -29,11 +29,17 @@ import java.util.Map;
  * } while (true);
  * close();
  *
+ * The off-heap table is reused by {@link ConnectorScanner#getNextOffHeapChunk()} to avoid allocating
+ * native memory for every batch, it is freed by {@link ConnectorScanner#freeOffHeapTable()} when the scanner
+ * is closed, or when the table holds more than {@link ConnectorScanner#setMaxRetainedOffHeapBytes(long)} bytes.
  */
 public abstract class ConnectorScanner {
+    private static final long DEFAULT_MAX_RETAINED_OFF_HEAP_BYTES = 256L * 1024 * 1024;
+
     private OffHeapTable offHeapTable;
-    private OffHeapColumnVector.OffHeapColumnType[] types;
+    private ColumnType[] types;
     private int tableSize;
+    private long maxRetainedOffHeapBytes = DEFAULT_MAX_RETAINED_OFF_HEAP_BYTES;
 
     /**
      * Initialize the reader with parameters passed by the class constructor and allocate necessary resources.
@@ -58,7 +64,8 @@ public abstract class ConnectorScanner {
 
     /**
      * This method need be called before {@link ConnectorScanner#getNext()}
-     * @param requiredTypes column types
+     * @param requiredTypes column types, nested types like array&lt;int&gt; are parsed by
+     *                      {@link ColumnType#parse(String, Map)}
      * @param fetchSize number of rows
      * @param typeMappings mappings of requiredTypes from {@link String}
      *                     to {@link com.starrocks.jni.connector.OffHeapColumnVector.OffHeapColumnType}
@@ -66,16 +73,35 @@ public abstract class ConnectorScanner {
     protected void initOffHeapTableWriter(String[] requiredTypes, int fetchSize,
                                           Map<String, OffHeapColumnVector.OffHeapColumnType> typeMappings) {
         this.tableSize = fetchSize;
-        this.types = new OffHeapColumnVector.OffHeapColumnType[requiredTypes.length];
+        this.types = new ColumnType[requiredTypes.length];
         for (int i = 0; i < requiredTypes.length; i++) {
-            types[i] = typeMappings.get(requiredTypes[i]);
+            types[i] = ColumnType.parse(requiredTypes[i], typeMappings);
+            if (types[i] == null) {
+                throw new UnsupportedOperationException("Unsupported column type: " + requiredTypes[i]);
+            }
         }
     }
 
+    /**
+     * Set the max bytes of native memory kept by the off-heap table between batches.
+     */
+    protected void setMaxRetainedOffHeapBytes(long maxRetainedOffHeapBytes) {
+        this.maxRetainedOffHeapBytes = maxRetainedOffHeapBytes;
+    }
+
     protected void scanData(int index, Object value) {
         offHeapTable.appendData(index, value);
     }
 
+    /**
+     * Get the column vector of the off-heap table for scanners which append values in batch.
+     * Values appended to the vector directly and by {@link ConnectorScanner#scanData(int, Object)}
+     * are kept in the order of appending.
+     */
+    protected OffHeapColumnVector getColumnVector(int index) {
+        return offHeapTable.vectors[index];
+    }
+
     public int getTableSize() {
         return tableSize;
     }
@@ -93,7 +119,11 @@ public abstract class ConnectorScanner {
     }
 
     private void initOffHeapTable() {
-        offHeapTable = new OffHeapTable(types, tableSize);
+        if (offHeapTable == null) {
+            offHeapTable = new OffHeapTable(types, tableSize);
+        } else {
+            offHeapTable.reset();
+        }
     }
 
     private long finishOffHeapTable(int numRows) {
@@ -102,12 +132,33 @@ public abstract class ConnectorScanner {
     }
 
     protected void releaseOffHeapColumnVector(int fieldId) {
-        offHeapTable.releaseOffHeapColumnVector(fieldId);
+        // the memory of column is kept for the next batch, see releaseOffHeapTable
     }
 
+    /**
+     * Called by BE after the batch is consumed.
+     * The table is kept for the next batch unless it holds too much native memory.
+     */
     protected void releaseOffHeapTable() {
+        if (offHeapTable != null && offHeapTable.getMemoryBytes() > maxRetainedOffHeapBytes) {
+            freeOffHeapTable();
+        }
+    }
+
+    /**
+     * Called by BE when the scanner is closed.
+     */
+    protected void freeOffHeapTable() {
         if (offHeapTable != null) {
             offHeapTable.close();
+            offHeapTable = null;
         }
     }
+
+    /**
+     * Bytes of native memory held by the off-heap table, reported to BE for memory accounting.
+     */
+    protected long getOffHeapMemoryBytes() {
+        return offHeapTable == null ? 0 : offHeapTable.getMemoryBytes();
+    }
 }
@@ -4,7 +4,12 @@ package com.starrocks.jni.connector;
 
 import com.starrocks.utils.Platform;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Reference to Apache Spark with some customization
@@ -20,18 +25,24 @@ public class OffHeapColumnVector {
         DOUBLE,
         STRING,
         DATE,
-        DECIMAL
+        DATETIME,
+        DECIMAL,
+        ARRAY,
+        MAP,
+        STRUCT
     }
     private long nulls;
     private long data;
 
-    // Only set if type is Array or Map.
+    // Only set if type is variable length, Array or Map.
     private long offsetData;
 
     private int capacity;
 
     private OffHeapColumnType type;
 
+    private ColumnType columnType;
+
     /**
      * Upper limit for the maximum capacity for this column.
      */
@@ -52,16 +63,33 @@ public class OffHeapColumnVector {
      */
     private static final int DEFAULT_ARRAY_LENGTH = 4;
 
+    /**
+     * Decimals are stored as 16-byte unscaled values in the scale of the column type, the same as int128 of BE.
+     */
+    private static final int DECIMAL_SIZE = 16;
+    private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
     /**
      * Current write cursor (row index) when appending data.
      */
     protected int elementsAppended;
 
+    /**
+     * STRING/DATE/DATETIME: the bytes.
+     * ARRAY: the elements.
+     * MAP: the keys and the values.
+     * STRUCT: the fields, a null struct appends null to every field to keep rows aligned.
+     */
     private OffHeapColumnVector[] childColumns;
 
     public OffHeapColumnVector(int capacity, OffHeapColumnType type) {
+        this(capacity, new ColumnType(type));
+    }
+
+    public OffHeapColumnVector(int capacity, ColumnType columnType) {
         this.capacity = capacity;
-        this.type = type;
+        this.type = columnType.getType();
+        this.columnType = columnType;
         this.nulls = 0;
         this.data = 0;
         this.offsetData = 0;
@@ -87,6 +115,65 @@ public class OffHeapColumnVector {
         return arrayData().valuesNativeAddress();
     }
 
+    public OffHeapColumnType getType() {
+        return type;
+    }
+
+    public ColumnType getColumnType() {
+        return columnType;
+    }
+
+    public OffHeapColumnVector getChildColumn(int index) {
+        return childColumns[index];
+    }
+
+    public int numRows() {
+        return elementsAppended;
+    }
+
+    /**
+     * Bytes of native memory held by this column and its children.
+     */
+    public long getMemoryBytes() {
+        if (nulls == 0) {
+            return 0;
+        }
+        long bytes = capacity + (long) capacity * typeSize();
+        if (offsetData != 0) {
+            bytes += (capacity + 1) * 4L;
+        }
+        if (childColumns != null) {
+            for (OffHeapColumnVector c : childColumns) {
+                bytes += c.getMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private int typeSize() {
+        switch (type) {
+            case BOOLEAN:
+            case BYTE:
+                return 1;
+            case SHORT:
+                return 2;
+            case INT:
+            case FLOAT:
+                return 4;
+            case LONG:
+            case DOUBLE:
+                return 8;
+            case DECIMAL:
+                return DECIMAL_SIZE;
+            default:
+                return 0;
+        }
+    }
+
+    private boolean hasOffsets() {
+        return columnType.isVariableLength() || type == OffHeapColumnType.ARRAY || type == OffHeapColumnType.MAP;
+    }
+
     public void close() {
         if (childColumns != null) {
             for (int i = 0; i < childColumns.length; i++) {
@@ -136,10 +223,13 @@ public class OffHeapColumnVector {
             this.data = Platform.reallocateMemory(data, oldCapacity * 4L, newCapacity * 4L);
         } else if (type == OffHeapColumnType.LONG || type == OffHeapColumnType.DOUBLE) {
             this.data = Platform.reallocateMemory(data, oldCapacity * 8L, newCapacity * 8L);
-        } else if (type == OffHeapColumnType.STRING || type == OffHeapColumnType.DATE || type == OffHeapColumnType.DECIMAL) {
-            this.offsetData =
-                    Platform.reallocateMemory(offsetData, oldCapacity * 4L, (newCapacity + 1) * 4L);
-        } else {
+        } else if (type == OffHeapColumnType.DECIMAL) {
+            this.data = Platform.reallocateMemory(data, oldCapacity * (long) DECIMAL_SIZE,
+                    newCapacity * (long) DECIMAL_SIZE);
+        } else if (hasOffsets()) {
+            long oldOffsetSize = offsetData == 0L ? 0 : (oldCapacity + 1) * 4L;
+            this.offsetData = Platform.reallocateMemory(offsetData, oldOffsetSize, (newCapacity + 1) * 4L);
+        } else if (type != OffHeapColumnType.STRUCT) {
             throw new RuntimeException("Unhandled " + type);
         }
         this.nulls = Platform.reallocateMemory(nulls, oldCapacity, newCapacity);
@@ -148,15 +238,30 @@ public class OffHeapColumnVector {
     }
 
     private void reserveChildColumn() {
-        if (type == OffHeapColumnType.STRING || type == OffHeapColumnType.DATE || type == OffHeapColumnType.DECIMAL) {
+        if (columnType.isVariableLength()) {
             int childCapacity = capacity;
             childCapacity *= DEFAULT_ARRAY_LENGTH;
             this.childColumns = new OffHeapColumnVector[1];
             this.childColumns[0] = new OffHeapColumnVector(childCapacity, OffHeapColumnType.BYTE);
+        } else if (type == OffHeapColumnType.ARRAY || type == OffHeapColumnType.MAP) {
+            List<ColumnType> childTypes = columnType.getChildTypes();
+            this.childColumns = new OffHeapColumnVector[childTypes.size()];
+            for (int i = 0; i < childTypes.size(); i++) {
+                this.childColumns[i] = new OffHeapColumnVector(capacity * DEFAULT_ARRAY_LENGTH, childTypes.get(i));
+            }
+        } else if (type == OffHeapColumnType.STRUCT) {
+            List<ColumnType> childTypes = columnType.getChildTypes();
+            this.childColumns = new OffHeapColumnVector[childTypes.size()];
+            for (int i = 0; i < childTypes.size(); i++) {
+                this.childColumns[i] = new OffHeapColumnVector(capacity, childTypes.get(i));
+            }
         }
     }
 
-    private void reset() {
+    /**
+     * Clear the values but keep the native memory, so the column can be reused for the next batch.
+     */
+    public void reset() {
         if (childColumns != null) {
             for (OffHeapColumnVector c : childColumns) {
                 c.reset();
@@ -167,6 +272,9 @@ public class OffHeapColumnVector {
             putNotNulls(0, capacity);
             numNulls = 0;
         }
+        if (offsetData != 0) {
+            Platform.putInt(null, offsetData, 0);
+        }
     }
 
     private OffHeapColumnVector arrayData() {
@@ -192,14 +300,27 @@ public class OffHeapColumnVector {
     }
 
     public int appendNull() {
-        reserve(elementsAppended + 1);
-        putNull(elementsAppended);
-        return elementsAppended++;
+        return appendNulls(1);
     }
 
-    private void putNull(int rowId) {
-        Platform.putByte(null, nulls + rowId, (byte) 1);
-        ++numNulls;
+    public int appendNulls(int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.setMemory(nulls + elementsAppended, (byte) 1, count);
+        if (hasOffsets()) {
+            // null values are empty arrays, keep offsets continuous
+            int offset = getArrayOffset(elementsAppended);
+            for (int i = 0; i <= count; i++) {
+                Platform.putInt(null, offsetData + 4L * (elementsAppended + i), offset);
+            }
+        } else if (type == OffHeapColumnType.STRUCT) {
+            for (OffHeapColumnVector c : childColumns) {
+                c.appendNulls(count);
+            }
+        }
+        numNulls += count;
+        elementsAppended += count;
+        return result;
     }
 
     public int appendBoolean(boolean v) {
@@ -216,6 +337,16 @@ public class OffHeapColumnVector {
         return Platform.getByte(null, data + rowId) == 1;
     }
 
+    public int appendByte(byte v) {
+        reserve(elementsAppended + 1);
+        Platform.putByte(null, data + elementsAppended, v);
+        return elementsAppended++;
+    }
+
+    public byte getByte(int rowId) {
+        return Platform.getByte(null, data + rowId);
+    }
+
     public int appendShort(short v) {
         reserve(elementsAppended + 1);
         putShort(elementsAppended, v);
@@ -286,6 +417,91 @@ public class OffHeapColumnVector {
         return Platform.getDouble(null, data + rowId * 8L);
     }
 
+    /**
+     * Append the decimal rounded half up to the scale of the column type.
+     */
+    public int appendDecimal(BigDecimal v) {
+        BigInteger unscaled = v.setScale(columnType.getScale(), RoundingMode.HALF_UP).unscaledValue();
+        if (unscaled.bitLength() > 127) {
+            throw new ArithmeticException("Decimal " + v + " overflows " + columnType);
+        }
+        reserve(elementsAppended + 1);
+        long offset = data + (long) DECIMAL_SIZE * elementsAppended;
+        // little endian int128
+        Platform.putLong(null, offset, unscaled.longValue());
+        Platform.putLong(null, offset + 8, unscaled.shiftRight(64).longValue());
+        return elementsAppended++;
+    }
+
+    public BigDecimal getDecimal(int rowId) {
+        long offset = data + (long) DECIMAL_SIZE * rowId;
+        BigInteger high = BigInteger.valueOf(Platform.getLong(null, offset + 8)).shiftLeft(64);
+        BigInteger low = BigInteger.valueOf(Platform.getLong(null, offset)).and(UNSIGNED_LONG_MASK);
+        return new BigDecimal(high.or(low), columnType.getScale());
+    }
+
+    // Bulk append, copy count values of src from srcIndex in one memcpy.
+    // The appended values are all not null.
+
+    public int appendBooleans(boolean[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        for (int i = 0; i < count; i++) {
+            putBoolean(elementsAppended + i, src[srcIndex + i]);
+        }
+        elementsAppended += count;
+        return result;
+    }
+
+    public int appendBytes(byte[] src, int srcIndex, int count) {
+        return appendBytes(count, src, srcIndex);
+    }
+
+    public int appendShorts(short[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.copyMemory(src, Platform.SHORT_ARRAY_OFFSET + srcIndex * 2L, null, data + 2L * elementsAppended,
+                count * 2L);
+        elementsAppended += count;
+        return result;
+    }
+
+    public int appendInts(int[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.copyMemory(src, Platform.INT_ARRAY_OFFSET + srcIndex * 4L, null, data + 4L * elementsAppended,
+                count * 4L);
+        elementsAppended += count;
+        return result;
+    }
+
+    public int appendFloats(float[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.copyMemory(src, Platform.FLOAT_ARRAY_OFFSET + srcIndex * 4L, null, data + 4L * elementsAppended,
+                count * 4L);
+        elementsAppended += count;
+        return result;
+    }
+
+    public int appendLongs(long[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.copyMemory(src, Platform.LONG_ARRAY_OFFSET + srcIndex * 8L, null, data + 8L * elementsAppended,
+                count * 8L);
+        elementsAppended += count;
+        return result;
+    }
+
+    public int appendDoubles(double[] src, int srcIndex, int count) {
+        reserve(elementsAppended + count);
+        int result = elementsAppended;
+        Platform.copyMemory(src, Platform.DOUBLE_ARRAY_OFFSET + srcIndex * 8L, null, data + 8L * elementsAppended,
+                count * 8L);
+        elementsAppended += count;
+        return result;
+    }
+
     private void putBytes(int rowId, int count, byte[] src, int srcIndex) {
         Platform.copyMemory(src, Platform.BYTE_ARRAY_OFFSET + srcIndex, null, data + rowId, count);
     }
@@ -306,10 +522,11 @@ public class OffHeapColumnVector {
 
     public int appendString(String str) {
         byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
-        return appendByteArray(bytes, 0, str.length());
+        return appendByteArray(bytes, 0, bytes.length);
     }
 
-    private int appendByteArray(byte[] value, int offset, int length) {
+    // append utf-8 encoded string
+    public int appendByteArray(byte[] value, int offset, int length) {
         int copiedOffset = arrayData().appendBytes(length, value, offset);
         reserve(elementsAppended + 1);
         putArray(elementsAppended, copiedOffset, length);
@@ -331,7 +548,172 @@ public class OffHeapColumnVector {
         return new String(bytes, StandardCharsets.UTF_8);
     }
 
-    private int getArrayOffset(int rowId) {
+    // start position of the row in the child columns, for variable length types, Array and Map
+    public int getArrayOffset(int rowId) {
         return Platform.getInt(null, offsetData + 4L * rowId);
     }
+
+    public int getArrayLength(int rowId) {
+        return getArrayOffset(rowId + 1) - getArrayOffset(rowId);
+    }
+
+    public int appendArray(List<?> values) {
+        OffHeapColumnVector elements = childColumns[0];
+        int start = elements.elementsAppended;
+        for (Object value : values) {
+            elements.appendValue(value);
+        }
+        reserve(elementsAppended + 1);
+        putArray(elementsAppended, start, values.size());
+        return elementsAppended++;
+    }
+
+    public int appendMap(Map<?, ?> values) {
+        OffHeapColumnVector keys = childColumns[0];
+        OffHeapColumnVector valueColumn = childColumns[1];
+        int start = keys.elementsAppended;
+        for (Map.Entry<?, ?> entry : values.entrySet()) {
+            keys.appendValue(entry.getKey());
+            valueColumn.appendValue(entry.getValue());
+        }
+        reserve(elementsAppended + 1);
+        putArray(elementsAppended, start, values.size());
+        return elementsAppended++;
+    }
+
+    // values of fields in the order of the struct type
+    public int appendStruct(List<?> values) {
+        for (int i = 0; i < childColumns.length; i++) {
+            childColumns[i].appendValue(i < values.size() ? values.get(i) : null);
+        }
+        reserve(elementsAppended + 1);
+        return elementsAppended++;
+    }
+
+    /**
+     * Append a java object of this column type.
+     * List for ARRAY and STRUCT, Map for MAP, toString() is used for STRING/DATE/DATETIME,
+     * and DECIMAL accepts BigDecimal or any object whose toString() is a decimal number.
+     */
+    public int appendValue(Object o) {
+        if (o == null) {
+            return appendNull();
+        }
+        switch (type) {
+            case BYTE:
+                return appendByte((byte) o);
+            case BOOLEAN:
+                return appendBoolean((boolean) o);
+            case SHORT:
+                return appendShort((short) o);
+            case INT:
+                return appendInt((int) o);
+            case FLOAT:
+                return appendFloat((float) o);
+            case LONG:
+                return appendLong((long) o);
+            case DOUBLE:
+                return appendDouble((double) o);
+            case DECIMAL:
+                return appendDecimal(o instanceof BigDecimal ? (BigDecimal) o : new BigDecimal(o.toString()));
+            case STRING:
+            case DATE:
+            case DATETIME:
+                return appendString(o.toString());
+            case ARRAY:
+                return appendArray((List<?>) o);
+            case MAP:
+                return appendMap((Map<?, ?>) o);
+            case STRUCT:
+                return appendStruct((List<?>) o);
+            default:
+                throw new RuntimeException("Unsupported type: " + type);
+        }
+    }
+
+    /**
+     * Append the addresses of this column to the meta column, see {@link OffHeapTable}
+     */
+    public void updateMeta(OffHeapColumnVector meta) {
+        meta.appendLong(nullsNativeAddress());
+        if (columnType.isVariableLength()) {
+            meta.appendLong(arrayOffsetNativeAddress());
+            meta.appendLong(arrayDataNativeAddress());
+        } else if (type == OffHeapColumnType.ARRAY || type == OffHeapColumnType.MAP) {
+            meta.appendLong(arrayOffsetNativeAddress());
+            for (OffHeapColumnVector c : childColumns) {
+                c.updateMeta(meta);
+            }
+        } else if (type == OffHeapColumnType.STRUCT) {
+            for (OffHeapColumnVector c : childColumns) {
+                c.updateMeta(meta);
+            }
+        } else {
+            meta.appendLong(valuesNativeAddress());
+        }
+    }
+
+    /**
+     * For test only
+     */
+    public String toString(int rowId) {
+        if (isNullAt(rowId)) {
+            return "NULL";
+        }
+        switch (type) {
+            case BYTE:
+                return String.valueOf(getByte(rowId));
+            case BOOLEAN:
+                return String.valueOf(getBoolean(rowId));
+            case SHORT:
+                return String.valueOf(getShort(rowId));
+            case INT:
+                return String.valueOf(getInt(rowId));
+            case FLOAT:
+                return String.valueOf(getFloat(rowId));
+            case LONG:
+                return String.valueOf(getLong(rowId));
+            case DOUBLE:
+                return String.valueOf(getDouble(rowId));
+            case STRING:
+            case DATE:
+            case DATETIME:
+                return getUTF8String(rowId);
+            case DECIMAL:
+                return getDecimal(rowId).toPlainString();
+            case ARRAY: {
+                StringBuilder sb = new StringBuilder("[");
+                for (int i = getArrayOffset(rowId); i < getArrayOffset(rowId + 1); i++) {
+                    if (i > getArrayOffset(rowId)) {
+                        sb.append(",");
+                    }
+                    sb.append(childColumns[0].toString(i));
+                }
+                return sb.append("]").toString();
+            }
+            case MAP: {
+                StringBuilder sb = new StringBuilder("{");
+                for (int i = getArrayOffset(rowId); i < getArrayOffset(rowId + 1); i++) {
+                    if (i > getArrayOffset(rowId)) {
+                        sb.append(",");
+                    }
+                    sb.append(childColumns[0].toString(i)).append(":").append(childColumns[1].toString(i));
+                }
+                return sb.append("}").toString();
+            }
+            case STRUCT: {
+                StringBuilder sb = new StringBuilder("{");
+                List<String> names = columnType.getChildNames();
+                for (int i = 0; i < childColumns.length; i++) {
+                    if (i > 0) {
+                        sb.append(",");
+                    }
+                    sb.append(names.get(i)).append(":").append(childColumns[i].toString(rowId));
+                }
+                return sb.append("}").toString();
+            }
+            default:
+                throw new RuntimeException("Unhandled " + type);
+        }
+    }
 }
\ No newline at end of file
@@ -30,7 +30,7 @@ package com.starrocks.jni.connector;
  * Data column layout:
  * Data columns are divided into two storage types: fixed length column and variable length column.
  *
- * For fixed length column like BOOLEAN/INT/LONG, we use first-level index addressing method.
+ * For fixed length column like BOOLEAN/INT/LONG/DECIMAL, we use first-level index addressing method.
  * (1) Get data column start address from meta column.
  * (2) Use column start address to read the data of fixed length.
  * Fixed length column memory layout:
@@ -38,9 +38,10 @@ package com.starrocks.jni.connector;
  * INT column of 4 bytes for example:
  * Fixed length column start address: | 4-bytes INT | 4-bytes INT | 4-bytes INT | ... |
  *                         Row index:  ----row 0---------row 1---------row 2----- ... -
+ * DECIMAL is stored as 16-byte little endian unscaled values in the scale of the column type.
  *
  *
- * For variable length column like STRING/DECIMAL, we use secondary-level index addressing method.
+ * For variable length column like STRING/DATE/DATETIME, we use secondary-level index addressing method.
  * (1) Get data column start address from meta column.
  * (2) Get the field start memory address from offset column at a row index.
  * (2) Get the field start memory address from offset column at the next row index to compute the filed length.
@@ -54,68 +55,54 @@ package com.starrocks.jni.connector;
  * Variable length column start address: |    (length of row 0)-bytes    | (length of row 1)-bytes | ... |
  *                                       |                               |
  *                 column start address + offset of row 0    column start address + length of row 1
+ *
+ * For nested column, the addresses of child columns follow the addresses of the parent column in meta column.
+ * ARRAY:  | null indicator | offset column | addresses of the element column |
+ * MAP:    | null indicator | offset column | addresses of the key column | addresses of the value column |
+ * STRUCT: | null indicator | addresses of field-1 column | addresses of field-2 column | ... |
+ * The offsets of ARRAY and MAP are the positions of rows in child columns.
+ *
+ * The table can be reused by {@link OffHeapTable#reset()} to keep the native memory for the next batch.
  */
 public class OffHeapTable {
     public OffHeapColumnVector[] vectors;
     public OffHeapColumnVector.OffHeapColumnType[] types;
+    public ColumnType[] columnTypes;
     public OffHeapColumnVector meta;
     public int numRows;
     public boolean[] released;
+    private final int capacity;
 
     public OffHeapTable(OffHeapColumnVector.OffHeapColumnType[] types, int capacity) {
-        this.types = types;
-        this.vectors = new OffHeapColumnVector[types.length];
-        this.released = new boolean[types.length];
-        int metaSize = 0;
-        for (int i = 0; i < types.length; i++) {
-            vectors[i] = new OffHeapColumnVector(capacity, types[i]);
-            if (types[i] == OffHeapColumnVector.OffHeapColumnType.STRING
-                    || types[i] == OffHeapColumnVector.OffHeapColumnType.DATE) {
-                metaSize += 3;
-            } else {
-                metaSize += 2;
-            }
+        this(toColumnTypes(types), capacity);
+    }
+
+    public OffHeapTable(ColumnType[] columnTypes, int capacity) {
+        this.columnTypes = columnTypes;
+        this.types = new OffHeapColumnVector.OffHeapColumnType[columnTypes.length];
+        this.vectors = new OffHeapColumnVector[columnTypes.length];
+        this.released = new boolean[columnTypes.length];
+        this.capacity = capacity;
+        for (int i = 0; i < columnTypes.length; i++) {
+            types[i] = columnTypes[i].getType();
+            vectors[i] = new OffHeapColumnVector(capacity, columnTypes[i]);
             released[i] = false;
         }
-        this.meta = new OffHeapColumnVector(metaSize, OffHeapColumnVector.OffHeapColumnType.LONG);
+        // meta column grows when there are variable length or nested columns
+        this.meta = new OffHeapColumnVector(columnTypes.length * 2 + 1, OffHeapColumnVector.OffHeapColumnType.LONG);
         this.numRows = 0;
     }
 
-    public void appendData(int fieldId, Object o) {
-        OffHeapColumnVector column = vectors[fieldId];
-        if (o == null) {
-            column.appendNull();
-            return;
+    private static ColumnType[] toColumnTypes(OffHeapColumnVector.OffHeapColumnType[] types) {
+        ColumnType[] columnTypes = new ColumnType[types.length];
+        for (int i = 0; i < types.length; i++) {
+            columnTypes[i] = new ColumnType(types[i]);
         }
+        return columnTypes;
+    }
 
-        OffHeapColumnVector.OffHeapColumnType type = types[fieldId];
-        switch (type) {
-            case BOOLEAN:
-                column.appendBoolean((boolean) o);
-                break;
-            case SHORT:
-                column.appendShort((short) o);
-                break;
-            case INT:
-                column.appendInt((int) o);
-                break;
-            case FLOAT:
-                column.appendFloat((float) o);
-                break;
-            case LONG:
-                column.appendLong((long) o);
-                break;
-            case DOUBLE:
-                column.appendDouble((double) o);
-                break;
-            case STRING:
-            case DATE:
-            case DECIMAL:
-                column.appendString(o.toString());
-                break;
-            default:
-                throw new RuntimeException("Unsupported type: " + type);
-        }
+    public void appendData(int fieldId, Object o) {
+        vectors[fieldId].appendValue(o);
     }
 
     public void releaseOffHeapColumnVector(int fieldId) {
@@ -125,25 +112,45 @@ public class OffHeapTable {
         }
     }
 
+    /**
+     * Clear the data of the table and keep the allocated native memory for the next batch.
+     * Columns released by {@link OffHeapTable#releaseOffHeapColumnVector(int)} are allocated again.
+     */
+    public void reset() {
+        for (int i = 0; i < vectors.length; i++) {
+            if (released[i]) {
+                vectors[i] = new OffHeapColumnVector(capacity, columnTypes[i]);
+                released[i] = false;
+            } else {
+                vectors[i].reset();
+            }
+        }
+        meta.reset();
+        numRows = 0;
+    }
+
+    /**
+     * Bytes of native memory held by the table, including the meta column.
+     */
+    public long getMemoryBytes() {
+        long bytes = meta.getMemoryBytes();
+        for (int i = 0; i < vectors.length; i++) {
+            if (!released[i]) {
+                bytes += vectors[i].getMemoryBytes();
+            }
+        }
+        return bytes;
+    }
+
     public void setNumRows(int numRows) {
         this.numRows = numRows;
     }
 
     public long getMetaNativeAddress() {
+        meta.reset();
         meta.appendLong(numRows);
-        for (int i = 0; i < types.length; i++) {
-            OffHeapColumnVector.OffHeapColumnType type = types[i];
-            OffHeapColumnVector column = vectors[i];
-            if (type == OffHeapColumnVector.OffHeapColumnType.STRING ||
-                    type == OffHeapColumnVector.OffHeapColumnType.DATE ||
-                    type == OffHeapColumnVector.OffHeapColumnType.DECIMAL) {
-                meta.appendLong(column.nullsNativeAddress());
-                meta.appendLong(column.arrayOffsetNativeAddress());
-                meta.appendLong(column.arrayDataNativeAddress());
-            } else {
-                meta.appendLong(column.nullsNativeAddress());
-                meta.appendLong(column.valuesNativeAddress());
-            }
+        for (OffHeapColumnVector column : vectors) {
+            column.updateMeta(meta);
         }
         return meta.valuesNativeAddress();
     }
@@ -157,38 +164,7 @@ public class OffHeapTable {
         for (int i = 0; i < limit && i < numRows; i++) {
             for (int fieldId = 0; fieldId < types.length; fieldId++) {
                 OffHeapColumnVector column = vectors[fieldId];
-                if (column.isNullAt(i)) {
-                    sb.append("NULL").append(", ");
-                    continue;
-                }
-                OffHeapColumnVector.OffHeapColumnType type = types[fieldId];
-                switch (type) {
-                    case BOOLEAN:
-                        sb.append(column.getBoolean(i)).append(", ");
-                        break;
-                    case SHORT:
-                        sb.append(column.getShort(i)).append(", ");
-                        break;
-                    case INT:
-                        sb.append(column.getInt(i)).append(", ");
-                        break;
-                    case FLOAT:
-                        sb.append(column.getFloat(i)).append(", ");
-                        break;
-                    case LONG:
-                        sb.append(column.getLong(i)).append(", ");
-                        break;
-                    case DOUBLE:
-                        sb.append(column.getDouble(i)).append(", ");
-                        break;
-                    case STRING:
-                    case DATE:
-                    case DECIMAL:
-                        sb.append(column.getUTF8String(i)).append(", ");
-                        break;
-                    default:
-                        throw new RuntimeException("Unhandled " + type);
-                }
+                sb.append(column.toString(i)).append(", ");
             }
             sb.append("\n");
         }
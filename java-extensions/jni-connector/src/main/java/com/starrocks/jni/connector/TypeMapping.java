@@ -17,6 +17,7 @@ public class TypeMapping {
         hiveTypeMappings.put("double", OffHeapColumnVector.OffHeapColumnType.DOUBLE);
         hiveTypeMappings.put("string", OffHeapColumnVector.OffHeapColumnType.STRING);
         hiveTypeMappings.put("date", OffHeapColumnVector.OffHeapColumnType.DATE);
+        hiveTypeMappings.put("timestamp", OffHeapColumnVector.OffHeapColumnType.DATETIME);
         hiveTypeMappings.put("decimal", OffHeapColumnVector.OffHeapColumnType.DECIMAL);
     }
 }
@@ -0,0 +1,48 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.jni.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnTypeTest {
+    @Test
+    public void testParsePrimitive() {
+        ColumnType type = ColumnType.parse("int", TypeMapping.hiveTypeMappings);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.INT, type.getType());
+        Assert.assertFalse(type.isNested());
+
+        type = ColumnType.parse("decimal(10,2)", TypeMapping.hiveTypeMappings);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.DECIMAL, type.getType());
+        // decimal is stored as fixed length unscaled values
+        Assert.assertFalse(type.isVariableLength());
+        Assert.assertEquals(10, type.getPrecision());
+        Assert.assertEquals(2, type.getScale());
+        Assert.assertEquals(38, ColumnType.parse("decimal(38)", TypeMapping.hiveTypeMappings).getPrecision());
+        Assert.assertNull(ColumnType.parse("decimal(a,b)", TypeMapping.hiveTypeMappings));
+
+        type = ColumnType.parse("timestamp", TypeMapping.hiveTypeMappings);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.DATETIME, type.getType());
+
+        Assert.assertNull(ColumnType.parse("binary", TypeMapping.hiveTypeMappings));
+    }
+
+    @Test
+    public void testParseNested() {
+        ColumnType type = ColumnType.parse("array<map<string,decimal(10,2)>>", TypeMapping.hiveTypeMappings);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.ARRAY, type.getType());
+        ColumnType map = type.getChildTypes().get(0);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.MAP, map.getType());
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.STRING, map.getChildTypes().get(0).getType());
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.DECIMAL, map.getChildTypes().get(1).getType());
+
+        type = ColumnType.parse("struct<a:int,b:array<string>,c:struct<d:date>>", TypeMapping.hiveTypeMappings);
+        Assert.assertEquals(OffHeapColumnVector.OffHeapColumnType.STRUCT, type.getType());
+        Assert.assertEquals(3, type.getChildTypes().size());
+        Assert.assertEquals("c", type.getChildNames().get(2));
+        Assert.assertEquals("struct<a:int,b:array<string>,c:struct<d:date>>", type.toString());
+
+        Assert.assertNull(ColumnType.parse("array<binary>", TypeMapping.hiveTypeMappings));
+        Assert.assertNull(ColumnType.parse("map<string>", TypeMapping.hiveTypeMappings));
+    }
+}
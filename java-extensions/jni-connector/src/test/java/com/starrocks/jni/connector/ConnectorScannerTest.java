@@ -0,0 +1,160 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.jni.connector;
+
+import com.starrocks.utils.Platform;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ConnectorScannerTest {
+    // counts the native memory allocated by the off-heap table
+    private static class CountingAllocator implements Platform.MemoryAllocator {
+        private final Set<Long> allocated = new HashSet<>();
+        private int numAllocations = 0;
+
+        @Override
+        public long allocate(long size) {
+            long address = Platform.UNSAFE_ALLOCATOR.allocate(size);
+            allocated.add(address);
+            numAllocations++;
+            return address;
+        }
+
+        @Override
+        public void free(long address) {
+            if (address != 0) {
+                Assert.assertTrue(allocated.remove(address));
+                Platform.UNSAFE_ALLOCATOR.free(address);
+            }
+        }
+    }
+
+    // returns rows of (id, price, tags), the last batch is not full
+    private static class TestScanner extends ConnectorScanner {
+        private final int numRows;
+        private int nextRow = 0;
+
+        TestScanner(int fetchSize, int numRows) {
+            this.numRows = numRows;
+            initOffHeapTableWriter(new String[] {"int", "decimal(10,2)", "array<string>"}, fetchSize,
+                    TypeMapping.hiveTypeMappings);
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+            freeOffHeapTable();
+        }
+
+        @Override
+        public int getNext() {
+            int rows = 0;
+            for (; rows < getTableSize() && nextRow < numRows; rows++, nextRow++) {
+                scanData(0, nextRow);
+                scanData(1, nextRow % 2 == 0 ? null : new BigDecimal(nextRow + ".5"));
+                scanData(2, Arrays.asList("tag" + nextRow));
+            }
+            return rows;
+        }
+    }
+
+    private CountingAllocator allocator;
+
+    @Before
+    public void setUp() {
+        allocator = new CountingAllocator();
+        Platform.setMemoryAllocator(allocator);
+    }
+
+    @After
+    public void tearDown() {
+        Platform.setMemoryAllocator(Platform.MEMORY_TRACKER_ALLOCATOR);
+    }
+
+    @Test
+    public void testMetaLayout() throws IOException {
+        TestScanner scanner = new TestScanner(4, 3);
+        long meta = scanner.getNextOffHeapChunk();
+        Assert.assertEquals(3, Platform.getLong(null, meta));
+
+        // int: nulls, data
+        long intData = Platform.getLong(null, meta + 16);
+        Assert.assertEquals(2, Platform.getInt(null, intData + 8));
+
+        // decimal: nulls, 16 bytes unscaled values
+        long decimalNulls = Platform.getLong(null, meta + 24);
+        long decimalData = Platform.getLong(null, meta + 32);
+        Assert.assertEquals(1, Platform.getByte(null, decimalNulls));
+        Assert.assertEquals(0, Platform.getByte(null, decimalNulls + 1));
+        Assert.assertEquals(150, Platform.getLong(null, decimalData + 16));
+        Assert.assertEquals(0, Platform.getLong(null, decimalData + 24));
+
+        // array<string>: nulls, offsets, then nulls, offsets and bytes of the elements
+        long arrayOffsets = Platform.getLong(null, meta + 48);
+        Assert.assertEquals(3, Platform.getInt(null, arrayOffsets + 12));
+        long elementOffsets = Platform.getLong(null, meta + 64);
+        long elementBytes = Platform.getLong(null, meta + 72);
+        Assert.assertEquals(8, Platform.getInt(null, elementOffsets + 8));
+        Assert.assertEquals('t', (char) Platform.getByte(null, elementBytes + 8));
+
+        scanner.releaseOffHeapTable();
+        scanner.close();
+        Assert.assertTrue(allocator.allocated.isEmpty());
+    }
+
+    @Test
+    public void testReuseOffHeapTable() throws IOException {
+        TestScanner scanner = new TestScanner(4, 10);
+        long meta = scanner.getNextOffHeapChunk();
+        Assert.assertEquals(4, Platform.getLong(null, meta));
+        scanner.releaseOffHeapTable();
+        long memoryBytes = scanner.getOffHeapMemoryBytes();
+        Assert.assertTrue(memoryBytes > 0);
+        int numAllocations = allocator.numAllocations;
+
+        // the table is retained across getNext, the same rows don't allocate again
+        meta = scanner.getNextOffHeapChunk();
+        Assert.assertEquals(4, Platform.getLong(null, meta));
+        scanner.releaseOffHeapTable();
+        Assert.assertEquals(numAllocations, allocator.numAllocations);
+        Assert.assertEquals(memoryBytes, scanner.getOffHeapMemoryBytes());
+
+        meta = scanner.getNextOffHeapChunk();
+        Assert.assertEquals(2, Platform.getLong(null, meta));
+        scanner.releaseOffHeapTable();
+        Assert.assertEquals(numAllocations, allocator.numAllocations);
+
+        scanner.close();
+        Assert.assertEquals(0, scanner.getOffHeapMemoryBytes());
+        Assert.assertTrue(allocator.allocated.isEmpty());
+    }
+
+    @Test
+    public void testFreeOffHeapTableOverLimit() throws IOException {
+        TestScanner scanner = new TestScanner(4, 10);
+        scanner.setMaxRetainedOffHeapBytes(0);
+        scanner.getNextOffHeapChunk();
+        Assert.assertTrue(scanner.getOffHeapMemoryBytes() > 0);
+
+        // the table holding more than the limit is freed after the batch is consumed
+        scanner.releaseOffHeapTable();
+        Assert.assertEquals(0, scanner.getOffHeapMemoryBytes());
+        Assert.assertTrue(allocator.allocated.isEmpty());
+
+        long meta = scanner.getNextOffHeapChunk();
+        Assert.assertEquals(4, Platform.getLong(null, meta));
+        scanner.close();
+        Assert.assertTrue(allocator.allocated.isEmpty());
+    }
+}
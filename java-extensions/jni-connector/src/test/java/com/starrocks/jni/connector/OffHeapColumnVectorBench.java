@@ -0,0 +1,133 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.jni.connector;
+
+import com.starrocks.utils.Platform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Append a batch to the reused off-heap vectors, and read it back
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class OffHeapColumnVectorBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(OffHeapColumnVectorBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Param({"4096"})
+    public int rows;
+
+    private int[] ints;
+    private String[] strings;
+    private BigDecimal[] decimals;
+    private List<?>[] arrays;
+
+    private OffHeapColumnVector intVector;
+    private OffHeapColumnVector stringVector;
+    private OffHeapColumnVector decimalVector;
+    private OffHeapColumnVector arrayVector;
+
+    private static OffHeapColumnVector newVector(int capacity, String type) {
+        return new OffHeapColumnVector(capacity, ColumnType.parse(type, TypeMapping.hiveTypeMappings));
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the memory tracker natives are only registered in BE
+        Platform.setMemoryAllocator(Platform.UNSAFE_ALLOCATOR);
+        ints = new int[rows];
+        strings = new String[rows];
+        decimals = new BigDecimal[rows];
+        arrays = new List<?>[rows];
+        for (int i = 0; i < rows; i++) {
+            ints[i] = i;
+            strings[i] = "value_" + i;
+            decimals[i] = i % 10 == 0 ? null : BigDecimal.valueOf(i, 2);
+            arrays[i] = Arrays.asList(i, i + 1, i + 2);
+        }
+        intVector = newVector(rows, "int");
+        stringVector = newVector(rows, "string");
+        decimalVector = newVector(rows, "decimal(18,2)");
+        arrayVector = newVector(rows, "array<int>");
+        appendAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        intVector.close();
+        stringVector.close();
+        decimalVector.close();
+        arrayVector.close();
+        Platform.setMemoryAllocator(Platform.MEMORY_TRACKER_ALLOCATOR);
+    }
+
+    private void appendAll() {
+        intVector.reset();
+        stringVector.reset();
+        decimalVector.reset();
+        arrayVector.reset();
+        for (int i = 0; i < rows; i++) {
+            intVector.appendValue(ints[i]);
+            stringVector.appendValue(strings[i]);
+            decimalVector.appendValue(decimals[i]);
+            arrayVector.appendValue(arrays[i]);
+        }
+    }
+
+    @Benchmark
+    public void appendInts() {
+        intVector.reset();
+        intVector.appendInts(ints, 0, rows);
+    }
+
+    @Benchmark
+    public void appendValues() {
+        appendAll();
+    }
+
+    @Benchmark
+    public long readValues() {
+        long sum = 0;
+        OffHeapColumnVector elements = arrayVector.getChildColumn(0);
+        for (int i = 0; i < rows; i++) {
+            sum += intVector.getInt(i);
+            sum += stringVector.getArrayLength(i);
+            if (!decimalVector.isNullAt(i)) {
+                sum += decimalVector.getDecimal(i).unscaledValue().longValue();
+            }
+            int offset = arrayVector.getArrayOffset(i);
+            for (int j = 0; j < arrayVector.getArrayLength(i); j++) {
+                sum += elements.getInt(offset + j);
+            }
+        }
+        return sum;
+    }
+}
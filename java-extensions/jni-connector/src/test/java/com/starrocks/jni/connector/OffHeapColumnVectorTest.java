@@ -0,0 +1,186 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.jni.connector;
+
+import com.starrocks.utils.Platform;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class OffHeapColumnVectorTest {
+    @BeforeClass
+    public static void setUp() {
+        // the memory tracker natives are only registered in BE
+        Platform.setMemoryAllocator(Platform.UNSAFE_ALLOCATOR);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Platform.setMemoryAllocator(Platform.MEMORY_TRACKER_ALLOCATOR);
+    }
+
+    private static OffHeapColumnVector newVector(String type) {
+        return new OffHeapColumnVector(2, ColumnType.parse(type, TypeMapping.hiveTypeMappings));
+    }
+
+    @Test
+    public void testPrimitive() {
+        OffHeapColumnVector vector = newVector("int");
+        vector.appendValue(1);
+        vector.appendNull();
+        // bulk append grows the buffer
+        vector.appendInts(new int[] {2, 3, 4, 5}, 1, 3);
+        Assert.assertEquals(5, vector.numRows());
+        Assert.assertEquals(1, vector.getInt(0));
+        Assert.assertTrue(vector.isNullAt(1));
+        Assert.assertEquals(3, vector.getInt(2));
+        Assert.assertEquals(5, vector.getInt(4));
+        vector.close();
+
+        vector = newVector("byte");
+        vector.appendValue((byte) -1);
+        Assert.assertEquals(-1, vector.getByte(0));
+        vector.close();
+    }
+
+    @Test
+    public void testString() {
+        OffHeapColumnVector vector = newVector("string");
+        vector.appendValue("abc");
+        vector.appendNull();
+        vector.appendValue("\u4e2d\u6587");
+        vector.appendValue("");
+        Assert.assertEquals("abc", vector.getUTF8String(0));
+        Assert.assertNull(vector.getUTF8String(1));
+        // offsets are continuous for null rows
+        Assert.assertEquals(0, vector.getArrayLength(1));
+        Assert.assertEquals("\u4e2d\u6587", vector.getUTF8String(2));
+        Assert.assertEquals(6, vector.getArrayLength(2));
+        Assert.assertEquals("", vector.getUTF8String(3));
+        vector.close();
+    }
+
+    @Test
+    public void testDecimal() {
+        OffHeapColumnVector vector = newVector("decimal(38,2)");
+        Assert.assertFalse(vector.getColumnType().isVariableLength());
+        vector.appendValue(new BigDecimal("1.5"));
+        vector.appendNull();
+        // rounded half up to the scale of the column
+        vector.appendValue("-123.456");
+        vector.appendValue(new BigDecimal("1E+2"));
+        BigDecimal max = new BigDecimal("999999999999999999999999999999999999.99");
+        vector.appendValue(max);
+        vector.appendValue(max.negate());
+        Assert.assertEquals(new BigDecimal("1.50"), vector.getDecimal(0));
+        Assert.assertTrue(vector.isNullAt(1));
+        Assert.assertEquals(new BigDecimal("-123.46"), vector.getDecimal(2));
+        Assert.assertEquals("100.00", vector.toString(3));
+        Assert.assertEquals(max, vector.getDecimal(4));
+        Assert.assertEquals(max.negate(), vector.getDecimal(5));
+        Assert.assertThrows(ArithmeticException.class, () -> vector.appendValue(new BigDecimal("1E+40")));
+        vector.close();
+    }
+
+    @Test
+    public void testDateAndDatetime() {
+        OffHeapColumnVector date = newVector("date");
+        date.appendValue(LocalDate.of(2022, 1, 2));
+        Assert.assertEquals("2022-01-02", date.getUTF8String(0));
+        date.close();
+
+        OffHeapColumnVector datetime = newVector("timestamp");
+        datetime.appendValue("2022-01-02 03:04:05.123");
+        datetime.appendNull();
+        Assert.assertEquals("2022-01-02 03:04:05.123", datetime.getUTF8String(0));
+        Assert.assertTrue(datetime.isNullAt(1));
+        datetime.close();
+    }
+
+    @Test
+    public void testArray() {
+        OffHeapColumnVector vector = newVector("array<int>");
+        vector.appendValue(Arrays.asList(1, null, 3));
+        vector.appendNull();
+        vector.appendValue(Arrays.asList());
+        vector.appendValue(Arrays.asList(4));
+        Assert.assertEquals(4, vector.numRows());
+        Assert.assertEquals(3, vector.getArrayLength(0));
+        Assert.assertTrue(vector.isNullAt(1));
+        Assert.assertEquals(0, vector.getArrayLength(1));
+        Assert.assertEquals(0, vector.getArrayLength(2));
+        Assert.assertEquals(3, vector.getArrayOffset(3));
+        Assert.assertEquals("[1,NULL,3]", vector.toString(0));
+        Assert.assertEquals("[4]", vector.toString(3));
+
+        OffHeapColumnVector elements = vector.getChildColumn(0);
+        Assert.assertEquals(4, elements.numRows());
+        Assert.assertTrue(elements.isNullAt(1));
+        vector.close();
+    }
+
+    @Test
+    public void testMap() {
+        OffHeapColumnVector vector = newVector("map<string,decimal(10,1)>");
+        Map<String, BigDecimal> map = new LinkedHashMap<>();
+        map.put("a", new BigDecimal("1.1"));
+        map.put("b", null);
+        vector.appendValue(map);
+        vector.appendNull();
+        vector.appendValue(new LinkedHashMap<>());
+        Assert.assertEquals("{a:1.1,b:NULL}", vector.toString(0));
+        Assert.assertTrue(vector.isNullAt(1));
+        Assert.assertEquals("{}", vector.toString(2));
+        Assert.assertEquals(2, vector.getArrayOffset(3));
+        Assert.assertEquals(2, vector.getChildColumn(0).numRows());
+        Assert.assertEquals(2, vector.getChildColumn(1).numRows());
+        vector.close();
+    }
+
+    @Test
+    public void testStruct() {
+        OffHeapColumnVector vector = newVector("struct<a:int,b:array<string>,c:struct<d:date>>");
+        vector.appendValue(Arrays.asList(1, Arrays.asList("x", "y"), Arrays.asList("2022-01-01")));
+        // a null struct keeps the fields aligned
+        vector.appendNull();
+        // missing fields are null
+        vector.appendValue(Arrays.asList(2));
+        Assert.assertEquals("{a:1,b:[x,y],c:{d:2022-01-01}}", vector.toString(0));
+        Assert.assertEquals("NULL", vector.toString(1));
+        Assert.assertEquals("{a:2,b:NULL,c:NULL}", vector.toString(2));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(3, vector.getChildColumn(i).numRows());
+            Assert.assertTrue(vector.getChildColumn(i).isNullAt(1));
+        }
+        Assert.assertEquals(3, vector.getChildColumn(2).getChildColumn(0).numRows());
+        vector.close();
+    }
+
+    @Test
+    public void testReset() {
+        OffHeapColumnVector vector = newVector("array<string>");
+        vector.appendValue(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i"));
+        vector.appendNull();
+        long memoryBytes = vector.getMemoryBytes();
+        long offsetAddress = vector.arrayOffsetNativeAddress();
+
+        // the native memory is kept, and the values and nulls are cleared
+        vector.reset();
+        Assert.assertEquals(0, vector.numRows());
+        Assert.assertEquals(memoryBytes, vector.getMemoryBytes());
+        Assert.assertEquals(offsetAddress, vector.arrayOffsetNativeAddress());
+        Assert.assertFalse(vector.hasNull());
+        Assert.assertFalse(vector.isNullAt(1));
+        vector.appendValue(Arrays.asList("x"));
+        Assert.assertEquals("[x]", vector.toString(0));
+        vector.close();
+        Assert.assertEquals(0, vector.getMemoryBytes());
+    }
+}
@@ -18,16 +18,23 @@ import static org.objectweb.asm.Opcodes.ALOAD;
 import static org.objectweb.asm.Opcodes.ANEWARRAY;
 import static org.objectweb.asm.Opcodes.ARETURN;
 import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
 import static org.objectweb.asm.Opcodes.F_APPEND;
 import static org.objectweb.asm.Opcodes.F_CHOP;
 import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.IALOAD;
+import static org.objectweb.asm.Opcodes.IASTORE;
 import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.ICONST_M1;
+import static org.objectweb.asm.Opcodes.IF_ICMPEQ;
 import static org.objectweb.asm.Opcodes.IF_ICMPGE;
 import static org.objectweb.asm.Opcodes.ILOAD;
 import static org.objectweb.asm.Opcodes.INTEGER;
 import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
 import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.NEWARRAY;
 import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.T_INT;
 import static org.objectweb.asm.Opcodes.V1_8;
 
 public class CallStubGenerator {
@@ -286,4 +293,280 @@ public class CallStubGenerator {
         return generator.getByteCode();
     }
 
+    // The frames of the generated stubs never merge two different reference types, so there is no need to
+    // load the UDF classes (which are invisible to this class loader) to compute the common super class.
+    private static class StubClassWriter extends ClassWriter {
+        StubClassWriter() {
+            super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            return "java/lang/Object";
+        }
+    }
+
+    // generate a batch update, the state of each row is got from FunctionStates by index
+    // public class CallStub {
+    //     public static void batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states,
+    //                                   Object[] var0, ...) throws Exception {
+    //         for (int i = 0; i < rows; ++i) {
+    //             [if (states[i] == -1) continue;]
+    //             obj.update((State) ctx.get(states[i]), (TYPE0) var0[i], ...);
+    //         }
+    //     }
+    // }
+    private static class BatchUpdateGenerator {
+        BatchUpdateGenerator(String stubClazzName, Class<?> clazz, Method method, boolean skipNullState) {
+            this.stubClazzName = stubClazzName;
+            this.udfClazz = clazz;
+            this.udfMethod = method;
+            this.skipNullState = skipNullState;
+        }
+
+        private final String stubClazzName;
+        private final Class<?> udfClazz;
+        private final Method udfMethod;
+        // skip the rows whose state index is -1
+        private final boolean skipNullState;
+
+        private final ClassWriter writer = new StubClassWriter();
+
+        private void declareCallStubClazz() {
+            writer.visit(V1_8, ACC_PUBLIC, stubClazzName, null, "java/lang/Object", null);
+        }
+
+        private void genBatchUpdate() {
+            final Class<?>[] parameters = udfMethod.getParameterTypes();
+            final int numInputs = parameters.length - 1;
+
+            StringBuilder desc = new StringBuilder("(");
+            desc.append("I");
+            desc.append(Type.getDescriptor(udfClazz));
+            desc.append(Type.getDescriptor(FunctionStates.class));
+            desc.append("[I");
+            for (int i = 0; i < numInputs; i++) {
+                desc.append("[Ljava/lang/Object;");
+            }
+            desc.append(")V");
+
+            final MethodVisitor batchCall =
+                    writer.visitMethod(ACC_PUBLIC + ACC_STATIC, "batchCallV", desc.toString(), null,
+                            new String[] {"java/lang/Exception"});
+            batchCall.visitCode();
+
+            // local var0: rows
+            // local var1: UDAF handle
+            // local var2, var3: FunctionStates and state indexes
+            // local varN...: inputs, i
+            final int ctxIndex = 2;
+            final int statesIndex = 3;
+            final int inputIndex = 4;
+            final int iIndex = inputIndex + numInputs;
+
+            batchCall.visitInsn(ICONST_0);
+            batchCall.visitVarInsn(ISTORE, iIndex);
+
+            final Label loop = new Label();
+            final Label next = new Label();
+            final Label end = new Label();
+            batchCall.visitLabel(loop);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitVarInsn(ILOAD, 0);
+            batchCall.visitJumpInsn(IF_ICMPGE, end);
+
+            if (skipNullState) {
+                // if (states[i] == -1) continue
+                batchCall.visitVarInsn(ALOAD, statesIndex);
+                batchCall.visitVarInsn(ILOAD, iIndex);
+                batchCall.visitInsn(IALOAD);
+                batchCall.visitInsn(ICONST_M1);
+                batchCall.visitJumpInsn(IF_ICMPEQ, next);
+            }
+
+            batchCall.visitVarInsn(ALOAD, 1);
+            // (State) ctx.get(states[i])
+            batchCall.visitVarInsn(ALOAD, ctxIndex);
+            batchCall.visitVarInsn(ALOAD, statesIndex);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitInsn(IALOAD);
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(FunctionStates.class), "get",
+                    "(I)Ljava/lang/Object;", false);
+            batchCall.visitTypeInsn(CHECKCAST, Type.getInternalName(parameters[0]));
+            for (int i = 0; i < numInputs; i++) {
+                final Class<?> type = parameters[i + 1];
+                batchCall.visitVarInsn(ALOAD, inputIndex + i);
+                batchCall.visitVarInsn(ILOAD, iIndex);
+                batchCall.visitInsn(AALOAD);
+                if (type != Object.class) {
+                    batchCall.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+                }
+            }
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(udfClazz), udfMethod.getName(),
+                    Type.getMethodDescriptor(udfMethod), false);
+
+            batchCall.visitLabel(next);
+            batchCall.visitIincInsn(iIndex, 1);
+            batchCall.visitJumpInsn(GOTO, loop);
+
+            batchCall.visitLabel(end);
+            batchCall.visitInsn(RETURN);
+            // computed by ClassWriter
+            batchCall.visitMaxs(0, 0);
+            batchCall.visitEnd();
+        }
+
+        private void finish() {
+            writer.visitEnd();
+        }
+
+        private byte[] getByteCode() {
+            return writer.toByteArray();
+        }
+    }
+
+    private static byte[] generateBatchUpdateStub(String stubClazzName, Class<?> clazz, Method method,
+                                                  boolean skipNullState) {
+        final BatchUpdateGenerator generator =
+                new BatchUpdateGenerator(stubClazzName, clazz, method, skipNullState);
+        generator.declareCallStubClazz();
+        generator.genBatchUpdate();
+        generator.finish();
+        return generator.getByteCode();
+    }
+
+    // UDAF update for a batch of states, replaces UDFHelper.batchUpdate
+    // batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states, Object[] var0, ...)
+    // one UDF class loader may hold several stubs, so the stub class name (in internal form) is given by caller
+    public static byte[] generateBatchUpdateStub(String stubClazzName, Class<?> clazz, Method method) {
+        return generateBatchUpdateStub(stubClazzName, clazz, method, false);
+    }
+
+    // UDAF update for a batch of states, rows with state -1 are skipped, replaces UDFHelper.batchUpdateIfNotNull
+    // batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states, Object[] var0, ...)
+    public static byte[] generateBatchUpdateIfNotNullStub(String stubClazzName, Class<?> clazz, Method method) {
+        return generateBatchUpdateStub(stubClazzName, clazz, method, true);
+    }
+
+    // UDAF merge for a batch of states, replaces the per-row merge
+    // batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states, Object[] buffers)
+    public static byte[] generateBatchMergeStub(String stubClazzName, Class<?> clazz, Method merge) {
+        return generateBatchUpdateStub(stubClazzName, clazz, merge, false);
+    }
+
+    // UDAF merge for a batch of states, rows with state -1 are skipped
+    // batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states, Object[] buffers)
+    public static byte[] generateBatchMergeIfNotNullStub(String stubClazzName, Class<?> clazz, Method merge) {
+        return generateBatchUpdateStub(stubClazzName, clazz, merge, true);
+    }
+
+    // UDAF serialize for a batch of states, each state is serialized to its own buffer
+    // batchCallV(int rows, UDAF obj, FunctionStates ctx, int[] states, Object[] buffers)
+    public static byte[] generateBatchSerializeStub(String stubClazzName, Class<?> clazz, Method serialize) {
+        return generateBatchUpdateStub(stubClazzName, clazz, serialize, false);
+    }
+
+    // generate the serialized length of a batch of states
+    // public class CallStub {
+    //     public static int[] batchCallV(int rows, FunctionStates ctx, int[] states) throws Exception {
+    //         int[] res = new int[rows];
+    //         for (int i = 0; i < rows; ++i) {
+    //             res[i] = ((State) ctx.get(states[i])).serializeLength();
+    //         }
+    //         return res;
+    //     }
+    // }
+    private static class BatchSerializeLengthGenerator {
+        BatchSerializeLengthGenerator(String stubClazzName, Class<?> stateClazz, Method method) {
+            this.stubClazzName = stubClazzName;
+            this.stateClazz = stateClazz;
+            this.stateMethod = method;
+        }
+
+        private final String stubClazzName;
+        private final Class<?> stateClazz;
+        private final Method stateMethod;
+
+        private final ClassWriter writer = new StubClassWriter();
+
+        private void declareCallStubClazz() {
+            writer.visit(V1_8, ACC_PUBLIC, stubClazzName, null, "java/lang/Object", null);
+        }
+
+        private void genBatchSerializeLength() {
+            if (stateMethod.getParameterCount() != 0 || stateMethod.getReturnType() != int.class) {
+                throw new UnsupportedOperationException("Unsupported serializeLength:" + stateMethod);
+            }
+            final String desc = "(I" + Type.getDescriptor(FunctionStates.class) + "[I)[I";
+            final MethodVisitor batchCall =
+                    writer.visitMethod(ACC_PUBLIC + ACC_STATIC, "batchCallV", desc, null,
+                            new String[] {"java/lang/Exception"});
+            batchCall.visitCode();
+
+            // local var0: rows
+            // local var1, var2: FunctionStates and state indexes
+            // local var3, var4: res, i
+            final int ctxIndex = 1;
+            final int statesIndex = 2;
+            final int resIndex = 3;
+            final int iIndex = 4;
+
+            batchCall.visitVarInsn(ILOAD, 0);
+            batchCall.visitIntInsn(NEWARRAY, T_INT);
+            batchCall.visitVarInsn(ASTORE, resIndex);
+            batchCall.visitInsn(ICONST_0);
+            batchCall.visitVarInsn(ISTORE, iIndex);
+
+            final Label loop = new Label();
+            final Label end = new Label();
+            batchCall.visitLabel(loop);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitVarInsn(ILOAD, 0);
+            batchCall.visitJumpInsn(IF_ICMPGE, end);
+
+            // res[i] = ((State) ctx.get(states[i])).serializeLength()
+            batchCall.visitVarInsn(ALOAD, resIndex);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitVarInsn(ALOAD, ctxIndex);
+            batchCall.visitVarInsn(ALOAD, statesIndex);
+            batchCall.visitVarInsn(ILOAD, iIndex);
+            batchCall.visitInsn(IALOAD);
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(FunctionStates.class), "get",
+                    "(I)Ljava/lang/Object;", false);
+            batchCall.visitTypeInsn(CHECKCAST, Type.getInternalName(stateClazz));
+            batchCall.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(stateClazz), stateMethod.getName(),
+                    Type.getMethodDescriptor(stateMethod), false);
+            batchCall.visitInsn(IASTORE);
+
+            batchCall.visitIincInsn(iIndex, 1);
+            batchCall.visitJumpInsn(GOTO, loop);
+
+            batchCall.visitLabel(end);
+            batchCall.visitVarInsn(ALOAD, resIndex);
+            batchCall.visitInsn(ARETURN);
+            // computed by ClassWriter
+            batchCall.visitMaxs(0, 0);
+            batchCall.visitEnd();
+        }
+
+        private void finish() {
+            writer.visitEnd();
+        }
+
+        private byte[] getByteCode() {
+            return writer.toByteArray();
+        }
+    }
+
+    // serialized length of a batch of states, replaces UDFHelper.batchCall(Object[], Method, int)
+    // int[] batchCallV(int rows, FunctionStates ctx, int[] states)
+    public static byte[] generateBatchSerializeLengthStub(String stubClazzName, Class<?> stateClazz,
+                                                          Method serializeLength) {
+        final BatchSerializeLengthGenerator generator =
+                new BatchSerializeLengthGenerator(stubClazzName, stateClazz, serializeLength);
+        generator.declareCallStubClazz();
+        generator.genBatchSerializeLength();
+        generator.finish();
+        return generator.getByteCode();
+    }
 }
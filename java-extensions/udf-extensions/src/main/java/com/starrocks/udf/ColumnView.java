@@ -0,0 +1,151 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.udf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+// Read-only view of a BE column used by VectorizedUDF.
+// The buffers are direct buffers wrapping the BE column memory, so nothing is copied or boxed
+// when the view is created. Numeric values are read with absolute gets on a little-endian buffer.
+//
+// layout:
+// null buffer:   uint8_t per row, 1 means null. null when the column is not nullable
+// data buffer:   fixed length values for numeric types, bytes for string types
+// offset buffer: numRows + 1 int offsets into the data buffer, only for string types
+public class ColumnView {
+    private final int type;
+    private final int numRows;
+    private final ByteBuffer nullBuffer;
+    private final ByteBuffer offsetBuffer;
+    private final ByteBuffer dataBuffer;
+    private final boolean allNull;
+
+    private ColumnView(int type, int numRows, ByteBuffer nullBuffer, ByteBuffer offsetBuffer, ByteBuffer dataBuffer,
+                       boolean allNull) {
+        this.type = type;
+        this.numRows = numRows;
+        this.nullBuffer = nullBuffer;
+        this.offsetBuffer = offsetBuffer == null ? null : offsetBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.dataBuffer = dataBuffer == null ? null : dataBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.allNull = allNull;
+    }
+
+    // buffers are in the same order as UDFHelper.createBoxedArray
+    public static ColumnView create(int type, int numRows, boolean nullable, ByteBuffer... buffer) {
+        int idx = 0;
+        ByteBuffer nullBuffer = nullable ? buffer[idx++] : null;
+        switch (type) {
+            case UDFHelper.TYPE_BOOLEAN:
+            case UDFHelper.TYPE_TINYINT:
+            case UDFHelper.TYPE_SMALLINT:
+            case UDFHelper.TYPE_INT:
+            case UDFHelper.TYPE_BIGINT:
+            case UDFHelper.TYPE_FLOAT:
+            case UDFHelper.TYPE_DOUBLE:
+                return new ColumnView(type, numRows, nullBuffer, null, buffer[idx], false);
+            case UDFHelper.TYPE_VARCHAR:
+                return new ColumnView(type, numRows, nullBuffer, buffer[idx], buffer[idx + 1], false);
+            default:
+                throw new UnsupportedOperationException("Unsupported UDF TYPE:" + type);
+        }
+    }
+
+    // view of a column which only has null values
+    public static ColumnView createAllNull(int type, int numRows) {
+        return new ColumnView(type, numRows, null, null, null, true);
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public boolean hasNull() {
+        if (allNull) {
+            return numRows > 0;
+        }
+        if (nullBuffer == null) {
+            return false;
+        }
+        for (int i = 0; i < numRows; i++) {
+            if (nullBuffer.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isNull(int row) {
+        return allNull || (nullBuffer != null && nullBuffer.get(row) != 0);
+    }
+
+    public boolean getBoolean(int row) {
+        return dataBuffer.get(row) != 0;
+    }
+
+    public byte getByte(int row) {
+        return dataBuffer.get(row);
+    }
+
+    public short getShort(int row) {
+        return dataBuffer.getShort(row << 1);
+    }
+
+    public int getInt(int row) {
+        return dataBuffer.getInt(row << 2);
+    }
+
+    public long getLong(int row) {
+        return dataBuffer.getLong(row << 3);
+    }
+
+    public float getFloat(int row) {
+        return dataBuffer.getFloat(row << 2);
+    }
+
+    public double getDouble(int row) {
+        return dataBuffer.getDouble(row << 3);
+    }
+
+    // start position of the string in data buffer
+    public int getStringOffset(int row) {
+        return offsetBuffer.getInt(row << 2);
+    }
+
+    public int getStringLength(int row) {
+        return offsetBuffer.getInt((row + 1) << 2) - offsetBuffer.getInt(row << 2);
+    }
+
+    // copy the bytes of string at row to dst, return the length of the string
+    public int getBytes(int row, byte[] dst, int dstOffset) {
+        int offset = getStringOffset(row);
+        int length = getStringLength(row);
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = dataBuffer.get(offset + i);
+        }
+        return length;
+    }
+
+    public byte[] getBytes(int row) {
+        byte[] bytes = new byte[getStringLength(row)];
+        getBytes(row, bytes, 0);
+        return bytes;
+    }
+
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return new String(getBytes(row), StandardCharsets.UTF_8);
+    }
+
+    // raw data buffer, for UDF which wants to read the values in bulk
+    public ByteBuffer getDataBuffer() {
+        return dataBuffer;
+    }
+}
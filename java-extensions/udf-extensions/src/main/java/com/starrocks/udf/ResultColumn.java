@@ -0,0 +1,187 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.udf;
+
+import com.starrocks.utils.Platform;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.starrocks.utils.NativeMethodHelper.getAddrs;
+import static com.starrocks.utils.NativeMethodHelper.resizeStringData;
+
+// Result of VectorizedUDF.
+// Values are kept in a primitive array of the result type and copied to the BE column
+// with one memcpy per buffer, the same way as UDFHelper.getResultFromBoxedArray.
+// For string results, values should be set in row order, a skipped row is treated as an empty string.
+public class ResultColumn {
+    private final int type;
+    private final int numRows;
+    private final byte[] nulls;
+
+    private byte[] bytes;
+    private short[] shorts;
+    private int[] ints;
+    private long[] longs;
+    private float[] floats;
+    private double[] doubles;
+
+    // for string types
+    private int[] offsets;
+    private int lastStringRow = -1;
+    private int bytesSize = 0;
+
+    public ResultColumn(int type, int numRows) {
+        this.type = type;
+        this.numRows = numRows;
+        this.nulls = new byte[numRows];
+        switch (type) {
+            case UDFHelper.TYPE_BOOLEAN:
+            case UDFHelper.TYPE_TINYINT:
+                bytes = new byte[numRows];
+                break;
+            case UDFHelper.TYPE_SMALLINT:
+                shorts = new short[numRows];
+                break;
+            case UDFHelper.TYPE_INT:
+                ints = new int[numRows];
+                break;
+            case UDFHelper.TYPE_BIGINT:
+                longs = new long[numRows];
+                break;
+            case UDFHelper.TYPE_FLOAT:
+                floats = new float[numRows];
+                break;
+            case UDFHelper.TYPE_DOUBLE:
+                doubles = new double[numRows];
+                break;
+            case UDFHelper.TYPE_VARCHAR:
+                offsets = new int[numRows];
+                bytes = new byte[Math.max(16, numRows * 8)];
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported UDF TYPE:" + type);
+        }
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public void setNull(int row) {
+        nulls[row] = 1;
+        if (offsets != null) {
+            setBytes(row, null, 0, 0);
+        }
+    }
+
+    public void setBoolean(int row, boolean value) {
+        bytes[row] = (byte) (value ? 1 : 0);
+    }
+
+    public void setByte(int row, byte value) {
+        bytes[row] = value;
+    }
+
+    public void setShort(int row, short value) {
+        shorts[row] = value;
+    }
+
+    public void setInt(int row, int value) {
+        ints[row] = value;
+    }
+
+    public void setLong(int row, long value) {
+        longs[row] = value;
+    }
+
+    public void setFloat(int row, float value) {
+        floats[row] = value;
+    }
+
+    public void setDouble(int row, double value) {
+        doubles[row] = value;
+    }
+
+    public void setString(int row, String value) {
+        if (value == null) {
+            setNull(row);
+            return;
+        }
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        setBytes(row, data, 0, data.length);
+    }
+
+    // set the string value of row, rows must be set in ascending order
+    public void setBytes(int row, byte[] src, int srcOffset, int length) {
+        if (row <= lastStringRow) {
+            throw new IllegalStateException("string result should be set in row order, row: " + row);
+        }
+        // rows skipped are empty strings
+        for (int i = lastStringRow + 1; i < row; i++) {
+            offsets[i] = bytesSize;
+        }
+        if (bytesSize + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, bytesSize + length));
+        }
+        if (length > 0) {
+            System.arraycopy(src, srcOffset, bytes, bytesSize, length);
+        }
+        bytesSize += length;
+        offsets[row] = bytesSize;
+        lastStringRow = row;
+    }
+
+    // copy result to BE column
+    public void writeTo(long columnAddr) {
+        if (numRows == 0) {
+            return;
+        }
+        if (offsets != null) {
+            for (int i = lastStringRow + 1; i < numRows; i++) {
+                offsets[i] = bytesSize;
+            }
+            lastStringRow = numRows - 1;
+            final long bytesAddr = resizeStringData(columnAddr, bytesSize);
+            final long[] addrs = getAddrs(columnAddr);
+            Platform.copyMemory(nulls, Platform.BYTE_ARRAY_OFFSET, null, addrs[0], numRows);
+            Platform.copyMemory(offsets, Platform.INT_ARRAY_OFFSET, null, addrs[1] + 4, numRows * 4L);
+            Platform.copyMemory(bytes, Platform.BYTE_ARRAY_OFFSET, null, bytesAddr, bytesSize);
+            return;
+        }
+
+        final long[] addrs = getAddrs(columnAddr);
+        Platform.copyMemory(nulls, Platform.BYTE_ARRAY_OFFSET, null, addrs[0], numRows);
+        if (bytes != null) {
+            Platform.copyMemory(bytes, Platform.BYTE_ARRAY_OFFSET, null, addrs[1], numRows);
+        } else if (shorts != null) {
+            Platform.copyMemory(shorts, Platform.SHORT_ARRAY_OFFSET, null, addrs[1], numRows * 2L);
+        } else if (ints != null) {
+            Platform.copyMemory(ints, Platform.INT_ARRAY_OFFSET, null, addrs[1], numRows * 4L);
+        } else if (longs != null) {
+            Platform.copyMemory(longs, Platform.LONG_ARRAY_OFFSET, null, addrs[1], numRows * 8L);
+        } else if (floats != null) {
+            Platform.copyMemory(floats, Platform.FLOAT_ARRAY_OFFSET, null, addrs[1], numRows * 4L);
+        } else {
+            Platform.copyMemory(doubles, Platform.DOUBLE_ARRAY_OFFSET, null, addrs[1], numRows * 8L);
+        }
+    }
+
+    // for test
+    boolean isNull(int row) {
+        return nulls[row] != 0;
+    }
+
+    int[] getInts() {
+        return ints;
+    }
+
+    String getString(int row) {
+        int start = row == 0 ? 0 : offsets[row - 1];
+        return new String(bytes, start, offsets[row] - start, StandardCharsets.UTF_8);
+    }
+}
@@ -18,7 +18,14 @@ public class UDFClassLoader extends URLClassLoader {
 
     private Map<String, Class<?>> genClazzMap = new HashMap<>();
     private static final int SINGLE_BATCH_UPDATE = 1;
-    private static final int BATCH_EVALUATE = 2; 
+    private static final int BATCH_EVALUATE = 2;
+    private static final int BATCH_UPDATE = 3;
+    private static final int BATCH_UPDATE_IF_NOT_NULL = 4;
+    private static final int BATCH_MERGE = 5;
+    private static final int BATCH_MERGE_IF_NOT_NULL = 6;
+    private static final int BATCH_SERIALIZE = 7;
+    // clazz is the state class
+    private static final int BATCH_SERIALIZE_LENGTH = 8;
 
     public UDFClassLoader(String udfPath) throws IOException {
         super(new URL[] {new URL("file://" + udfPath)});
@@ -40,16 +47,29 @@ public class UDFClassLoader extends URLClassLoader {
             throw new UnsupportedOperationException(
                     "generate class name should start with " + CallStubGenerator.GEN_KEYWORD);
         }
+        String internalName = clazzName.replace(".", "/");
         byte[] bytes = null;
         if (genType == SINGLE_BATCH_UPDATE) {
             bytes = CallStubGenerator.generateCallStubV(clazz, method);
         } else if (genType == BATCH_EVALUATE) {
             bytes = CallStubGenerator.generateScalarCallStub(clazz, method);
+        } else if (genType == BATCH_UPDATE) {
+            bytes = CallStubGenerator.generateBatchUpdateStub(internalName, clazz, method);
+        } else if (genType == BATCH_UPDATE_IF_NOT_NULL) {
+            bytes = CallStubGenerator.generateBatchUpdateIfNotNullStub(internalName, clazz, method);
+        } else if (genType == BATCH_MERGE) {
+            bytes = CallStubGenerator.generateBatchMergeStub(internalName, clazz, method);
+        } else if (genType == BATCH_MERGE_IF_NOT_NULL) {
+            bytes = CallStubGenerator.generateBatchMergeIfNotNullStub(internalName, clazz, method);
+        } else if (genType == BATCH_SERIALIZE) {
+            bytes = CallStubGenerator.generateBatchSerializeStub(internalName, clazz, method);
+        } else if (genType == BATCH_SERIALIZE_LENGTH) {
+            bytes = CallStubGenerator.generateBatchSerializeLengthStub(internalName, clazz, method);
         } else {
             throw new UnsupportedOperationException("Unsupported generate stub type:" + genType);
         }
         final Class<?> genClazz = defineClass(clazzName, bytes, 0, bytes.length);
-        genClazzMap.put(name, genClazz);
+        genClazzMap.put(clazzName, genClazz);
         return genClazz;
     }
 }
@@ -510,6 +510,23 @@ public class UDFHelper {
         return nullBytes;
     }
 
+    // split the data buffer into one buffer for each row by offsets (numRows + 1 little-endian uint32),
+    // used to pass the serialized states to the merge and serialize stubs without copying
+    public static ByteBuffer[] createSliceBuffers(int numRows, ByteBuffer dataBuffer, ByteBuffer offsetBuffer) {
+        final IntBuffer intBuffer = offsetBuffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] offsets = new int[numRows + 1];
+        intBuffer.get(offsets);
+        ByteBuffer[] buffers = new ByteBuffer[numRows];
+        // offsets are ascending, so one duplicate is moved forward and sliced for each row
+        ByteBuffer buffer = dataBuffer.duplicate();
+        for (int i = 0; i < numRows; i++) {
+            buffer.limit(offsets[i + 1]);
+            buffer.position(offsets[i]);
+            buffers[i] = buffer.slice();
+        }
+        return buffers;
+    }
+
     public static Object[] createBoxedStringArray(int numRows, ByteBuffer nullBuffer, ByteBuffer offsetBuffer,
                                                   ByteBuffer dataBuffer) {
         final IntBuffer intBuffer = offsetBuffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
@@ -627,6 +644,27 @@ public class UDFHelper {
         }
     }
 
+    // create column view for vectorized UDF, buffers are the same as createBoxedArray
+    public static ColumnView createColumnView(int type, int numRows, boolean nullable, ByteBuffer... buffer) {
+        return ColumnView.create(type, numRows, nullable, buffer);
+    }
+
+    public static ColumnView createAllNullColumnView(int type, int numRows) {
+        return ColumnView.createAllNull(type, numRows);
+    }
+
+    // call VectorizedUDF and write the result to column
+    public static void vectorizedCall(Object o, int type, int numRows, Object[] columns, long columnAddr)
+            throws Exception {
+        ColumnView[] views = new ColumnView[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            views[i] = (ColumnView) columns[i];
+        }
+        ResultColumn result = new ResultColumn(type, numRows);
+        ((VectorizedUDF) o).evaluate(numRows, views, result);
+        result.writeTo(columnAddr);
+    }
+
     // batch call int()
     public static int[] batchCall(Object[] o, Method method, int batchSize)
             throws Throwable {
@@ -0,0 +1,28 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.udf;
+
+// Opt-in vectorized scalar UDF contract.
+//
+// A scalar UDF implementing this interface is called once per chunk instead of once per row.
+// Input columns are passed as ColumnView which read the BE column memory directly, the result is
+// written into ResultColumn and copied to the BE result column after evaluate returns.
+//
+// eg:
+// public class AddOne implements VectorizedUDF {
+//     public void evaluate(int numRows, ColumnView[] columns, ResultColumn result) {
+//         ColumnView c0 = columns[0];
+//         for (int i = 0; i < numRows; i++) {
+//             if (c0.isNull(i)) {
+//                 result.setNull(i);
+//             } else {
+//                 result.setInt(i, c0.getInt(i) + 1);
+//             }
+//         }
+//     }
+// }
+//
+// ColumnView is only valid during the call, UDF should not keep any reference of it.
+public interface VectorizedUDF {
+    void evaluate(int numRows, ColumnView[] columns, ResultColumn result) throws Exception;
+}
@@ -0,0 +1,237 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.udf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+// Compare the reflective batch calls in UDFHelper with the generated call stubs
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class CallStubBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CallStubBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    public static class SumFunc {
+        public static class State {
+            public long val = 0;
+        }
+
+        public void update(State state, Integer val) {
+            if (val != null) {
+                state.val += val;
+            }
+        }
+    }
+
+    public static class SumState {
+        public long val = 0;
+
+        public int serializeLength() {
+            return 8;
+        }
+    }
+
+    // merge and serialize of the sum, the state has serializeLength
+    public static class SerializableSumFunc {
+        public void merge(SumState state, ByteBuffer buffer) {
+            state.val += buffer.getLong();
+        }
+
+        public void serialize(SumState state, ByteBuffer buffer) {
+            buffer.putLong(state.val);
+        }
+    }
+
+    public static class AddFunc {
+        public Integer evaluate(Integer v1, Integer v2) {
+            return v1 + v2;
+        }
+    }
+
+    private static class StubClassLoader extends ClassLoader {
+        StubClassLoader(String clazzName, byte[] bytes) {
+            defineClass(clazzName, bytes, 0, bytes.length);
+        }
+    }
+
+    private static Method loadStub(byte[] bytes) throws Exception {
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        final Class<?> stubClazz = new StubClassLoader(genClassName, bytes).loadClass(genClassName);
+        for (Method method : stubClazz.getDeclaredMethods()) {
+            if (method.getName().equals("batchCallV")) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException("batchCallV");
+    }
+
+    @Param({"4096"})
+    public int rows;
+
+    private Integer[] boxedInputs;
+    private int[] stateIdx;
+
+    private final SumFunc sum = new SumFunc();
+    private final FunctionStates<SumFunc.State> sumStates = new FunctionStates<>();
+    private Method sumUpdate;
+    private Method sumUpdateStub;
+
+    private final SerializableSumFunc serializableSum = new SerializableSumFunc();
+    private final FunctionStates<SumState> serializableStates = new FunctionStates<>();
+    private ByteBuffer mergeData;
+    private ByteBuffer mergeOffsets;
+    private ByteBuffer serializeData;
+    private Method merge;
+    private Method mergeStub;
+    private Method serialize;
+    private Method serializeStub;
+    private Method serializeLength;
+    private Method serializeLengthStub;
+
+    private final AddFunc add = new AddFunc();
+    private Method addEvaluate;
+    private Method addStub;
+
+    @Setup
+    public void setup() throws Exception {
+        boxedInputs = new Integer[rows];
+        stateIdx = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            boxedInputs[i] = i;
+            stateIdx[i] = i % 16;
+        }
+        for (int i = 0; i < 16; i++) {
+            sumStates.add(new SumFunc.State());
+        }
+
+        sumUpdate = SumFunc.class.getMethod("update", SumFunc.State.class, Integer.class);
+        sumUpdateStub = loadStub(
+                CallStubGenerator.generateBatchUpdateStub(CallStubGenerator.CLAZZ_NAME, SumFunc.class, sumUpdate));
+
+        // one serialized long per row
+        mergeData = ByteBuffer.allocateDirect(rows * 8);
+        mergeOffsets = ByteBuffer.allocateDirect((rows + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < rows; i++) {
+            mergeData.putLong(i);
+            mergeOffsets.putInt(i * 8);
+        }
+        mergeOffsets.putInt(rows * 8);
+        mergeData.clear();
+        mergeOffsets.clear();
+        serializeData = ByteBuffer.allocateDirect(rows * 8);
+        for (int i = 0; i < 16; i++) {
+            serializableStates.add(new SumState());
+        }
+        merge = SerializableSumFunc.class.getMethod("merge", SumState.class, ByteBuffer.class);
+        mergeStub = loadStub(CallStubGenerator.generateBatchMergeStub(CallStubGenerator.CLAZZ_NAME,
+                SerializableSumFunc.class, merge));
+        serialize = SerializableSumFunc.class.getMethod("serialize", SumState.class, ByteBuffer.class);
+        serializeStub = loadStub(CallStubGenerator.generateBatchSerializeStub(CallStubGenerator.CLAZZ_NAME,
+                SerializableSumFunc.class, serialize));
+        serializeLength = SumState.class.getMethod("serializeLength");
+        serializeLengthStub = loadStub(CallStubGenerator.generateBatchSerializeLengthStub(
+                CallStubGenerator.CLAZZ_NAME, SumState.class, serializeLength));
+
+        addEvaluate = AddFunc.class.getMethod("evaluate", Integer.class, Integer.class);
+        addStub = loadStub(CallStubGenerator.generateScalarCallStub(AddFunc.class, addEvaluate));
+    }
+
+    @Benchmark
+    public void aggUpdateReflective() throws Throwable {
+        UDFHelper.batchUpdate(sum, sumUpdate, sumStates, stateIdx, new Object[][] {boxedInputs});
+    }
+
+    @Benchmark
+    public void aggUpdateStub() throws Exception {
+        sumUpdateStub.invoke(null, rows, sum, sumStates, stateIdx, boxedInputs);
+    }
+
+    @Benchmark
+    public Object scalarReflective() throws Throwable {
+        return UDFHelper.batchCall(add, addEvaluate, rows, new Object[][] {boxedInputs, boxedInputs});
+    }
+
+    @Benchmark
+    public Object scalarStub() throws Exception {
+        return addStub.invoke(null, rows, add, boxedInputs, boxedInputs);
+    }
+
+    // the per-row merge: one call with a reused buffer for each serialized state
+    @Benchmark
+    public void aggMergePerRow() throws Throwable {
+        ByteBuffer buffer = mergeData.duplicate();
+        for (int i = 0; i < rows; i++) {
+            buffer.limit((i + 1) * 8);
+            buffer.position(i * 8);
+            merge.invoke(serializableSum, serializableStates.get(stateIdx[i]), buffer);
+        }
+    }
+
+    @Benchmark
+    public void aggMergeStub() throws Exception {
+        mergeOffsets.clear();
+        ByteBuffer[] buffers = UDFHelper.createSliceBuffers(rows, mergeData, mergeOffsets);
+        mergeStub.invoke(null, rows, serializableSum, serializableStates, stateIdx, buffers);
+    }
+
+    // the per-row serialize: the lengths by UDFHelper.batchCall, then one call for each state
+    @Benchmark
+    public void aggSerializePerRow() throws Throwable {
+        Object[] batchStates = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            batchStates[i] = serializableStates.get(stateIdx[i]);
+        }
+        int[] sizes = UDFHelper.batchCall(batchStates, serializeLength, rows);
+        ByteBuffer buffer = serializeData.duplicate();
+        int offset = 0;
+        for (int i = 0; i < rows; i++) {
+            buffer.limit(offset + sizes[i]);
+            buffer.position(offset);
+            serialize.invoke(serializableSum, batchStates[i], buffer);
+            offset += sizes[i];
+        }
+    }
+
+    @Benchmark
+    public void aggSerializeStub() throws Exception {
+        int[] sizes = (int[]) serializeLengthStub.invoke(null, rows, serializableStates, stateIdx);
+        ByteBuffer offsets = ByteBuffer.allocateDirect((rows + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+        int offset = 0;
+        offsets.putInt(offset);
+        for (int i = 0; i < rows; i++) {
+            offset += sizes[i];
+            offsets.putInt(offset);
+        }
+        offsets.clear();
+        ByteBuffer[] buffers = UDFHelper.createSliceBuffers(rows, serializeData, offsets);
+        serializeStub.invoke(null, rows, serializableSum, serializableStates, stateIdx, buffers);
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public class CallStubGeneratorTest {
     public static class IntSumfunc {
@@ -144,4 +146,173 @@ public class CallStubGeneratorTest {
             Assert.assertEquals(expects[i], res[i]);
         }
     }
+
+    @Test
+    public void testAggBatchUpdateStub() throws Exception {
+        Class<?> clazz = IntSumfunc.class;
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        Method m = clazz.getMethod("update", IntSumfunc.State.class, Integer.class);
+        final byte[] updates = CallStubGenerator.generateBatchUpdateStub(CallStubGenerator.CLAZZ_NAME, clazz, m);
+
+        ClassLoader classLoader = new TestClassLoader(genClassName, updates);
+        final Class<?> stubClazz = classLoader.loadClass(genClassName);
+        Method batchCall = getFirstMethod(stubClazz, "batchCallV");
+
+        IntSumfunc sum = new IntSumfunc();
+        FunctionStates<IntSumfunc.State> states = new FunctionStates<>();
+        states.add(new IntSumfunc.State());
+        states.add(new IntSumfunc.State());
+
+        int testSize = 1000;
+        Integer[] inputs = new Integer[testSize];
+        int[] stateIdx = new int[testSize];
+        long[] expects = new long[2];
+        for (int i = 0; i < testSize; i++) {
+            inputs[i] = i;
+            stateIdx[i] = i % 2;
+            expects[i % 2] += i;
+        }
+
+        batchCall.invoke(null, testSize, sum, states, stateIdx, inputs);
+        Assert.assertEquals(expects[0], states.get(0).val);
+        Assert.assertEquals(expects[1], states.get(1).val);
+    }
+
+    @Test
+    public void testAggBatchUpdateIfNotNullStub() throws Exception {
+        Class<?> clazz = IntSumfunc.class;
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        Method m = clazz.getMethod("update", IntSumfunc.State.class, Integer.class);
+        final byte[] updates =
+                CallStubGenerator.generateBatchUpdateIfNotNullStub(CallStubGenerator.CLAZZ_NAME, clazz, m);
+
+        ClassLoader classLoader = new TestClassLoader(genClassName, updates);
+        final Class<?> stubClazz = classLoader.loadClass(genClassName);
+        Method batchCall = getFirstMethod(stubClazz, "batchCallV");
+
+        IntSumfunc sum = new IntSumfunc();
+        FunctionStates<IntSumfunc.State> states = new FunctionStates<>();
+        states.add(new IntSumfunc.State());
+
+        int testSize = 1000;
+        Integer[] inputs = new Integer[testSize];
+        int[] stateIdx = new int[testSize];
+        long expect = 0;
+        for (int i = 0; i < testSize; i++) {
+            inputs[i] = i;
+            if (i % 3 == 0) {
+                stateIdx[i] = -1;
+            } else {
+                expect += i;
+            }
+        }
+
+        batchCall.invoke(null, testSize, sum, states, stateIdx, inputs);
+        Assert.assertEquals(expect, states.get(0).val);
+    }
+
+    public static class LongSumfunc {
+        public static class State {
+            public long val = 0;
+
+            public int serializeLength() {
+                return 8;
+            }
+        }
+
+        public void merge(State state, ByteBuffer buffer) {
+            state.val += buffer.getLong();
+        }
+
+        public void serialize(State state, ByteBuffer buffer) {
+            buffer.putLong(state.val);
+        }
+    }
+
+    private static Method loadStub(byte[] bytes) throws Exception {
+        final String genClassName = CallStubGenerator.CLAZZ_NAME.replace("/", ".");
+        ClassLoader classLoader = new TestClassLoader(genClassName, bytes);
+        return getFirstMethod(classLoader.loadClass(genClassName), "batchCallV");
+    }
+
+    private static ByteBuffer toOffsetBuffer(int[] offsets) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(offsets.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int offset : offsets) {
+            buffer.putInt(offset);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    public void testAggBatchMergeStub() throws Exception {
+        Class<?> clazz = LongSumfunc.class;
+        Method m = clazz.getMethod("merge", LongSumfunc.State.class, ByteBuffer.class);
+        Method merge = loadStub(CallStubGenerator.generateBatchMergeStub(CallStubGenerator.CLAZZ_NAME, clazz, m));
+        Method mergeIfNotNull = loadStub(
+                CallStubGenerator.generateBatchMergeIfNotNullStub(CallStubGenerator.CLAZZ_NAME, clazz, m));
+
+        FunctionStates<LongSumfunc.State> states = new FunctionStates<>();
+        states.add(new LongSumfunc.State());
+        states.add(new LongSumfunc.State());
+
+        int testSize = 100;
+        ByteBuffer data = ByteBuffer.allocateDirect(testSize * 8);
+        int[] offsets = new int[testSize + 1];
+        int[] stateIdx = new int[testSize];
+        int[] nullableStateIdx = new int[testSize];
+        long[] expects = new long[2];
+        long expectNotNull = 0;
+        for (int i = 0; i < testSize; i++) {
+            data.putLong(i);
+            offsets[i + 1] = offsets[i] + 8;
+            stateIdx[i] = i % 2;
+            expects[i % 2] += i;
+            nullableStateIdx[i] = i % 3 == 0 ? -1 : 1;
+            expectNotNull += i % 3 == 0 ? 0 : i;
+        }
+
+        ByteBuffer[] buffers = UDFHelper.createSliceBuffers(testSize, data, toOffsetBuffer(offsets));
+        merge.invoke(null, testSize, new LongSumfunc(), states, stateIdx, buffers);
+        Assert.assertEquals(expects[0], states.get(0).val);
+        Assert.assertEquals(expects[1], states.get(1).val);
+
+        buffers = UDFHelper.createSliceBuffers(testSize, data, toOffsetBuffer(offsets));
+        mergeIfNotNull.invoke(null, testSize, new LongSumfunc(), states, nullableStateIdx, buffers);
+        Assert.assertEquals(expects[1] + expectNotNull, states.get(1).val);
+    }
+
+    @Test
+    public void testAggBatchSerializeStub() throws Exception {
+        Class<?> clazz = LongSumfunc.class;
+        Method m = clazz.getMethod("serialize", LongSumfunc.State.class, ByteBuffer.class);
+        Method serialize =
+                loadStub(CallStubGenerator.generateBatchSerializeStub(CallStubGenerator.CLAZZ_NAME, clazz, m));
+        m = LongSumfunc.State.class.getMethod("serializeLength");
+        Method serializeLength = loadStub(CallStubGenerator.generateBatchSerializeLengthStub(
+                CallStubGenerator.CLAZZ_NAME, LongSumfunc.State.class, m));
+
+        FunctionStates<LongSumfunc.State> states = new FunctionStates<>();
+        int testSize = 10;
+        int[] stateIdx = new int[testSize];
+        for (int i = 0; i < testSize; i++) {
+            LongSumfunc.State state = new LongSumfunc.State();
+            state.val = i * 10L;
+            stateIdx[i] = states.add(state);
+        }
+
+        final int[] sizes = (int[]) serializeLength.invoke(null, testSize, states, stateIdx);
+        int[] offsets = new int[testSize + 1];
+        for (int i = 0; i < testSize; i++) {
+            Assert.assertEquals(8, sizes[i]);
+            offsets[i + 1] = offsets[i] + sizes[i];
+        }
+
+        ByteBuffer data = ByteBuffer.allocateDirect(offsets[testSize]);
+        ByteBuffer[] buffers = UDFHelper.createSliceBuffers(testSize, data, toOffsetBuffer(offsets));
+        serialize.invoke(null, testSize, new LongSumfunc(), states, stateIdx, buffers);
+        for (int i = 0; i < testSize; i++) {
+            Assert.assertEquals(i * 10L, data.getLong(offsets[i]));
+        }
+    }
 }
@@ -0,0 +1,122 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Inc.
+
+package com.starrocks.udf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class VectorizedUDFTest {
+    public static class AddOne implements VectorizedUDF {
+        @Override
+        public void evaluate(int numRows, ColumnView[] columns, ResultColumn result) {
+            ColumnView c0 = columns[0];
+            for (int i = 0; i < numRows; i++) {
+                if (c0.isNull(i)) {
+                    result.setNull(i);
+                } else {
+                    result.setInt(i, c0.getInt(i) + 1);
+                }
+            }
+        }
+    }
+
+    public static class Concat implements VectorizedUDF {
+        @Override
+        public void evaluate(int numRows, ColumnView[] columns, ResultColumn result) {
+            byte[] buffer = new byte[64];
+            for (int i = 0; i < numRows; i++) {
+                if (columns[0].isNull(i) || columns[1].isNull(i)) {
+                    result.setNull(i);
+                    continue;
+                }
+                int len = columns[0].getBytes(i, buffer, 0);
+                len += columns[1].getBytes(i, buffer, len);
+                result.setBytes(i, buffer, 0, len);
+            }
+        }
+    }
+
+    private static ByteBuffer intBuffer(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int v : values) {
+            buffer.putInt(v);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private static ByteBuffer byteBuffer(byte... values) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(values.length);
+        buffer.put(values);
+        buffer.clear();
+        return buffer;
+    }
+
+    private static ColumnView stringView(byte[] nulls, String... values) {
+        int[] offsets = new int[values.length + 1];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            sb.append(values[i]);
+            offsets[i + 1] = offsets[i] + values[i].getBytes(StandardCharsets.UTF_8).length;
+        }
+        ByteBuffer data = byteBuffer(sb.toString().getBytes(StandardCharsets.UTF_8));
+        if (nulls == null) {
+            return ColumnView.create(UDFHelper.TYPE_VARCHAR, values.length, false, intBuffer(offsets), data);
+        }
+        return ColumnView.create(UDFHelper.TYPE_VARCHAR, values.length, true, byteBuffer(nulls), intBuffer(offsets),
+                data);
+    }
+
+    @Test
+    public void testIntColumn() throws Exception {
+        ColumnView view = ColumnView.create(UDFHelper.TYPE_INT, 4, true, byteBuffer((byte) 0, (byte) 1, (byte) 0,
+                (byte) 0), intBuffer(1, 0, -3, Integer.MAX_VALUE - 1));
+        Assert.assertTrue(view.hasNull());
+        ResultColumn result = new ResultColumn(UDFHelper.TYPE_INT, 4);
+        new AddOne().evaluate(4, new ColumnView[] {view}, result);
+        Assert.assertEquals(2, result.getInts()[0]);
+        Assert.assertTrue(result.isNull(1));
+        Assert.assertEquals(-2, result.getInts()[2]);
+        Assert.assertEquals(Integer.MAX_VALUE, result.getInts()[3]);
+    }
+
+    @Test
+    public void testNonNullableAndAllNullColumn() {
+        ColumnView view = ColumnView.create(UDFHelper.TYPE_INT, 2, false, intBuffer(7, 8));
+        Assert.assertFalse(view.hasNull());
+        Assert.assertFalse(view.isNull(1));
+        Assert.assertEquals(8, view.getInt(1));
+
+        ColumnView nullView = ColumnView.createAllNull(UDFHelper.TYPE_INT, 2);
+        Assert.assertTrue(nullView.hasNull());
+        Assert.assertTrue(nullView.isNull(0));
+    }
+
+    @Test
+    public void testStringColumn() throws Exception {
+        ColumnView c0 = stringView(null, "ab", "", "starrocks", "x");
+        ColumnView c1 = stringView(new byte[] {0, 0, 1, 0}, "1", "22", "", "\u4e2d\u6587");
+        Assert.assertEquals("starrocks", c0.getString(2));
+        Assert.assertNull(c1.getString(2));
+        Assert.assertEquals(6, c1.getStringLength(3));
+
+        ResultColumn result = new ResultColumn(UDFHelper.TYPE_VARCHAR, 4);
+        new Concat().evaluate(4, new ColumnView[] {c0, c1}, result);
+        Assert.assertEquals("ab1", result.getString(0));
+        Assert.assertEquals("22", result.getString(1));
+        Assert.assertTrue(result.isNull(2));
+        Assert.assertEquals("", result.getString(2));
+        Assert.assertEquals("x\u4e2d\u6587", result.getString(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStringResultOutOfOrder() {
+        ResultColumn result = new ResultColumn(UDFHelper.TYPE_VARCHAR, 2);
+        result.setString(1, "b");
+        result.setString(0, "a");
+    }
+}